@@ -0,0 +1,12 @@
+package com.catalog.productms.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveProductMsApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveProductMsApplication.class, args);
+    }
+}
@@ -0,0 +1,20 @@
+package com.catalog.productms.reactive.config;
+
+import com.catalog.productms.reactive.tenant.TenancyProperties;
+import com.catalog.productms.reactive.tenant.TenantFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.tenancy", name = "enabled", havingValue = "true")
+    public TenantFilter tenantFilter(TenancyProperties properties, ObjectMapper objectMapper) {
+        return new TenantFilter(properties, objectMapper);
+    }
+}
@@ -0,0 +1,203 @@
+package com.catalog.productms.reactive.controller;
+
+import com.catalog.productms.reactive.dto.BulkProductResponse;
+import com.catalog.productms.reactive.dto.ErrorResponse;
+import com.catalog.productms.reactive.dto.PageResponse;
+import com.catalog.productms.reactive.dto.ProductRequest;
+import com.catalog.productms.reactive.dto.ProductResponse;
+import com.catalog.productms.reactive.entity.Product;
+import com.catalog.productms.reactive.service.OptimisticRetry;
+import com.catalog.productms.reactive.service.ProductService;
+import com.catalog.productms.reactive.service.ProductSort;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The servlet ProductController's endpoints and contracts on WebFlux. Unpaginated listings
+ * and searches are returned as a Flux, so the JSON array is written while rows are still
+ * being read instead of after the whole result is in memory.
+ */
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+public class ProductController {
+
+    static final int MAX_BULK_IDS = 1000;
+
+    private final ProductService productService;
+    private final OptimisticRetry optimisticRetry;
+
+    @PostMapping
+    public Mono<ResponseEntity<ProductResponse>> createProduct(@Valid @RequestBody ProductRequest request) {
+        return productService.createProduct(request)
+                .map(product -> withETag(ResponseEntity.status(HttpStatus.CREATED), product)
+                        .body(ProductResponse.fromEntity(product)));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponse>> updateProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ProductRequest request) {
+        Mono<Product> updated = ifMatch == null
+                ? optimisticRetry.execute(() -> productService.updateProduct(id, request))
+                : productService.updateProduct(id, request, parseIfMatch(ifMatch));
+        return updated.map(product -> withETag(ResponseEntity.ok(), product).body(ProductResponse.fromEntity(product)));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductResponse>> getProductById(@PathVariable String id) {
+        return productService.getProductById(id)
+                .map(product -> withETag(ResponseEntity.ok(), product).body(ProductResponse.fromEntity(product)));
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        
+        Sort order;
+        try {
+            order = ProductSort.parse(sort, direction);
+        } catch (IllegalArgumentException ex) {
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        
+        if (page != null || size != null) {
+            return ResponseEntity.ok(productService.getAllProducts(pageRequest(page, size, order))
+                    .map(productPage -> PageResponse.fromPage(productPage.map(ProductResponse::fromEntity))));
+        }
+        
+        Flux<Product> products = order.isSorted()
+                ? productService.getAllProducts(order)
+                : productService.getAllProducts();
+        return ResponseEntity.ok(products.map(ProductResponse::fromEntity));
+    }
+
+    @GetMapping(params = "ids")
+    public Mono<ResponseEntity<?>> getProductsByIds(@RequestParam List<String> ids) {
+        
+        // Trim, drop blanks and de-duplicate while keeping request order
+        Set<String> requestedIds = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                requestedIds.add(id.trim());
+            }
+        }
+        
+        if (requestedIds.isEmpty() || requestedIds.size() > MAX_BULK_IDS) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Parameter 'ids' must contain between 1 and " + MAX_BULK_IDS + " product IDs"
+            );
+            return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+        }
+        
+        return productService.getProductsByIds(requestedIds).map(found -> {
+            Map<String, ProductResponse> products = new LinkedHashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String id : requestedIds) {
+                Product product = found.get(id);
+                if (product != null) {
+                    products.put(id, ProductResponse.fromEntity(product));
+                } else {
+                    missing.add(id);
+                }
+            }
+            return ResponseEntity.ok(new BulkProductResponse(products, missing));
+        });
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(name = "min_price", required = false) BigDecimal minPrice,
+            @RequestParam(name = "max_price", required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction) {
+        
+        Sort order;
+        try {
+            order = ProductSort.parse(sort, direction);
+        } catch (IllegalArgumentException ex) {
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        
+        if (page != null || size != null) {
+            return ResponseEntity.ok(productService.searchProducts(q, minPrice, maxPrice, pageRequest(page, size, order))
+                    .map(productPage -> PageResponse.fromPage(productPage.map(ProductResponse::fromEntity))));
+        }
+        
+        Flux<Product> products = order.isSorted()
+                ? productService.searchProducts(q, minPrice, maxPrice, order)
+                : productService.searchProducts(q, minPrice, maxPrice);
+        return ResponseEntity.ok(products.map(ProductResponse::fromEntity));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable String id) {
+        return productService.deleteProduct(id).thenReturn(ResponseEntity.ok().<Void>build());
+    }
+
+    @DeleteMapping
+    public Mono<ResponseEntity<Void>> deleteAllProducts() {
+        return productService.deleteAllProducts().thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
+    // Unsorted pages fall back to ID order so page boundaries do not shift between requests
+    private static Pageable pageRequest(Integer page, Integer size, Sort order) {
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? Math.min(size, 100) : 20; // Max 100 items per page
+        return PageRequest.of(pageNumber, pageSize, order.isSorted() ? order : ProductSort.DEFAULT);
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder response, Product product) {
+        return product.getVersion() != null ? response.eTag(Long.toString(product.getVersion())) : response;
+    }
+
+    /**
+     * The versions an If-Match header accepts; null for "*". Weak and foreign tags never
+     * match, since If-Match uses strong comparison.
+     */
+    static Set<Long> parseIfMatch(String ifMatch) {
+        if ("*".equals(ifMatch.trim())) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // not an ETag issued by this service
+                }
+            }
+        }
+        return versions;
+    }
+}
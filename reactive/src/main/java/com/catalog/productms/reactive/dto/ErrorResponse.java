@@ -0,0 +1,18 @@
+package com.catalog.productms.reactive.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErrorResponse {
+
+    @JsonProperty("status_code")
+    private Integer statusCode;
+
+    private String message;
+}
+
@@ -0,0 +1,29 @@
+package com.catalog.productms.reactive.dto;
+
+import com.catalog.productms.reactive.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductResponse {
+
+    private String id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+
+    public static ProductResponse fromEntity(Product product) {
+        return new ProductResponse(
+            product.getId(),
+            product.getName(),
+            product.getDescription(),
+            product.getPrice()
+        );
+    }
+}
+
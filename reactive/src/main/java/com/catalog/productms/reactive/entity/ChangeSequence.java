@@ -0,0 +1,21 @@
+package com.catalog.productms.reactive.entity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of Product.changeSeq, with the servlet service's semantics: the wall clock in
+ * microseconds, forced strictly increasing within this JVM.
+ */
+public final class ChangeSequence {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private ChangeSequence() {
+    }
+
+    public static long next() {
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        return LAST.accumulateAndGet(now, (last, clock) -> Math.max(last + 1, clock));
+    }
+}
@@ -0,0 +1,47 @@
+package com.catalog.productms.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// Maps the products table owned by the servlet service's Flyway migrations
+@Table("products")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Product {
+
+    // Assigned by the service; a null version is what marks the row as new
+    @Id
+    private String id;
+
+    // Set on insert and never changed; every query of the service filters on it
+    @Column("tenant_id")
+    private String tenantId;
+
+    private String name;
+
+    private String description;
+
+    private BigDecimal price;
+
+    // Same watermark the servlet service's catalog snapshot catches up on
+    @Column("change_seq")
+    private Long changeSeq;
+
+    @Column("created_at")
+    private Instant createdAt;
+
+    @Column("updated_at")
+    private Instant updatedAt;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,176 @@
+package com.catalog.productms.reactive.exception;
+
+import com.catalog.productms.reactive.dto.ErrorResponse;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+import org.springframework.web.server.MethodNotAllowedException;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.UnsupportedMediaTypeStatusException;
+
+import java.util.stream.Collectors;
+
+/**
+ * The servlet GlobalExceptionHandler's status codes and messages for the WebFlux
+ * exception types. WebFlux reports missing parameters, type mismatches and unreadable bodies
+ * as ServerWebInputException, so those are told apart by subtype and cause.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(ProductNotFoundException.class)
+    public ResponseEntity<Void> handleProductNotFound(ProductNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    @ExceptionHandler(ProductAlreadyExistsException.class)
+    public ResponseEntity<ErrorResponse> handleProductAlreadyExists(ProductAlreadyExistsException ex) {
+        ErrorResponse error = new ErrorResponse(400, ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ProductVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleVersionMismatch(ProductVersionMismatchException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.PRECONDITION_FAILED.value(),
+            ex.getMessage() + ". Fetch the product again and retry with its current ETag."
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(Long.toString(ex.getCurrentVersion()))
+                .body(errorResponse);
+    }
+
+    // Another update committed between this request's read and its write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "The product was modified concurrently. Fetch it again and retry."
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationException(WebExchangeBindException ex) {
+        String message = ex.getBindingResult().getFieldErrors().stream()
+                .map(FieldError::getDefaultMessage)
+                .collect(Collectors.joining(", "));
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            message.isEmpty() ? "Validation error" : message
+        );
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(MissingRequestValueException.class)
+    public ResponseEntity<ErrorResponse> handleMissingParameter(MissingRequestValueException ex) {
+        String message = String.format("Missing required parameter: %s", ex.getName());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            message
+        );
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ErrorResponse> handleServerWebInput(ServerWebInputException ex) {
+        String message;
+        if (ex.getCause() instanceof TypeMismatchException mismatch) {
+            message = String.format("Invalid parameter type for '%s'. Expected type: %s",
+                parameterName(ex.getMethodParameter(), mismatch),
+                mismatch.getRequiredType() != null ? mismatch.getRequiredType().getSimpleName() : "unknown"
+            );
+        } else {
+            message = "Invalid request format. Please check your JSON structure and data types.";
+        }
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            message
+        );
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(MethodNotAllowedException.class)
+    public ResponseEntity<ErrorResponse> handleMethodNotSupported(MethodNotAllowedException ex) {
+        String message = String.format("HTTP method %s is not supported for this endpoint", ex.getHttpMethod());
+        
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.METHOD_NOT_ALLOWED.value(),
+            message
+        );
+        
+        return ResponseEntity.status(HttpStatus.METHOD_NOT_ALLOWED).body(errorResponse);
+    }
+
+    @ExceptionHandler(UnsupportedMediaTypeStatusException.class)
+    public ResponseEntity<ErrorResponse> handleMediaTypeNotSupported(UnsupportedMediaTypeStatusException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.UNSUPPORTED_MEDIA_TYPE.value(),
+            "Unsupported media type. Please use 'application/json'"
+        );
+        
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE).body(errorResponse);
+    }
+
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNoResourceFound(NoResourceFoundException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.NOT_FOUND.value(),
+            "The requested endpoint does not exist"
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.BAD_REQUEST.value(),
+            "Data integrity violation. Please check your input data."
+        );
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.INTERNAL_SERVER_ERROR.value(),
+            "An unexpected error occurred"
+        );
+        
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
+    // The request parameter name (min_price), not the Java parameter name (minPrice)
+    private static String parameterName(MethodParameter parameter, TypeMismatchException mismatch) {
+        if (parameter != null) {
+            RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+            if (requestParam != null && !requestParam.name().isEmpty()) {
+                return requestParam.name();
+            }
+            if (parameter.getParameterName() != null) {
+                return parameter.getParameterName();
+            }
+        }
+        return mismatch.getPropertyName();
+    }
+}
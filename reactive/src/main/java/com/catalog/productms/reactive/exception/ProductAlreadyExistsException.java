@@ -0,0 +1,7 @@
+package com.catalog.productms.reactive.exception;
+
+public class ProductAlreadyExistsException extends RuntimeException {
+    public ProductAlreadyExistsException(String message) {
+        super(message);
+    }
+}
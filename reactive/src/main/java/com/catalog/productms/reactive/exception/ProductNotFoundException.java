@@ -0,0 +1,8 @@
+package com.catalog.productms.reactive.exception;
+
+public class ProductNotFoundException extends RuntimeException {
+    public ProductNotFoundException(String id) {
+        super("Product not found with id: " + id);
+    }
+}
+
@@ -0,0 +1,14 @@
+package com.catalog.productms.reactive.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ProductVersionMismatchException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public ProductVersionMismatchException(String id, long currentVersion) {
+        super("Product " + id + " has changed (current version " + currentVersion + ")");
+        this.currentVersion = currentVersion;
+    }
+}
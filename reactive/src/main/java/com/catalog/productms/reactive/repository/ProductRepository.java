@@ -0,0 +1,39 @@
+package com.catalog.productms.reactive.repository;
+
+import com.catalog.productms.reactive.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Every query names the tenant whose rows it reads; the inherited CRUD lookups (findById,
+ * findAll, count, deleteAll) see every tenant and are left to save and delete of rows
+ * already read through these.
+ */
+@Repository
+public interface ProductRepository extends R2dbcRepository<Product, String>, ProductSearchRepository {
+
+    Mono<Product> findByTenantIdAndId(String tenantId, String id);
+
+    Flux<Product> findAllByTenantIdAndIdIn(String tenantId, Collection<String> ids);
+
+    Flux<Product> findAllByTenantId(String tenantId, Sort sort);
+
+    // LIMIT/OFFSET page in the pageable's order
+    Flux<Product> findAllByTenantId(String tenantId, Pageable pageable);
+
+    Mono<Long> countByTenantId(String tenantId);
+
+    Mono<Boolean> existsByTenantIdAndNameAndDescription(String tenantId, String name, String description);
+
+    @Modifying
+    @Query("DELETE FROM products WHERE tenant_id = :tenantId")
+    Mono<Long> deleteAllByTenantId(String tenantId);
+}
@@ -0,0 +1,23 @@
+package com.catalog.productms.reactive.repository;
+
+import com.catalog.productms.reactive.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Search with the servlet service's filter: q matches name or description case-insensitively
+ * as a LIKE substring, and each price bound is inclusive. Null parameters do not filter; the
+ * tenant always does.
+ */
+public interface ProductSearchRepository {
+
+    Flux<Product> searchProducts(String tenantId, String q, BigDecimal minPrice, BigDecimal maxPrice, Sort sort);
+
+    Flux<Product> searchProducts(String tenantId, String q, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
+    Mono<Long> countProducts(String tenantId, String q, BigDecimal minPrice, BigDecimal maxPrice);
+}
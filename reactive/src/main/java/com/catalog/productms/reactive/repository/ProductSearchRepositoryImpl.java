@@ -0,0 +1,55 @@
+package com.catalog.productms.reactive.repository;
+
+import com.catalog.productms.reactive.entity.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private final R2dbcEntityTemplate template;
+
+    ProductSearchRepositoryImpl(R2dbcEntityTemplate template) {
+        this.template = template;
+    }
+
+    @Override
+    public Flux<Product> searchProducts(String tenantId, String q, BigDecimal minPrice, BigDecimal maxPrice, Sort sort) {
+        return template.select(Query.query(filter(tenantId, q, minPrice, maxPrice)).sort(sort), Product.class);
+    }
+
+    @Override
+    public Flux<Product> searchProducts(String tenantId, String q, BigDecimal minPrice, BigDecimal maxPrice,
+                                        Pageable pageable) {
+        return template.select(Query.query(filter(tenantId, q, minPrice, maxPrice)).with(pageable), Product.class);
+    }
+
+    @Override
+    public Mono<Long> countProducts(String tenantId, String q, BigDecimal minPrice, BigDecimal maxPrice) {
+        return template.count(Query.query(filter(tenantId, q, minPrice, maxPrice)), Product.class);
+    }
+
+    // Same semantics as ProductRepository.SEARCH_FILTER in the servlet service: q is not
+    // escaped, so '%' and '_' keep their LIKE meaning
+    static Criteria filter(String tenantId, String q, BigDecimal minPrice, BigDecimal maxPrice) {
+        Criteria criteria = Criteria.where("tenantId").is(tenantId);
+        if (q != null) {
+            String pattern = "%" + q + "%";
+            criteria = criteria.and(Criteria.where("name").like(pattern).ignoreCase(true)
+                    .or("description").like(pattern).ignoreCase(true));
+        }
+        if (minPrice != null) {
+            criteria = criteria.and("price").greaterThanOrEquals(minPrice);
+        }
+        if (maxPrice != null) {
+            criteria = criteria.and("price").lessThanOrEquals(maxPrice);
+        }
+        return criteria;
+    }
+}
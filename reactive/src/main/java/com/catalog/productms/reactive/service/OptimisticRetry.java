@@ -0,0 +1,38 @@
+package com.catalog.productms.reactive.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Re-subscribes a read-modify-write that lost an optimistic-lock race or hit another
+ * transient concurrency failure. Each attempt subscribes to a fresh publisher from the
+ * supplier, so the action must open its own transaction (a @Transactional service call).
+ * Waits grow exponentially with jitter and never block a thread; once the attempts are used
+ * up the last failure is propagated unchanged.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final RetryBackoffSpec retry;
+
+    public OptimisticRetry(@Value("${product.optimistic-lock.max-attempts:5}") int maxAttempts,
+                           @Value("${product.optimistic-lock.initial-backoff-ms:5}") long initialBackoffMs,
+                           @Value("${product.optimistic-lock.max-backoff-ms:100}") long maxBackoffMs) {
+        this.retry = Retry.backoff(Math.max(1, maxAttempts) - 1, Duration.ofMillis(initialBackoffMs))
+                .maxBackoff(Duration.ofMillis(Math.max(initialBackoffMs, maxBackoffMs)))
+                .jitter(1.0)
+                .filter(ConcurrencyFailureException.class::isInstance)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    public <T> Mono<T> execute(Supplier<Mono<T>> action) {
+        return Mono.defer(action).retryWhen(retry);
+    }
+}
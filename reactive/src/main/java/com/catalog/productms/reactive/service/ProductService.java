@@ -0,0 +1,160 @@
+package com.catalog.productms.reactive.service;
+
+import com.catalog.productms.reactive.dto.ProductRequest;
+import com.catalog.productms.reactive.entity.ChangeSequence;
+import com.catalog.productms.reactive.entity.Product;
+import com.catalog.productms.reactive.exception.ProductAlreadyExistsException;
+import com.catalog.productms.reactive.exception.ProductNotFoundException;
+import com.catalog.productms.reactive.exception.ProductVersionMismatchException;
+import com.catalog.productms.reactive.repository.ProductRepository;
+import com.catalog.productms.reactive.tenant.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The servlet ProductService's operations as publishers. Nothing here blocks: each call
+ * returns once the query is assembled, and rows flow as the driver reads them. Every
+ * operation works on the catalog of the subscriber's tenant ({@link TenantContext}).
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductService {
+
+    // Keeps each IN (...) list well below driver/optimizer limits
+    static final int BULK_LOOKUP_CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+
+    @Transactional
+    public Mono<Product> createProduct(ProductRequest request) {
+        return TenantContext.current().flatMap(tenant -> productRepository
+                .existsByTenantIdAndNameAndDescription(tenant, request.getName(), request.getDescription())
+                .flatMap(exists -> {
+                    if (exists) {
+                        return Mono.error(new ProductAlreadyExistsException(
+                            "Product with name '" + request.getName() + "' and description '" + request.getDescription() + "' already exists"
+                        ));
+                    }
+                    Product product = new Product();
+                    product.setId(UUID.randomUUID().toString());
+                    product.setTenantId(tenant);
+                    apply(product, request);
+                    product.setCreatedAt(product.getUpdatedAt());
+                    return productRepository.save(product);
+                }));
+    }
+
+    @Transactional
+    public Mono<Product> updateProduct(String id, ProductRequest request) {
+        return updateProduct(id, request, null);
+    }
+
+    /**
+     * Updates the product only if it is still at one of the expected versions (the If-Match
+     * ETags); null skips the check. The UPDATE itself is guarded by the version it read, so a
+     * concurrent update that commits first fails it with an optimistic-lock error.
+     */
+    @Transactional
+    public Mono<Product> updateProduct(String id, ProductRequest request, Set<Long> expectedVersions) {
+        return find(id)
+                .flatMap(product -> {
+                    if (expectedVersions != null && !expectedVersions.contains(product.getVersion())) {
+                        return Mono.error(new ProductVersionMismatchException(id, product.getVersion()));
+                    }
+                    apply(product, request);
+                    return productRepository.save(product);
+                });
+    }
+
+    public Mono<Product> getProductById(String id) {
+        return find(id);
+    }
+
+    // One IN query per chunk instead of one findById per id
+    public Mono<Map<String, Product>> getProductsByIds(Collection<String> ids) {
+        List<String> idList = List.copyOf(ids);
+        return TenantContext.current().flatMap(tenant -> Flux
+                .range(0, (idList.size() + BULK_LOOKUP_CHUNK_SIZE - 1) / BULK_LOOKUP_CHUNK_SIZE)
+                .concatMap(chunk -> productRepository.findAllByTenantIdAndIdIn(tenant,
+                        idList.subList(chunk * BULK_LOOKUP_CHUNK_SIZE,
+                                Math.min((chunk + 1) * BULK_LOOKUP_CHUNK_SIZE, idList.size()))))
+                .collectMap(Product::getId));
+    }
+
+    public Flux<Product> getAllProducts() {
+        return getAllProducts(ProductSort.DEFAULT);
+    }
+
+    public Flux<Product> getAllProducts(Sort sort) {
+        return TenantContext.current().flatMapMany(tenant -> productRepository.findAllByTenantId(tenant, sort));
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<Page<Product>> getAllProducts(Pageable pageable) {
+        return TenantContext.current().flatMap(tenant -> page(productRepository.findAllByTenantId(tenant, pageable),
+                productRepository.countByTenantId(tenant), pageable));
+    }
+
+    public Flux<Product> searchProducts(String q, BigDecimal minPrice, BigDecimal maxPrice) {
+        return searchProducts(q, minPrice, maxPrice, ProductSort.DEFAULT);
+    }
+
+    public Flux<Product> searchProducts(String q, BigDecimal minPrice, BigDecimal maxPrice, Sort sort) {
+        return TenantContext.current()
+                .flatMapMany(tenant -> productRepository.searchProducts(tenant, q, minPrice, maxPrice, sort));
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<Page<Product>> searchProducts(String q, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        return TenantContext.current().flatMap(tenant -> page(
+                productRepository.searchProducts(tenant, q, minPrice, maxPrice, pageable),
+                productRepository.countProducts(tenant, q, minPrice, maxPrice), pageable));
+    }
+
+    @Transactional
+    public Mono<Void> deleteProduct(String id) {
+        return find(id).flatMap(productRepository::delete);
+    }
+
+    // Only the caller's catalog
+    @Transactional
+    public Mono<Void> deleteAllProducts() {
+        return TenantContext.current().flatMap(productRepository::deleteAllByTenantId).then();
+    }
+
+    // Another tenant's product is not found, the same as one that does not exist
+    private Mono<Product> find(String id) {
+        return TenantContext.current()
+                .flatMap(tenant -> productRepository.findByTenantIdAndId(tenant, id))
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(id)));
+    }
+
+    private static void apply(Product product, ProductRequest request) {
+        product.setName(request.getName());
+        product.setDescription(request.getDescription());
+        product.setPrice(request.getPrice());
+        product.setChangeSeq(ChangeSequence.next());
+        product.setUpdatedAt(Instant.now());
+    }
+
+    // The page and count queries run one after the other on the transaction's connection
+    private static Mono<Page<Product>> page(Flux<Product> content, Mono<Long> total, Pageable pageable) {
+        return content.collectList()
+                .flatMap(rows -> total.<Page<Product>>map(count -> new PageImpl<>(rows, pageable, count)));
+    }
+}
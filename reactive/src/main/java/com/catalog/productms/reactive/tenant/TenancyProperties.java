@@ -0,0 +1,22 @@
+package com.catalog.productms.reactive.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Same properties as the servlet service's, so both can be deployed from one configuration
+@Data
+@ConfigurationProperties(prefix = "product.tenancy")
+public class TenancyProperties {
+
+    // Off: every request works on the default tenant, as before tenants existed
+    private boolean enabled = false;
+
+    // Header naming the tenant; required on every product request while enabled
+    private String header = "X-Tenant-Id";
+
+    // Tenants the header may name; empty accepts any well-formed id
+    private List<String> tenants = new ArrayList<>();
+}
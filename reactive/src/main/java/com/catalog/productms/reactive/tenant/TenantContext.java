@@ -0,0 +1,29 @@
+package com.catalog.productms.reactive.tenant;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * The tenant whose catalog a request works on. Requests hop between event-loop threads, so
+ * the tenant travels in the subscriber context instead of a ThreadLocal: the tenant filter
+ * writes it there and every query reads it back with {@link #current()}. Without tenancy
+ * nothing is written and every request works on the default tenant, which owns all rows that
+ * existed before the tenant column.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT = "default";
+
+    private static final Class<TenantContext> KEY = TenantContext.class;
+
+    private TenantContext() {
+    }
+
+    public static Mono<String> current() {
+        return Mono.deferContextual(context -> Mono.just(context.getOrDefault(KEY, DEFAULT)));
+    }
+
+    public static Context with(String tenant) {
+        return Context.of(KEY, tenant);
+    }
+}
@@ -0,0 +1,66 @@
+package com.catalog.productms.reactive.tenant;
+
+import com.catalog.productms.reactive.dto.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant of a product request from its header, the same way the servlet
+ * service's filter does, and puts it in the subscriber context of the rest of the chain.
+ * Requests without a tenant, or naming one that is malformed or not configured, get 400
+ * before any query runs.
+ */
+public class TenantFilter implements WebFilter {
+
+    // Tenant ids end up in queries and logs, so they are kept short and plain
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final String header;
+    private final Set<String> tenants;
+    private final ObjectMapper objectMapper;
+
+    public TenantFilter(TenancyProperties properties, ObjectMapper objectMapper) {
+        this.header = properties.getHeader();
+        this.tenants = Set.copyOf(properties.getTenants());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        if (!path.equals("/products") && !path.startsWith("/products/")) {
+            return chain.filter(exchange);
+        }
+        String tenant = exchange.getRequest().getHeaders().getFirst(header);
+        if (tenant == null || tenant.isBlank()) {
+            return reject(exchange.getResponse(), "Missing " + header + " header");
+        }
+        String trimmed = tenant.trim();
+        if (!TENANT_ID.matcher(trimmed).matches() || (!tenants.isEmpty() && !tenants.contains(trimmed))) {
+            return reject(exchange.getResponse(), "Unknown tenant in " + header + " header");
+        }
+        return chain.filter(exchange).contextWrite(TenantContext.with(trimmed));
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, String message) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(new ErrorResponse(HttpStatus.BAD_REQUEST.value(), message));
+        } catch (JsonProcessingException ex) {
+            return Mono.error(ex);
+        }
+        response.setStatusCode(HttpStatus.BAD_REQUEST);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
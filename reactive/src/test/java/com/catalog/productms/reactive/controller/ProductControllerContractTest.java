@@ -0,0 +1,264 @@
+package com.catalog.productms.reactive.controller;
+
+import com.catalog.productms.reactive.dto.ProductRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The servlet API's response contracts (status codes, ETags, ProductResponse, PageResponse
+ * and ErrorResponse JSON), checked end to end against H2 over R2DBC.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ProductControllerContractTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client.delete().uri("/products").exchange().expectStatus().isNoContent();
+    }
+
+    @Test
+    void createProduct_ShouldReturn201WithETagAndProductResponse() {
+        client.post().uri("/products")
+                .bodyValue(request("Laptop", "Gaming laptop", "1299.99"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isNotEmpty()
+                .jsonPath("$.name").isEqualTo("Laptop")
+                .jsonPath("$.description").isEqualTo("Gaming laptop")
+                .jsonPath("$.price").isEqualTo(1299.99)
+                .jsonPath("$.version").doesNotExist();
+    }
+
+    @Test
+    void createProduct_WhenInvalid_ShouldReturnErrorResponse() {
+        client.post().uri("/products")
+                .bodyValue(Map.of("name", "", "description", "d", "price", 1))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status_code").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Name is required");
+    }
+
+    @Test
+    void createProduct_WhenDuplicate_ShouldReturn400() {
+        create("Laptop", "Gaming laptop", "1299.99");
+
+        client.post().uri("/products")
+                .bodyValue(request("Laptop", "Gaming laptop", "999.99"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status_code").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Product with name 'Laptop' and description 'Gaming laptop' already exists");
+    }
+
+    @Test
+    void createProduct_WhenBodyIsMalformed_ShouldReturn400() {
+        client.post().uri("/products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\": ")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid request format. Please check your JSON structure and data types.");
+    }
+
+    @Test
+    void createProduct_WhenMediaTypeIsUnsupported_ShouldReturn415() {
+        client.post().uri("/products")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("Laptop")
+                .exchange()
+                .expectStatus().isEqualTo(415)
+                .expectBody()
+                .jsonPath("$.status_code").isEqualTo(415);
+    }
+
+    @Test
+    void getProductById_ShouldReturnProductWithETag_Or404WithoutBody() {
+        String id = create("Laptop", "Gaming laptop", "1299.99");
+
+        client.get().uri("/products/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(id);
+        client.get().uri("/products/{id}", "missing")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void updateProduct_ShouldHonourIfMatch() {
+        String id = create("Laptop", "Gaming laptop", "1299.99");
+
+        client.put().uri("/products/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(request("Laptop", "Gaming laptop", "1199.99"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.price").isEqualTo(1199.99);
+        client.put().uri("/products/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(request("Laptop", "Gaming laptop", "999.99"))
+                .exchange()
+                .expectStatus().isEqualTo(412)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.status_code").isEqualTo(412);
+        client.put().uri("/products/{id}", id)
+                .bodyValue(request("Laptop", "Gaming laptop", "899.99"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"");
+    }
+
+    @Test
+    void getAllProducts_ShouldStreamListOrReturnPageResponse() {
+        create("B", "second", "20.00");
+        create("A", "first", "30.00");
+        create("C", "third", "10.00");
+
+        client.get().uri("/products?sort=price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].name").isEqualTo("C")
+                .jsonPath("$[2].name").isEqualTo("A");
+        client.get().uri("/products?page=1&size=2&sort=name&direction=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].name").isEqualTo("A")
+                .jsonPath("$.pageNumber").isEqualTo(1)
+                .jsonPath("$.pageSize").isEqualTo(2)
+                .jsonPath("$.totalElements").isEqualTo(3)
+                .jsonPath("$.totalPages").isEqualTo(2)
+                .jsonPath("$.first").isEqualTo(false)
+                .jsonPath("$.last").isEqualTo(true)
+                .jsonPath("$.hasNext").isEqualTo(false)
+                .jsonPath("$.hasPrevious").isEqualTo(true);
+    }
+
+    @Test
+    void getAllProducts_WhenSortIsUnknown_ShouldReturn400() {
+        client.get().uri("/products?sort=color")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status_code").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Parameter 'sort' must be one of: price, name, created_at");
+    }
+
+    @Test
+    void getProductsByIds_ShouldReturnFoundAndMissing() {
+        String id = create("Laptop", "Gaming laptop", "1299.99");
+
+        client.get().uri("/products?ids={ids}", id + ", missing," + id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.products['" + id + "'].name").isEqualTo("Laptop")
+                .jsonPath("$.missing.length()").isEqualTo(1)
+                .jsonPath("$.missing[0]").isEqualTo("missing");
+        client.get().uri("/products?ids=,")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Parameter 'ids' must contain between 1 and 1000 product IDs");
+    }
+
+    @Test
+    void searchProducts_ShouldFilterLikeTheServletService() {
+        create("Gaming Laptop", "Fast", "1500.00");
+        create("Office laptop", "Light", "700.00");
+        create("Phone", "Has a LAPTOP mode", "300.00");
+        create("Tablet", "Slate", "400.00");
+
+        client.get().uri("/products/search?q=laptop&max_price=1000&sort=price")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Phone")
+                .jsonPath("$[1].name").isEqualTo("Office laptop");
+        client.get().uri("/products/search?q=laptop&page=0&size=2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.totalElements").isEqualTo(3);
+    }
+
+    @Test
+    void searchProducts_WhenPriceIsNotANumber_ShouldReturn400() {
+        client.get().uri("/products/search?min_price=cheap")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid parameter type for 'min_price'. Expected type: BigDecimal");
+    }
+
+    @Test
+    void deleteProduct_ShouldReturn200Then404() {
+        String id = create("Laptop", "Gaming laptop", "1299.99");
+
+        client.delete().uri("/products/{id}", id).exchange().expectStatus().isOk();
+        client.delete().uri("/products/{id}", id).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void unknownEndpointAndMethod_ShouldReturnErrorResponses() {
+        client.get().uri("/nowhere")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("The requested endpoint does not exist");
+        client.patch().uri("/products/1")
+                .bodyValue(Map.of())
+                .exchange()
+                .expectStatus().isEqualTo(405)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("HTTP method PATCH is not supported for this endpoint");
+    }
+
+    private String create(String name, String description, String price) {
+        Map<?, ?> body = client.post().uri("/products")
+                .bodyValue(request(name, description, price))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(body);
+        return (String) body.get("id");
+    }
+
+    private static ProductRequest request(String name, String description, String price) {
+        return new ProductRequest(name, description, new BigDecimal(price));
+    }
+}
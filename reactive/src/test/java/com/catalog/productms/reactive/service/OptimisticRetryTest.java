@@ -0,0 +1,52 @@
+package com.catalog.productms.reactive.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    @Test
+    void execute_ShouldResubscribeUntilTheActionSucceeds() {
+        OptimisticRetry retry = new OptimisticRetry(5, 1, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(retry.execute(() -> calls.incrementAndGet() < 3
+                        ? Mono.error(new OptimisticLockingFailureException("conflict"))
+                        : Mono.just("done")))
+                .expectNext("done")
+                .verifyComplete();
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_ShouldGiveUpAfterMaxAttemptsWithTheOriginalFailure() {
+        OptimisticRetry retry = new OptimisticRetry(3, 1, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(retry.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.error(new OptimisticLockingFailureException("conflict"));
+                }))
+                .verifyError(OptimisticLockingFailureException.class);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_ShouldNotRetryOtherFailures() {
+        OptimisticRetry retry = new OptimisticRetry(3, 1, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        StepVerifier.create(retry.execute(() -> {
+                    calls.incrementAndGet();
+                    return Mono.error(new IllegalArgumentException());
+                }))
+                .verifyError(IllegalArgumentException.class);
+        assertEquals(1, calls.get());
+    }
+}
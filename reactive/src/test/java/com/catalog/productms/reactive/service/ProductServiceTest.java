@@ -0,0 +1,136 @@
+package com.catalog.productms.reactive.service;
+
+import com.catalog.productms.reactive.dto.ProductRequest;
+import com.catalog.productms.reactive.entity.Product;
+import com.catalog.productms.reactive.exception.ProductAlreadyExistsException;
+import com.catalog.productms.reactive.exception.ProductNotFoundException;
+import com.catalog.productms.reactive.exception.ProductVersionMismatchException;
+import com.catalog.productms.reactive.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductService productService;
+
+    private Product product;
+    private ProductRequest productRequest;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product();
+        product.setId("123");
+        product.setName("Test Product");
+        product.setDescription("Test Description");
+        product.setPrice(new BigDecimal("99.99"));
+        product.setVersion(2L);
+
+        productRequest = new ProductRequest("Test Product", "Test Description", new BigDecimal("99.99"));
+    }
+
+    @Test
+    void createProduct_ShouldAssignIdAndTimestamps() {
+        when(productRepository.existsByTenantIdAndNameAndDescription("default", "Test Product", "Test Description")).thenReturn(Mono.just(false));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(productService.createProduct(productRequest))
+                .assertNext(created -> {
+                    assertNotNull(created.getId());
+                    assertEquals("default", created.getTenantId());
+                    assertNull(created.getVersion());
+                    assertNotNull(created.getChangeSeq());
+                    assertEquals(created.getUpdatedAt(), created.getCreatedAt());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void createProduct_WhenDuplicate_ShouldFail() {
+        when(productRepository.existsByTenantIdAndNameAndDescription("default", "Test Product", "Test Description")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(productService.createProduct(productRequest))
+                .verifyError(ProductAlreadyExistsException.class);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void updateProduct_WhenVersionDoesNotMatch_ShouldFailWithCurrentVersion() {
+        when(productRepository.findByTenantIdAndId("default", "123")).thenReturn(Mono.just(product));
+
+        StepVerifier.create(productService.updateProduct("123", productRequest, Set.of(1L)))
+                .expectErrorSatisfies(error -> assertEquals(2L,
+                        assertInstanceOf(ProductVersionMismatchException.class, error).getCurrentVersion()))
+                .verify();
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    @Test
+    void updateProduct_WhenMissing_ShouldFail() {
+        when(productRepository.findByTenantIdAndId("default", "404")).thenReturn(Mono.empty());
+
+        StepVerifier.create(productService.updateProduct("404", productRequest))
+                .verifyError(ProductNotFoundException.class);
+    }
+
+    @Test
+    void getProductsByIds_ShouldQueryInChunks() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ProductService.BULK_LOOKUP_CHUNK_SIZE + 1; i++) {
+            ids.add("id-" + i);
+        }
+        when(productRepository.findAllByTenantIdAndIdIn(eq("default"), anyCollection())).thenReturn(Flux.just(product));
+
+        StepVerifier.create(productService.getProductsByIds(ids))
+                .assertNext(found -> assertEquals(Set.of("123"), found.keySet()))
+                .verifyComplete();
+        verify(productRepository, times(2)).findAllByTenantIdAndIdIn(eq("default"), anyCollection());
+    }
+
+    @Test
+    void getAllProducts_WithPageable_ShouldCombineRowsAndCount() {
+        PageRequest pageable = PageRequest.of(1, 1, ProductSort.DEFAULT);
+        when(productRepository.findAllByTenantId("default", pageable)).thenReturn(Flux.just(product));
+        when(productRepository.countByTenantId("default")).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(productService.getAllProducts(pageable))
+                .assertNext(page -> {
+                    assertEquals(List.of(product), page.getContent());
+                    assertEquals(3, page.getTotalElements());
+                    assertTrue(page.hasNext());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void deleteProduct_WhenMissing_ShouldFail() {
+        when(productRepository.findByTenantIdAndId("default", "404")).thenReturn(Mono.empty());
+
+        StepVerifier.create(productService.deleteProduct("404"))
+                .verifyError(ProductNotFoundException.class);
+        verify(productRepository, never()).delete(any(Product.class));
+    }
+}
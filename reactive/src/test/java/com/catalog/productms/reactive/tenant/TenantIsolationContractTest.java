@@ -0,0 +1,105 @@
+package com.catalog.productms.reactive.tenant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The servlet service's tenant isolation, checked end to end against H2 over R2DBC: one
+ * tenant never reads, changes or deletes another tenant's products.
+ */
+@SpringBootTest(properties = {"product.tenancy.enabled=true", "product.tenancy.tenants=acme,globex"})
+@AutoConfigureWebTestClient
+class TenantIsolationContractTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        for (String tenant : new String[] {"acme", "globex"}) {
+            client.delete().uri("/products").header("X-Tenant-Id", tenant).exchange().expectStatus().isNoContent();
+        }
+    }
+
+    @Test
+    void productRequests_WithoutAKnownTenant_ShouldReturn400() {
+        client.get().uri("/products")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status_code").isEqualTo(400)
+                .jsonPath("$.message").isEqualTo("Missing X-Tenant-Id header");
+        client.get().uri("/products/search?q=x")
+                .header("X-Tenant-Id", "initech")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Unknown tenant in X-Tenant-Id header");
+    }
+
+    @Test
+    void products_ShouldOnlyBeVisibleToTheirTenant() {
+        String id = create("acme", "Anvil");
+        create("globex", "Anvil");
+
+        client.get().uri("/products/{id}", id).header("X-Tenant-Id", "globex")
+                .exchange()
+                .expectStatus().isNotFound();
+        client.put().uri("/products/{id}", id).header("X-Tenant-Id", "globex")
+                .bodyValue(Map.of("name", "Stolen", "description", "d", "price", 1))
+                .exchange()
+                .expectStatus().isNotFound();
+        client.get().uri("/products?ids={id}", id).header("X-Tenant-Id", "globex")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.missing[0]").isEqualTo(id);
+        client.get().uri("/products/search?q=anvil&page=0&size=10").header("X-Tenant-Id", "acme")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.content[0].id").isEqualTo(id);
+    }
+
+    @Test
+    void deleteAllProducts_ShouldOnlyClearTheCallersCatalog() {
+        String id = create("acme", "Anvil");
+        create("globex", "Rocket");
+
+        client.delete().uri("/products").header("X-Tenant-Id", "globex").exchange().expectStatus().isNoContent();
+
+        client.get().uri("/products").header("X-Tenant-Id", "globex")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(0);
+        client.get().uri("/products?page=0&size=10").header("X-Tenant-Id", "acme")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.content[0].id").isEqualTo(id);
+    }
+
+    private String create(String tenant, String name) {
+        Map<?, ?> body = client.post().uri("/products")
+                .header("X-Tenant-Id", tenant)
+                .bodyValue(Map.of("name", name, "description", "Sold by " + tenant, "price", 10))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Map.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(body);
+        return (String) body.get("id");
+    }
+}
@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+#
+# Runs the load-test harness against the servlet service and then the reactive variant, one
+# at a time on the same database, and prints both summaries.
+#
+#   scripts/compare-stacks.sh
+#
+# Build both jars first:
+#   mvn package -DskipTests && mvn -f reactive/pom.xml package -DskipTests
+#
+# Environment:
+#   LOADTEST_PROFILES  profiles to run (default: read-heavy,search-mix,browse,delete-storm;
+#                      bulk-ingest needs the import endpoint, which only the servlet service has)
+#   LOADTEST_ARGS      extra -D flags for the harness, e.g. "-Dloadtest.read-heavy.rate=5000"
+#   JAVA_OPTS          JVM flags, identical for both services (default: -Xms512m -Xmx512m)
+#   DB_*               database of both services, as usual (docker compose up -d mysql)
+#
+# The servlet service runs first so that its Flyway migrations create the schema. Rate limiting
+# is switched off for both runs; the harness is a single client. SLO breaches are reported but
+# do not stop the comparison.
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+PROFILES="${LOADTEST_PROFILES:-read-heavy,search-mix,browse,delete-storm}"
+TIMEOUT_SECONDS="${STARTUP_TIMEOUT_SECONDS:-120}"
+read -r -a JVM_FLAGS <<< "${JAVA_OPTS:--Xms512m -Xmx512m}"
+read -r -a EXTRA_ARGS <<< "${LOADTEST_ARGS:-}"
+
+SERVLET_JAR="$(ls "$ROOT"/target/product-ms-*.jar 2>/dev/null | grep -v original | head -n 1 || true)"
+REACTIVE_JAR="$(ls "$ROOT"/reactive/target/product-ms-reactive-*.jar 2>/dev/null | grep -v original | head -n 1 || true)"
+if [[ -z "$SERVLET_JAR" || -z "$REACTIVE_JAR" ]]; then
+  echo "Build both jars first: mvn package -DskipTests && mvn -f reactive/pom.xml package -DskipTests" >&2
+  exit 1
+fi
+
+# Starts a jar on a port, waits for it to answer, runs the harness, stops it
+run_stack() {
+  local name="$1" jar="$2" port="$3" base="http://localhost:$3" pid waited=0
+  mkdir -p "$ROOT/target/loadtest"
+  SERVER_PORT="$port" RATE_LIMIT_ENABLED=false \
+      java "${JVM_FLAGS[@]}" -jar "$jar" > "$ROOT/target/loadtest/$name-app.log" 2>&1 &
+  pid=$!
+  until [[ "$(curl -s -o /dev/null -w '%{http_code}' "$base/products/compare-probe" || true)" == "404" ]]; do
+    if ! kill -0 "$pid" 2>/dev/null || (( waited >= TIMEOUT_SECONDS * 10 )); then
+      kill "$pid" 2>/dev/null || true
+      echo "$name did not start; see target/loadtest/$name-app.log" >&2
+      exit 1
+    fi
+    sleep 0.1
+    waited=$(( waited + 1 ))
+  done
+
+  # Same starting catalog for both runs
+  curl -s -o /dev/null -X DELETE "$base/products"
+  echo "== $name ($base)"
+  (cd "$ROOT" && mvn -q -Ploadtest verify -DskipTests \
+      -Dloadtest.target-url="$base" \
+      -Dloadtest.profiles="$PROFILES" \
+      -Dloadtest.report-dir="$ROOT/target/loadtest/$name" \
+      "${EXTRA_ARGS[@]}") || echo "$name: SLO breached or harness failed"
+
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+}
+
+run_stack servlet "$SERVLET_JAR" 8085
+run_stack reactive "$REACTIVE_JAR" 8086
+
+for name in servlet reactive; do
+  echo
+  echo "== $name"
+  cat "$ROOT/target/loadtest/$name/summary.txt"
+done
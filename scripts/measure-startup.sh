@@ -0,0 +1,121 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch to the first successful GET /products/{id}.
+#
+#   scripts/measure-startup.sh jar [runs]   # target/product-ms-<version>.jar     (mvn package -DskipTests)
+#   scripts/measure-startup.sh aot [runs]   # target/application + AOT cache    (mvn -Paot package -DskipTests)
+#
+# Environment:
+#   SPRING_PROFILES_ACTIVE  profile for the run (default: prod; the aot build always runs the profile it was built for)
+#   PRODUCT_ID              product to request; when unset, the warm-up run creates one
+#   JAVA_OPTS               extra JVM flags, identical for every mode being compared (default: -Xms512m -Xmx512m)
+#   SERVER_PORT, DB_*       passed through to the application as usual
+#
+# Every mode starts with one discarded warm-up run (page cache, product creation), then reports each run
+# and min / median / max in milliseconds. Keep the database, host load and flags the same between modes.
+
+set -euo pipefail
+
+MODE="${1:-jar}"
+RUNS="${2:-5}"
+PORT="${SERVER_PORT:-8085}"
+BASE_URL="http://localhost:${PORT}"
+TIMEOUT_SECONDS="${STARTUP_TIMEOUT_SECONDS:-120}"
+export SPRING_PROFILES_ACTIVE="${SPRING_PROFILES_ACTIVE:-prod}"
+read -r -a JVM_FLAGS <<< "${JAVA_OPTS:--Xms512m -Xmx512m}"
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+JAR_NAME="$(cd "$ROOT" && ls target/product-ms-*.jar 2>/dev/null | grep -v original | head -n 1 | xargs -r basename)"
+if [[ -z "$JAR_NAME" ]]; then
+  echo "No application jar in target/; build it first" >&2
+  exit 1
+fi
+
+case "$MODE" in
+  jar)
+    WORKDIR="$ROOT/target"
+    COMMAND=(java "${JVM_FLAGS[@]}" -jar "$JAR_NAME")
+    ;;
+  aot)
+    WORKDIR="$ROOT/target/application"
+    if [[ ! -f "$WORKDIR/product-ms.aot" ]]; then
+      echo "No AOT cache in target/application; run: mvn -Paot package -DskipTests" >&2
+      exit 1
+    fi
+    COMMAND=(java "${JVM_FLAGS[@]}" -XX:AOTCache=product-ms.aot -Dspring.aot.enabled=true -jar "$JAR_NAME")
+    ;;
+  *)
+    echo "Unknown mode '$MODE' (expected jar or aot)" >&2
+    exit 1
+    ;;
+esac
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+status_of() {
+  curl -s -o /dev/null -w '%{http_code}' "$1" || true
+}
+
+# Starts the application and waits until $1 answers with one of the accepted codes.
+# Sets ELAPSED (milliseconds since launch) and APP_PID.
+measure() {
+  local url="$1" accepted="$2" started pid code
+  started="$(now_ms)"
+  (cd "$WORKDIR" && exec "${COMMAND[@]}" > "$ROOT/target/startup-run.log" 2>&1) &
+  pid=$!
+  while true; do
+    code="$(status_of "$url")"
+    if [[ " $accepted " == *" $code "* ]]; then
+      break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "Application exited during startup; see target/startup-run.log" >&2
+      exit 1
+    fi
+    if (( $(now_ms) - started > TIMEOUT_SECONDS * 1000 )); then
+      kill "$pid" 2>/dev/null || true
+      echo "No response from $url within ${TIMEOUT_SECONDS}s; see target/startup-run.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  ELAPSED=$(( $(now_ms) - started ))
+  APP_PID="$pid"
+}
+
+stop() {
+  kill "$APP_PID" 2>/dev/null || true
+  wait "$APP_PID" 2>/dev/null || true
+}
+
+echo "Mode: $MODE, profile: $SPRING_PROFILES_ACTIVE, runs: $RUNS"
+
+# Warm-up run, also used to create the product that later runs request
+if [[ -z "${PRODUCT_ID:-}" ]]; then
+  measure "$BASE_URL/products/startup-probe" "200 404"
+  PRODUCT_ID="$(curl -s -X POST "$BASE_URL/products" -H 'Content-Type: application/json' \
+      -d "{\"name\":\"startup-probe-$(date +%s%N)\",\"description\":\"Created by measure-startup.sh\",\"price\":1.00}" \
+      | sed -n 's/.*"id":"\([^"]*\)".*/\1/p')"
+  stop
+  if [[ -z "$PRODUCT_ID" ]]; then
+    echo "Could not create a product for the measurement; set PRODUCT_ID" >&2
+    exit 1
+  fi
+  echo "Created product $PRODUCT_ID"
+else
+  measure "$BASE_URL/products/$PRODUCT_ID" "200"
+  stop
+fi
+
+RESULTS=()
+for (( run = 1; run <= RUNS; run++ )); do
+  measure "$BASE_URL/products/$PRODUCT_ID" "200"
+  stop
+  RESULTS+=("$ELAPSED")
+  echo "Run $run: ${ELAPSED} ms"
+done
+
+mapfile -t SORTED < <(printf '%s\n' "${RESULTS[@]}" | sort -n)
+echo "min ${SORTED[0]} ms, median ${SORTED[$(( RUNS / 2 ))]} ms, max ${SORTED[$(( RUNS - 1 ))]} ms"
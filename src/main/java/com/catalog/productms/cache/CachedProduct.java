@@ -0,0 +1,99 @@
+package com.catalog.productms.cache;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.store.Money;
+import com.catalog.productms.tenant.TenantContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Immutable copy of a product held by the cache tiers, with every field the API returns
+ * (including the version used as ETag) and the tenant it belongs to. The price is held as
+ * cents (see {@link Money}). The shared tier stores it as:
+ *
+ * <pre>
+ * value   := formatVersion:i8 | utf(id) | utf(name) | utf(description)
+ *            | priceCents:i64 | long?(changeSeq) | instant?(createdAt)
+ *            | instant?(updatedAt) | long?(version) | utf(tenantId)
+ * long?   := present:bool [ i64 ]
+ * instant? := present:bool [ epochSecond:i64 | nano:i32 ]
+ * </pre>
+ */
+record CachedProduct(String id, String name, String description, long priceCents, Long changeSeq,
+                     Instant createdAt, Instant updatedAt, Long version, String tenantId) {
+
+    private static final int FORMAT_VERSION = 3;
+
+    static CachedProduct of(Product product) {
+        return new CachedProduct(product.getId(), product.getName(), product.getDescription(),
+                Money.toCents(product.getPrice()), product.getChangeSeq(), product.getCreatedAt(),
+                product.getUpdatedAt(), product.getVersion(),
+                product.getTenantId() != null ? product.getTenantId() : TenantContext.current());
+    }
+
+    Product toProduct() {
+        return new Product(id, name, description, Money.toPrice(priceCents), changeSeq, createdAt, updatedAt, version,
+                tenantId);
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128 + description.length());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(id);
+            out.writeUTF(name);
+            out.writeUTF(description);
+            out.writeLong(priceCents);
+            writeLong(out, changeSeq);
+            writeInstant(out, createdAt);
+            writeInstant(out, updatedAt);
+            writeLong(out, version);
+            out.writeUTF(tenantId);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Null for anything this version cannot read, so a format change only costs misses
+    static CachedProduct decode(byte[] value) {
+        if (value.length == 0 || value[0] != FORMAT_VERSION) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(value, 1, value.length - 1))) {
+            return new CachedProduct(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong(),
+                    readLong(in), readInstant(in), readInstant(in), readLong(in), in.readUTF());
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getEpochSecond());
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Instant.ofEpochSecond(in.readLong(), in.readInt()) : null;
+    }
+}
@@ -0,0 +1,366 @@
+package com.catalog.productms.cache;
+
+import com.catalog.productms.dto.PageResponse;
+import com.catalog.productms.dto.ProductResponse;
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.search.CatalogSearchEngine;
+import com.catalog.productms.search.ProductFilter;
+import com.catalog.productms.service.ProductChangedEvent;
+import com.catalog.productms.service.ProductService;
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.tenant.TenancyProperties;
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.tenant.TenantQuota;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Page;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pre-rendered JSON for the most requested listing and search pages. Every paged request
+ * is counted; a background refresh ranks the pages by a decaying request rate and renders
+ * the top N through ProductService, so a hit is written out without a query or a pass
+ * through the serializer.
+ *
+ * <p>A write only drops the pages it can change: pages whose filter the product matched
+ * neither before nor after keep their bytes, as do pages it stays entirely in front of or
+ * behind. Writes on other instances are not seen, which max-age bounds.
+ *
+ * <p>Pages belong to the tenant that requested them and are rendered as that tenant. Each
+ * tenant may hold at most its quota of the tracked pages and of the top N, so one tenant's
+ * traffic cannot push the pages of the others out.
+ */
+@Slf4j
+public class HotPageCache implements SmartLifecycle {
+
+    // Weight of the previous score at each refresh
+    private static final double DECAY = 0.5;
+    // Roughly one request per refresh interval; colder pages are not rendered
+    private static final double HOT_SCORE = 1.0;
+    private static final double IDLE_SCORE = 0.001;
+
+    private final HotPageProperties properties;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+    private final long maxAgeNanos;
+    private final long renewAfterNanos;
+    private final TenantQuota trackedKeys;
+    private final int topNPerTenant;
+    private final ConcurrentHashMap<PageKey, Slot> slots = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter renders;
+    private final Counter renderErrors;
+    private final Counter invalidations;
+
+    private volatile ScheduledExecutorService executor;
+
+    public HotPageCache(HotPageProperties properties, ProductService productService, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry, TenancyProperties tenancy) {
+        this(properties, productService, objectMapper, meterRegistry, tenancy, System::nanoTime);
+    }
+
+    HotPageCache(HotPageProperties properties, ProductService productService, ObjectMapper objectMapper,
+                 MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this(properties, productService, objectMapper, meterRegistry, new TenancyProperties(), nanoClock);
+    }
+
+    HotPageCache(HotPageProperties properties, ProductService productService, ObjectMapper objectMapper,
+                 MeterRegistry meterRegistry, TenancyProperties tenancy, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxAgeMs());
+        // Hot pages are rendered again one refresh before they expire
+        this.renewAfterNanos = Math.max(0, maxAgeNanos - TimeUnit.MILLISECONDS.toNanos(properties.getRefreshIntervalMs()));
+        this.trackedKeys = tenancy.quota(properties.getMaxTrackedKeys());
+        this.topNPerTenant = tenancy.quota(properties.getTopN()).limit();
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.renders = Counter.builder("product.hotpages.renders")
+                .description("Hot pages rendered by the background refresh")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.renderErrors = Counter.builder("product.hotpages.renders")
+                .description("Hot pages rendered by the background refresh")
+                .tag("result", "error")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("product.hotpages.invalidations")
+                .description("Rendered pages dropped because a write could change them")
+                .register(meterRegistry);
+        Gauge.builder("product.hotpages.materialized", this, HotPageCache::materialized)
+                .description("Pages currently held rendered")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The rendered page for key, or null when it is not hot, not rendered yet, invalidated
+     * or older than max-age. Counts the request either way.
+     */
+    public byte[] get(PageKey key) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Slot slot = slots.get(key);
+        if (slot == null) {
+            if (slots.size() >= properties.getMaxTrackedKeys() || !trackedKeys.tryAcquire(key.tenant())) {
+                misses.increment();
+                return null;
+            }
+            Slot created = new Slot(key);
+            slot = slots.putIfAbsent(key, created);
+            if (slot == null) {
+                slot = created;
+            } else {
+                trackedKeys.release(key.tenant());
+            }
+        }
+        slot.requests.increment();
+        Rendered rendered = slot.rendered;
+        if (rendered != null && nanoClock.getAsLong() - rendered.renderedAt() <= maxAgeNanos) {
+            hits.increment();
+            return rendered.body();
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-page-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, properties.getRefreshIntervalMs(),
+                properties.getRefreshIntervalMs(), TimeUnit.MILLISECONDS);
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        for (Slot slot : slots.values()) {
+            if (!slot.key.tenant().equals(event.tenant())) {
+                continue;
+            }
+            synchronized (slot) {
+                // A render in flight may have read the state before this write
+                if (slot.rendering || event.type() == ProductChangedEvent.Type.CLEARED || affects(slot, event)) {
+                    invalidate(slot);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops every page of the tenant. For writes that bypass ProductService and publish no
+     * ProductChangedEvent, such as a catalog import.
+     */
+    public void invalidateTenant(String tenant) {
+        for (Slot slot : slots.values()) {
+            if (slot.key.tenant().equals(tenant)) {
+                synchronized (slot) {
+                    invalidate(slot);
+                }
+            }
+        }
+    }
+
+    // Called with the slot's lock held; the version bump also discards a render in flight
+    private void invalidate(Slot slot) {
+        slot.version++;
+        if (slot.rendered != null) {
+            slot.rendered = null;
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Decays the request scores, forgets idle pages and renders the hot ones that are
+     * missing or about to expire. Runs on the refresh thread only.
+     */
+    void refresh() {
+        List<Slot> ranked = new ArrayList<>(slots.size());
+        for (Slot slot : slots.values()) {
+            slot.score = slot.score * DECAY + slot.requests.sumThenReset();
+            if (slot.score < IDLE_SCORE) {
+                if (slots.remove(slot.key, slot)) {
+                    trackedKeys.release(slot.key.tenant());
+                }
+            } else {
+                ranked.add(slot);
+            }
+        }
+        ranked.sort(Comparator.comparingDouble((Slot slot) -> slot.score).reversed());
+        int hot = 0;
+        Map<String, Integer> hotPerTenant = new HashMap<>();
+        for (Slot slot : ranked) {
+            if (hot >= properties.getTopN() || slot.score < HOT_SCORE
+                    || hotPerTenant.merge(slot.key.tenant(), 1, Integer::sum) > topNPerTenant) {
+                slot.rendered = null;
+                continue;
+            }
+            hot++;
+            Rendered rendered = slot.rendered;
+            if (rendered == null || nanoClock.getAsLong() - rendered.renderedAt() >= renewAfterNanos) {
+                render(slot);
+            }
+        }
+    }
+
+    int materialized() {
+        int count = 0;
+        for (Slot slot : slots.values()) {
+            if (slot.rendered != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void render(Slot slot) {
+        long version;
+        synchronized (slot) {
+            version = slot.version;
+            slot.rendering = true;
+        }
+        Rendered rendered = null;
+        try {
+            long start = nanoClock.getAsLong();
+            PageKey key = slot.key;
+            Page<Product> page = TenantContext.callAs(key.tenant(), () -> key.search()
+                    ? productService.searchProducts(key.q(), key.minPrice(), key.maxPrice(), key.pageable())
+                    : productService.getAllProducts(key.pageable()));
+            byte[] body = objectMapper.writeValueAsBytes(PageResponse.fromPage(page.map(ProductResponse::fromEntity)));
+            List<Product> content = page.getContent();
+            rendered = new Rendered(body, start,
+                    content.stream().map(Product::getId).collect(Collectors.toUnmodifiableSet()),
+                    content.isEmpty() ? null : CatalogEntry.of(content.getFirst()),
+                    content.isEmpty() ? null : CatalogEntry.of(content.getLast()));
+            renders.increment();
+        } catch (RuntimeException | JsonProcessingException ex) {
+            renderErrors.increment();
+            log.warn("Rendering hot page {} failed", slot.key, ex);
+        } finally {
+            synchronized (slot) {
+                slot.rendering = false;
+                // Kept only if no write could have changed the page while it was read
+                if (rendered != null && slot.version == version) {
+                    slot.rendered = rendered;
+                }
+            }
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Hot page refresh failed", ex);
+        }
+    }
+
+    // Whether the write can change the page content or its totals
+    private static boolean affects(Slot slot, ProductChangedEvent event) {
+        if (event.previous() == null && event.type() == ProductChangedEvent.Type.DELETED) {
+            return true;
+        }
+        CatalogEntry before = event.previous() != null ? CatalogEntry.of(event.previous()) : null;
+        CatalogEntry after = event.product() != null ? CatalogEntry.of(event.product()) : null;
+        boolean matchedBefore = before != null && slot.filter.matches(before);
+        boolean matchesAfter = after != null && slot.filter.matches(after);
+        if (!matchedBefore && !matchesAfter) {
+            return false;
+        }
+        Rendered rendered = slot.rendered;
+        if (matchedBefore != matchesAfter || rendered == null) {
+            return true;
+        }
+        if (rendered.ids().contains(event.id())) {
+            return true;
+        }
+        // A member both times and not on the page; an empty page is past the end either way
+        if (rendered.first() == null) {
+            return false;
+        }
+        if (!CatalogSearchEngine.supports(slot.key.sort())) {
+            return true;
+        }
+        Comparator<CatalogEntry> order = CatalogSearchEngine.comparator(slot.key.sort());
+        boolean staysInFront = order.compare(before, rendered.first()) < 0 && order.compare(after, rendered.first()) < 0;
+        boolean staysBehind = order.compare(before, rendered.last()) > 0 && order.compare(after, rendered.last()) > 0;
+        return !staysInFront && !staysBehind;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.hotpages.requests")
+                .description("Paged listing and search requests by hot page cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Rendered(byte[] body, long renderedAt, Set<String> ids, CatalogEntry first, CatalogEntry last) {
+    }
+
+    // version and rendering are guarded by the slot monitor
+    private static final class Slot {
+        final PageKey key;
+        final ProductFilter filter;
+        final LongAdder requests = new LongAdder();
+        double score;
+        long version;
+        boolean rendering;
+        volatile Rendered rendered;
+
+        Slot(PageKey key) {
+            this.key = key;
+            this.filter = key.filter();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.catalog.productms.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product.hot-pages")
+public class HotPageProperties {
+
+    private boolean enabled = false;
+
+    // Pages kept rendered: the most requested listing and search pages
+    private int topN = 50;
+
+    // Request counters are kept for at most this many distinct pages between refreshes
+    private int maxTrackedKeys = 10_000;
+
+    private long refreshIntervalMs = 1_000;
+
+    // A rendered page is not served after this; bounds staleness for writes made on other instances
+    private long maxAgeMs = 5_000;
+}
@@ -0,0 +1,167 @@
+package com.catalog.productms.cache;
+
+import com.catalog.productms.tenant.TenantQuota;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * The in-process tier: LRU segments, each behind its own lock, with entries expiring
+ * after the TTL. A put carries the generation observed before the value was loaded and
+ * is dropped if anything was invalidated since, so a slow read cannot bring back a
+ * product that a concurrent write just replaced.
+ * <p>
+ * Each tenant may hold at most its quota of the entries. A tenant at its quota makes room
+ * by dropping its own least recently used entry in the segment, never another tenant's.
+ */
+class NearCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLong generation = new AtomicLong();
+    private final TenantQuota quota;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    NearCache(int maxEntries, long ttlMs, LongSupplier nanoClock) {
+        this(maxEntries, ttlMs, TenantQuota.UNLIMITED, nanoClock);
+    }
+
+    NearCache(int maxEntries, long ttlMs, TenantQuota quota, LongSupplier nanoClock) {
+        int perSegment = Math.max(1, Math.ceilDiv(maxEntries, SEGMENTS));
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment, quota);
+        }
+        this.quota = quota;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.nanoClock = nanoClock;
+    }
+
+    CachedProduct get(String id) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            Entry entry = segment.get(id);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() - nanoClock.getAsLong() <= 0) {
+                segment.discard(id);
+                return null;
+            }
+            return entry.product();
+        }
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    void put(CachedProduct product, long observedGeneration) {
+        Segment segment = segmentFor(product.id());
+        synchronized (segment) {
+            // Invalidations bump the generation before they take the lock
+            if (generation.get() == observedGeneration) {
+                segment.store(product.id(), new Entry(product, nanoClock.getAsLong() + ttlNanos));
+            }
+        }
+    }
+
+    void invalidate(String id) {
+        generation.incrementAndGet();
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            segment.discard(id);
+        }
+    }
+
+    void clear() {
+        generation.incrementAndGet();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.discardAll();
+            }
+        }
+    }
+
+    int held(String tenant) {
+        return quota.held(tenant);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String id) {
+        int hash = id.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry(CachedProduct product, long expiresAt) {
+    }
+
+    // Every entry added counts against the quota of its tenant until it is dropped
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+
+        private final int capacity;
+        private final TenantQuota quota;
+
+        Segment(int capacity, TenantQuota quota) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.quota = quota;
+        }
+
+        void store(String id, Entry entry) {
+            String tenant = entry.product().tenantId();
+            if (!containsKey(id) && !quota.tryAcquire(tenant) && !(discardEldestOf(tenant) && quota.tryAcquire(tenant))) {
+                return;
+            }
+            put(id, entry);
+        }
+
+        void discard(String id) {
+            Entry removed = remove(id);
+            if (removed != null) {
+                quota.release(removed.product().tenantId());
+            }
+        }
+
+        void discardAll() {
+            values().forEach(entry -> quota.release(entry.product().tenantId()));
+            clear();
+        }
+
+        private boolean discardEldestOf(String tenant) {
+            Iterator<Entry> entries = values().iterator();
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                if (entry.product().tenantId().equals(tenant)) {
+                    entries.remove();
+                    quota.release(tenant);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                quota.release(eldest.getValue().product().tenantId());
+                return true;
+            }
+            return false;
+        }
+    }
+}
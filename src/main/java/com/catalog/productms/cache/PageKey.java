@@ -0,0 +1,42 @@
+package com.catalog.productms.cache;
+
+import com.catalog.productms.search.ProductFilter;
+import com.catalog.productms.tenant.TenantContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * One paged listing or search request of the current tenant. Requests that return the same
+ * page map to equal keys: q is lowercased (the search is case-insensitive) and prices drop
+ * their scale.
+ */
+public record PageKey(String tenant, boolean search, String q, BigDecimal minPrice, BigDecimal maxPrice,
+                      int page, int size, Sort sort) {
+
+    public static PageKey listing(Pageable pageable) {
+        return new PageKey(TenantContext.current(), false, null, null, null, pageable.getPageNumber(),
+                pageable.getPageSize(), pageable.getSort());
+    }
+
+    public static PageKey search(String q, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        return new PageKey(TenantContext.current(), true, q != null ? q.toLowerCase(Locale.ROOT) : null,
+                normalize(minPrice), normalize(maxPrice), pageable.getPageNumber(), pageable.getPageSize(),
+                pageable.getSort());
+    }
+
+    public Pageable pageable() {
+        return PageRequest.of(page, size, sort);
+    }
+
+    ProductFilter filter() {
+        return new ProductFilter(q, minPrice, maxPrice);
+    }
+
+    private static BigDecimal normalize(BigDecimal price) {
+        return price != null ? price.stripTrailingZeros() : null;
+    }
+}
@@ -0,0 +1,319 @@
+package com.catalog.productms.cache;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.service.ProductChangedEvent;
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.tenant.TenantQuota;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product-by-id cache in front of the database: a bounded near tier in this instance and,
+ * in TWO_TIER mode, a far tier shared by every instance.
+ * <p>
+ * After a write commits, this instance updates the far tier (the new value, a tombstone
+ * for a delete, a new key epoch for a clear) and publishes the id on the invalidation
+ * channel, on which every instance drops its near copy. Values loaded from the database
+ * only fill the far tier where the key is absent, so they never overwrite a newer write
+ * or a tombstone. Far tier failures count as misses, and the tier is skipped for
+ * retryAfterMs; changes made while it is unreachable can be served stale for up to the
+ * far TTL.
+ * <p>
+ * Ids are unique across tenants, so entries are keyed by id and carry their tenant; a
+ * lookup only answers with products of the current tenant.
+ */
+@Slf4j
+public class ProductCache implements AutoCloseable {
+
+    private static final byte[] TOMBSTONE = new byte[0];
+    private static final String ID_MESSAGE = "id:";
+    private static final String EPOCH_MESSAGE = "epoch:";
+
+    private final NearCache near;
+    private final SharedCache far;
+    private final ProductCacheProperties.Far farProperties;
+    private final Counter nearHits;
+    private final Counter nearMisses;
+    private final Counter farHits;
+    private final Counter farMisses;
+    private final Counter farErrors;
+    // The far tier is used only once subscribed to invalidations and the key epoch is known
+    private volatile boolean subscribed;
+    private volatile boolean farReady;
+    private volatile long epoch;
+    private volatile long farRetryAt;
+
+    public ProductCache(ProductCacheProperties properties, SharedCache far, MeterRegistry meterRegistry) {
+        this(properties, far, meterRegistry, TenantQuota.UNLIMITED);
+    }
+
+    // nearQuota bounds the share of the near tier each tenant may hold
+    public ProductCache(ProductCacheProperties properties, SharedCache far, MeterRegistry meterRegistry,
+                        TenantQuota nearQuota) {
+        boolean enabled = properties.getMode() != ProductCacheProperties.Mode.NONE;
+        this.near = enabled
+                ? new NearCache(properties.getNear().getMaxEntries(), properties.getNear().getTtlMs(), nearQuota,
+                        System::nanoTime)
+                : null;
+        this.far = enabled && properties.getMode() == ProductCacheProperties.Mode.TWO_TIER ? far : null;
+        this.farProperties = properties.getFar();
+        this.farRetryAt = System.nanoTime();
+        this.nearHits = enabled ? counter(meterRegistry, "near", "hit") : null;
+        this.nearMisses = enabled ? counter(meterRegistry, "near", "miss") : null;
+        this.farHits = this.far != null ? counter(meterRegistry, "far", "hit") : null;
+        this.farMisses = this.far != null ? counter(meterRegistry, "far", "miss") : null;
+        this.farErrors = this.far != null ? counter(meterRegistry, "far", "error") : null;
+        if (enabled) {
+            hitRatio(meterRegistry, "near", nearHits, nearMisses, null);
+            Gauge.builder("product.cache.size", near, NearCache::size)
+                    .tag("tier", "near")
+                    .description("Products held by the near cache")
+                    .register(meterRegistry);
+        }
+        if (this.far != null) {
+            hitRatio(meterRegistry, "far", farHits, farMisses, farErrors);
+            this.far.subscribe(farProperties.getChannel(), this::onInvalidation, this::onSubscribed);
+        }
+    }
+
+    public boolean isEnabled() {
+        return near != null;
+    }
+
+    // Taken before loading from the database and handed back to put/putAll
+    public long generation() {
+        return near != null ? near.generation() : 0;
+    }
+
+    // Null on a miss in both tiers
+    public Product get(String id) {
+        if (near == null) {
+            return null;
+        }
+        CachedProduct cached = near.get(id);
+        if (visible(cached)) {
+            nearHits.increment();
+            return cached.toProduct();
+        }
+        nearMisses.increment();
+        if (!farAvailable()) {
+            return null;
+        }
+        long generation = near.generation();
+        try {
+            cached = decode(far.get(key(id)));
+        } catch (SharedCacheException ex) {
+            farFailed(ex);
+            return null;
+        }
+        if (!visible(cached)) {
+            farMisses.increment();
+            return null;
+        }
+        farHits.increment();
+        near.put(cached, generation);
+        return cached.toProduct();
+    }
+
+    public Map<String, Product> getAll(Collection<String> ids) {
+        if (near == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, Product> found = HashMap.newHashMap(ids.size());
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            CachedProduct cached = near.get(id);
+            if (visible(cached)) {
+                found.put(id, cached.toProduct());
+            } else {
+                misses.add(id);
+            }
+        }
+        nearHits.increment(found.size());
+        nearMisses.increment(misses.size());
+        if (misses.isEmpty() || !farAvailable()) {
+            return found;
+        }
+        long generation = near.generation();
+        List<byte[]> values;
+        try {
+            values = far.getAll(misses.stream().map(this::key).toList());
+        } catch (SharedCacheException ex) {
+            farFailed(ex);
+            return found;
+        }
+        for (byte[] value : values) {
+            CachedProduct cached = decode(value);
+            if (!visible(cached)) {
+                farMisses.increment();
+                continue;
+            }
+            farHits.increment();
+            near.put(cached, generation);
+            found.put(cached.id(), cached.toProduct());
+        }
+        return found;
+    }
+
+    // A product just read from the database
+    public void put(Product product, long generation) {
+        putAll(List.of(product), generation);
+    }
+
+    public void putAll(Collection<Product> products, long generation) {
+        if (near == null || products.isEmpty()) {
+            return;
+        }
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        for (Product product : products) {
+            CachedProduct cached = CachedProduct.of(product);
+            near.put(cached, generation);
+            values.put(key(cached.id()), cached.encode());
+        }
+        if (farAvailable()) {
+            try {
+                far.putAllIfAbsent(values, farProperties.getTtlMs());
+            } catch (SharedCacheException ex) {
+                farFailed(ex);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (near == null) {
+            return;
+        }
+        switch (event.type()) {
+            case UPSERTED, DELETED -> near.invalidate(event.id());
+            case CLEARED -> near.clear();
+        }
+        if (!farAvailable()) {
+            return;
+        }
+        try {
+            switch (event.type()) {
+                case UPSERTED -> {
+                    far.put(key(event.id()), CachedProduct.of(event.product()).encode(), farProperties.getTtlMs());
+                    far.publish(farProperties.getChannel(), ID_MESSAGE + event.id());
+                }
+                case DELETED -> {
+                    far.put(key(event.id()), TOMBSTONE, farProperties.getTtlMs());
+                    far.publish(farProperties.getChannel(), ID_MESSAGE + event.id());
+                }
+                case CLEARED -> {
+                    // Keys of the old epoch are never read again and expire on their own
+                    long next = far.increment(epochKey());
+                    epoch = Math.max(epoch, next);
+                    far.publish(farProperties.getChannel(), EPOCH_MESSAGE + next);
+                }
+            }
+        } catch (SharedCacheException ex) {
+            farFailed(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (far != null) {
+            far.close();
+        }
+    }
+
+    void onInvalidation(String message) {
+        if (message.startsWith(ID_MESSAGE)) {
+            near.invalidate(message.substring(ID_MESSAGE.length()));
+        } else if (message.startsWith(EPOCH_MESSAGE)) {
+            try {
+                epoch = Math.max(epoch, Long.parseLong(message.substring(EPOCH_MESSAGE.length())));
+            } catch (NumberFormatException ex) {
+                log.warn("Ignoring malformed cache invalidation '{}'", message);
+            }
+            near.clear();
+        }
+    }
+
+    // Invalidations published while the subscription was down are lost, so the near tier
+    // starts over and the epoch is read again
+    void onSubscribed() {
+        near.clear();
+        subscribed = true;
+        farReady = false;
+        farRetryAt = System.nanoTime();
+    }
+
+    boolean isSubscribed() {
+        return subscribed;
+    }
+
+    private boolean farAvailable() {
+        if (far == null || !subscribed || System.nanoTime() - farRetryAt < 0) {
+            return false;
+        }
+        if (!farReady) {
+            try {
+                byte[] value = far.get(epochKey());
+                epoch = Math.max(epoch, value != null ? Long.parseLong(Resp.text(value)) : 0);
+                farReady = true;
+            } catch (SharedCacheException ex) {
+                farFailed(ex);
+            } catch (NumberFormatException ex) {
+                farFailed(new SharedCacheException("Malformed epoch at " + epochKey(), ex));
+            }
+        }
+        return farReady;
+    }
+
+    private void farFailed(SharedCacheException ex) {
+        farErrors.increment();
+        farRetryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(farProperties.getRetryAfterMs());
+        log.debug("Shared cache unavailable for {} ms: {}", farProperties.getRetryAfterMs(), ex.getMessage());
+    }
+
+    private String key(String id) {
+        return farProperties.getKeyPrefix() + "product:" + epoch + ":" + id;
+    }
+
+    private String epochKey() {
+        return farProperties.getKeyPrefix() + "epoch";
+    }
+
+    // Products of other tenants are misses: the database will not return them either
+    private static boolean visible(CachedProduct cached) {
+        return cached != null && cached.tenantId().equals(TenantContext.current());
+    }
+
+    // Tombstones and values this version cannot decode are misses
+    private static CachedProduct decode(byte[] value) {
+        return value == null ? null : CachedProduct.decode(value);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("product.cache.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .description("Product lookups by cache tier and outcome")
+                .register(meterRegistry);
+    }
+
+    private static void hitRatio(MeterRegistry meterRegistry, String tier, Counter hits, Counter misses, Counter errors) {
+        Gauge.builder("product.cache.hit.ratio", () -> {
+                    double total = hits.count() + misses.count() + (errors != null ? errors.count() : 0);
+                    return total == 0 ? 0 : hits.count() / total;
+                })
+                .tag("tier", tier)
+                .description("Share of lookups answered by the cache tier since startup")
+                .register(meterRegistry);
+    }
+}
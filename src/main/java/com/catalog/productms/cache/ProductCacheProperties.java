@@ -0,0 +1,46 @@
+package com.catalog.productms.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product.cache")
+public class ProductCacheProperties {
+
+    // NEAR keeps products in this instance only; TWO_TIER adds the shared cache behind it
+    private Mode mode = Mode.NONE;
+
+    private Near near = new Near();
+
+    private Far far = new Far();
+
+    public enum Mode {
+        NONE, NEAR, TWO_TIER
+    }
+
+    @Data
+    public static class Near {
+        private int maxEntries = 10_000;
+        // Bounds staleness when an invalidation from another instance is lost
+        private long ttlMs = 30_000;
+    }
+
+    /**
+     * A Redis-protocol (RESP) server shared by every instance. Keys carry the prefix and
+     * an epoch that is bumped when the catalog is cleared.
+     */
+    @Data
+    public static class Far {
+        private String host = "localhost";
+        private int port = 6379;
+        private String password;
+        private long ttlMs = 300_000;
+        private int poolSize = 16;
+        private int connectTimeoutMs = 200;
+        private int timeoutMs = 100;
+        // After a failure the shared cache is skipped for this long
+        private long retryAfterMs = 1000;
+        private String keyPrefix = "product-ms:";
+        private String channel = "product-ms:invalidations";
+    }
+}
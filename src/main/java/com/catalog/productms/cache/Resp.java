@@ -0,0 +1,119 @@
+package com.catalog.productms.cache;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RESP2 framing: commands go out as arrays of bulk strings; replies come back as simple
+ * strings (String), integers (Long), bulk strings (byte[], null when absent) or arrays
+ * (List, null when absent). Error replies are raised as SharedCacheException after the
+ * whole reply has been consumed, so the connection stays usable.
+ */
+final class Resp {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private Resp() {
+    }
+
+    static void writeCommand(OutputStream out, byte[]... args) throws IOException {
+        writeHeader(out, '*', args.length);
+        for (byte[] arg : args) {
+            writeBulk(out, arg);
+        }
+    }
+
+    static void writeBulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            writeHeader(out, '$', -1);
+            return;
+        }
+        writeHeader(out, '$', value.length);
+        out.write(value);
+        out.write(CRLF);
+    }
+
+    static void writeHeader(OutputStream out, char type, long value) throws IOException {
+        out.write(type);
+        out.write(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+        out.write(CRLF);
+    }
+
+    static Object read(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            throw new EOFException("Connection closed by the server");
+        }
+        String line = readLine(in);
+        return switch (type) {
+            case '+' -> line;
+            case '-' -> throw new SharedCacheException("Server replied: " + line);
+            case ':' -> Long.parseLong(line);
+            case '$' -> readBulk(in, Integer.parseInt(line));
+            case '*' -> readArray(in, Integer.parseInt(line));
+            default -> throw new IOException("Unexpected RESP type '" + (char) type + "'");
+        };
+    }
+
+    static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String text(Object value) {
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(value);
+    }
+
+    private static byte[] readBulk(InputStream in, int length) throws IOException {
+        if (length < 0) {
+            return null;
+        }
+        byte[] value = in.readNBytes(length);
+        if (value.length < length || in.read() != '\r' || in.read() != '\n') {
+            throw new EOFException("Truncated bulk string");
+        }
+        return value;
+    }
+
+    // Elements are read even after an error element so that the stream stays in sync
+    private static List<Object> readArray(InputStream in, int count) throws IOException {
+        if (count < 0) {
+            return null;
+        }
+        List<Object> elements = new ArrayList<>(count);
+        SharedCacheException error = null;
+        for (int i = 0; i < count; i++) {
+            try {
+                elements.add(read(in));
+            } catch (SharedCacheException ex) {
+                error = error == null ? ex : error;
+                elements.add(null);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return elements;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Connection closed by the server");
+            }
+            if (b == '\r') {
+                if (in.read() != '\n') {
+                    throw new IOException("Malformed RESP line");
+                }
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.catalog.productms.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+final class RespConnection implements Closeable {
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    private RespConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    // readTimeoutMs 0 blocks indefinitely, which is what a subscription needs
+    static RespConnection open(ProductCacheProperties.Far properties, int readTimeoutMs) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(properties.getHost(), properties.getPort()),
+                    properties.getConnectTimeoutMs());
+            socket.setSoTimeout(readTimeoutMs);
+            socket.setTcpNoDelay(true);
+            RespConnection connection = new RespConnection(socket);
+            if (properties.getPassword() != null && !properties.getPassword().isEmpty()) {
+                connection.call(Resp.bytes("AUTH"), Resp.bytes(properties.getPassword()));
+            }
+            return connection;
+        } catch (IOException | RuntimeException ex) {
+            socket.close();
+            throw ex;
+        }
+    }
+
+    Object call(byte[]... command) throws IOException {
+        send(command);
+        return read();
+    }
+
+    // Pipelined: every command is written before the first reply is read
+    List<Object> callAll(List<byte[][]> commands) throws IOException {
+        for (byte[][] command : commands) {
+            Resp.writeCommand(out, command);
+        }
+        out.flush();
+        List<Object> replies = new ArrayList<>(commands.size());
+        SharedCacheException error = null;
+        for (int i = 0; i < commands.size(); i++) {
+            try {
+                replies.add(read());
+            } catch (SharedCacheException ex) {
+                error = error == null ? ex : error;
+                replies.add(null);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return replies;
+    }
+
+    void send(byte[]... command) throws IOException {
+        Resp.writeCommand(out, command);
+        out.flush();
+    }
+
+    Object read() throws IOException {
+        return Resp.read(in);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,226 @@
+package com.catalog.productms.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * SharedCache over the Redis protocol (RESP2), for Redis, Valkey or anything that speaks it.
+ * Commands borrow a pooled connection, at most poolSize at a time; a connection that saw an
+ * I/O error is closed rather than returned. Each subscription holds its own connection on a
+ * daemon thread and reconnects after retryAfterMs.
+ */
+@Slf4j
+public class RespSharedCache implements SharedCache {
+
+    private static final byte[] GET = Resp.bytes("GET");
+    private static final byte[] MGET = Resp.bytes("MGET");
+    private static final byte[] SET = Resp.bytes("SET");
+    private static final byte[] PX = Resp.bytes("PX");
+    private static final byte[] NX = Resp.bytes("NX");
+    private static final byte[] INCR = Resp.bytes("INCR");
+    private static final byte[] PUBLISH = Resp.bytes("PUBLISH");
+    private static final byte[] SUBSCRIBE = Resp.bytes("SUBSCRIBE");
+
+    private final ProductCacheProperties.Far properties;
+    private final BlockingQueue<RespConnection> idle;
+    private final Semaphore permits;
+    private final Set<RespConnection> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Set<Thread> subscribers = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public RespSharedCache(ProductCacheProperties.Far properties) {
+        this.properties = properties;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, properties.getPoolSize()));
+        this.permits = new Semaphore(Math.max(1, properties.getPoolSize()));
+    }
+
+    @Override
+    public byte[] get(String key) {
+        return (byte[]) execute(GET, Resp.bytes(key));
+    }
+
+    @Override
+    public List<byte[]> getAll(List<String> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        byte[][] command = new byte[keys.size() + 1][];
+        command[0] = MGET;
+        for (int i = 0; i < keys.size(); i++) {
+            command[i + 1] = Resp.bytes(keys.get(i));
+        }
+        List<?> reply = (List<?>) execute(command);
+        List<byte[]> values = new ArrayList<>(reply.size());
+        reply.forEach(value -> values.add((byte[]) value));
+        return values;
+    }
+
+    @Override
+    public void put(String key, byte[] value, long ttlMs) {
+        execute(SET, Resp.bytes(key), value, PX, Resp.bytes(Long.toString(ttlMs)));
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, byte[] value, long ttlMs) {
+        return execute(SET, Resp.bytes(key), value, PX, Resp.bytes(Long.toString(ttlMs)), NX) != null;
+    }
+
+    @Override
+    public void putAllIfAbsent(Map<String, byte[]> values, long ttlMs) {
+        if (values.isEmpty()) {
+            return;
+        }
+        byte[] ttl = Resp.bytes(Long.toString(ttlMs));
+        List<byte[][]> commands = new ArrayList<>(values.size());
+        values.forEach((key, value) -> commands.add(new byte[][]{SET, Resp.bytes(key), value, PX, ttl, NX}));
+        withConnection(connection -> connection.callAll(commands));
+    }
+
+    @Override
+    public long increment(String key) {
+        return (Long) execute(INCR, Resp.bytes(key));
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        execute(PUBLISH, Resp.bytes(channel), Resp.bytes(message));
+    }
+
+    @Override
+    public void subscribe(String channel, Consumer<String> listener, Runnable onSubscribed) {
+        subscribers.add(Thread.ofPlatform()
+                .name("shared-cache-subscriber")
+                .daemon(true)
+                .start(() -> runSubscription(channel, listener, onSubscribed)));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        subscriptions.forEach(RespSharedCache::closeQuietly);
+        subscribers.forEach(Thread::interrupt);
+        RespConnection connection;
+        while ((connection = idle.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private Object execute(byte[]... command) {
+        return withConnection(connection -> connection.call(command));
+    }
+
+    private <T> T withConnection(Call<T> call) {
+        if (closed) {
+            throw new SharedCacheException("Shared cache is closed");
+        }
+        try {
+            if (!permits.tryAcquire(properties.getTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new SharedCacheException("No shared cache connection free within " + properties.getTimeoutMs() + " ms");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SharedCacheException("Interrupted while waiting for a shared cache connection", ex);
+        }
+        RespConnection connection = idle.poll();
+        try {
+            if (connection != null) {
+                try {
+                    T result = call.on(connection);
+                    release(connection);
+                    return result;
+                } catch (IOException stale) {
+                    // The server may have dropped an idle connection: retry once on a new one.
+                    // Every command sent here is safe to repeat; a slow server is not retried.
+                    closeQuietly(connection);
+                    connection = null;
+                    if (stale instanceof SocketTimeoutException) {
+                        throw stale;
+                    }
+                }
+            }
+            connection = RespConnection.open(properties, properties.getTimeoutMs());
+            T result = call.on(connection);
+            release(connection);
+            return result;
+        } catch (SharedCacheException ex) {
+            // An error reply: the connection is still in sync
+            if (connection != null) {
+                release(connection);
+            }
+            throw ex;
+        } catch (IOException ex) {
+            if (connection != null) {
+                closeQuietly(connection);
+            }
+            throw new SharedCacheException("Shared cache " + properties.getHost() + ":" + properties.getPort()
+                    + " failed: " + ex.getMessage(), ex);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void release(RespConnection connection) {
+        if (closed || !idle.offer(connection)) {
+            closeQuietly(connection);
+        }
+    }
+
+    private void runSubscription(String channel, Consumer<String> listener, Runnable onSubscribed) {
+        while (!closed) {
+            try (RespConnection connection = RespConnection.open(properties, 0)) {
+                subscriptions.add(connection);
+                try {
+                    if (closed) {
+                        return;
+                    }
+                    connection.call(SUBSCRIBE, Resp.bytes(channel));
+                    onSubscribed.run();
+                    while (!closed) {
+                        if (connection.read() instanceof List<?> message && message.size() == 3
+                                && "message".equals(Resp.text(message.get(0)))) {
+                            listener.accept(Resp.text(message.get(2)));
+                        }
+                    }
+                } finally {
+                    subscriptions.remove(connection);
+                }
+            } catch (IOException | RuntimeException ex) {
+                if (closed) {
+                    return;
+                }
+                log.warn("Shared cache subscription to {} lost, retrying in {} ms: {}", channel,
+                        properties.getRetryAfterMs(), ex.getMessage());
+                try {
+                    Thread.sleep(properties.getRetryAfterMs());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(RespConnection connection) {
+        try {
+            connection.close();
+        } catch (IOException ignored) {
+            // Nothing left to do with a connection that cannot be closed
+        }
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T on(RespConnection connection) throws IOException;
+    }
+}
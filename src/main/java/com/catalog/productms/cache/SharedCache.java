@@ -0,0 +1,39 @@
+package com.catalog.productms.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The far tier: a cache shared by every instance, which also carries the invalidation
+ * messages between them. Implementations throw {@link SharedCacheException} when the
+ * backend cannot be reached; callers treat that as a miss.
+ */
+public interface SharedCache extends AutoCloseable {
+
+    byte[] get(String key);
+
+    // Values in key order, null for missing keys
+    List<byte[]> getAll(List<String> keys);
+
+    void put(String key, byte[] value, long ttlMs);
+
+    // Stores the value only if the key is absent; false when it was already there
+    boolean putIfAbsent(String key, byte[] value, long ttlMs);
+
+    void putAllIfAbsent(Map<String, byte[]> values, long ttlMs);
+
+    long increment(String key);
+
+    void publish(String channel, String message);
+
+    /**
+     * Delivers messages published on the channel until the cache is closed. onSubscribed
+     * runs each time the subscription is (re)established: messages published while it was
+     * down are lost.
+     */
+    void subscribe(String channel, Consumer<String> listener, Runnable onSubscribed);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,11 @@
+package com.catalog.productms.cache;
+
+public class SharedCacheException extends RuntimeException {
+    public SharedCacheException(String message) {
+        super(message);
+    }
+
+    public SharedCacheException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
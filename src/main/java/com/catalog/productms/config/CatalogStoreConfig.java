@@ -0,0 +1,56 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.search.CatalogSearchEngine;
+import com.catalog.productms.search.SearchProperties;
+import com.catalog.productms.store.CatalogSnapshotProperties;
+import com.catalog.productms.store.CatalogSnapshotService;
+import com.catalog.productms.store.CatalogStore;
+import com.catalog.productms.store.HeapCatalogStore;
+import com.catalog.productms.store.OffHeapCatalogStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties({CatalogSnapshotProperties.class, SearchProperties.class})
+public class CatalogStoreConfig {
+
+    // Always present; it stays empty and not ready (every read goes to the database)
+    // unless the snapshot service loads it
+    @Bean
+    public CatalogStore catalogStore(CatalogSnapshotProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getStoreType() == CatalogSnapshotProperties.StoreType.OFF_HEAP) {
+            OffHeapCatalogStore store = new OffHeapCatalogStore();
+            Gauge.builder("product.store.offheap.bytes", store, OffHeapCatalogStore::offHeapBytes)
+                    .description("Native memory reserved by the off-heap catalog store")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            return store;
+        }
+        return new HeapCatalogStore();
+    }
+
+    @Bean
+    public CatalogSearchEngine catalogSearchEngine(SearchProperties properties) {
+        return new CatalogSearchEngine(properties.getMode() == SearchProperties.Mode.IN_MEMORY,
+                properties.getParallelism());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.snapshot", name = "enabled", havingValue = "true")
+    public CatalogSnapshotService catalogSnapshotService(CatalogStore catalogStore,
+                                                         JdbcTemplate jdbcTemplate,
+                                                         NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                                         CatalogSnapshotProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        return new CatalogSnapshotService(catalogStore, jdbcTemplate, namedParameterJdbcTemplate, properties,
+                meterRegistry, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,130 @@
+package com.catalog.productms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Slf4j
+@Configuration
+public class DataSourcePoolConfig {
+
+    static final String POOL_SIZE_PROPERTY = "product.datasource.pool-size";
+    static final String THREADS_PER_CONNECTION_PROPERTY = "product.datasource.max-threads-per-connection";
+    static final String HIKARI_MAX_POOL_SIZE_PROPERTY = "spring.datasource.hikari.maximum-pool-size";
+    static final String VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+    static final String EXPECTED_CONCURRENCY_PROPERTY = "product.datasource.expected-concurrency";
+    static final String TOMCAT_MAX_THREADS_PROPERTY = "server.tomcat.threads.max";
+    static final int DEFAULT_THREADS_PER_CONNECTION = 8;
+    static final int DEFAULT_EXPECTED_CONCURRENCY = 200;
+
+    /**
+     * Sizes the Hikari pool before it opens its first connection. An explicit
+     * spring.datasource.hikari.maximum-pool-size or DB_POOL_SIZE wins; otherwise the
+     * size is derived from the core count and the thread model, and never falls below
+     * what the expected request concurrency needs.
+     */
+    @Bean
+    static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari && !environment.containsProperty(HIKARI_MAX_POOL_SIZE_PROPERTY)) {
+                    hikari.setMaximumPoolSize(resolvePoolSize(environment));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Warns at startup when more requests can run concurrently than the pool can serve
+     * without long waits on connection acquisition.
+     */
+    @Bean
+    ApplicationListener<ApplicationReadyEvent> poolSaturationSelfCheck(DataSource dataSource,
+                                                                       Environment environment) {
+        return event -> {
+            HikariDataSource hikari;
+            try {
+                if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                    return;
+                }
+                hikari = dataSource.unwrap(HikariDataSource.class);
+            } catch (SQLException ex) {
+                return;
+            }
+
+            boolean virtualThreads = isVirtualThreads(environment);
+            int concurrency = requestConcurrency(environment, virtualThreads);
+            int threadsPerConnection = threadsPerConnection(environment);
+            int poolSize = hikari.getMaximumPoolSize();
+
+            if (exceedsPoolCapacity(concurrency, poolSize, threadsPerConnection)) {
+                log.warn("Up to {} concurrent requests ({} threads) can compete for {} pooled connections "
+                                + "(more than {} per connection). Requests will queue for up to {} ms on connection "
+                                + "acquire; lower {} or raise DB_POOL_SIZE.",
+                        concurrency, virtualThreads ? "virtual" : "platform", poolSize, threadsPerConnection,
+                        hikari.getConnectionTimeout(),
+                        virtualThreads ? EXPECTED_CONCURRENCY_PROPERTY : TOMCAT_MAX_THREADS_PROPERTY);
+            } else {
+                log.info("Connection pool '{}' sized to {} connections for {} concurrent requests",
+                        hikari.getPoolName(), poolSize, concurrency);
+            }
+        };
+    }
+
+    static int resolvePoolSize(Environment environment) {
+        boolean virtualThreads = isVirtualThreads(environment);
+        return resolvePoolSize(
+                environment.getProperty(POOL_SIZE_PROPERTY),
+                Runtime.getRuntime().availableProcessors(),
+                virtualThreads,
+                requestConcurrency(environment, virtualThreads),
+                threadsPerConnection(environment));
+    }
+
+    // (cores * 2) + 1 is the HikariCP starting point. Virtual threads are not capped by the
+    // Tomcat worker pool, so allow a deeper pool to absorb bursts instead of queueing. Either
+    // way the pool is raised to what the self-check below asks for on small machines.
+    static int resolvePoolSize(String configured, int cores, boolean virtualThreads,
+                               int concurrency, int threadsPerConnection) {
+        if (configured != null && !configured.isBlank() && !"auto".equalsIgnoreCase(configured.trim())) {
+            return Integer.parseInt(configured.trim());
+        }
+        int poolSize = cores * 2 + 1;
+        if (virtualThreads) {
+            poolSize *= 2;
+        }
+        return Math.max(poolSize, Math.ceilDiv(concurrency, threadsPerConnection));
+    }
+
+    // Platform threads are capped by the Tomcat worker pool. Virtual threads are only capped by
+    // max-connections (8192), far beyond any realistic load, so the expected concurrency is configured.
+    static int requestConcurrency(Environment environment, boolean virtualThreads) {
+        return virtualThreads
+                ? environment.getProperty(EXPECTED_CONCURRENCY_PROPERTY, Integer.class, DEFAULT_EXPECTED_CONCURRENCY)
+                : environment.getProperty(TOMCAT_MAX_THREADS_PROPERTY, Integer.class,
+                        new ServerProperties().getTomcat().getThreads().getMax());
+    }
+
+    static boolean exceedsPoolCapacity(int concurrency, int poolSize, int threadsPerConnection) {
+        return concurrency > (long) poolSize * threadsPerConnection;
+    }
+
+    private static int threadsPerConnection(Environment environment) {
+        return environment.getProperty(THREADS_PER_CONNECTION_PROPERTY, Integer.class, DEFAULT_THREADS_PER_CONNECTION);
+    }
+
+    private static boolean isVirtualThreads(Environment environment) {
+        return environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false);
+    }
+}
@@ -0,0 +1,44 @@
+package com.catalog.productms.config;
+
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.util.function.Supplier;
+
+/**
+ * Shares one datasource-proxy per DataSource between the features that listen to JDBC
+ * calls. The first post-processor wraps the pool; the others add their listeners to that
+ * proxy instead of wrapping it again. The pool stays reachable through unwrap(), so Hikari
+ * metrics keep working.
+ */
+final class DataSourceProxies {
+
+    private DataSourceProxies() {
+    }
+
+    static BeanPostProcessor listening(Supplier<? extends QueryExecutionListener> queryListener,
+                                       Supplier<? extends MethodExecutionListener> methodListener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                ProxyDataSource proxy = dataSource instanceof ProxyDataSource existing
+                        ? existing
+                        : ProxyDataSourceBuilder.create(dataSource).name(beanName).build();
+                if (queryListener != null) {
+                    proxy.getProxyConfig().getQueryListener().addListener(queryListener.get());
+                }
+                if (methodListener != null) {
+                    proxy.getProxyConfig().getMethodListener().addListener(methodListener.get());
+                }
+                return proxy;
+            }
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.catalog.productms.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Replaces reflective getter/setter calls with generated lambdas for every bean
+     * Jackson serializes (ProductResponse, PageResponse, ErrorResponse). Property
+     * discovery, naming and ordering are untouched, so the JSON output is identical.
+     * Spring Boot registers every Module bean on the shared ObjectMapper, which the
+     * MVC message converter uses to write straight to the servlet output stream.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,37 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.observability.JfrEndpoint;
+import com.catalog.productms.observability.JfrProperties;
+import com.catalog.productms.observability.ProductOperationRecorder;
+import com.catalog.productms.service.ProductService;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(JfrProperties.class)
+@ConditionalOnProperty(prefix = "product.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfig {
+
+    @Bean
+    public JfrEndpoint jfrEndpoint(JfrProperties properties) {
+        return new JfrEndpoint(properties);
+    }
+
+    // ProductService is already proxied for its transactions; the recorder joins that proxy
+    @Bean
+    static BeanPostProcessor productOperationEvents() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ProductService && bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, new ProductOperationRecorder());
+                }
+                return bean;
+            }
+        };
+    }
+}
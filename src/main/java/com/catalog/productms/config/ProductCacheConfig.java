@@ -0,0 +1,38 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.cache.HotPageCache;
+import com.catalog.productms.cache.HotPageProperties;
+import com.catalog.productms.cache.ProductCache;
+import com.catalog.productms.cache.ProductCacheProperties;
+import com.catalog.productms.cache.RespSharedCache;
+import com.catalog.productms.service.ProductService;
+import com.catalog.productms.tenant.TenancyProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties({ProductCacheProperties.class, HotPageProperties.class})
+public class ProductCacheConfig {
+
+    // Always present; with mode NONE every lookup is a miss and nothing is stored
+    @Bean(destroyMethod = "close")
+    public ProductCache productCache(ProductCacheProperties properties, TenancyProperties tenancy,
+                                     MeterRegistry meterRegistry) {
+        RespSharedCache far = properties.getMode() == ProductCacheProperties.Mode.TWO_TIER
+                ? new RespSharedCache(properties.getFar())
+                : null;
+        return new ProductCache(properties, far, meterRegistry, tenancy.quota(properties.getNear().getMaxEntries()));
+    }
+
+    // Always present; when disabled it neither counts requests nor starts its refresh thread.
+    // Pages are rendered with the MVC ObjectMapper, so a hit is byte-identical to a miss
+    @Bean
+    public HotPageCache hotPageCache(HotPageProperties properties, ProductService productService,
+                                     ObjectMapper objectMapper, TenancyProperties tenancy,
+                                     MeterRegistry meterRegistry) {
+        return new HotPageCache(properties, productService, objectMapper, meterRegistry, tenancy);
+    }
+}
@@ -0,0 +1,35 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.ratelimit.AdaptiveConcurrencyLimiter;
+import com.catalog.productms.ratelimit.RateLimitFilter;
+import com.catalog.productms.ratelimit.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "product.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = properties.getConcurrency().isEnabled()
+                ? new AdaptiveConcurrencyLimiter(properties.getConcurrency())
+                : null;
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(properties, limiter, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/products", "/products/*");
+        // Run before anything that does real work for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+}
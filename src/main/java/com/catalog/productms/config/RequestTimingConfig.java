@@ -0,0 +1,63 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.observability.LayerTimingInterceptor;
+import com.catalog.productms.observability.RequestTiming;
+import com.catalog.productms.observability.RequestTimingFilter;
+import com.catalog.productms.observability.RequestTimingListener;
+import com.catalog.productms.observability.RequestTimingProperties;
+import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(RequestTimingProperties.class)
+@ConditionalOnProperty(prefix = "product.request-timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<RequestTimingFilter> requestTimingFilter(RequestTimingProperties properties,
+                                                                           ObjectMapper objectMapper) {
+        FilterRegistrationBean<RequestTimingFilter> registration = new FilterRegistrationBean<>(
+                new RequestTimingFilter(properties, objectMapper));
+        registration.addUrlPatterns("/products", "/products/*");
+        // Outermost, so rate limiting and shedding are part of the measured time
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    static BeanPostProcessor requestTimingDataSourceProxy() {
+        RequestTimingListener listener = new RequestTimingListener();
+        return DataSourceProxies.listening(() -> listener, () -> listener);
+    }
+
+    /**
+     * Times ProductService and ProductRepository calls. Both beans are already proxies (for
+     * transactions, sharding or Spring Data), so the interceptor goes in front of their
+     * existing advice; the transaction and its connection fall inside the service time.
+     */
+    @Bean
+    static BeanPostProcessor requestTimingLayers() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    if (bean instanceof ProductService) {
+                        advised.addAdvice(0, new LayerTimingInterceptor(RequestTiming.Phase.SERVICE));
+                    } else if (bean instanceof ProductRepository) {
+                        advised.addAdvice(0, new LayerTimingInterceptor(RequestTiming.Phase.ORM));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+}
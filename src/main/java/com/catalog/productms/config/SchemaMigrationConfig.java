@@ -0,0 +1,73 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.shard.ShardTopology;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Slf4j
+@Configuration
+public class SchemaMigrationConfig {
+
+    static final String STARTUP_ACTION_PROPERTY = "product.schema.startup-action";
+
+    enum StartupAction { MIGRATE, VALIDATE, NONE }
+
+    /**
+     * Chooses what Flyway does on boot: apply pending migrations, only check that the database
+     * matches them (pending or modified migrations fail startup), or nothing. Read at runtime
+     * rather than through a bean condition, which the aot build would freeze. With sharding
+     * enabled the action runs against every shard.
+     */
+    @Bean
+    FlywayMigrationStrategy flywayMigrationStrategy(Environment environment, ObjectProvider<ShardTopology> shards) {
+        return flyway -> {
+            StartupAction action = resolveStartupAction(environment.getProperty(STARTUP_ACTION_PROPERTY));
+            if (action == StartupAction.NONE) {
+                log.info("Schema migrations skipped on startup ({}=none)", STARTUP_ACTION_PROPERTY);
+                return;
+            }
+            for (Flyway target : targets(flyway, shards.getIfAvailable())) {
+                if (action == StartupAction.MIGRATE) {
+                    target.migrate();
+                } else {
+                    target.validate();
+                }
+            }
+        };
+    }
+
+    static StartupAction resolveStartupAction(String value) {
+        if (value == null || value.isBlank()) {
+            return StartupAction.MIGRATE;
+        }
+        try {
+            return StartupAction.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalStateException(STARTUP_ACTION_PROPERTY + " must be migrate, validate or none, got '" + value + "'");
+        }
+    }
+
+    private static List<Flyway> targets(Flyway flyway, ShardTopology shards) {
+        if (shards == null) {
+            return List.of(flyway);
+        }
+        List<Flyway> targets = new ArrayList<>();
+        for (DataSource shard : shards.dataSources().values()) {
+            targets.add(Flyway.configure(flyway.getConfiguration().getClassLoader())
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(shard)
+                    .load());
+        }
+        return targets;
+    }
+}
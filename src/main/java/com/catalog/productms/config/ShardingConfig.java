@@ -0,0 +1,136 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.shard.ConsistentHashRing;
+import com.catalog.productms.shard.ShardEndpoint;
+import com.catalog.productms.shard.ShardRebalancer;
+import com.catalog.productms.shard.ShardRoutingDataSource;
+import com.catalog.productms.shard.ShardTopology;
+import com.catalog.productms.shard.ShardedProductRepository;
+import com.catalog.productms.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardTopology shardTopology(ShardingProperties properties, Environment environment,
+                                       MeterRegistry meterRegistry) {
+        if (environment.getProperty("product.snapshot.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("product.snapshot.enabled cannot be combined with product.sharding.enabled: "
+                    + "the snapshot reads a single database");
+        }
+        List<String> names = validateShards(properties.getShards());
+        Map<String, DataSource> dataSources = new LinkedHashMap<>();
+        for (ShardingProperties.Shard shard : properties.getShards()) {
+            dataSources.put(shard.getName(), shardDataSource(shard, environment, meterRegistry));
+        }
+        int threads = properties.getScatterThreads() > 0 ? properties.getScatterThreads() : names.size() * 2;
+        ThreadFactory threadFactory = Thread.ofPlatform().name("shard-scatter-", 0).daemon(true).factory();
+        return new ShardTopology(new ConsistentHashRing(names, properties.getVirtualNodes()), dataSources,
+                Executors.newFixedThreadPool(threads, threadFactory));
+    }
+
+    /**
+     * The application DataSource. A connection is taken from a shard only at the first
+     * statement, after the repository has bound the transaction to the shard of its id.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardTopology topology) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(topology.dataSources()));
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardTopology topology, ShardingProperties properties) {
+        return new ShardRebalancer(topology.dataSources(), topology.ring(), properties.getRebalanceBatchSize());
+    }
+
+    @Bean
+    public ShardEndpoint shardEndpoint(ShardTopology topology, ShardRebalancer rebalancer) {
+        return new ShardEndpoint(topology, rebalancer);
+    }
+
+    /**
+     * Puts the shard router in front of the Spring Data repository, so ProductService and
+     * everything else keep depending on ProductRepository alone.
+     */
+    @Bean
+    static BeanPostProcessor shardedProductRepositoryProxy(ObjectProvider<ShardTopology> topology,
+                                                           ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ProductRepository repository) {
+                    ProxyFactory factory = new ProxyFactory();
+                    factory.setTarget(repository);
+                    factory.addInterface(ProductRepository.class);
+                    factory.addAdvice(new ShardedProductRepository(repository, topology.getObject(), transactionManager));
+                    return factory.getProxy(ProductRepository.class.getClassLoader());
+                }
+                return bean;
+            }
+        };
+    }
+
+    static List<String> validateShards(List<ShardingProperties.Shard> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("product.sharding.enabled requires at least one product.sharding.shards entry");
+        }
+        Set<String> names = new HashSet<>();
+        for (ShardingProperties.Shard shard : shards) {
+            if (shard.getName() == null || shard.getName().isBlank() || shard.getUrl() == null || shard.getUrl().isBlank()) {
+                throw new IllegalStateException("Every shard needs a name and a url");
+            }
+            if (!names.add(shard.getName())) {
+                throw new IllegalStateException("Duplicate shard name '" + shard.getName() + "'");
+            }
+        }
+        return shards.stream().map(ShardingProperties.Shard::getName).toList();
+    }
+
+    // Shares spring.datasource.hikari.* (timeouts, driver properties) with the single-database pool
+    private static HikariDataSource shardDataSource(ShardingProperties.Shard shard, Environment environment,
+                                                    MeterRegistry meterRegistry) {
+        HikariDataSource hikari = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(hikari));
+        hikari.setJdbcUrl(shard.getUrl());
+        hikari.setUsername(shard.getUsername());
+        hikari.setPassword(shard.getPassword());
+        hikari.setPoolName("product-ms-shard-" + shard.getName());
+        if (shard.getPoolSize() > 0) {
+            hikari.setMaximumPoolSize(shard.getPoolSize());
+        } else if (!environment.containsProperty(DataSourcePoolConfig.HIKARI_MAX_POOL_SIZE_PROPERTY)) {
+            hikari.setMaximumPoolSize(DataSourcePoolConfig.resolvePoolSize(environment));
+        }
+        hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return hikari;
+    }
+}
@@ -0,0 +1,39 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.observability.SlowQueryEndpoint;
+import com.catalog.productms.observability.SlowQueryListener;
+import com.catalog.productms.observability.SlowQueryProperties;
+import com.catalog.productms.observability.SlowQueryRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SlowQueryProperties.class)
+@ConditionalOnProperty(prefix = "product.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLogConfig {
+
+    @Bean
+    public SlowQueryRegistry slowQueryRegistry(SlowQueryProperties properties) {
+        return new SlowQueryRegistry(properties.getMaxShapes());
+    }
+
+    @Bean
+    public SlowQueryListener slowQueryListener(SlowQueryRegistry registry, SlowQueryProperties properties) {
+        return new SlowQueryListener(registry, properties);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryRegistry registry, SlowQueryProperties properties) {
+        return new SlowQueryEndpoint(registry, properties);
+    }
+
+    /** Times each statement through the shared datasource-proxy of every DataSource. */
+    @Bean
+    static BeanPostProcessor slowQueryDataSourceProxy(ObjectProvider<SlowQueryListener> listener) {
+        return DataSourceProxies.listening(listener::getObject, null);
+    }
+}
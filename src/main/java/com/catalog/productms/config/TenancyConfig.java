@@ -0,0 +1,34 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.tenant.TenancyProperties;
+import com.catalog.productms.tenant.TenantFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+// The properties are always bound: the caches size their per-tenant quotas from them
+@Configuration
+@EnableConfigurationProperties(TenancyProperties.class)
+public class TenancyConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.tenancy", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<TenantFilter> tenantFilter(TenancyProperties properties, ObjectMapper objectMapper,
+                                                             Environment environment) {
+        if (environment.getProperty("product.snapshot.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("product.snapshot.enabled cannot be combined with product.tenancy.enabled: "
+                    + "the snapshot holds the rows of every tenant");
+        }
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(
+                new TenantFilter(properties, objectMapper));
+        registration.addUrlPatterns("/products", "/products/*");
+        // Inside request timing, ahead of rate limiting so that budgets are charged per tenant
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        return registration;
+    }
+}
@@ -0,0 +1,89 @@
+package com.catalog.productms.controller;
+
+import com.catalog.productms.dto.ImportResponse;
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.transfer.CatalogFormat;
+import com.catalog.productms.transfer.CatalogTransferService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+
+@RestController
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequestMapping("/products")
+@RequiredArgsConstructor
+@Tag(name = "Catalog Transfer", description = "Bulk import and export of the product catalog")
+public class CatalogTransferController {
+
+    private final CatalogTransferService catalogTransferService;
+
+    @GetMapping("/export")
+    @Operation(summary = "Export the catalog",
+               description = "Streams every product as CSV or in the columnar binary format")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Catalog stream"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportCatalog(
+            @Parameter(description = "csv or columnar") @RequestParam(defaultValue = "csv") String format) {
+        CatalogFormat catalogFormat = CatalogFormat.fromParameter(format);
+        String tenant = TenantContext.current();
+        StreamingResponseBody body = out -> catalogTransferService.exportCatalog(tenant, catalogFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(catalogFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + catalogFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @PostMapping("/import")
+    @Operation(summary = "Import products",
+               description = "Reads a CSV or columnar catalog from the request body and inserts every valid row. "
+                       + "The format is taken from the format parameter, otherwise from the Content-Type.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished; per-row failures are listed",
+                    content = @Content(schema = @Schema(implementation = ImportResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Unreadable file or unsupported format")
+    })
+    public ResponseEntity<ImportResponse> importCatalog(
+            HttpServletRequest request,
+            @Parameter(description = "csv or columnar") @RequestParam(required = false) String format) throws IOException {
+        CatalogFormat catalogFormat = StringUtils.hasText(format)
+                ? CatalogFormat.fromParameter(format)
+                : CatalogFormat.fromContentType(contentTypeOf(request));
+
+        // Read the servlet stream directly so the body is never buffered whole
+        return ResponseEntity.ok(catalogTransferService.importCatalog(catalogFormat, request.getInputStream()));
+    }
+
+    private static MediaType contentTypeOf(HttpServletRequest request) {
+        try {
+            return request.getContentType() != null ? MediaType.parseMediaType(request.getContentType()) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package com.catalog.productms.controller;
 
+import com.catalog.productms.cache.HotPageCache;
+import com.catalog.productms.cache.PageKey;
+import com.catalog.productms.dto.BulkProductResponse;
+import com.catalog.productms.dto.ErrorResponse;
 import com.catalog.productms.dto.PageResponse;
 import com.catalog.productms.dto.ProductRequest;
 import com.catalog.productms.dto.ProductResponse;
 import com.catalog.productms.entity.Product;
+import com.catalog.productms.ratelimit.RateLimitFilter;
+import com.catalog.productms.service.OptimisticRetry;
 import com.catalog.productms.service.ProductService;
+import com.catalog.productms.service.ProductSort;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,12 +24,23 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -31,7 +49,11 @@ import java.util.stream.Collectors;
 @Tag(name = "Products", description = "Product Catalog API")
 public class ProductController {
 
+    static final int MAX_BULK_IDS = 1000;
+
     private final ProductService productService;
+    private final OptimisticRetry optimisticRetry;
+    private final HotPageCache hotPages;
 
     @PostMapping
     @Operation(summary = "Create a new product", description = "Creates a new product in the catalog")
@@ -42,22 +64,30 @@ public class ProductController {
     })
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody ProductRequest request) {
         Product product = productService.createProduct(request);
-        return ResponseEntity.status(HttpStatus.CREATED)
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), product)
                 .body(ProductResponse.fromEntity(product));
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update a product", description = "Updates an existing product by ID")
+    @Operation(summary = "Update a product",
+               description = "Updates an existing product by ID. With If-Match the update only applies to the "
+                       + "version named by the ETag; without it, concurrent updates are retried and the last one wins.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Product updated successfully"),
         @ApiResponse(responseCode = "404", description = "Product not found"),
-        @ApiResponse(responseCode = "400", description = "Invalid input")
+        @ApiResponse(responseCode = "400", description = "Invalid input"),
+        @ApiResponse(responseCode = "409", description = "A concurrent update committed first"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
     public ResponseEntity<ProductResponse> updateProduct(
             @Parameter(description = "Product ID") @PathVariable String id,
+            @Parameter(description = "ETag of the version being updated, or *")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductRequest request) {
-        Product product = productService.updateProduct(id, request);
-        return ResponseEntity.ok(ProductResponse.fromEntity(product));
+        Product product = ifMatch == null
+                ? optimisticRetry.execute(() -> productService.updateProduct(id, request))
+                : productService.updateProduct(id, request, parseIfMatch(ifMatch));
+        return withETag(ResponseEntity.ok(), product).body(ProductResponse.fromEntity(product));
     }
 
     @GetMapping("/{id}")
@@ -68,8 +98,9 @@ public class ProductController {
     })
     public ResponseEntity<ProductResponse> getProductById(
             @Parameter(description = "Product ID") @PathVariable String id) {
-        Product product = productService.getProductById(id);
-        return ResponseEntity.ok(ProductResponse.fromEntity(product));
+        return productService.findProductById(id)
+                .map(product -> withETag(ResponseEntity.ok(), product).body(ProductResponse.fromEntity(product)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @GetMapping
@@ -94,15 +125,43 @@ public class ProductController {
                 description = "Page size (default: 20, max: 100). If provided, response will be paginated.", 
                 example = "10"
             ) 
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @Parameter(
+                description = "Sort key: price, name or created_at. Ties are broken by product ID.", 
+                example = "price"
+            ) 
+            @RequestParam(required = false) String sort,
+            @Parameter(
+                description = "Sort direction: asc (default) or desc", 
+                example = "desc"
+            ) 
+            @RequestParam(required = false) String direction,
+            @Parameter(
+                description = "Set to false to skip the total count: totalElements and totalPages are left out " +
+                             "and hasNext is found by reading one row past the page",
+                example = "false"
+            )
+            @RequestParam(defaultValue = "true") boolean count) {
+        
+        Sort order;
+        try {
+            order = ProductSort.parse(sort, direction);
+        } catch (IllegalArgumentException ex) {
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
         
         // If pagination parameters provided, return paginated response
         if (page != null || size != null) {
-            int pageNumber = page != null ? page : 0;
-            int pageSize = size != null ? Math.min(size, 100) : 20; // Max 100 items per page
-            
-            Pageable pageable = PageRequest.of(pageNumber, pageSize);
-            
+            Pageable pageable = pageRequest(page, size, order);
+            if (!count) {
+                return ResponseEntity.ok(PageResponse.fromSlice(
+                        productService.getAllProductsSlice(pageable).map(ProductResponse::fromEntity)));
+            }
+            byte[] rendered = hotPages.get(PageKey.listing(pageable));
+            if (rendered != null) {
+                return renderedPage(rendered);
+            }
             Page<Product> productPage = productService.getAllProducts(pageable);
             Page<ProductResponse> responsePage = productPage.map(ProductResponse::fromEntity);
             
@@ -110,13 +169,63 @@ public class ProductController {
         }
         
         // Default behavior: return all products (backward compatibility)
-        List<Product> products = productService.getAllProducts();
+        List<Product> products = order.isSorted()
+                ? productService.getAllProducts(order)
+                : productService.getAllProducts();
         List<ProductResponse> response = products.stream()
                 .map(ProductResponse::fromEntity)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(params = "ids")
+    @Operation(
+        summary = "Get products by IDs", 
+        description = "Resolves many products in a single call. " +
+                     "Returns the found products keyed by ID and the list of IDs that do not exist."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lookup completed",
+                    content = @Content(schema = @Schema(implementation = BulkProductResponse.class))),
+        @ApiResponse(responseCode = "400", description = "No IDs provided or more than " + MAX_BULK_IDS + " IDs")
+    })
+    public ResponseEntity<?> getProductsByIds(
+            @Parameter(
+                description = "Comma-separated (or repeated) product IDs, max " + MAX_BULK_IDS, 
+                example = "id1,id2,id3"
+            ) 
+            @RequestParam List<String> ids) {
+        
+        // Trim, drop blanks and de-duplicate while keeping request order
+        Set<String> requestedIds = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                requestedIds.add(id.trim());
+            }
+        }
+        
+        if (requestedIds.isEmpty() || requestedIds.size() > MAX_BULK_IDS) {
+            ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Parameter 'ids' must contain between 1 and " + MAX_BULK_IDS + " product IDs"
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        
+        Map<String, Product> found = productService.getProductsByIds(requestedIds);
+        Map<String, ProductResponse> products = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : requestedIds) {
+            Product product = found.get(id);
+            if (product != null) {
+                products.put(id, ProductResponse.fromEntity(product));
+            } else {
+                missing.add(id);
+            }
+        }
+        return ResponseEntity.ok(new BulkProductResponse(products, missing));
+    }
+
     @GetMapping("/search")
     @Operation(
         summary = "Search products", 
@@ -153,15 +262,43 @@ public class ProductController {
                 description = "Page size (default: 20, max: 100). If provided, response will be paginated.", 
                 example = "5"
             ) 
-            @RequestParam(required = false) Integer size) {
+            @RequestParam(required = false) Integer size,
+            @Parameter(
+                description = "Sort key: price, name or created_at. Ties are broken by product ID.", 
+                example = "price"
+            ) 
+            @RequestParam(required = false) String sort,
+            @Parameter(
+                description = "Sort direction: asc (default) or desc", 
+                example = "desc"
+            ) 
+            @RequestParam(required = false) String direction,
+            @Parameter(
+                description = "Set to false to skip the total count: totalElements and totalPages are left out " +
+                             "and hasNext is found by reading one row past the page",
+                example = "false"
+            )
+            @RequestParam(defaultValue = "true") boolean count) {
+        
+        Sort order;
+        try {
+            order = ProductSort.parse(sort, direction);
+        } catch (IllegalArgumentException ex) {
+            ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
         
         // If pagination parameters provided, return paginated response
         if (page != null || size != null) {
-            int pageNumber = page != null ? page : 0;
-            int pageSize = size != null ? Math.min(size, 100) : 20; // Max 100 items per page
-            
-            Pageable pageable = PageRequest.of(pageNumber, pageSize);
-            
+            Pageable pageable = pageRequest(page, size, order);
+            if (!count) {
+                return ResponseEntity.ok(PageResponse.fromSlice(
+                        productService.searchProductsSlice(q, minPrice, maxPrice, pageable).map(ProductResponse::fromEntity)));
+            }
+            byte[] rendered = hotPages.get(PageKey.search(q, minPrice, maxPrice, pageable));
+            if (rendered != null) {
+                return renderedPage(rendered);
+            }
             Page<Product> productPage = productService.searchProducts(q, minPrice, maxPrice, pageable);
             Page<ProductResponse> responsePage = productPage.map(ProductResponse::fromEntity);
             
@@ -169,7 +306,9 @@ public class ProductController {
         }
         
         // Default behavior: return all matching products (backward compatibility)
-        List<Product> products = productService.searchProducts(q, minPrice, maxPrice);
+        List<Product> products = order.isSorted()
+                ? productService.searchProducts(q, minPrice, maxPrice, order)
+                : productService.searchProducts(q, minPrice, maxPrice);
         List<ProductResponse> response = products.stream()
                 .map(ProductResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -195,5 +334,46 @@ public class ProductController {
         productService.deleteAllProducts();
         return ResponseEntity.noContent().build();
     }
-}
 
+    // Unsorted pages fall back to ID order so page boundaries do not shift between requests
+    private static Pageable pageRequest(Integer page, Integer size, Sort order) {
+        int pageNumber = page != null ? page : 0;
+        int pageSize = size != null ? Math.min(size, 100) : 20; // Max 100 items per page
+        return PageRequest.of(pageNumber, pageSize, order.isSorted() ? order : ProductSort.DEFAULT);
+    }
+
+    // Already serialized PageResponse JSON; the byte[] converter writes it as is
+    private static ResponseEntity<byte[]> renderedPage(byte[] body) {
+        // A few microseconds that would otherwise become the limiter's baseline for every page of this cost
+        RequestContextHolder.currentRequestAttributes().setAttribute(RateLimitFilter.UNMEASURED_ATTRIBUTE, Boolean.TRUE,
+                RequestAttributes.SCOPE_REQUEST);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Products served from the local catalog copy carry no version and get no ETag
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder response, Product product) {
+        return product.getVersion() != null ? response.eTag(Long.toString(product.getVersion())) : response;
+    }
+
+    /**
+     * The versions an If-Match header accepts; null for "*". Weak and foreign tags never
+     * match, since If-Match uses strong comparison.
+     */
+    static Set<Long> parseIfMatch(String ifMatch) {
+        if ("*".equals(ifMatch.trim())) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (String tag : ifMatch.split(",")) {
+            String value = tag.trim();
+            if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                try {
+                    versions.add(Long.parseLong(value.substring(1, value.length() - 1)));
+                } catch (NumberFormatException ignored) {
+                    // not an ETag issued by this service
+                }
+            }
+        }
+        return versions;
+    }
+}
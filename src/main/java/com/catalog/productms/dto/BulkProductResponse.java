@@ -0,0 +1,18 @@
+package com.catalog.productms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkProductResponse {
+    // Found products keyed by id, in the order the ids were requested
+    private Map<String, ProductResponse> products;
+    // Requested ids that do not exist
+    private List<String> missing;
+}
@@ -0,0 +1,30 @@
+package com.catalog.productms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResponse {
+
+    private long imported;
+
+    private long failed;
+
+    // Per-row errors, capped; errorsTruncated is true when more rows failed than are listed
+    private List<RowError> errors;
+
+    private boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String message;
+    }
+}
@@ -1,9 +1,11 @@
 package com.catalog.productms.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -14,8 +16,11 @@ public class PageResponse<T> {
     private List<T> content;
     private int pageNumber;
     private int pageSize;
-    private long totalElements;
-    private int totalPages;
+    // Left out of responses requested with count=false
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPages;
     private boolean isFirst;
     private boolean isLast;
     private boolean hasNext;
@@ -34,5 +39,18 @@ public class PageResponse<T> {
             page.hasPrevious()
         );
     }
-}
 
+    public static <T> PageResponse<T> fromSlice(Slice<T> slice) {
+        return new PageResponse<>(
+            slice.getContent(),
+            slice.getNumber(),
+            slice.getSize(),
+            null,
+            null,
+            slice.isFirst(),
+            slice.isLast(),
+            slice.hasNext(),
+            slice.hasPrevious()
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.catalog.productms.entity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of Product.changeSeq: the wall clock in microseconds, forced strictly increasing
+ * within this JVM. Across instances it is only as ordered as the clocks are, which is why
+ * snapshot catch-up re-reads an overlap window below its watermark.
+ */
+public final class ChangeSequence {
+
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private ChangeSequence() {
+    }
+
+    public static long next() {
+        long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        return LAST.accumulateAndGet(now, (last, clock) -> Math.max(last + 1, clock));
+    }
+}
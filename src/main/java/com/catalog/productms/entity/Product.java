@@ -1,20 +1,34 @@
 package com.catalog.productms.entity;
 
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.tenant.TenantIdResolver;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.ParamDef;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
+// Schema and indexes are owned by the Flyway migrations in db/migration
 @Entity
 @Table(name = "products")
+// Enabled in every session: queries and loads by id only see the rows of the current tenant
+@FilterDef(name = Product.TENANT_FILTER, defaultCondition = "tenant_id = :tenantId",
+        autoEnabled = true, applyToLoadByKey = true,
+        parameters = @ParamDef(name = "tenantId", type = String.class, resolver = TenantIdResolver.class))
+@Filter(name = Product.TENANT_FILTER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
 
+    public static final String TENANT_FILTER = "tenantFilter";
+
     @Id
     @GeneratedValue(generator = "uuid")
     @GenericGenerator(name = "uuid", strategy = "org.hibernate.id.UUIDGenerator")
@@ -28,5 +42,39 @@ public class Product {
 
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
+
+    // Bumped on every insert/update; the catalog snapshot catches up on rows above its watermark
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // Optimistic lock: an update only applies to the version it read, and serves as the ETag
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    // Stamped from TenantContext on insert; a product never moves to another tenant
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @PrePersist
+    void onCreate() {
+        if (tenantId == null) {
+            tenantId = TenantContext.current();
+        }
+        onUpdate();
+        createdAt = updatedAt;
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        changeSeq = ChangeSequence.next();
+        updatedAt = Instant.now();
+    }
 }
 
@@ -1,7 +1,9 @@
 package com.catalog.productms.exception;
 
 import com.catalog.productms.dto.ErrorResponse;
+import com.catalog.productms.transfer.InvalidCatalogFileException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -31,6 +33,45 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ProductVersionMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleVersionMismatch(ProductVersionMismatchException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.PRECONDITION_FAILED.value(),
+            ex.getMessage() + ". Fetch the product again and retry with its current ETag."
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(Long.toString(ex.getCurrentVersion()))
+                .body(errorResponse);
+    }
+
+    // Another update committed between this request's read and its write
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.CONFLICT.value(),
+            "The product was modified concurrently. Fetch it again and retry."
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(SingleFlightTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleSingleFlightTimeout(SingleFlightTimeoutException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            "The request timed out. Please retry later."
+        );
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidCatalogFileException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCatalogFile(InvalidCatalogFileException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex) {
         String message = ex.getBindingResult().getFieldErrors().stream()
@@ -1,7 +1,14 @@
 package com.catalog.productms.exception;
 
+// A client error mapped to a 400: no stack trace is captured
 public class ProductAlreadyExistsException extends RuntimeException {
     public ProductAlreadyExistsException(String message) {
-        super(message);
+        super(message, null, false, false);
+    }
+
+    public static ProductAlreadyExistsException of(String name, String description) {
+        return new ProductAlreadyExistsException(
+            "Product with name '" + name + "' and description '" + description + "' already exists"
+        );
     }
 }
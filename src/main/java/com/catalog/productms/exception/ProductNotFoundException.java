@@ -1,8 +1,8 @@
 package com.catalog.productms.exception;
 
+// Thrown for ordinary misses and always mapped to a 404: no stack trace is captured
 public class ProductNotFoundException extends RuntimeException {
     public ProductNotFoundException(String id) {
-        super("Product not found with id: " + id);
+        super("Product not found with id: " + id, null, false, false);
     }
 }
-
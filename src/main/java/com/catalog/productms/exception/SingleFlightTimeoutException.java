@@ -0,0 +1,7 @@
+package com.catalog.productms.exception;
+
+public class SingleFlightTimeoutException extends RuntimeException {
+    public SingleFlightTimeoutException(String operation, long timeoutMs) {
+        super("Timed out after " + timeoutMs + " ms waiting for in-flight " + operation);
+    }
+}
@@ -0,0 +1,135 @@
+package com.catalog.productms.observability;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Starts, stops and dumps one Flight Recorder recording per instance: POST
+ * /actuator/jfr/start, /stop and /dump, GET for the state and DELETE to discard it. A
+ * stopped recording can still be dumped until it is discarded or another one starts.
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+    static final String RECORDING_NAME = "product-ms";
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")
+            .withZone(ZoneOffset.UTC);
+
+    private final JfrProperties properties;
+    private Recording recording;
+
+    public JfrEndpoint(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("stopTime", recording.getStopTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("bytes", recording.getSize());
+        return status;
+    }
+
+    /**
+     * start takes optional settings ("default" or "profile"), thresholdMs for product
+     * operations and durationSeconds after which the recording stops by itself.
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> control(@Selector String action, @Nullable String settings,
+                                                    @Nullable Long thresholdMs, @Nullable Long durationSeconds) {
+        switch (action) {
+            case "start" -> start(settings, thresholdMs, durationSeconds);
+            case "stop" -> stop();
+            case "dump" -> {
+                return Map.of("file", dump().toAbsolutePath().toString());
+            }
+            default -> throw new InvalidEndpointRequestException("Unknown action '" + action + "'; use start, stop or dump",
+                    "Unknown action");
+        }
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized void discard() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void start(String settings, Long thresholdMs, Long durationSeconds) {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new InvalidEndpointRequestException("A recording is already running", "Already running");
+        }
+        String settingsName = settings != null ? settings : properties.getSettings();
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException ex) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings '" + settingsName + "'", "Unknown settings");
+        }
+        discard();
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(Duration.ofSeconds(properties.getMaxAgeSeconds()));
+        if (durationSeconds != null && durationSeconds > 0) {
+            started.setDuration(Duration.ofSeconds(durationSeconds));
+        }
+        started.enable(ProductOperationEvent.NAME)
+                .withThreshold(Duration.ofMillis(thresholdMs != null ? thresholdMs : properties.getThresholdMs()));
+        started.start();
+        recording = started;
+    }
+
+    private void stop() {
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            throw new InvalidEndpointRequestException("No recording is running", "Not running");
+        }
+        recording.stop();
+    }
+
+    private Path dump() {
+        if (recording == null || recording.getState() == RecordingState.NEW) {
+            throw new InvalidEndpointRequestException("There is no recording to dump", "No recording");
+        }
+        try {
+            Path directory = Files.createDirectories(Path.of(properties.getDumpDirectory()));
+            Path file = directory.resolve(RECORDING_NAME + "-" + FILE_TIME.format(Instant.now()) + ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Writing the recording failed", ex);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.catalog.productms.observability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product.jfr")
+public class JfrProperties {
+
+    // Emit a ProductOperation event around each ProductService call (free while no recording enables it)
+    private boolean enabled = true;
+
+    // Where the jfr endpoint writes dumps
+    private String dumpDirectory = "data/jfr";
+
+    // JDK settings a recording starts with: "default" (about 1% overhead) or "profile"
+    private String settings = "default";
+
+    // Product operations faster than this are left out of a recording
+    private long thresholdMs = 0;
+
+    // Data older than this is discarded while a recording runs
+    private long maxAgeSeconds = 3600;
+}
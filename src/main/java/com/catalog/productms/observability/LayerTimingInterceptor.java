@@ -0,0 +1,34 @@
+package com.catalog.productms.observability;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Adds the time a call spends in one layer to the request timing, less whatever the
+ * layers it calls reported themselves. Nested or repeated wrapping therefore counts
+ * nothing twice.
+ */
+public class LayerTimingInterceptor implements MethodInterceptor {
+
+    private final RequestTiming.Phase phase;
+
+    public LayerTimingInterceptor(RequestTiming.Phase phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return invocation.proceed();
+        }
+        long recordedBefore = timing.recorded();
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timing.add(phase, Math.max(0, elapsed - (timing.recorded() - recordedBefore)));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.catalog.productms.observability;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One ProductService call in a Flight Recorder recording. The duration is the event's own;
+ * cache hits and misses count the ids answered without and with the database.
+ */
+@Name(ProductOperationEvent.NAME)
+@Label("Product Operation")
+@Category({"Product Catalog", "Service"})
+@Description("A ProductService call with its parameters, rows returned and cache outcome")
+@StackTrace(false)
+public class ProductOperationEvent extends Event {
+
+    public static final String NAME = "com.catalog.productms.ProductOperation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Product ID")
+    String productId;
+
+    @Label("Requested IDs")
+    int requestedIds;
+
+    @Label("Query")
+    String query;
+
+    @Label("Min Price")
+    String minPrice;
+
+    @Label("Max Price")
+    String maxPrice;
+
+    @Label("Page")
+    @Description("Page number, or -1 when the call is not paged")
+    int page = -1;
+
+    @Label("Page Size")
+    int pageSize;
+
+    @Label("Sort")
+    String sort;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Cache Hits")
+    int cacheHits;
+
+    @Label("Cache Misses")
+    int cacheMisses;
+
+    @Label("Error")
+    @Description("Exception class when the call failed")
+    String error;
+}
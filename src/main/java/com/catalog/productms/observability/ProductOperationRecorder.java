@@ -0,0 +1,115 @@
+package com.catalog.productms.observability;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Emits a {@link ProductOperationEvent} around each ProductService call. While no recording
+ * has the event enabled, a call costs an isEnabled() check on an event the JIT never
+ * allocates; parameters and results are only described for events that are committed.
+ */
+public class ProductOperationRecorder implements MethodInterceptor {
+
+    // Only set while an enabled event is in progress on this thread
+    private static final ThreadLocal<ProductOperationEvent> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ProductOperationEvent event = new ProductOperationEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        ProductOperationEvent outer = CURRENT.get();
+        CURRENT.set(event);
+        Object result = null;
+        Throwable failure = null;
+        event.begin();
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            event.end();
+            CURRENT.set(outer);
+            if (event.shouldCommit()) {
+                describe(event, invocation, result, failure);
+                event.commit();
+            }
+        }
+    }
+
+    /** Ids of the current operation answered by a cache or the local catalog copy. */
+    public static void cacheHits(int ids) {
+        ProductOperationEvent event = CURRENT.get();
+        if (event != null) {
+            event.cacheHits += ids;
+        }
+    }
+
+    /** Ids of the current operation that had to be read from the database. */
+    public static void cacheMisses(int ids) {
+        ProductOperationEvent event = CURRENT.get();
+        if (event != null) {
+            event.cacheMisses += ids;
+        }
+    }
+
+    static void describe(ProductOperationEvent event, MethodInvocation invocation, Object result, Throwable failure) {
+        String operation = invocation.getMethod().getName();
+        Object[] args = invocation.getArguments();
+        event.operation = operation;
+        if (operation.startsWith("search") && args.length >= 3) {
+            event.query = (String) args[0];
+            event.minPrice = price(args[1]);
+            event.maxPrice = price(args[2]);
+        } else if (args.length > 0 && args[0] instanceof String id) {
+            event.productId = id;
+        } else if (args.length > 0 && args[0] instanceof Collection<?> ids) {
+            event.requestedIds = ids.size();
+        }
+        for (Object arg : args) {
+            if (arg instanceof Pageable pageable) {
+                if (pageable.isPaged()) {
+                    event.page = pageable.getPageNumber();
+                    event.pageSize = pageable.getPageSize();
+                }
+                event.sort = sort(pageable.getSort());
+            } else if (arg instanceof Sort sort) {
+                event.sort = sort(sort);
+            }
+        }
+        event.rows = rows(result);
+        if (failure != null) {
+            event.error = failure.getClass().getName();
+        }
+    }
+
+    private static int rows(Object result) {
+        return switch (result) {
+            case null -> 0;
+            case Optional<?> optional -> optional.isPresent() ? 1 : 0;
+            case Collection<?> collection -> collection.size();
+            case Map<?, ?> map -> map.size();
+            case Slice<?> slice -> slice.getNumberOfElements();
+            default -> 1;
+        };
+    }
+
+    private static String price(Object price) {
+        return price instanceof BigDecimal value ? value.toPlainString() : null;
+    }
+
+    private static String sort(Sort sort) {
+        return sort.isSorted() ? sort.toString() : null;
+    }
+}
@@ -0,0 +1,205 @@
+package com.catalog.productms.observability;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Where the time of one sampled request went. The filter binds it to the request thread;
+ * the service and repository interceptors and the JDBC listener add to it, each layer
+ * keeping only the time its inner layers did not already report. Unsampled requests have
+ * none, so every hook costs a single ThreadLocal read.
+ */
+public final class RequestTiming {
+
+    public enum Phase {
+        // DataSource.getConnection, including the wait for a pooled connection
+        ACQUIRE("acquire"),
+        // Statement execution, commit and rollback
+        DB("db"),
+        // Repository calls minus their JDBC work: entity mapping, flush, transaction handling
+        ORM("orm"),
+        // ProductService minus its repository calls: caches, in-memory search, coalescing waits
+        SERVICE("service"),
+        // Serializing the response body
+        WRITE("write");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long startNanos;
+    private final long queueNanos;
+    private final boolean serverTimingHeader;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private long recordedNanos;
+    private int queries;
+    private long jdbcStartNanos;
+    private long writeStartNanos = -1;
+
+    RequestTiming(long startNanos, long queueNanos, boolean serverTimingHeader) {
+        this.startNanos = startNanos;
+        this.queueNanos = Math.max(-1, queueNanos);
+        this.serverTimingHeader = serverTimingHeader;
+    }
+
+    /**
+     * The timing of the request running on this thread, or null when it is not sampled or
+     * the call does not come from a request.
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    static void bind(RequestTiming timing) {
+        CURRENT.set(timing);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs the call with the timing bound to this thread, for work a request hands to another
+     * thread. A null timing leaves the call untimed.
+     */
+    public static <T> T callWith(RequestTiming timing, Supplier<T> call) {
+        RequestTiming previous = CURRENT.get();
+        CURRENT.set(timing);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * A separate timing for work this request runs on another thread; {@link #join} adds it
+     * back once that work is done. Phases are not shared, as they are not thread-safe.
+     */
+    public RequestTiming fork() {
+        return new RequestTiming(System.nanoTime(), -1, false);
+    }
+
+    /**
+     * Adds forks that ran in parallel while this request waited for all of them. Only the
+     * slowest one is on the request's path, so its phases are added; the statements of every
+     * fork are counted.
+     */
+    public void join(List<RequestTiming> forks) {
+        RequestTiming slowest = null;
+        for (RequestTiming fork : forks) {
+            if (slowest == null || fork.recordedNanos > slowest.recordedNanos) {
+                slowest = fork;
+            }
+            queries += fork.queries;
+        }
+        if (slowest != null) {
+            for (Phase phase : PHASES) {
+                add(phase, slowest.nanos(phase));
+            }
+        }
+    }
+
+    public void add(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+        recordedNanos += nanos;
+    }
+
+    /**
+     * Everything added so far. A layer reads it before and after a call to subtract what the
+     * layers below it reported.
+     */
+    public long recorded() {
+        return recordedNanos;
+    }
+
+    public long nanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    public int queries() {
+        return queries;
+    }
+
+    /** Between the proxy stamping the request and this service reading it; -1 when not stamped. */
+    public long queueNanos() {
+        return queueNanos;
+    }
+
+    void jdbcStarted(long nanos) {
+        jdbcStartNanos = nanos;
+    }
+
+    void jdbcFinished(Phase phase, int statements, long nanos) {
+        add(phase, nanos - jdbcStartNanos);
+        queries += statements;
+    }
+
+    /** Marks the start of body serialization; the first call wins. */
+    public void writeStarted(long nanos) {
+        if (writeStartNanos < 0) {
+            writeStartNanos = nanos;
+        }
+    }
+
+    long writeStartNanos() {
+        return writeStartNanos;
+    }
+
+    public boolean isServerTimingHeader() {
+        return serverTimingHeader;
+    }
+
+    /**
+     * Time up to now not covered by a phase: filters, dispatch, the controller and the
+     * entity to DTO mapping.
+     */
+    long appNanos(long now) {
+        return Math.max(0, now - startNanos - recordedNanos);
+    }
+
+    long elapsedNanos(long now) {
+        return now - startNanos;
+    }
+
+    /** The Server-Timing header value for the time spent until now. */
+    public String serverTiming(long now) {
+        StringJoiner header = new StringJoiner(", ");
+        if (queueNanos >= 0) {
+            header.add(entry("queue", queueNanos));
+        }
+        for (Phase phase : PHASES) {
+            if (phase == Phase.WRITE) {
+                continue;
+            }
+            String entry = entry(phase.metricName(), nanos(phase));
+            header.add(phase == Phase.DB ? entry + ";desc=\"" + queries + " queries\"" : entry);
+        }
+        header.add(entry("app", appNanos(now)));
+        header.add(entry("total", elapsedNanos(now)));
+        return header.toString();
+    }
+
+    static double millis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static String entry(String name, long nanos) {
+        return name + ";dur=" + millis(nanos);
+    }
+}
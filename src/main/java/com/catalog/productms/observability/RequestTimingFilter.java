@@ -0,0 +1,148 @@
+package com.catalog.productms.observability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Times a sample of the API requests phase by phase. A timed request gets a Server-Timing
+ * header (set by {@link ServerTimingAdvice} just before the body is written, or here for
+ * responses without one) and one JSON line in the asynchronous
+ * "com.catalog.productms.access" log once the body is out.
+ */
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String LOGGER_NAME = "com.catalog.productms.access";
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final RequestTimingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+    private final LongSupplier epochMicros;
+
+    public RequestTimingFilter(RequestTimingProperties properties, ObjectMapper objectMapper) {
+        this(properties, objectMapper, System::nanoTime, RequestTimingFilter::nowMicros);
+    }
+
+    RequestTimingFilter(RequestTimingProperties properties, ObjectMapper objectMapper, LongSupplier nanoClock,
+                        LongSupplier epochMicros) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        this.epochMicros = epochMicros;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate <= 0 || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long queueMicros = queueMicros(request.getHeader(properties.getQueueHeader()), epochMicros.getAsLong());
+        RequestTiming timing = new RequestTiming(nanoClock.getAsLong(),
+                queueMicros >= 0 ? TimeUnit.MICROSECONDS.toNanos(queueMicros) : -1,
+                properties.isServerTimingHeader());
+        RequestTiming.bind(timing);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.unbind();
+        }
+
+        long end = nanoClock.getAsLong();
+        if (timing.isServerTimingHeader() && !response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+            response.setHeader(SERVER_TIMING, timing.serverTiming(end));
+        }
+        // Streamed exports finish on another thread; their phases would be incomplete
+        if (properties.isAccessLog() && !isAsyncStarted(request) && ACCESS_LOG.isInfoEnabled()) {
+            if (timing.writeStartNanos() >= 0) {
+                timing.add(RequestTiming.Phase.WRITE, end - timing.writeStartNanos());
+            }
+            ACCESS_LOG.info(accessLogLine(request, response, timing, end));
+        }
+    }
+
+    String accessLogLine(HttpServletRequest request, HttpServletResponse response, RequestTiming timing, long end) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", Instant.now().toString());
+        line.put("method", request.getMethod());
+        line.put("path", request.getRequestURI());
+        if (request.getQueryString() != null) {
+            line.put("query", request.getQueryString());
+        }
+        line.put("status", response.getStatus());
+        line.put("client", request.getRemoteAddr());
+        line.put("durMs", RequestTiming.millis(timing.elapsedNanos(end)));
+        if (timing.queueNanos() >= 0) {
+            line.put("queueMs", RequestTiming.millis(timing.queueNanos()));
+        }
+        for (RequestTiming.Phase phase : RequestTiming.Phase.values()) {
+            line.put(phase.metricName() + "Ms", RequestTiming.millis(timing.nanos(phase)));
+        }
+        line.put("appMs", RequestTiming.millis(timing.appNanos(end)));
+        line.put("queries", timing.queries());
+        try {
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Access log line could not be written", ex);
+        }
+    }
+
+    /**
+     * Microseconds between the proxy timestamp and now, or -1 without a usable header.
+     * Accepts seconds with a fraction (nginx $msec) and whole seconds, milli- or microseconds,
+     * optionally prefixed with "t=". Clock skew never makes it negative.
+     */
+    static long queueMicros(String header, long nowMicros) {
+        if (header == null || header.isBlank()) {
+            return -1;
+        }
+        String value = header.trim();
+        if (value.startsWith("t=")) {
+            value = value.substring(2);
+        }
+        long stampMicros;
+        try {
+            if (value.indexOf('.') >= 0) {
+                stampMicros = Math.round(Double.parseDouble(value) * 1_000_000);
+            } else {
+                long stamp = Long.parseLong(value);
+                // Told apart by magnitude: epoch seconds have 10 digits, milliseconds 13, microseconds 16
+                if (stamp < 100_000_000_000L) {
+                    stampMicros = TimeUnit.SECONDS.toMicros(stamp);
+                } else if (stamp < 100_000_000_000_000L) {
+                    stampMicros = TimeUnit.MILLISECONDS.toMicros(stamp);
+                } else {
+                    stampMicros = stamp;
+                }
+            }
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+        return Math.max(0, nowMicros - stampMicros);
+    }
+
+    private static long nowMicros() {
+        Instant now = Instant.now();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + now.getNano() / 1000;
+    }
+}
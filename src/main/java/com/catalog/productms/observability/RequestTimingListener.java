@@ -0,0 +1,67 @@
+package com.catalog.productms.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * Reports connection acquisition and statement execution to the request timing. JDBC
+ * calls on one thread never overlap, so a single start mark per request is enough.
+ */
+public class RequestTimingListener implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.jdbcStarted(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null) {
+            timing.jdbcFinished(RequestTiming.Phase.DB, queryInfoList.size(), System.nanoTime());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing != null && phaseOf(executionContext) != null) {
+            timing.jdbcStarted(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return;
+        }
+        RequestTiming.Phase phase = phaseOf(executionContext);
+        if (phase != null) {
+            timing.jdbcFinished(phase, 0, System.nanoTime());
+        }
+    }
+
+    // Statements are reported through the query callbacks; of the other calls only these take real time
+    private static RequestTiming.Phase phaseOf(MethodExecutionContext executionContext) {
+        String method = executionContext.getMethod().getName();
+        Object target = executionContext.getTarget();
+        if (target instanceof DataSource && method.equals("getConnection")) {
+            return RequestTiming.Phase.ACQUIRE;
+        }
+        if (target instanceof Connection && (method.equals("commit") || method.equals("rollback"))) {
+            return RequestTiming.Phase.DB;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.catalog.productms.observability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product.request-timing")
+public class RequestTimingProperties {
+
+    private boolean enabled = true;
+
+    // Fraction of requests that are timed (0.0 - 1.0)
+    private double sampleRate = 0.01;
+
+    // Send the phases of timed requests back in a Server-Timing header
+    private boolean serverTimingHeader = true;
+
+    // Timestamp set by the proxy in front of the service; the time since then is reported as queue
+    private String queueHeader = "X-Request-Start";
+
+    // Write one JSON line per timed request to the asynchronous access log
+    private boolean accessLog = true;
+}
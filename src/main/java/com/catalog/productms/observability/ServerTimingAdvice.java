@@ -0,0 +1,38 @@
+package com.catalog.productms.observability;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks where serialization starts and adds the Server-Timing header while headers can
+ * still be set. The write itself is therefore only in the access log.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTiming timing = RequestTiming.current();
+        if (timing == null) {
+            return body;
+        }
+        long now = System.nanoTime();
+        timing.writeStarted(now);
+        if (timing.isServerTimingHeader()) {
+            response.getHeaders().set(RequestTimingFilter.SERVER_TIMING, timing.serverTiming(now));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,38 @@
+package com.catalog.productms.observability;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final SlowQueryRegistry registry;
+    private final SlowQueryProperties properties;
+
+    public SlowQueryEndpoint(SlowQueryRegistry registry, SlowQueryProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries(@Nullable Integer limit) {
+        List<SlowQueryRegistry.SlowQueryShape> top = registry.top(limit != null ? limit : DEFAULT_LIMIT);
+        return Map.of(
+            "thresholdMs", properties.getThresholdMs(),
+            "untracked", registry.untrackedCount(),
+            "queries", top
+        );
+    }
+
+    @DeleteOperation
+    public void reset() {
+        registry.reset();
+    }
+}
@@ -0,0 +1,75 @@
+package com.catalog.productms.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records statements slower than the configured threshold. Fast statements cost a
+ * single comparison; slow ones are aggregated by shape and a sample of them is logged
+ * through the asynchronous "com.catalog.productms.slowquery" logger.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    static final String LOGGER_NAME = "com.catalog.productms.slowquery";
+
+    private static final Logger SLOW_QUERY_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final int MAX_PARAMETER_LENGTH = 100;
+
+    private final SlowQueryRegistry registry;
+    private final long thresholdMs;
+    private final double sampleRate;
+
+    public SlowQueryListener(SlowQueryRegistry registry, SlowQueryProperties properties) {
+        this.registry = registry;
+        this.thresholdMs = properties.getThresholdMs();
+        this.sampleRate = properties.getSampleRate();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Elapsed time is measured by the proxy itself
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMs = execInfo.getElapsedTime();
+        if (elapsedMs < thresholdMs) {
+            return;
+        }
+
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        for (QueryInfo query : queryInfoList) {
+            String parameters = formatParameters(query.getParametersList());
+            registry.record(query.getQuery(), elapsedMs, parameters);
+            if (sampled) {
+                SLOW_QUERY_LOG.warn("Slow query: {} ms, success={}, batch={}, sql=[{}], params={}",
+                        elapsedMs, execInfo.isSuccess(), execInfo.isBatch(), query.getQuery(), parameters);
+            }
+        }
+    }
+
+    static String formatParameters(List<List<ParameterSetOperation>> parametersList) {
+        StringJoiner batches = new StringJoiner(", ", "[", "]");
+        for (List<ParameterSetOperation> parameters : parametersList) {
+            StringJoiner values = new StringJoiner(", ", "(", ")");
+            for (ParameterSetOperation operation : parameters) {
+                Object[] args = operation.getArgs();
+                values.add(args.length > 1 ? truncate(String.valueOf(args[1])) : "");
+            }
+            batches.add(values.toString());
+        }
+        return batches.toString();
+    }
+
+    private static String truncate(String value) {
+        return value.length() <= MAX_PARAMETER_LENGTH ? value : value.substring(0, MAX_PARAMETER_LENGTH) + "...";
+    }
+}
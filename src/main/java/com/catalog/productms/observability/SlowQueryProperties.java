@@ -0,0 +1,20 @@
+package com.catalog.productms.observability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product.slow-query")
+public class SlowQueryProperties {
+
+    private boolean enabled = true;
+
+    // Statements at or above this elapsed time are recorded
+    private long thresholdMs = 200;
+
+    // Fraction of recorded statements that are also written to the log (0.0 - 1.0)
+    private double sampleRate = 1.0;
+
+    // Maximum number of distinct statement shapes tracked for the actuator endpoint
+    private int maxShapes = 200;
+}
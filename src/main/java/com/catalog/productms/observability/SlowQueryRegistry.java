@@ -0,0 +1,83 @@
+package com.catalog.productms.observability;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates slow statements by shape (literals replaced with '?', whitespace collapsed)
+ * so the actuator endpoint can report the most expensive shapes.
+ */
+public class SlowQueryRegistry {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMERIC_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final int maxShapes;
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+
+    public SlowQueryRegistry(int maxShapes) {
+        this.maxShapes = maxShapes;
+    }
+
+    public void record(String sql, long elapsedMs, String parameters) {
+        String shape = normalize(sql);
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                untracked.increment();
+                return;
+            }
+            stats = shapes.computeIfAbsent(shape, key -> new ShapeStats());
+        }
+        stats.count.increment();
+        stats.totalMs.add(elapsedMs);
+        stats.maxMs.accumulateAndGet(elapsedMs, Math::max);
+        stats.lastParameters = parameters;
+    }
+
+    public List<SlowQueryShape> top(int limit) {
+        return shapes.entrySet().stream()
+                .map(entry -> entry.getValue().toShape(entry.getKey()))
+                .sorted(Comparator.comparingLong(SlowQueryShape::totalMs).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    public long untrackedCount() {
+        return untracked.sum();
+    }
+
+    public void reset() {
+        shapes.clear();
+        untracked.reset();
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public record SlowQueryShape(String sql, long count, long totalMs, long maxMs, double avgMs, String lastParameters) {
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMs = new LongAdder();
+        private final AtomicLong maxMs = new AtomicLong();
+        private volatile String lastParameters;
+
+        private SlowQueryShape toShape(String sql) {
+            long calls = count.sum();
+            long total = totalMs.sum();
+            return new SlowQueryShape(sql, calls, total, maxMs.get(), calls == 0 ? 0 : (double) total / calls, lastParameters);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.catalog.productms.ratelimit;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AIMD concurrency limiter. Requests above the current limit are rejected immediately
+ * rather than queued, so the service sheds load before the connection pool saturates.
+ * Latency is judged per latency class (requests of similar cost): a search is only
+ * compared with earlier searches, never with the fastest id lookup.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final int probeInterval;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Guarded by "this"
+    private final Map<Integer, Long> minRttNanos = new HashMap<>();
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(RateLimitProperties.Concurrency properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.latencyTolerance = properties.getLatencyTolerance();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.probeInterval = properties.getProbeInterval();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long rttNanos, boolean failed) {
+        release(0, rttNanos, failed);
+    }
+
+    /**
+     * Releases a permit taken by {@link #tryAcquire()} and feeds the observed latency
+     * into the limit, against the baseline of its latency class. Failed requests (5xx,
+     * timeouts) count as congestion.
+     */
+    public void release(int latencyClass, long rttNanos, boolean failed) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(latencyClass, rttNanos, inFlightAtCompletion, failed);
+    }
+
+    // For requests answered without real work (pre-rendered pages): their latency says nothing about congestion
+    public void releaseUnsampled() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(int latencyClass, long rttNanos, int inFlightAtCompletion, boolean failed) {
+        if (++samples % probeInterval == 0) {
+            minRttNanos.clear();
+        }
+        Long baseline = minRttNanos.get(latencyClass);
+        if (!failed && (baseline == null || rttNanos < baseline)) {
+            baseline = rttNanos;
+            minRttNanos.put(latencyClass, baseline);
+        }
+
+        int current = limit;
+        if (failed || (baseline != null && rttNanos > baseline * latencyTolerance)) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (inFlightAtCompletion * 2 >= current) {
+            // Only grow while the limit is actually being used
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,249 @@
+package com.catalog.productms.ratelimit;
+
+import com.catalog.productms.dto.ErrorResponse;
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.tenant.TenantQuota;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Guards the product API with a per-client token bucket (weighted by endpoint cost)
+ * followed by an adaptive concurrency limit. Rate-limited clients get 429, shed
+ * requests get 503; both carry Retry-After.
+ * <p>
+ * With tenancy enabled, each tenant also has a token bucket shared by its clients and may
+ * only hold a share of the concurrency limit, so a noisy tenant is throttled or shed
+ * before it takes the capacity the other tenants need.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Request attribute set by handlers that answer without real work (pre-rendered pages);
+     * such requests still hold a permit but do not teach the limiter their latency.
+     */
+    public static final String UNMEASURED_ATTRIBUTE = RateLimitFilter.class.getName() + ".UNMEASURED";
+
+    private final RateLimitProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier clock;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> tenantBuckets = new ConcurrentHashMap<>();
+    private final TenantQuota tenantInFlight;
+
+    private final Counter rateLimited;
+    private final Counter shed;
+    private final Counter tenantRateLimited;
+    private final Counter tenantShed;
+
+    public RateLimitFilter(RateLimitProperties properties, AdaptiveConcurrencyLimiter limiter,
+                           ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, limiter, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, AdaptiveConcurrencyLimiter limiter,
+                    ObjectMapper objectMapper, MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.tenantInFlight = new TenantQuota(properties.getConcurrency().getMaxLimit());
+        this.rateLimited = Counter.builder("product.ratelimit.rejections")
+                .tag("reason", "rate_limit")
+                .description("Requests rejected with 429 by the per-client token bucket")
+                .register(meterRegistry);
+        this.shed = Counter.builder("product.ratelimit.rejections")
+                .tag("reason", "overload")
+                .description("Requests shed with 503 by the adaptive concurrency limit")
+                .register(meterRegistry);
+        this.tenantRateLimited = Counter.builder("product.ratelimit.rejections")
+                .tag("reason", "tenant_rate_limit")
+                .description("Requests rejected with 429 by the per-tenant token bucket")
+                .register(meterRegistry);
+        this.tenantShed = Counter.builder("product.ratelimit.rejections")
+                .tag("reason", "tenant_overload")
+                .description("Requests shed with 503 because their tenant holds its share of the concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("product.ratelimit.clients", buckets, Map::size)
+                .description("Clients with an active token bucket")
+                .register(meterRegistry);
+        if (limiter != null) {
+            Gauge.builder("product.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Current adaptive concurrency limit")
+                    .register(meterRegistry);
+            Gauge.builder("product.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Requests currently admitted by the concurrency limit")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = clock.getAsLong();
+        int cost = costOf(request);
+        TokenBucket clientBucket = bucketFor(buckets, clientKey(request), now, properties.getCapacity(),
+                properties.getRefillPerSecond());
+        long waitNanos = clientBucket != null ? clientBucket.tryConsume(cost, now) : TimeUnit.SECONDS.toNanos(1);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos),
+                    "Rate limit exceeded. Please retry later.");
+            return;
+        }
+
+        // Bound by the tenant filter only while tenancy is enabled
+        String tenant = TenantContext.isBound() ? TenantContext.current() : null;
+        if (tenant != null) {
+            RateLimitProperties.Tenant budget = properties.getTenant();
+            TokenBucket tenantBucket = bucketFor(tenantBuckets, tenant, now, budget.getCapacity(),
+                    budget.getRefillPerSecond());
+            long tenantWaitNanos = tenantBucket != null ? tenantBucket.tryConsume(cost, now) : TimeUnit.SECONDS.toNanos(1);
+            if (tenantWaitNanos > 0) {
+                tenantRateLimited.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(tenantWaitNanos),
+                        "Tenant rate limit exceeded. Please retry later.");
+                return;
+            }
+        }
+
+        // Bulk transfers run for minutes by design; their latency would only teach the limiter to back off
+        if (limiter == null || isTransfer(pathOf(request))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (tenant != null && !tenantInFlight.tryAcquire(tenant, tenantConcurrencyLimit())) {
+            tenantShed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.getConcurrency().getRetryAfterSeconds(),
+                    "Tenant is over its share of capacity. Please retry later.");
+            return;
+        }
+        try {
+            if (!limiter.tryAcquire()) {
+                shed.increment();
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, properties.getConcurrency().getRetryAfterSeconds(),
+                        "Service is overloaded. Please retry later.");
+                return;
+            }
+
+            long start = clock.getAsLong();
+            boolean failed = true;
+            try {
+                filterChain.doFilter(request, response);
+                failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+            } finally {
+                if (request.getAttribute(UNMEASURED_ATTRIBUTE) != null) {
+                    limiter.releaseUnsampled();
+                } else {
+                    // Requests of one cost are of similar weight, so the cost doubles as the latency class
+                    limiter.release(cost, clock.getAsLong() - start, failed);
+                }
+            }
+        } finally {
+            if (tenant != null) {
+                tenantInFlight.release(tenant);
+            }
+        }
+    }
+
+    // Anyone can send the header, so it only names the client when a trusted proxy set it
+    String clientKey(HttpServletRequest request) {
+        String remoteAddress = request.getRemoteAddr();
+        if (!properties.getTrustedProxies().contains(remoteAddress)) {
+            return remoteAddress;
+        }
+        String client = request.getHeader(properties.getClientHeader());
+        return client != null && !client.isBlank() ? client.trim() : remoteAddress;
+    }
+
+    int costOf(HttpServletRequest request) {
+        RateLimitProperties.Costs costs = properties.getCosts();
+        String path = pathOf(request);
+        boolean paged = request.getParameter("page") != null || request.getParameter("size") != null;
+
+        if (isTransfer(path)) {
+            return costs.getTransfer();
+        }
+        if (!"GET".equals(request.getMethod())) {
+            if ("DELETE".equals(request.getMethod()) && isCollection(path)) {
+                return costs.getDeleteAll();
+            }
+            return costs.getWrite();
+        }
+        if (isCollection(path)) {
+            if (request.getParameter("ids") != null) {
+                return costs.getBulkLookup();
+            }
+            return paged ? costs.getListPage() : costs.getListAll();
+        }
+        if (path.equals("/products/search") || path.equals("/products/search/")) {
+            return paged ? costs.getSearchPage() : costs.getSearchAll();
+        }
+        if (path.startsWith("/products/")) {
+            return costs.getGetById();
+        }
+        return costs.getOther();
+    }
+
+    private static String pathOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static boolean isTransfer(String path) {
+        return path.equals("/products/export") || path.equals("/products/import");
+    }
+
+    // The limit follows the adaptive limit, so a tenant's share shrinks as the service backs off
+    private int tenantConcurrencyLimit() {
+        return Math.max(1, (int) Math.ceil(limiter.getLimit() * properties.getTenant().getConcurrencyShare()));
+    }
+
+    // Null when the map is full of active buckets: a new key is rejected rather than let the map grow
+    private TokenBucket bucketFor(Map<String, TokenBucket> buckets, String key, long now, long capacity,
+                                  double refillPerSecond) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= properties.getMaxClients()) {
+            buckets.values().removeIf(existing -> existing.isIdle(now));
+            if (buckets.size() >= properties.getMaxClients()) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, ignored -> new TokenBucket(capacity, refillPerSecond, now));
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.value(), message));
+    }
+
+    private static boolean isCollection(String path) {
+        return path.equals("/products") || path.equals("/products/");
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
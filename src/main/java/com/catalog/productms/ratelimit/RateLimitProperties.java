@@ -0,0 +1,83 @@
+package com.catalog.productms.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "product.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Header identifying the calling client; falls back to the remote address
+    private String clientHeader = "X-Client-Id";
+
+    // Remote addresses (proxies, gateways) whose client header is believed; from anyone else it is ignored
+    private List<String> trustedProxies = new ArrayList<>();
+
+    // Token bucket per client: burst size and sustained refill rate
+    private long capacity = 200;
+    private double refillPerSecond = 100;
+
+    // Upper bound on tracked clients (and tenants); idle (fully refilled) buckets are evicted,
+    // and new clients are rejected while every tracked one is still active
+    private int maxClients = 10_000;
+
+    private Costs costs = new Costs();
+
+    private Concurrency concurrency = new Concurrency();
+
+    private Tenant tenant = new Tenant();
+
+    /**
+     * Tokens charged per request. Unpaginated listing and search read the whole table,
+     * so they cost far more than a primary key lookup.
+     */
+    @Data
+    public static class Costs {
+        private int getById = 1;
+        private int bulkLookup = 5;
+        private int listPage = 2;
+        private int listAll = 50;
+        private int searchPage = 3;
+        private int searchAll = 50;
+        private int write = 2;
+        private int deleteAll = 50;
+        // Catalog export/import
+        private int transfer = 100;
+        private int other = 1;
+    }
+
+    /**
+     * AIMD concurrency limit driven by observed latency: grows by one while latency stays
+     * near the best observed value, shrinks multiplicatively when it degrades.
+     */
+    @Data
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 4;
+        private int maxLimit = 200;
+        // A sample slower than minRtt * latencyTolerance counts as congestion
+        private double latencyTolerance = 2.0;
+        private double backoffRatio = 0.9;
+        // Forget the baseline latency every N samples so the limiter can re-probe
+        private int probeInterval = 1000;
+        private int retryAfterSeconds = 1;
+    }
+
+    /**
+     * Budgets shared by all clients of one tenant, applied while tenancy is enabled: a
+     * token bucket charged like the per-client one, and a share of the concurrency limit.
+     */
+    @Data
+    public static class Tenant {
+        private long capacity = 1000;
+        private double refillPerSecond = 500;
+        // Most of the current concurrency limit one tenant may have in flight
+        private double concurrencyShare = 0.5;
+    }
+}
@@ -0,0 +1,60 @@
+package com.catalog.productms.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Classic token bucket. Time is passed in by the caller (System.nanoTime in production)
+ * so refill behaviour is deterministic in tests.
+ */
+public class TokenBucket {
+
+    private final long capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+    private volatile long lastAccessNanos;
+
+    public TokenBucket(long capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * Takes {@code cost} tokens if available.
+     *
+     * @return 0 when the request is admitted, otherwise the nanos until enough tokens exist
+     */
+    public synchronized long tryConsume(int cost, long nowNanos) {
+        refill(nowNanos);
+        lastAccessNanos = nowNanos;
+        double required = Math.min(cost, capacity);
+        if (tokens >= required) {
+            tokens -= required;
+            return 0;
+        }
+        return (long) Math.ceil((required - tokens) / refillPerNano);
+    }
+
+    /**
+     * A bucket idle long enough to be full again carries no state and can be dropped.
+     */
+    public boolean isIdle(long nowNanos) {
+        return (nowNanos - lastAccessNanos) * refillPerNano >= capacity;
+    }
+
+    public synchronized double availableTokens(long nowNanos) {
+        refill(nowNanos);
+        return tokens;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -3,36 +3,101 @@ package com.catalog.productms.repository;
 import com.catalog.productms.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
 
+// Every query here, and findById, is restricted to the current tenant by the Product tenant filter
 @Repository
 public interface ProductRepository extends JpaRepository<Product, String> {
 
+    // The escape is explicit so that every dialect, and LikePattern in memory, treats a backslash alike
+    String SEARCH_FILTER =
+            "(:q IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :q, '%')) ESCAPE '\\' " +
+            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :q, '%')) ESCAPE '\\') AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice)";
+
+    // Declared query methods get no transaction by default; read-only keeps the page and
+    // count queries on one connection when called outside a service transaction.
+
     // Non-paginated search (for backward compatibility with existing tests)
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:q IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :q, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :q, '%'))) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice)")
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Product p WHERE " + SEARCH_FILTER)
     List<Product> searchProducts(@Param("q") String q,
                                  @Param("minPrice") BigDecimal minPrice,
                                  @Param("maxPrice") BigDecimal maxPrice);
     
     // Paginated search (new method)
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:q IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :q, '%')) OR LOWER(p.description) LIKE LOWER(CONCAT('%', :q, '%'))) AND " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice)")
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Product p WHERE " + SEARCH_FILTER)
     Page<Product> searchProducts(@Param("q") String q,
                                  @Param("minPrice") BigDecimal minPrice,
                                  @Param("maxPrice") BigDecimal maxPrice,
                                  Pageable pageable);
     
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Product p WHERE " + SEARCH_FILTER)
+    List<Product> searchProducts(@Param("q") String q,
+                                 @Param("minPrice") BigDecimal minPrice,
+                                 @Param("maxPrice") BigDecimal maxPrice,
+                                 Sort sort);
+
+    // Id-only pages for sorted listings: the ORDER BY ... LIMIT runs on the (column, id)
+    // index alone, and only the rows of the requested page are then loaded by primary key
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT p.id FROM Product p", countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<String> findPageIds(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT p.id FROM Product p WHERE " + SEARCH_FILTER,
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE " + SEARCH_FILTER)
+    Page<String> searchProductIds(@Param("q") String q,
+                                  @Param("minPrice") BigDecimal minPrice,
+                                  @Param("maxPrice") BigDecimal maxPrice,
+                                  Pageable pageable);
+
+    // Slices fetch one row past the page to tell whether another follows, and run no count
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Product p")
+    Slice<Product> findSlice(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Product p WHERE " + SEARCH_FILTER)
+    Slice<Product> searchSlice(@Param("q") String q,
+                               @Param("minPrice") BigDecimal minPrice,
+                               @Param("maxPrice") BigDecimal maxPrice,
+                               Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT p.id FROM Product p")
+    Slice<String> findSliceIds(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT p.id FROM Product p WHERE " + SEARCH_FILTER)
+    Slice<String> searchSliceIds(@Param("q") String q,
+                                 @Param("minPrice") BigDecimal minPrice,
+                                 @Param("maxPrice") BigDecimal maxPrice,
+                                 Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT COUNT(p) FROM Product p WHERE " + SEARCH_FILTER)
+    long countMatching(@Param("q") String q,
+                       @Param("minPrice") BigDecimal minPrice,
+                       @Param("maxPrice") BigDecimal maxPrice);
+
+    // A run of rows in id order from fromId; generated ids are random, so a run is a fair sample
+    @Transactional(readOnly = true)
+    @Query("SELECT p FROM Product p WHERE p.id >= :fromId ORDER BY p.id")
+    List<Product> findSample(@Param("fromId") String fromId, Pageable limit);
+
     boolean existsByNameAndDescription(String name, String description);
 }
 
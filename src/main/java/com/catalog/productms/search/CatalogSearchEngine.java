@@ -0,0 +1,183 @@
+package com.catalog.productms.search;
+
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.store.CatalogScan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Evaluates search filters over a catalog scan in parallel. The scan is split into
+ * partitions on a dedicated fork/join pool (request threads and the common pool are left
+ * alone); each partition keeps only its best offset + size matches in the requested order,
+ * and partial results are merged pairwise, so a deep page never sorts the full result set.
+ */
+public class CatalogSearchEngine implements AutoCloseable {
+
+    // Below this many entries per partition, splitting costs more than it saves
+    static final int MIN_PARTITION_SIZE = 4096;
+
+    private static final Set<String> SORTABLE = Set.of("id", "name", "price");
+
+    static final Comparator<CatalogEntry> BY_ID = Comparator.comparing(CatalogEntry::id);
+
+    private final boolean enabled;
+    private final int parallelism;
+    private final ForkJoinPool pool;
+
+    public CatalogSearchEngine(boolean enabled, int parallelism) {
+        this.enabled = enabled;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("catalog-search-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Every match, ordered by id
+    public List<CatalogEntry> search(List<CatalogEntry> entries, ProductFilter filter) {
+        return search(CatalogScan.of(entries), filter);
+    }
+
+    public List<CatalogEntry> search(CatalogScan scan, ProductFilter filter) {
+        return evaluate(scan, filter, BY_ID, Integer.MAX_VALUE).top();
+    }
+
+    public Page<CatalogEntry> search(List<CatalogEntry> entries, ProductFilter filter, Pageable pageable) {
+        return search(CatalogScan.of(entries), filter, pageable);
+    }
+
+    public Page<CatalogEntry> search(CatalogScan scan, ProductFilter filter, Pageable pageable) {
+        Comparator<CatalogEntry> order = comparator(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            List<CatalogEntry> all = evaluate(scan, filter, order, Integer.MAX_VALUE).top();
+            return new PageImpl<>(all, pageable, all.size());
+        }
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        Partial result = evaluate(scan, filter, order, limit);
+        List<CatalogEntry> top = result.top();
+        int from = (int) Math.min(pageable.getOffset(), top.size());
+        return new PageImpl<>(top.subList(from, top.size()), pageable, result.matches());
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Catalog entries carry no audit timestamps, so e.g. createdAt has to be sorted by the database
+    public static boolean supports(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE.contains(order.getProperty()));
+    }
+
+    /**
+     * Orders by the requested properties (id, name in the table's collation, or price), always
+     * ending with id so that ties and page boundaries are deterministic.
+     */
+    public static Comparator<CatalogEntry> comparator(Sort sort) {
+        Comparator<CatalogEntry> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<CatalogEntry> next = switch (order.getProperty()) {
+                case "id" -> BY_ID;
+                case "name" -> Comparator.comparing(CatalogEntry::name, NameCollation.ORDER);
+                case "price" -> Comparator.comparingLong(CatalogEntry::priceCents);
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? BY_ID : comparator.thenComparing(BY_ID);
+    }
+
+    private Partial evaluate(CatalogScan scan, ProductFilter filter, Comparator<CatalogEntry> order, int limit) {
+        int positions = scan.positions();
+        int partitionSize = Math.max(MIN_PARTITION_SIZE, positions / (parallelism * 4));
+        SearchTask task = new SearchTask(scan, 0, positions, partitionSize, filter, order, limit);
+        // Small catalogs are cheaper to scan on the calling thread
+        return positions <= partitionSize ? task.compute() : pool.invoke(task);
+    }
+
+    record Partial(long matches, List<CatalogEntry> top) {
+    }
+
+    private static final class SearchTask extends RecursiveTask<Partial> {
+
+        private final CatalogScan scan;
+        private final int from;
+        private final int to;
+        private final int partitionSize;
+        private final ProductFilter filter;
+        private final Comparator<CatalogEntry> order;
+        private final int limit;
+
+        SearchTask(CatalogScan scan, int from, int to, int partitionSize,
+                   ProductFilter filter, Comparator<CatalogEntry> order, int limit) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+            this.partitionSize = partitionSize;
+            this.filter = filter;
+            this.order = order;
+            this.limit = limit;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= partitionSize) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            SearchTask left = new SearchTask(scan, from, middle, partitionSize, filter, order, limit);
+            SearchTask right = new SearchTask(scan, middle, to, partitionSize, filter, order, limit);
+            left.fork();
+            Partial rightResult = right.compute();
+            return merge(left.join(), rightResult);
+        }
+
+        private Partial scan() {
+            List<CatalogEntry> matches = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                CatalogEntry entry = scan.match(i, filter);
+                if (entry != null) {
+                    matches.add(entry);
+                }
+            }
+            matches.sort(order);
+            long count = matches.size();
+            return new Partial(count, matches.size() > limit ? matches.subList(0, limit) : matches);
+        }
+
+        private Partial merge(Partial a, Partial b) {
+            List<CatalogEntry> left = a.top();
+            List<CatalogEntry> right = b.top();
+            int size = Math.min(limit, left.size() + right.size());
+            List<CatalogEntry> merged = new ArrayList<>(size);
+            int i = 0;
+            int j = 0;
+            while (merged.size() < size) {
+                if (j == right.size() || (i < left.size() && order.compare(left.get(i), right.get(j)) <= 0)) {
+                    merged.add(left.get(i++));
+                } else {
+                    merged.add(right.get(j++));
+                }
+            }
+            return new Partial(a.matches() + b.matches(), merged);
+        }
+    }
+}
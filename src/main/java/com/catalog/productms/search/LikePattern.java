@@ -0,0 +1,78 @@
+package com.catalog.productms.search;
+
+import java.util.Locale;
+
+/**
+ * Case-insensitive SQL LIKE matcher with the semantics the search JPQL relies on:
+ * '%' matches any run of characters, '_' exactly one, and a backslash makes the next
+ * character literal (the ESCAPE the search JPQL declares). Matching lowercases character by
+ * character, so it allocates nothing per candidate.
+ */
+public final class LikePattern {
+
+    private static final int ANY_RUN = -1;
+    private static final int ANY_CHAR = -2;
+
+    private final int[] tokens;
+
+    private LikePattern(int[] tokens) {
+        this.tokens = tokens;
+    }
+
+    public static LikePattern compile(String pattern) {
+        String lower = pattern.toLowerCase(Locale.ROOT);
+        int[] tokens = new int[lower.length()];
+        int count = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == '\\' && i + 1 < lower.length()) {
+                tokens[count++] = lower.charAt(++i);
+            } else if (c == '%') {
+                // Consecutive '%' are equivalent to one
+                if (count == 0 || tokens[count - 1] != ANY_RUN) {
+                    tokens[count++] = ANY_RUN;
+                }
+            } else if (c == '_') {
+                tokens[count++] = ANY_CHAR;
+            } else {
+                tokens[count++] = c;
+            }
+        }
+        int[] compact = new int[count];
+        System.arraycopy(tokens, 0, compact, 0, count);
+        return new LikePattern(compact);
+    }
+
+    // Equivalent of LIKE CONCAT('%', value, '%')
+    public static LikePattern contains(String value) {
+        return compile("%" + value + "%");
+    }
+
+    public boolean matches(CharSequence text) {
+        int t = 0;
+        int p = 0;
+        int starToken = -1;
+        int starText = 0;
+        int length = text.length();
+        while (t < length) {
+            if (p < tokens.length && tokens[p] != ANY_RUN
+                    && (tokens[p] == ANY_CHAR || tokens[p] == Character.toLowerCase(text.charAt(t)))) {
+                t++;
+                p++;
+            } else if (p < tokens.length && tokens[p] == ANY_RUN) {
+                starToken = p++;
+                starText = t;
+            } else if (starToken >= 0) {
+                // Let the last '%' absorb one more character and retry
+                p = starToken + 1;
+                t = ++starText;
+            } else {
+                return false;
+            }
+        }
+        while (p < tokens.length && tokens[p] == ANY_RUN) {
+            p++;
+        }
+        return p == tokens.length;
+    }
+}
@@ -0,0 +1,46 @@
+package com.catalog.productms.search;
+
+import java.text.Collator;
+import java.text.ParseException;
+import java.text.RuleBasedCollator;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Product name order of the products table's collation, utf8mb4_0900_ai_ci (the MySQL 8
+ * default for utf8mb4): case and accents are ignored, so "café" equals "CAFE", and spaces and
+ * punctuation sort before digits and letters instead of being skipped. Code that sorts or
+ * merges rows the database ordered by name uses this order, so page boundaries agree with
+ * the database's. The JDK root collation is tailored to the UCA order of ASCII whitespace and
+ * punctuation; beyond that it follows the JDK's own tables.
+ */
+public final class NameCollation {
+
+    // Appended after U+2212, the entry the JDK rules place right before '_'. Later definitions of
+    // a character replace earlier ones, so these become non-ignorable and move into UCA order.
+    private static final String ASCII_PUNCTUATION = "&'\u2212'<'\t'<'\n'<'\r'<' '<'_'<'-'<','<';'<':'<'!'<'?'"
+            + "<'.'<'''<'\"'<'('<')'<'['<']'<'{'<'}'<'@'<'*'<'/'<'\\'<'&'<'#'<'%'<'`'<'^'<'+'<'<'<'='<'>'<'|'"
+            + "<'~'<'$'";
+
+    private static final Collator COLLATOR = collator();
+
+    // Collator.compare is synchronized, so parallel searches each compare on their own copy
+    private static final ThreadLocal<Collator> COLLATORS = ThreadLocal.withInitial(() -> (Collator) COLLATOR.clone());
+
+    public static final Comparator<String> ORDER = (a, b) -> COLLATORS.get().compare(a, b);
+
+    private NameCollation() {
+    }
+
+    private static Collator collator() {
+        try {
+            RuleBasedCollator root = (RuleBasedCollator) Collator.getInstance(Locale.ROOT);
+            RuleBasedCollator collator = new RuleBasedCollator(root.getRules() + ASCII_PUNCTUATION);
+            collator.setStrength(Collator.PRIMARY);
+            collator.setDecomposition(Collator.CANONICAL_DECOMPOSITION);
+            return collator;
+        } catch (ParseException ex) {
+            throw new IllegalStateException("Invalid name collation rules", ex);
+        }
+    }
+}
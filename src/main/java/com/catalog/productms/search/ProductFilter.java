@@ -0,0 +1,39 @@
+package com.catalog.productms.search;
+
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.store.EntryFilter;
+import com.catalog.productms.store.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * In-memory form of the ProductRepository.searchProducts predicate: q (when not null) must
+ * match name or description as LIKE %q%, and price must lie within the inclusive bounds.
+ * The bounds are rounded inwards to whole cents once, so matching compares longs and
+ * allocates nothing.
+ */
+public final class ProductFilter implements EntryFilter {
+
+    private final LikePattern text;
+    private final long minCents;
+    private final long maxCents;
+
+    public ProductFilter(String q, BigDecimal minPrice, BigDecimal maxPrice) {
+        this.text = q != null ? LikePattern.contains(q) : null;
+        this.minCents = minPrice != null ? Money.ceilCents(minPrice) : Long.MIN_VALUE;
+        this.maxCents = maxPrice != null ? Money.floorCents(maxPrice) : Long.MAX_VALUE;
+    }
+
+    public boolean matches(CatalogEntry entry) {
+        return matches(entry.priceCents(), entry.name(), entry.description());
+    }
+
+    // The price is checked first, so a store only decodes the text of rows in the price range
+    @Override
+    public boolean matches(long priceCents, CharSequence name, CharSequence description) {
+        if (priceCents < minCents || priceCents > maxCents) {
+            return false;
+        }
+        return text == null || text.matches(name) || text.matches(description);
+    }
+}
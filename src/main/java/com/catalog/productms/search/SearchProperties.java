@@ -0,0 +1,19 @@
+package com.catalog.productms.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product.search")
+public class SearchProperties {
+
+    // IN_MEMORY evaluates searches over the local catalog store once it is loaded
+    private Mode mode = Mode.DATABASE;
+
+    // Worker threads for in-memory search; 0 uses one per available core
+    private int parallelism = 0;
+
+    public enum Mode {
+        DATABASE, IN_MEMORY
+    }
+}
@@ -0,0 +1,30 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.search.ProductFilter;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * The filter a total count depends on. The listing is the unfiltered search, and searches
+ * that match the same rows map to equal keys: q is lowercased (the search is
+ * case-insensitive) and prices drop their scale.
+ */
+public record CountKey(String q, BigDecimal minPrice, BigDecimal maxPrice) {
+
+    public static final CountKey ALL = new CountKey(null, null, null);
+
+    public static CountKey of(String q, BigDecimal minPrice, BigDecimal maxPrice) {
+        return new CountKey(q != null ? q.toLowerCase(Locale.ROOT) : null,
+                minPrice != null ? minPrice.stripTrailingZeros() : null,
+                maxPrice != null ? maxPrice.stripTrailingZeros() : null);
+    }
+
+    public boolean isFiltered() {
+        return q != null || minPrice != null || maxPrice != null;
+    }
+
+    public ProductFilter filter() {
+        return new ProductFilter(q, minPrice, maxPrice);
+    }
+}
@@ -0,0 +1,184 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.tenant.TenancyProperties;
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.tenant.TenantQuota;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers ids that were recently looked up and not found, so that repeated misses (crawlers
+ * replaying stale links) are answered without a database round trip. Entries expire after a
+ * short TTL and are dropped as soon as this instance stores the id; a product created through
+ * another instance can therefore be reported missing here for at most the TTL.
+ * <p>
+ * A lookup takes {@link #generation()} before reading the database and passes it to
+ * {@link #recordMiss}: if a write invalidated anything in between, the miss is not kept.
+ * <p>
+ * Misses are remembered per tenant (an id missing for one tenant may exist for another),
+ * and each tenant may hold at most its quota of the entries.
+ */
+@Component
+public class MissingProductCache {
+
+    private final Map<Key, Long> expiries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final TenantQuota quota;
+    private final LongSupplier nanoClock;
+    private final Counter hits;
+    private final Counter stored;
+    private volatile long nextSweep;
+
+    @Autowired
+    public MissingProductCache(MeterRegistry meterRegistry,
+                               @Value("${product.negative-cache.enabled:true}") boolean enabled,
+                               @Value("${product.negative-cache.ttl-ms:5000}") long ttlMs,
+                               @Value("${product.negative-cache.max-entries:100000}") int maxEntries,
+                               TenancyProperties tenancy) {
+        this(meterRegistry, enabled, ttlMs, maxEntries, tenancy.quota(maxEntries), System::nanoTime);
+    }
+
+    public MissingProductCache(MeterRegistry meterRegistry, boolean enabled, long ttlMs, int maxEntries) {
+        this(meterRegistry, enabled, ttlMs, maxEntries, TenantQuota.UNLIMITED, System::nanoTime);
+    }
+
+    MissingProductCache(MeterRegistry meterRegistry, boolean enabled, long ttlMs, int maxEntries,
+                        LongSupplier nanoClock) {
+        this(meterRegistry, enabled, ttlMs, maxEntries, TenantQuota.UNLIMITED, nanoClock);
+    }
+
+    MissingProductCache(MeterRegistry meterRegistry, boolean enabled, long ttlMs, int maxEntries, TenantQuota quota,
+                        LongSupplier nanoClock) {
+        this.enabled = enabled && ttlMs > 0 && maxEntries > 0;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+        this.quota = quota;
+        this.nanoClock = nanoClock;
+        this.nextSweep = nanoClock.getAsLong();
+        this.hits = counter(meterRegistry, "hit");
+        this.stored = counter(meterRegistry, "stored");
+    }
+
+    public boolean isMissing(String id) {
+        if (!enabled) {
+            return false;
+        }
+        Key key = new Key(TenantContext.current(), id);
+        Long expiry = expiries.get(key);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - nanoClock.getAsLong() <= 0) {
+            discard(key, expiry);
+            return false;
+        }
+        hits.increment();
+        return true;
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    public void recordMiss(String id, long observedGeneration) {
+        if (!enabled || generation.get() != observedGeneration) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        if (expiries.size() >= maxEntries && (!sweep(now) || expiries.size() >= maxEntries)) {
+            return;
+        }
+        Key key = new Key(TenantContext.current(), id);
+        Long expiry = now + ttlNanos;
+        // A new entry counts against the tenant's quota; renewing one does not
+        if (expiries.replace(key, expiry) == null) {
+            if (!quota.tryAcquire(key.tenant())) {
+                return;
+            }
+            if (expiries.put(key, expiry) != null) {
+                quota.release(key.tenant());
+            }
+        }
+        // An invalidation that ran between the check and the put must win
+        if (generation.get() != observedGeneration) {
+            discard(key, expiry);
+            return;
+        }
+        stored.increment();
+    }
+
+    public void invalidate(String id) {
+        invalidate(TenantContext.current(), id);
+    }
+
+    public void invalidate(String tenant, String id) {
+        generation.incrementAndGet();
+        if (expiries.remove(new Key(tenant, id)) != null) {
+            quota.release(tenant);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        for (Key key : expiries.keySet()) {
+            if (expiries.remove(key) != null) {
+                quota.release(key.tenant());
+            }
+        }
+    }
+
+    // Deletes only add ids that are really missing, so nothing but an upsert has to invalidate
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.UPSERTED) {
+            invalidate(event.tenant(), event.id());
+        }
+    }
+
+    int size() {
+        return expiries.size();
+    }
+
+    // A full cache is swept at most every quarter TTL; misses beyond the bound are not cached
+    private boolean sweep(long now) {
+        if (now - nextSweep < 0) {
+            return false;
+        }
+        nextSweep = now + Math.max(1, ttlNanos / 4);
+        expiries.forEach((key, expiry) -> {
+            if (expiry - now <= 0) {
+                discard(key, expiry);
+            }
+        });
+        return true;
+    }
+
+    private void discard(Key key, Long expiry) {
+        if (expiries.remove(key, expiry)) {
+            quota.release(key.tenant());
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.notfound.cache")
+                .tag("result", result)
+                .description("Lookups answered from the missing-id cache, and misses stored in it")
+                .register(meterRegistry);
+    }
+
+    private record Key(String tenant, String id) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.catalog.productms.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a read-modify-write that lost an optimistic-lock race or hit another transient
+ * concurrency failure (lock wait timeout, deadlock). Every attempt has to re-read the row, so
+ * the action must open its own transaction (a @Transactional service call) and the helper
+ * refuses to run inside one. Waits between attempts grow exponentially with full jitter so
+ * that colliding writers spread out instead of colliding again.
+ */
+@Component
+public class OptimisticRetry {
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetry(@Value("${product.optimistic-lock.max-attempts:5}") int maxAttempts,
+                           @Value("${product.optimistic-lock.initial-backoff-ms:5}") long initialBackoffMs,
+                           @Value("${product.optimistic-lock.max-backoff-ms:100}") long maxBackoffMs) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("OptimisticRetry must be called outside a transaction");
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw ex;
+                }
+                try {
+                    Thread.sleep(backoffMs(attempt));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    long backoffMs(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
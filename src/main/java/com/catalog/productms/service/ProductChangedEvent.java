@@ -0,0 +1,42 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.tenant.TenantContext;
+
+/**
+ * Published by ProductService for every write. Listeners that keep derived copies of the
+ * catalog should react after commit (@TransactionalEventListener). previous is the state
+ * before an update or delete; an upsert without it is a new product, a delete without it
+ * is of unknown content. tenant is the tenant whose catalog changed; a clear only empties
+ * that tenant's catalog.
+ */
+public record ProductChangedEvent(Type type, String id, Product product, Product previous, String tenant) {
+
+    public enum Type {
+        UPSERTED, DELETED, CLEARED
+    }
+
+    public static ProductChangedEvent upserted(Product product) {
+        return new ProductChangedEvent(Type.UPSERTED, product.getId(), product, null, tenantOf(product));
+    }
+
+    public static ProductChangedEvent updated(Product previous, Product product) {
+        return new ProductChangedEvent(Type.UPSERTED, product.getId(), product, previous, tenantOf(product));
+    }
+
+    public static ProductChangedEvent deleted(String id) {
+        return new ProductChangedEvent(Type.DELETED, id, null, null, TenantContext.current());
+    }
+
+    public static ProductChangedEvent deleted(Product previous) {
+        return new ProductChangedEvent(Type.DELETED, previous.getId(), null, previous, tenantOf(previous));
+    }
+
+    public static ProductChangedEvent cleared() {
+        return new ProductChangedEvent(Type.CLEARED, null, null, null, TenantContext.current());
+    }
+
+    private static String tenantOf(Product product) {
+        return product.getTenantId() != null ? product.getTenantId() : TenantContext.current();
+    }
+}
@@ -1,32 +1,62 @@
 package com.catalog.productms.service;
 
+import com.catalog.productms.cache.ProductCache;
 import com.catalog.productms.dto.ProductRequest;
 import com.catalog.productms.entity.Product;
 import com.catalog.productms.exception.ProductAlreadyExistsException;
 import com.catalog.productms.exception.ProductNotFoundException;
+import com.catalog.productms.exception.ProductVersionMismatchException;
+import com.catalog.productms.observability.ProductOperationRecorder;
 import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.search.CatalogSearchEngine;
+import com.catalog.productms.search.ProductFilter;
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.store.CatalogStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    // Keeps each IN (...) list well below driver/optimizer limits
+    static final int BULK_LOOKUP_CHUNK_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final SingleFlight singleFlight;
+    private final CatalogStore catalogStore;
+    private final CatalogSearchEngine catalogSearchEngine;
+    private final MissingProductCache missingProducts;
+    private final ProductCache productCache;
+    private final TotalCountCache totalCounts;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Product createProduct(ProductRequest request) {
         // Check for duplicate product with same name and description
         if (productRepository.existsByNameAndDescription(request.getName(), request.getDescription())) {
-            throw new ProductAlreadyExistsException(
-                "Product with name '" + request.getName() + "' and description '" + request.getDescription() + "' already exists"
-            );
+            throw ProductAlreadyExistsException.of(request.getName(), request.getDescription());
         }
         
         Product product = new Product();
@@ -34,45 +64,296 @@ public class ProductService {
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.upserted(saved));
+        return saved;
     }
 
     @Transactional
     public Product updateProduct(String id, ProductRequest request) {
+        return updateProduct(id, request, null);
+    }
+
+    /**
+     * Updates the product only if it is still at one of the expected versions (the If-Match
+     * ETags); null skips the check. A concurrent update that commits after the check still
+     * fails the optimistic lock at commit.
+     */
+    @Transactional
+    public Product updateProduct(String id, ProductRequest request, Set<Long> expectedVersions) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
+        if (expectedVersions != null && !expectedVersions.contains(product.getVersion())) {
+            throw new ProductVersionMismatchException(id, product.getVersion());
+        }
+        Product previous = copyOf(product);
         
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(previous, saved));
+        return saved;
     }
 
-    @Transactional(readOnly = true)
+    // Coalesced reads are deliberately not @Transactional: waiters must not hold a pooled
+    // connection while the leading call runs. Each repository call is read-only transactional.
     public Product getProductById(String id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException(id));
+        return findProductById(id).orElseThrow(() -> new ProductNotFoundException(id));
+    }
+
+    /**
+     * The lookup behind GET /products/{id}. A miss is an empty Optional rather than an
+     * exception, and ids found missing are remembered for a short while so that repeated
+     * misses skip the database.
+     */
+    public Optional<Product> findProductById(String id) {
+        // The local store may lag behind other instances, so a miss still goes to the database
+        CatalogEntry cached = catalogStore.isReady() ? catalogStore.get(id) : null;
+        if (cached != null) {
+            ProductOperationRecorder.cacheHits(1);
+            return Optional.of(cached.toProduct());
+        }
+        if (missingProducts.isMissing(id)) {
+            ProductOperationRecorder.cacheHits(1);
+            return Optional.empty();
+        }
+        Product fromCache = productCache.get(id);
+        if (fromCache != null) {
+            ProductOperationRecorder.cacheHits(1);
+            return Optional.of(fromCache);
+        }
+        ProductOperationRecorder.cacheMisses(1);
+        long generation = missingProducts.generation();
+        long cacheGeneration = productCache.generation();
+        Optional<Product> product = singleFlight.execute(SingleFlight.key("getProductById", id),
+                () -> productRepository.findById(id));
+        if (product.isPresent()) {
+            productCache.put(product.get(), cacheGeneration);
+        } else {
+            missingProducts.recordMiss(id, generation);
+        }
+        return product;
+    }
+
+    public Map<String, Product> getProductsByIds(Collection<String> ids) {
+        if (!catalogStore.isReady()) {
+            return findProductsByIds(ids);
+        }
+        Map<String, Product> found = new HashMap<>(Math.max(16, ids.size() * 2));
+        List<String> misses = new ArrayList<>();
+        for (String id : ids) {
+            CatalogEntry cached = catalogStore.get(id);
+            if (cached != null) {
+                found.put(id, cached.toProduct());
+            } else {
+                misses.add(id);
+            }
+        }
+        ProductOperationRecorder.cacheHits(found.size());
+        if (!misses.isEmpty()) {
+            found.putAll(findProductsByIds(misses));
+        }
+        return found;
+    }
+
+    // Each chunk runs in the repository's read-only transaction, so a fully cached lookup
+    // never touches the pool
+    private Map<String, Product> findProductsByIds(Collection<String> ids) {
+        long generation = missingProducts.generation();
+        long cacheGeneration = productCache.generation();
+        List<String> candidates = ids.stream().filter(id -> !missingProducts.isMissing(id)).toList();
+        Map<String, Product> found = new HashMap<>(Math.max(16, candidates.size() * 2));
+        found.putAll(productCache.getAll(candidates));
+        List<String> idList = found.isEmpty()
+                ? candidates
+                : candidates.stream().filter(id -> !found.containsKey(id)).toList();
+        ProductOperationRecorder.cacheHits(ids.size() - idList.size());
+        ProductOperationRecorder.cacheMisses(idList.size());
+        
+        // One IN query per chunk instead of one findById per id
+        List<Product> loaded = new ArrayList<>();
+        for (int from = 0; from < idList.size(); from += BULK_LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = idList.subList(from, Math.min(from + BULK_LOOKUP_CHUNK_SIZE, idList.size()));
+            for (Product product : productRepository.findAllById(chunk)) {
+                found.put(product.getId(), product);
+                loaded.add(product);
+            }
+        }
+        productCache.putAll(loaded, cacheGeneration);
+        for (String id : idList) {
+            if (!found.containsKey(id)) {
+                missingProducts.recordMiss(id, generation);
+            }
+        }
+        return found;
     }
 
-    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        if (catalogStore.isReady()) {
+            return searchStore(new ProductFilter(null, null, null), Pageable.unpaged()).getContent();
+        }
+        return singleFlight.execute(SingleFlight.key("getAllProducts"), () -> productRepository.findAll());
+    }
+
+    public List<Product> getAllProducts(Sort sort) {
+        if (catalogStore.isReady() && CatalogSearchEngine.supports(sort)) {
+            return searchStore(new ProductFilter(null, null, null), Pageable.unpaged(sort)).getContent();
+        }
+        return singleFlight.execute(SingleFlight.key("getAllProductsSorted", sort), () -> productRepository.findAll(sort));
     }
 
-    @Transactional(readOnly = true)
     public Page<Product> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable);
+        if (totalCounts.strategy() != TotalCountCache.Strategy.EXACT) {
+            return withTotal(getAllProductsSlice(pageable), CountKey.ALL);
+        }
+        return singleFlight.execute(SingleFlight.key("getAllProductsPage", pageable),
+                () -> sortsBeyondId(pageable)
+                        ? loadPage(productRepository.findPageIds(pageable))
+                        : productRepository.findAll(pageable));
+    }
+
+    // A page without a total: one row past it is read to tell whether another follows
+    public Slice<Product> getAllProductsSlice(Pageable pageable) {
+        return singleFlight.execute(SingleFlight.key("getAllProductsSlice", pageable),
+                () -> sortsBeyondId(pageable)
+                        ? loadSlice(productRepository.findSliceIds(pageable))
+                        : productRepository.findSlice(pageable));
     }
 
-    @Transactional(readOnly = true)
     public List<Product> searchProducts(String q, BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.searchProducts(q, minPrice, maxPrice);
+        if (searchInMemory()) {
+            return searchStore(new ProductFilter(q, minPrice, maxPrice), Pageable.unpaged()).getContent();
+        }
+        return singleFlight.execute(SingleFlight.key("searchProducts", searchText(q), minPrice, maxPrice),
+                () -> productRepository.searchProducts(q, minPrice, maxPrice));
+    }
+
+    public List<Product> searchProducts(String q, BigDecimal minPrice, BigDecimal maxPrice, Sort sort) {
+        if (searchInMemory() && CatalogSearchEngine.supports(sort)) {
+            return searchStore(new ProductFilter(q, minPrice, maxPrice), Pageable.unpaged(sort)).getContent();
+        }
+        return singleFlight.execute(SingleFlight.key("searchProductsSorted", searchText(q), minPrice, maxPrice, sort),
+                () -> productRepository.searchProducts(q, minPrice, maxPrice, sort));
     }
 
-    @Transactional(readOnly = true)
     public Page<Product> searchProducts(String q, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return productRepository.searchProducts(q, minPrice, maxPrice, pageable);
+        if (searchInMemory() && CatalogSearchEngine.supports(pageable.getSort())) {
+            return searchStore(new ProductFilter(q, minPrice, maxPrice), pageable);
+        }
+        if (totalCounts.strategy() != TotalCountCache.Strategy.EXACT) {
+            return withTotal(searchProductsSlice(q, minPrice, maxPrice, pageable), CountKey.of(q, minPrice, maxPrice));
+        }
+        return singleFlight.execute(SingleFlight.key("searchProductsPage", searchText(q), minPrice, maxPrice, pageable),
+                () -> sortsBeyondId(pageable)
+                        ? loadPage(productRepository.searchProductIds(q, minPrice, maxPrice, pageable))
+                        : productRepository.searchProducts(q, minPrice, maxPrice, pageable));
+    }
+
+    public Slice<Product> searchProductsSlice(String q, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        // The in-memory search counts as it filters, so its pages keep their total
+        if (searchInMemory() && CatalogSearchEngine.supports(pageable.getSort())) {
+            return searchStore(new ProductFilter(q, minPrice, maxPrice), pageable);
+        }
+        return singleFlight.execute(SingleFlight.key("searchProductsSlice", searchText(q), minPrice, maxPrice, pageable),
+                () -> sortsBeyondId(pageable)
+                        ? loadSlice(productRepository.searchSliceIds(q, minPrice, maxPrice, pageable))
+                        : productRepository.searchSlice(q, minPrice, maxPrice, pageable));
+    }
+
+    // The search queries compare with LOWER on both sides, so q's case does not change the result
+    private static String searchText(String q) {
+        return q != null ? q.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private boolean searchInMemory() {
+        return catalogSearchEngine.isEnabled() && catalogStore.isReady();
+    }
+
+    // Only matching rows are decoded while the store holds still; products are built after it is released
+    private Page<Product> searchStore(ProductFilter filter, Pageable pageable) {
+        return catalogStore.scan(scan -> catalogSearchEngine.search(scan, filter, pageable)).map(CatalogEntry::toProduct);
+    }
+
+    // Ordering by the primary key alone is already cheap; anything else goes through an id page first
+    private static boolean sortsBeyondId(Pageable pageable) {
+        return pageable.isPaged() && pageable.getSort().stream().anyMatch(order -> !"id".equals(order.getProperty()));
+    }
+
+    private Page<Product> loadPage(Page<String> ids) {
+        return new PageImpl<>(loadContent(ids), ids.getPageable(), ids.getTotalElements());
+    }
+
+    private Slice<Product> loadSlice(Slice<String> ids) {
+        return new SliceImpl<>(loadContent(ids), ids.getPageable(), ids.hasNext());
+    }
+
+    // Rows deleted between the id query and the lookup are simply left out of the page
+    private List<Product> loadContent(Slice<String> ids) {
+        Map<String, Product> byId = HashMap.newHashMap(ids.getNumberOfElements());
+        for (Product product : productRepository.findAllById(ids.getContent())) {
+            byId.put(product.getId(), product);
+        }
+        List<Product> content = new ArrayList<>(ids.getNumberOfElements());
+        for (String id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                content.add(product);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Completes a slice into a page. The last page of a result knows its total already;
+     * any other takes it from the count cache, bounded by what the slice has shown.
+     */
+    private Page<Product> withTotal(Slice<Product> slice, CountKey key) {
+        Pageable pageable = slice.getPageable();
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            return new PageImpl<>(slice.getContent(), pageable, seen);
+        }
+        long total = totalCounts.total(key, () -> singleFlight.execute(SingleFlight.key("countProducts", key),
+                () -> totalCounts.strategy() == TotalCountCache.Strategy.ESTIMATED && key.isFiltered()
+                        ? estimateCount(key)
+                        : countExactly(key)));
+        // Past the end (an empty page) the total cannot exceed the offset
+        return new PageImpl<>(slice.getContent(), pageable,
+                slice.hasNext() ? Math.max(total, seen + 1) : Math.min(total, offset));
+    }
+
+    private long countExactly(CountKey key) {
+        return key.isFiltered()
+                ? productRepository.countMatching(key.q(), key.minPrice(), key.maxPrice())
+                : productRepository.count();
+    }
+
+    // The table size (cached like any total) scaled by the share of a sample that matches
+    private long estimateCount(CountKey key) {
+        long rows = totalCounts.total(CountKey.ALL, () -> countExactly(CountKey.ALL));
+        int sampleSize = totalCounts.sampleSize();
+        Map<String, Product> sample = new LinkedHashMap<>();
+        for (Product product : productRepository.findSample(UUID.randomUUID().toString(), PageRequest.of(0, sampleSize))) {
+            sample.put(product.getId(), product);
+        }
+        // The run reached the end of the id space; continue from the start
+        if (sample.size() < sampleSize) {
+            for (Product product : productRepository.findSample("", PageRequest.of(0, sampleSize - sample.size()))) {
+                sample.putIfAbsent(product.getId(), product);
+            }
+        }
+        if (sample.isEmpty()) {
+            return 0;
+        }
+        ProductFilter filter = key.filter();
+        long matching = sample.values().stream().filter(product -> filter.matches(CatalogEntry.of(product))).count();
+        if (sample.size() >= rows) {
+            return matching;
+        }
+        return Math.round((double) rows * matching / sample.size());
     }
 
     @Transactional
@@ -81,11 +362,19 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(id));
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
     }
 
     @Transactional
     public void deleteAllProducts() {
         productRepository.deleteAll();
+        eventPublisher.publishEvent(ProductChangedEvent.cleared());
     }
-}
 
+    // The managed entity is modified in place, so listeners get the old state as a copy
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getChangeSeq(), product.getCreatedAt(), product.getUpdatedAt(), product.getVersion(),
+                product.getTenantId());
+    }
+}
@@ -0,0 +1,68 @@
+package com.catalog.productms.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+
+/**
+ * Sort keys accepted by the listing and search endpoints. Each is backed by a composite
+ * (column, id) index on products, and id is always appended in the same direction so
+ * ties are deterministic and the index can be read forwards or backwards.
+ */
+public enum ProductSort {
+
+    PRICE("price", "price"),
+    NAME("name", "name"),
+    CREATED_AT("created_at", "createdAt");
+
+    // Primary-key order for pages that ask for no particular sort, so they stay stable
+    public static final Sort DEFAULT = Sort.by("id");
+
+    private final String parameter;
+    private final String property;
+
+    ProductSort(String parameter, String property) {
+        this.parameter = parameter;
+        this.property = property;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort toSort(Sort.Direction direction) {
+        return Sort.by(direction, property, "id");
+    }
+
+    /**
+     * @return the requested order, or Sort.unsorted() when sort is null
+     * @throws IllegalArgumentException for an unknown sort key or direction
+     */
+    public static Sort parse(String sort, String direction) {
+        if (sort == null || sort.isBlank()) {
+            return Sort.unsorted();
+        }
+        ProductSort key = fromParameter(sort.trim());
+        if (direction == null || direction.isBlank()) {
+            return key.toSort(Sort.Direction.ASC);
+        }
+        return switch (direction.trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> key.toSort(Sort.Direction.ASC);
+            case "desc" -> key.toSort(Sort.Direction.DESC);
+            default -> throw new IllegalArgumentException("Parameter 'direction' must be asc or desc");
+        };
+    }
+
+    private static ProductSort fromParameter(String sort) {
+        for (ProductSort candidate : values()) {
+            if (candidate.parameter.equalsIgnoreCase(sort)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Parameter 'sort' must be one of: price, name, created_at");
+    }
+}
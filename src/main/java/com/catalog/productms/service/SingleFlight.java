@@ -0,0 +1,127 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.exception.SingleFlightTimeoutException;
+import com.catalog.productms.tenant.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses identical concurrent calls into one execution. The first caller for a key
+ * runs the loader; callers arriving while it is in flight wait for and share its
+ * result or exception. Nothing is cached once the call completes.
+ */
+@Component
+public class SingleFlight {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+    private final Counter executed;
+    private final Counter collapsed;
+    private final Counter timedOut;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${product.single-flight.timeout-ms:5000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+        this.executed = counter(meterRegistry, "executed");
+        this.collapsed = counter(meterRegistry, "collapsed");
+        this.timedOut = counter(meterRegistry, "timeout");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Key key, Supplier<T> loader) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            collapsed.increment();
+            return (T) await(key, existing);
+        }
+
+        executed.increment();
+        try {
+            T result = loader.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            call.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private Object await(Key key, CompletableFuture<Object> call) {
+        try {
+            return call.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            timedOut.increment();
+            throw new SingleFlightTimeoutException(key.operation(), timeoutMs);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + key.operation(), ex);
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Builds a key from the operation name and its parameters, normalized so that calls
+     * the database would answer identically share a key: prices ignore trailing zeros and
+     * pageables reduce to page, size and sort. Text is kept as given, since ids compare
+     * case-sensitively; callers fold the case of search text themselves. Calls of different
+     * tenants never share a key.
+     */
+    public static Key key(String operation, Object... params) {
+        Object[] normalized = new Object[params.length];
+        for (int i = 0; i < params.length; i++) {
+            normalized[i] = normalize(params[i]);
+        }
+        return new Key(TenantContext.current(), operation, Arrays.asList(normalized));
+    }
+
+    private static Object normalize(Object param) {
+        if (param instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros();
+        }
+        if (param instanceof Pageable pageable) {
+            return pageable.isPaged()
+                    ? List.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString())
+                    : "unpaged";
+        }
+        return param;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.singleflight.calls")
+                .tag("result", result)
+                .description("Read calls executed, collapsed into an in-flight call, or timed out while waiting")
+                .register(meterRegistry);
+    }
+
+    public record Key(String tenant, String operation, List<Object> params) {
+    }
+}
@@ -0,0 +1,189 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.search.ProductFilter;
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.tenant.TenancyProperties;
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.tenant.TenantQuota;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * How paged responses get their totals, and the per-filter cache of those totals.
+ * <ul>
+ *   <li>EXACT: the page query runs its COUNT every time.</li>
+ *   <li>CACHED: the page is read as a slice; the COUNT for its filter is reused for the TTL.</li>
+ *   <li>ESTIMATED: as CACHED, but a filtered total is scaled from the share of a row sample
+ *       that matches, instead of counting with the full LIKE predicate.</li>
+ * </ul>
+ * A committed write drops the totals of the filters whose membership it changes. Writes
+ * through another instance are seen when the TTL runs out. As in {@link MissingProductCache},
+ * a total counted while a write committed is not kept. Totals are kept per tenant, each
+ * tenant holding at most its quota of the entries.
+ */
+@Component
+public class TotalCountCache {
+
+    public enum Strategy {
+        EXACT, CACHED, ESTIMATED
+    }
+
+    private final Map<TenantKey, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Strategy strategy;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final int sampleSize;
+    private final TenantQuota quota;
+    private final LongSupplier nanoClock;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public TotalCountCache(MeterRegistry meterRegistry,
+                           @Value("${product.count.strategy:exact}") String strategy,
+                           @Value("${product.count.ttl-ms:30000}") long ttlMs,
+                           @Value("${product.count.max-entries:10000}") int maxEntries,
+                           @Value("${product.count.sample-size:1000}") int sampleSize,
+                           TenancyProperties tenancy) {
+        this(meterRegistry, Strategy.valueOf(strategy.trim().toUpperCase(Locale.ROOT)), ttlMs, maxEntries, sampleSize,
+                tenancy.quota(maxEntries), System::nanoTime);
+    }
+
+    public TotalCountCache(MeterRegistry meterRegistry, String strategy, long ttlMs, int maxEntries, int sampleSize) {
+        this(meterRegistry, Strategy.valueOf(strategy.trim().toUpperCase(Locale.ROOT)), ttlMs, maxEntries, sampleSize,
+                TenantQuota.UNLIMITED, System::nanoTime);
+    }
+
+    TotalCountCache(MeterRegistry meterRegistry, Strategy strategy, long ttlMs, int maxEntries, int sampleSize,
+                    LongSupplier nanoClock) {
+        this(meterRegistry, strategy, ttlMs, maxEntries, sampleSize, TenantQuota.UNLIMITED, nanoClock);
+    }
+
+    TotalCountCache(MeterRegistry meterRegistry, Strategy strategy, long ttlMs, int maxEntries, int sampleSize,
+                    TenantQuota quota, LongSupplier nanoClock) {
+        this.strategy = strategy;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.maxEntries = maxEntries;
+        this.sampleSize = Math.max(1, sampleSize);
+        this.quota = quota;
+        this.nanoClock = nanoClock;
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+    }
+
+    public Strategy strategy() {
+        return strategy;
+    }
+
+    public int sampleSize() {
+        return sampleSize;
+    }
+
+    /**
+     * The cached total for key, or the one count computes, which is then kept for the TTL.
+     * count runs on the caller's thread with no lock held.
+     */
+    public long total(CountKey key, LongSupplier count) {
+        TenantKey scoped = new TenantKey(TenantContext.current(), key);
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(scoped);
+        if (entry != null && entry.expiresAt() - now > 0) {
+            hits.increment();
+            return entry.total();
+        }
+        misses.increment();
+        long observedGeneration = generation.get();
+        long total = count.getAsLong();
+        store(scoped, new Entry(total, nanoClock.getAsLong() + ttlNanos, key.filter()), observedGeneration);
+        return total;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        generation.incrementAndGet();
+        String tenant = event.tenant();
+        if (event.type() == ProductChangedEvent.Type.CLEARED
+                || (event.type() == ProductChangedEvent.Type.DELETED && event.previous() == null)) {
+            removeIf((key, entry) -> key.tenant().equals(tenant));
+            return;
+        }
+        CatalogEntry before = event.previous() != null ? CatalogEntry.of(event.previous()) : null;
+        CatalogEntry after = event.product() != null ? CatalogEntry.of(event.product()) : null;
+        // An update that keeps the product inside (or outside) a filter leaves its total as it was
+        removeIf((key, entry) -> key.tenant().equals(tenant)
+                && (before != null && entry.filter().matches(before)) != (after != null && entry.filter().matches(after)));
+    }
+
+    /**
+     * Drops every total of the tenant. For writes that bypass ProductService and publish no
+     * ProductChangedEvent, such as a catalog import.
+     */
+    public void invalidateTenant(String tenant) {
+        generation.incrementAndGet();
+        removeIf((key, entry) -> key.tenant().equals(tenant));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void store(TenantKey key, Entry entry, long observedGeneration) {
+        if (ttlNanos <= 0 || generation.get() != observedGeneration) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            long now = nanoClock.getAsLong();
+            removeIf((existingKey, existing) -> existing.expiresAt() - now <= 0);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        // A new entry counts against the tenant's quota; replacing an expired one does not
+        if (entries.replace(key, entry) == null) {
+            if (!quota.tryAcquire(key.tenant())) {
+                return;
+            }
+            if (entries.put(key, entry) != null) {
+                quota.release(key.tenant());
+            }
+        }
+        // An invalidation that ran between the check and the put must win
+        if (generation.get() != observedGeneration && entries.remove(key, entry)) {
+            quota.release(key.tenant());
+        }
+    }
+
+    private void removeIf(BiPredicate<TenantKey, Entry> condition) {
+        entries.forEach((key, entry) -> {
+            if (condition.test(key, entry) && entries.remove(key, entry)) {
+                quota.release(key.tenant());
+            }
+        });
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.count.cache")
+                .tag("result", result)
+                .description("Page totals answered from the count cache, and totals that had to be counted")
+                .register(meterRegistry);
+    }
+
+    private record TenantKey(String tenant, CountKey key) {
+    }
+
+    private record Entry(long total, long expiresAt, ProductFilter filter) {
+    }
+}
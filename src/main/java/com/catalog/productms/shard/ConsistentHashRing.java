@@ -0,0 +1,63 @@
+package com.catalog.productms.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Maps product ids to shard names. Each shard owns many points (virtual nodes) on a 64-bit
+ * ring and an id belongs to the first point at or after its hash, so adding a shard only
+ * moves the ids that now fall just before its points, roughly 1/N of the catalog.
+ */
+public final class ConsistentHashRing {
+
+    private final List<String> shards;
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> shards, int virtualNodes) {
+        Set<String> unique = new LinkedHashSet<>(shards);
+        if (unique.isEmpty() || unique.size() != shards.size()) {
+            throw new IllegalArgumentException("Shard names must be present and unique: " + shards);
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.shards = List.copyOf(unique);
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                // On the (unlikely) collision the first shard keeps the point, independent of order
+                ring.merge(hash(shard + "#" + i), shard, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+            }
+        }
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardFor(String id) {
+        Map.Entry<Long, String> point = ring.ceilingEntry(hash(id));
+        return (point != null ? point : ring.firstEntry()).getValue();
+    }
+
+    // FNV-1a over the UTF-8 bytes, then the MurmurHash3 finalizer: FNV alone clusters on
+    // keys that differ only in their last characters (shard#1, shard#2, ...)
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
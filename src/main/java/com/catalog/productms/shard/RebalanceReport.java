@@ -0,0 +1,10 @@
+package com.catalog.productms.shard;
+
+import java.util.Map;
+
+/**
+ * Rows found per shard, rows whose id belongs elsewhere per "source -> target" pair, and rows
+ * actually moved (0 for a dry run).
+ */
+public record RebalanceReport(Map<String, Long> rows, Map<String, Long> misplaced, long moved) {
+}
@@ -0,0 +1,57 @@
+package com.catalog.productms.shard;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard that connections opened on the current thread come from. A transaction is bound to
+ * one shard: its connection is taken lazily at the first statement and kept until completion.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T callOn(String shard, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Binds the active transaction to the shard until it completes.
+     *
+     * @throws IllegalStateException if the transaction already uses another shard
+     */
+    public static void bindToTransaction(String shard) {
+        String bound = CURRENT.get();
+        if (bound == null) {
+            CURRENT.set(shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    CURRENT.remove();
+                }
+            });
+        } else if (!bound.equals(shard)) {
+            throw new IllegalStateException("Transaction is bound to shard '" + bound
+                    + "' and cannot also use shard '" + shard + "'");
+        }
+    }
+}
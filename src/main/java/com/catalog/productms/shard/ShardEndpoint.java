@@ -0,0 +1,33 @@
+package com.catalog.productms.shard;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+@Endpoint(id = "shards")
+public class ShardEndpoint {
+
+    private final ShardTopology topology;
+    private final ShardRebalancer rebalancer;
+
+    public ShardEndpoint(ShardTopology topology, ShardRebalancer rebalancer) {
+        this.topology = topology;
+        this.rebalancer = rebalancer;
+    }
+
+    // Scans every id on every shard; meant for operators, not for polling
+    @ReadOperation
+    public Map<String, Object> shards() {
+        return Map.of(
+            "shards", topology.ring().shards(),
+            "plan", rebalancer.plan()
+        );
+    }
+
+    @WriteOperation
+    public RebalanceReport rebalance() {
+        return rebalancer.rebalance();
+    }
+}
@@ -0,0 +1,113 @@
+package com.catalog.productms.shard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves rows to the shard the ring now assigns them to, typically after a shard was added.
+ * Each shard is scanned in id order in batches; misplaced rows are copied to their target
+ * shard and then deleted from the source, one committed batch at a time, so an interrupted
+ * run can simply be started again. Run it with writes paused: a row updated between its copy
+ * and its delete loses that update.
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String SCAN_SQL = "SELECT id FROM products WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String COLUMNS = "id, name, description, price, change_seq, created_at, updated_at, version, tenant_id";
+    private static final String SELECT_SQL = "SELECT " + COLUMNS + " FROM products WHERE id IN (:ids)";
+    // IGNORE keeps a re-run idempotent when a previous run copied a batch but did not delete it
+    private static final String COPY_SQL = "INSERT IGNORE INTO products (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM products WHERE id IN (:ids)";
+
+    private final Map<String, DataSource> shards;
+    private final ConsistentHashRing ring;
+    private final int batchSize;
+
+    public ShardRebalancer(Map<String, DataSource> shards, ConsistentHashRing ring, int batchSize) {
+        this.shards = shards;
+        this.ring = ring;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Counts misplaced rows without moving them.
+     */
+    public RebalanceReport plan() {
+        return run(false);
+    }
+
+    public synchronized RebalanceReport rebalance() {
+        RebalanceReport report = run(true);
+        log.info("Shard rebalance moved {} rows: {}", report.moved(), report.misplaced());
+        return report;
+    }
+
+    private RebalanceReport run(boolean move) {
+        Map<String, Long> rows = new LinkedHashMap<>();
+        Map<String, Long> misplaced = new LinkedHashMap<>();
+        long moved = 0;
+        for (String source : ring.shards()) {
+            JdbcTemplate sourceJdbc = new JdbcTemplate(shards.get(source));
+            long scanned = 0;
+            String after = "";
+            List<String> ids;
+            do {
+                ids = sourceJdbc.queryForList(SCAN_SQL, String.class, after, batchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                scanned += ids.size();
+                after = ids.getLast();
+                for (Map.Entry<String, List<String>> batch : misplacedByTarget(source, ids).entrySet()) {
+                    misplaced.merge(source + " -> " + batch.getKey(), (long) batch.getValue().size(), Long::sum);
+                    if (move) {
+                        moved += move(source, batch.getKey(), batch.getValue());
+                    }
+                }
+            } while (ids.size() == batchSize);
+            rows.put(source, scanned);
+        }
+        return new RebalanceReport(rows, misplaced, moved);
+    }
+
+    private Map<String, List<String>> misplacedByTarget(String source, List<String> ids) {
+        Map<String, List<String>> byTarget = new LinkedHashMap<>();
+        for (String id : ids) {
+            String target = ring.shardFor(id);
+            if (!target.equals(source)) {
+                byTarget.computeIfAbsent(target, shard -> new ArrayList<>()).add(id);
+            }
+        }
+        return byTarget;
+    }
+
+    private int move(String source, String target, List<String> ids) {
+        DataSource sourceDataSource = shards.get(source);
+        DataSource targetDataSource = shards.get(target);
+        NamedParameterJdbcTemplate sourceJdbc = new NamedParameterJdbcTemplate(sourceDataSource);
+        List<Object[]> rows = sourceJdbc.query(SELECT_SQL, Map.of("ids", ids), (rs, rowNum) -> {
+            Object[] row = new Object[9];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            return row;
+        });
+        // Copy first, then delete: a failure in between leaves a duplicate the next run removes,
+        // never a lost row
+        new TransactionTemplate(new DataSourceTransactionManager(targetDataSource)).executeWithoutResult(
+                status -> new JdbcTemplate(targetDataSource).batchUpdate(COPY_SQL, rows));
+        new TransactionTemplate(new DataSourceTransactionManager(sourceDataSource)).executeWithoutResult(
+                status -> sourceJdbc.update(DELETE_SQL, Map.of("ids", ids)));
+        return rows.size();
+    }
+}
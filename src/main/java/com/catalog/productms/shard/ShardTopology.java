@@ -0,0 +1,25 @@
+package com.catalog.productms.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * The shards, their pools, the ring that assigns ids to them and the threads that query them
+ * in parallel.
+ */
+public record ShardTopology(ConsistentHashRing ring, Map<String, DataSource> dataSources,
+                            ExecutorService scatterExecutor) implements AutoCloseable {
+
+    @Override
+    public void close() {
+        scatterExecutor.shutdown();
+        for (DataSource dataSource : dataSources.values()) {
+            if (dataSource instanceof HikariDataSource hikari) {
+                hikari.close();
+            }
+        }
+    }
+}
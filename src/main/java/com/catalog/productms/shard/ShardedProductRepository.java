@@ -0,0 +1,355 @@
+package com.catalog.productms.shard;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.observability.RequestTiming;
+import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.search.NameCollation;
+import com.catalog.productms.tenant.TenantContext;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Routes {@link ProductRepository} calls across shards. Calls for one id run on the shard the
+ * ring assigns to it; set-wide calls run on every shard in parallel and their results are
+ * merged in the requested order, so a page is cut from the merged stream rather than from
+ * any single shard.
+ */
+public class ShardedProductRepository implements MethodInterceptor {
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+
+    private final ProductRepository delegate;
+    private final ShardTopology topology;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    public ShardedProductRepository(ProductRepository delegate, ShardTopology topology,
+                                    ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.delegate = delegate;
+        this.topology = topology;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArguments();
+        String name = invocation.getMethod().getName();
+        return switch (name) {
+            case "findById" -> findById((String) args[0]);
+            case "existsById" -> onShardOf((String) args[0], () -> delegate.existsById((String) args[0]));
+            case "getReferenceById" -> onShardOf((String) args[0], () -> delegate.getReferenceById((String) args[0]));
+            case "deleteById" -> onShardOf((String) args[0], () -> {
+                delegate.deleteById((String) args[0]);
+                return null;
+            });
+            case "delete" -> onShardOf(((Product) args[0]).getId(), () -> {
+                delegate.delete((Product) args[0]);
+                return null;
+            });
+            case "save" -> save((Product) args[0]);
+            case "findAllById" -> findAllById((Iterable<String>) args[0]);
+            case "existsByNameAndDescription" -> existsByNameAndDescription((String) args[0], (String) args[1]);
+            case "count" -> args.length == 0 ? count() : unsupported(name);
+            case "deleteAll" -> {
+                if (args.length != 0) {
+                    yield unsupported(name);
+                }
+                deleteAll();
+                yield null;
+            }
+            case "findAll" -> findAll(args);
+            case "searchProducts" -> searchProducts(args);
+            case "findPageIds" -> ids(findAll((Pageable) args[0]));
+            case "searchProductIds" -> ids(searchProducts((String) args[0], (BigDecimal) args[1],
+                    (BigDecimal) args[2], (Pageable) args[3]));
+            case "findSlice" -> findSlice((Pageable) args[0]);
+            case "searchSlice" -> searchSlice((String) args[0], (BigDecimal) args[1], (BigDecimal) args[2],
+                    (Pageable) args[3]);
+            case "findSliceIds" -> findSlice((Pageable) args[0]).map(Product::getId);
+            case "searchSliceIds" -> searchSlice((String) args[0], (BigDecimal) args[1], (BigDecimal) args[2],
+                    (Pageable) args[3]).map(Product::getId);
+            case "countMatching" -> scatter(() -> delegate.countMatching((String) args[0], (BigDecimal) args[1],
+                    (BigDecimal) args[2])).stream().mapToLong(Long::longValue).sum();
+            case "findSample" -> concat(scatter(() -> delegate.findSample((String) args[0], (Pageable) args[1])));
+            default -> unsupported(name);
+        };
+    }
+
+    public Optional<Product> findById(String id) {
+        return onShardOf(id, () -> delegate.findById(id));
+    }
+
+    public Product save(Product product) {
+        if (product.getId() != null) {
+            return onShardOf(product.getId(), () -> delegate.save(product));
+        }
+        // The id is generated on persist and the INSERT waits for the flush, so the
+        // transaction can still be bound to the shard of the new id
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return persistNew(product);
+        }
+        return new TransactionTemplate(transactionManager.getObject()).execute(status -> persistNew(product));
+    }
+
+    public List<Product> findAllById(Iterable<String> ids) {
+        Map<String, List<String>> idsByShard = new LinkedHashMap<>();
+        for (String id : ids) {
+            idsByShard.computeIfAbsent(topology.ring().shardFor(id), shard -> new ArrayList<>()).add(id);
+        }
+        Map<String, Supplier<List<Product>>> calls = new LinkedHashMap<>();
+        idsByShard.forEach((shard, shardIds) -> calls.put(shard, () -> delegate.findAllById(shardIds)));
+        return concat(runOn(calls));
+    }
+
+    public boolean existsByNameAndDescription(String name, String description) {
+        return scatter(() -> delegate.existsByNameAndDescription(name, description)).contains(Boolean.TRUE);
+    }
+
+    public long count() {
+        return scatter(delegate::count).stream().mapToLong(Long::longValue).sum();
+    }
+
+    // Each shard commits on its own: a failure part way leaves the earlier shards emptied
+    public void deleteAll() {
+        scatter(() -> {
+            delegate.deleteAll();
+            return null;
+        });
+    }
+
+    public Page<Product> findAll(Pageable pageable) {
+        return page(pageable, shardPage -> delegate.findAll(shardPage));
+    }
+
+    public Page<Product> searchProducts(String q, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        return page(pageable, shardPage -> delegate.searchProducts(q, minPrice, maxPrice, shardPage));
+    }
+
+    public Slice<Product> findSlice(Pageable pageable) {
+        return slice(pageable, shardPage -> delegate.findSlice(shardPage));
+    }
+
+    public Slice<Product> searchSlice(String q, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        return slice(pageable, shardPage -> delegate.searchSlice(q, minPrice, maxPrice, shardPage));
+    }
+
+    private Object findAll(Object[] args) {
+        if (args.length == 0) {
+            return concat(scatter(delegate::findAll));
+        }
+        if (args[0] instanceof Sort sort) {
+            return merge(scatter(() -> delegate.findAll(sort)), comparator(sort), Integer.MAX_VALUE);
+        }
+        if (args[0] instanceof Pageable pageable) {
+            return findAll(pageable);
+        }
+        return unsupported("findAll");
+    }
+
+    private Object searchProducts(Object[] args) {
+        String q = (String) args[0];
+        BigDecimal minPrice = (BigDecimal) args[1];
+        BigDecimal maxPrice = (BigDecimal) args[2];
+        if (args.length == 3) {
+            return concat(scatter(() -> delegate.searchProducts(q, minPrice, maxPrice)));
+        }
+        if (args[3] instanceof Sort sort) {
+            return merge(scatter(() -> delegate.searchProducts(q, minPrice, maxPrice, sort)),
+                    comparator(sort), Integer.MAX_VALUE);
+        }
+        return searchProducts(q, minPrice, maxPrice, (Pageable) args[3]);
+    }
+
+    // Page n of the merged order lies within the first (n + 1) * size rows of every shard, so
+    // each shard returns that prefix and the page is cut after the merge. Deep pages cost
+    // offset + size rows per shard; the total is the sum of the shard totals.
+    private Page<Product> page(Pageable pageable, Function<Pageable, Page<Product>> query) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        if (pageable.isUnpaged()) {
+            List<Product> merged = merge(contents(scatter(() -> query.apply(Pageable.unpaged(sort)))),
+                    comparator(sort), Integer.MAX_VALUE);
+            return new PageImpl<>(merged, pageable, merged.size());
+        }
+        int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        Pageable prefix = PageRequest.of(0, limit, sort);
+        List<Page<Product>> pages = scatter(() -> query.apply(prefix));
+        long total = pages.stream().mapToLong(Page::getTotalElements).sum();
+        List<Product> merged = merge(contents(pages), comparator(sort), limit);
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        return new PageImpl<>(merged.subList(from, merged.size()), pageable, total);
+    }
+
+    // As page(), with one row past the page to tell whether another follows
+    private Slice<Product> slice(Pageable pageable, Function<Pageable, Slice<Product>> query) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        if (pageable.isUnpaged()) {
+            List<Product> merged = merge(contents(scatter(() -> query.apply(Pageable.unpaged(sort)))),
+                    comparator(sort), Integer.MAX_VALUE);
+            return new SliceImpl<>(merged, pageable, false);
+        }
+        long end = pageable.getOffset() + pageable.getPageSize();
+        int limit = (int) Math.min(end + 1, Integer.MAX_VALUE);
+        Pageable prefix = PageRequest.of(0, limit, sort);
+        List<Product> merged = merge(contents(scatter(() -> query.apply(prefix))), comparator(sort), limit);
+        int from = (int) Math.min(pageable.getOffset(), merged.size());
+        int to = (int) Math.min(end, merged.size());
+        return new SliceImpl<>(merged.subList(from, to), pageable, merged.size() > end);
+    }
+
+    private Product persistNew(Product product) {
+        Product saved = delegate.save(product);
+        ShardContext.bindToTransaction(topology.ring().shardFor(saved.getId()));
+        return saved;
+    }
+
+    // Inside a transaction the call binds the transaction to the shard; otherwise it opens
+    // its own connection on that shard
+    private <T> T onShardOf(String id, Supplier<T> call) {
+        Assert.notNull(id, "The given id must not be null");
+        String shard = topology.ring().shardFor(id);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            ShardContext.bindToTransaction(shard);
+            return call.get();
+        }
+        return ShardContext.callOn(shard, call);
+    }
+
+    private <T> List<T> scatter(Supplier<T> call) {
+        Map<String, Supplier<T>> calls = new LinkedHashMap<>();
+        for (String shard : topology.ring().shards()) {
+            calls.put(shard, call);
+        }
+        return runOn(calls);
+    }
+
+    // Always on the scatter threads: a connection opened on the caller's thread would be
+    // bound to its transaction and reused for whatever shard comes next. The caller's tenant
+    // goes along, so the tenant filter restricts the shard queries as it would the caller's.
+    // A timed request gives each shard a fork of its timing and adds the forks back once all
+    // shards answered, so their statements count as db rather than orm.
+    private <T> List<T> runOn(Map<String, Supplier<T>> calls) {
+        String tenant = TenantContext.current();
+        RequestTiming timing = RequestTiming.current();
+        List<RequestTiming> shardTimings = new ArrayList<>(calls.size());
+        List<Future<T>> futures = new ArrayList<>(calls.size());
+        calls.forEach((shard, call) -> {
+            RequestTiming shardTiming = timing != null ? timing.fork() : null;
+            if (shardTiming != null) {
+                shardTimings.add(shardTiming);
+            }
+            futures.add(topology.scatterExecutor().submit(() -> TenantContext.callAs(tenant,
+                    () -> RequestTiming.callWith(shardTiming, () -> ShardContext.callOn(shard, call)))));
+        });
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            if (timing != null) {
+                timing.join(shardTimings);
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static Object unsupported(String method) {
+        throw new UnsupportedOperationException("ProductRepository." + method + " is not supported across shards");
+    }
+
+    private static Page<String> ids(Page<Product> page) {
+        return page.map(Product::getId);
+    }
+
+    private static List<List<Product>> contents(List<? extends Slice<Product>> slices) {
+        return slices.stream().map(Slice::getContent).toList();
+    }
+
+    private static <T> List<T> concat(List<? extends Iterable<T>> parts) {
+        List<T> all = new ArrayList<>();
+        parts.forEach(part -> part.forEach(all::add));
+        return all;
+    }
+
+    /**
+     * The database order for the sort properties ProductSort exposes, with id as the final
+     * tie-break. Names compare in the table's collation ({@link NameCollation}).
+     */
+    static Comparator<Product> comparator(Sort sort) {
+        Comparator<Product> order = null;
+        for (Sort.Order property : sort) {
+            Comparator<Product> next = switch (property.getProperty()) {
+                case "id" -> BY_ID;
+                case "name" -> Comparator.comparing(Product::getName, NameCollation.ORDER);
+                case "price" -> Comparator.comparing(Product::getPrice);
+                case "createdAt" -> Comparator.comparing(Product::getCreatedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> throw new IllegalArgumentException("Unsupported sort property: " + property.getProperty());
+            };
+            next = property.isDescending() ? next.reversed() : next;
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return order == null ? BY_ID : order.thenComparing(BY_ID);
+    }
+
+    // k-way merge of runs that are each already in `order`
+    static <T> List<T> merge(List<? extends List<T>> runs, Comparator<? super T> order, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> order.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1])));
+        for (int run = 0; run < runs.size(); run++) {
+            if (!runs.get(run).isEmpty()) {
+                heads.add(new int[]{run, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            int[] head = heads.poll();
+            List<T> run = runs.get(head[0]);
+            merged.add(run.get(head[1]));
+            if (++head[1] < run.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,41 @@
+package com.catalog.productms.shard;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "product.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+
+    // Points per shard on the hash ring; more points spread ids more evenly
+    private int virtualNodes = 128;
+
+    // Threads that query shards in parallel; 0 uses two per shard
+    private int scatterThreads = 0;
+
+    // Rows scanned and moved per batch by the rebalancer
+    private int rebalanceBatchSize = 500;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Data
+    public static class Shard {
+
+        // Places the shard on the hash ring: renaming a shard moves its ids
+        private String name;
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        // 0 sizes the pool like the single-database pool (DB_POOL_SIZE)
+        private int poolSize = 0;
+    }
+}
@@ -0,0 +1,36 @@
+package com.catalog.productms.store;
+
+import com.catalog.productms.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable copy of a product row held by a CatalogStore. Callers get fresh Product
+ * instances from toProduct(), so nothing outside the store can mutate it. The price is
+ * held as cents (see {@link Money}), so filters and sorts compare longs.
+ */
+public record CatalogEntry(String id, String name, String description, long priceCents, long changeSeq) {
+
+    public CatalogEntry(String id, String name, String description, BigDecimal price, long changeSeq) {
+        this(id, name, description, Money.toCents(price), changeSeq);
+    }
+
+    public static CatalogEntry of(Product product) {
+        return new CatalogEntry(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getChangeSeq() != null ? product.getChangeSeq() : 0L);
+    }
+
+    public BigDecimal price() {
+        return Money.toPrice(priceCents);
+    }
+
+    public Product toProduct() {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(price());
+        product.setChangeSeq(changeSeq);
+        return product;
+    }
+}
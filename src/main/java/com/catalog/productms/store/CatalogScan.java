@@ -0,0 +1,31 @@
+package com.catalog.productms.store;
+
+import java.util.List;
+
+/**
+ * A view of a CatalogStore that holds still for one scan. Positions may be read from
+ * several threads while the scan runs; only entries the filter accepts are materialized.
+ */
+public interface CatalogScan {
+
+    // Positions to visit; some of them may hold no entry
+    int positions();
+
+    // The entry at the position when there is one and the filter accepts it, otherwise null
+    CatalogEntry match(int position, EntryFilter filter);
+
+    static CatalogScan of(List<CatalogEntry> entries) {
+        return new CatalogScan() {
+            @Override
+            public int positions() {
+                return entries.size();
+            }
+
+            @Override
+            public CatalogEntry match(int position, EntryFilter filter) {
+                CatalogEntry entry = entries.get(position);
+                return filter.matches(entry.priceCents(), entry.name(), entry.description()) ? entry : null;
+            }
+        };
+    }
+}
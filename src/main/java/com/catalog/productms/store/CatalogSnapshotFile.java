@@ -0,0 +1,189 @@
+package com.catalog.productms.store;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Binary catalog snapshot, read back through a read-only memory mapping:
+ *
+ * <pre>
+ * header  := magic "PSNP" | formatVersion:i32 | entryCount:i32 | reserved:i32
+ *            | watermark:i64 | createdAtMillis:i64 | payloadLength:i64 | crc32(payload):i64
+ * payload := entry*
+ * entry   := string(id) | string(name) | string(description)
+ *            | priceUnscaled:i64 | priceScale:i8 | changeSeq:i64   (written as cents, scale 2)
+ * string  := byteLength:i32 | utf8Bytes
+ * </pre>
+ *
+ * Files are written to a temporary sibling and atomically moved into place, so readers
+ * never observe a half-written snapshot; the checksum catches everything else.
+ */
+public final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x50534E50; // "PSNP"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 48;
+
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+
+    private CatalogSnapshotFile() {
+    }
+
+    public record Snapshot(List<CatalogEntry> entries, long watermark, long createdAtMillis) {
+    }
+
+    public static void write(Path path, Collection<CatalogEntry> entries, long watermark, long createdAtMillis)
+            throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            long payloadLength = 0;
+            int count = 0;
+
+            channel.position(HEADER_SIZE);
+            for (CatalogEntry entry : entries) {
+                byte[] id = entry.id().getBytes(StandardCharsets.UTF_8);
+                byte[] name = entry.name().getBytes(StandardCharsets.UTF_8);
+                byte[] description = entry.description().getBytes(StandardCharsets.UTF_8);
+                int size = 12 + id.length + name.length + description.length + 17;
+                if (buffer.remaining() < size) {
+                    payloadLength += flush(channel, buffer, crc);
+                    if (buffer.capacity() < size) {
+                        buffer = ByteBuffer.allocate(size);
+                    }
+                }
+                putString(buffer, id);
+                putString(buffer, name);
+                putString(buffer, description);
+                buffer.putLong(entry.priceCents());
+                buffer.put((byte) Money.SCALE);
+                buffer.putLong(entry.changeSeq());
+                count++;
+            }
+            payloadLength += flush(channel, buffer, crc);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putInt(count)
+                    .putInt(0)
+                    .putLong(watermark)
+                    .putLong(createdAtMillis)
+                    .putLong(payloadLength)
+                    .putLong(crc.getValue())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @throws InvalidSnapshotException if the file is not a snapshot of this format version,
+     *         is truncated, fails its checksum, or was created more than maxAgeMillis ago
+     */
+    public static Snapshot read(Path path, long maxAgeMillis, long nowMillis) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new InvalidSnapshotException("file is truncated");
+            }
+            if (size > Integer.MAX_VALUE) {
+                throw new InvalidSnapshotException("file is larger than 2 GB");
+            }
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new InvalidSnapshotException("not a catalog snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != FORMAT_VERSION) {
+            throw new InvalidSnapshotException("format version " + version + ", expected " + FORMAT_VERSION);
+        }
+        int count = buffer.getInt();
+        buffer.getInt();
+        long watermark = buffer.getLong();
+        long createdAtMillis = buffer.getLong();
+        long payloadLength = buffer.getLong();
+        long checksum = buffer.getLong();
+
+        if (count < 0 || payloadLength != buffer.capacity() - HEADER_SIZE) {
+            throw new InvalidSnapshotException("file is truncated");
+        }
+        if (nowMillis - createdAtMillis > maxAgeMillis) {
+            throw new InvalidSnapshotException("snapshot is older than " + maxAgeMillis + " ms");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, (int) payloadLength));
+        if (crc.getValue() != checksum) {
+            throw new InvalidSnapshotException("checksum mismatch");
+        }
+
+        List<CatalogEntry> entries = new ArrayList<>(count);
+        byte[] scratch = new byte[4096];
+        try {
+            for (int i = 0; i < count; i++) {
+                String id = getString(buffer, scratch);
+                String name = getString(buffer, scratch);
+                String description = getString(buffer, scratch);
+                long priceCents = Money.toCents(buffer.getLong(), buffer.get());
+                entries.add(new CatalogEntry(id, name, description, priceCents, buffer.getLong()));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | ArithmeticException ex) {
+            throw new InvalidSnapshotException("entries do not match the header");
+        }
+        return new Snapshot(entries, watermark, createdAtMillis);
+    }
+
+    private static long flush(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        int length = buffer.remaining();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+        return length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("Invalid string length " + length);
+        }
+        if (length > scratch.length) {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
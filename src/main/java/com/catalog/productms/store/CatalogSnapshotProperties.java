@@ -0,0 +1,34 @@
+package com.catalog.productms.store;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "product.snapshot")
+public class CatalogSnapshotProperties {
+
+    private boolean enabled = false;
+
+    // Where the local catalog copy lives: HEAP (CatalogEntry objects) or OFF_HEAP (native memory)
+    private StoreType storeType = StoreType.HEAP;
+
+    private String path = "data/catalog.snapshot";
+
+    // How often rows changed on other instances are pulled from the database
+    private long refreshIntervalMs = 5000;
+
+    // How often the full id list is compared with the store to drop rows deleted elsewhere
+    private long reconcileIntervalMs = 60000;
+
+    private long writeIntervalMs = 300000;
+
+    // Catch-up re-reads this far below the watermark to absorb clock skew and late commits
+    private long catchUpOverlapMs = 5000;
+
+    // Older snapshots are discarded and the store is loaded from the database instead
+    private long maxAgeMs = 86400000;
+
+    public enum StoreType {
+        HEAP, OFF_HEAP
+    }
+}
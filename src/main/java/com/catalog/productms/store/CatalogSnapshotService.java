@@ -0,0 +1,276 @@
+package com.catalog.productms.store;
+
+import com.catalog.productms.service.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the CatalogStore warm across restarts. On start the last snapshot file is mapped
+ * and loaded before the web server accepts traffic; a background thread then catches up
+ * on rows whose change_seq is above the snapshot watermark, reconciles deletes from time
+ * to time and rewrites the snapshot periodically and on shutdown.
+ */
+@Slf4j
+public class CatalogSnapshotService implements SmartLifecycle {
+
+    static final int FETCH_SIZE = 1000;
+    static final int ID_CHUNK_SIZE = 500;
+
+    private static final String SELECT_SQL = "SELECT id, name, description, price, change_seq FROM products";
+    private static final String DELTA_SQL = SELECT_SQL + " WHERE change_seq >= ?";
+    private static final String BY_IDS_SQL = SELECT_SQL + " WHERE id IN (:ids)";
+    private static final String IDS_SQL = "SELECT id FROM products";
+    private static final String MAX_CHANGE_SEQ_SQL = "SELECT MAX(change_seq) FROM products";
+
+    private final CatalogStore store;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final CatalogSnapshotProperties properties;
+    private final Clock clock;
+    private final Path path;
+
+    private final Counter snapshotsLoaded;
+    private final Counter snapshotsRejected;
+    private final Counter snapshotsMissing;
+
+    // Highest change_seq read from the database (or the loaded snapshot); -1 before the first load
+    private volatile long watermark = -1;
+    // A loaded snapshot must be checked against the database once: a restored backup can be behind it
+    private boolean verifyWatermark;
+    private long lastReconcileMillis;
+    private volatile ScheduledExecutorService executor;
+
+    public CatalogSnapshotService(CatalogStore store,
+                                  JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                  CatalogSnapshotProperties properties,
+                                  MeterRegistry meterRegistry,
+                                  Clock clock) {
+        this.store = store;
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.properties = properties;
+        this.clock = clock;
+        this.path = Path.of(properties.getPath());
+
+        this.snapshotsLoaded = loadCounter(meterRegistry, "loaded");
+        this.snapshotsRejected = loadCounter(meterRegistry, "rejected");
+        this.snapshotsMissing = loadCounter(meterRegistry, "missing");
+        Gauge.builder("product.snapshot.entries", store, CatalogStore::size)
+                .description("Products held by the local catalog store")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        loadSnapshot();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, 0, properties.getRefreshIntervalMs(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, properties.getWriteIntervalMs(),
+                properties.getWriteIntervalMs(), TimeUnit.MILLISECONDS);
+        executor = scheduler;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writeQuietly();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    // Before the web server starts, so the first request already sees the snapshot;
+    // stopped after it, so the final snapshot includes the last writes
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            case UPSERTED -> store.upsert(CatalogEntry.of(event.product()));
+            case DELETED -> store.remove(event.id());
+            case CLEARED -> store.clear();
+        }
+    }
+
+    void loadSnapshot() {
+        if (!Files.exists(path)) {
+            snapshotsMissing.increment();
+            log.info("No catalog snapshot at {}; loading the catalog from the database", path);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshotFile.Snapshot snapshot = CatalogSnapshotFile.read(path, properties.getMaxAgeMs(), clock.millis());
+            snapshot.entries().forEach(store::upsert);
+            synchronized (this) {
+                watermark = snapshot.watermark();
+                verifyWatermark = true;
+            }
+            store.setReady(true);
+            snapshotsLoaded.increment();
+            log.info("Loaded {} products from catalog snapshot {} in {} ms", snapshot.entries().size(), path,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (InvalidSnapshotException | IOException ex) {
+            snapshotsRejected.increment();
+            log.warn("Ignoring catalog snapshot {}: {}", path, ex.getMessage());
+        }
+    }
+
+    synchronized void refresh() {
+        if (watermark >= 0 && verifyWatermark) {
+            Long databaseMax = jdbcTemplate.queryForObject(MAX_CHANGE_SEQ_SQL, Long.class);
+            if (databaseMax == null ? watermark > 0 : databaseMax < watermark) {
+                log.warn("Catalog snapshot is ahead of the database (restored backup?); reloading from the database");
+                store.setReady(false);
+                store.clear();
+                watermark = -1;
+            }
+            verifyWatermark = false;
+        }
+        if (watermark < 0) {
+            fullLoad();
+        } else {
+            catchUp();
+        }
+    }
+
+    synchronized void writeSnapshot() throws IOException {
+        if (!store.isReady()) {
+            return;
+        }
+        // Read the watermark first: entries newer than it are simply re-read on the next catch-up
+        long snapshotWatermark = watermark;
+        List<CatalogEntry> entries = store.entries();
+        long start = System.nanoTime();
+        CatalogSnapshotFile.write(path, entries, snapshotWatermark, clock.millis());
+        log.debug("Wrote catalog snapshot with {} products in {} ms", entries.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    long getWatermark() {
+        return watermark;
+    }
+
+    private void fullLoad() {
+        long start = System.nanoTime();
+        Set<String> ids = new HashSet<>();
+        long[] max = {0};
+        jdbcTemplate.query(SELECT_SQL, (RowCallbackHandler) rs -> {
+            CatalogEntry entry = toEntry(rs);
+            store.upsert(entry);
+            ids.add(entry.id());
+            max[0] = Math.max(max[0], entry.changeSeq());
+        });
+        store.retainAll(ids);
+        watermark = max[0];
+        lastReconcileMillis = clock.millis();
+        store.setReady(true);
+        log.info("Loaded {} products from the database in {} ms", ids.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void catchUp() {
+        long from = watermark - TimeUnit.MILLISECONDS.toMicros(properties.getCatchUpOverlapMs());
+        long[] max = {watermark};
+        jdbcTemplate.query(DELTA_SQL, (RowCallbackHandler) rs -> {
+            CatalogEntry entry = toEntry(rs);
+            store.upsert(entry);
+            max[0] = Math.max(max[0], entry.changeSeq());
+        }, from);
+        watermark = max[0];
+
+        if (clock.millis() - lastReconcileMillis >= properties.getReconcileIntervalMs()) {
+            reconcile();
+        }
+    }
+
+    // Deletes leave no row behind to catch up on, so compare the id sets instead. Rows
+    // missing locally (e.g. written without a change_seq) are loaded at the same time.
+    private void reconcile() {
+        Set<String> ids = new HashSet<>(jdbcTemplate.queryForList(IDS_SQL, String.class));
+        store.retainAll(ids);
+
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            if (store.get(id) == null) {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += ID_CHUNK_SIZE) {
+            List<String> chunk = missing.subList(from, Math.min(from + ID_CHUNK_SIZE, missing.size()));
+            namedParameterJdbcTemplate.query(BY_IDS_SQL, Map.of("ids", chunk), (RowCallbackHandler) rs -> store.upsert(toEntry(rs)));
+        }
+        lastReconcileMillis = clock.millis();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            log.warn("Catalog catch-up failed; retrying in {} ms", properties.getRefreshIntervalMs(), ex);
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write catalog snapshot {}", path, ex);
+        }
+    }
+
+    private static CatalogEntry toEntry(ResultSet rs) throws SQLException {
+        long changeSeq = rs.getLong(5);
+        return new CatalogEntry(rs.getString(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4), changeSeq);
+    }
+
+    private static Counter loadCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.snapshot.loads")
+                .description("Catalog snapshot loads at startup by outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
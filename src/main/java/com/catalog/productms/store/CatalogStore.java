@@ -0,0 +1,38 @@
+package com.catalog.productms.store;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Local read model of the products table. It is eventually consistent: rows change
+ * through ProductChangedEvent on this instance and through periodic catch-up from the
+ * database for changes made elsewhere.
+ */
+public interface CatalogStore {
+
+    // False until the first full load (snapshot or database) has completed
+    boolean isReady();
+
+    void setReady(boolean ready);
+
+    CatalogEntry get(String id);
+
+    // Point-in-time copy of every entry
+    List<CatalogEntry> entries();
+
+    // Runs the action on a view that holds still until it returns; nothing is copied or decoded up front
+    <T> T scan(Function<CatalogScan, T> action);
+
+    // Keeps whichever of the stored and the given entry has the higher changeSeq
+    void upsert(CatalogEntry entry);
+
+    void remove(String id);
+
+    // Drops every entry whose id is not in the given set
+    void retainAll(Set<String> ids);
+
+    void clear();
+
+    int size();
+}
@@ -0,0 +1,11 @@
+package com.catalog.productms.store;
+
+/**
+ * Tests a stored row before it is decoded into a CatalogEntry. name and description may
+ * be views over the store's memory that are only valid during the call.
+ */
+@FunctionalInterface
+public interface EntryFilter {
+
+    boolean matches(long priceCents, CharSequence name, CharSequence description);
+}
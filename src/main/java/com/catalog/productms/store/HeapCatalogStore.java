@@ -0,0 +1,65 @@
+package com.catalog.productms.store;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class HeapCatalogStore implements CatalogStore {
+
+    private final Map<String, CatalogEntry> entries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    @Override
+    public CatalogEntry get(String id) {
+        return entries.get(id);
+    }
+
+    @Override
+    public List<CatalogEntry> entries() {
+        return List.copyOf(entries.values());
+    }
+
+    // The entries already live on the heap, so the view is a copy of their references
+    @Override
+    public <T> T scan(Function<CatalogScan, T> action) {
+        return action.apply(CatalogScan.of(entries()));
+    }
+
+    @Override
+    public void upsert(CatalogEntry entry) {
+        entries.merge(entry.id(), entry,
+                (current, candidate) -> candidate.changeSeq() >= current.changeSeq() ? candidate : current);
+    }
+
+    @Override
+    public void remove(String id) {
+        entries.remove(id);
+    }
+
+    @Override
+    public void retainAll(Set<String> ids) {
+        entries.keySet().retainAll(ids);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,7 @@
+package com.catalog.productms.store;
+
+public class InvalidSnapshotException extends RuntimeException {
+    public InvalidSnapshotException(String message) {
+        super(message);
+    }
+}
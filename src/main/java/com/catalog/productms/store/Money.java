@@ -0,0 +1,55 @@
+package com.catalog.productms.store;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Prices as a count of cents in a long: the scale of the DECIMAL(10, 2) price column.
+ * In-memory copies of the catalog filter, sort and store prices in this form and only
+ * build a BigDecimal when a product leaves them; the conversion is exact both ways.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    // Exact: anything finer than a cent cannot be stored and is a caller bug
+    public static long toCents(BigDecimal price) {
+        return price.movePointRight(SCALE).longValueExact();
+    }
+
+    public static long toCents(long unscaled, int scale) {
+        return scale == SCALE ? unscaled : toCents(BigDecimal.valueOf(unscaled, scale));
+    }
+
+    // Always scale 2, as the database returns prices, so JSON output does not depend on the source
+    public static BigDecimal toPrice(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * The smallest cent amount at or above bound, so that price >= bound holds exactly when
+     * cents >= ceilCents(bound). Bounds outside the long range clamp.
+     */
+    public static long ceilCents(BigDecimal bound) {
+        return clamp(bound.setScale(SCALE, RoundingMode.CEILING));
+    }
+
+    // The largest cent amount at or below bound
+    public static long floorCents(BigDecimal bound) {
+        return clamp(bound.setScale(SCALE, RoundingMode.FLOOR));
+    }
+
+    private static long clamp(BigDecimal scaled) {
+        BigDecimal cents = scaled.movePointRight(SCALE);
+        if (cents.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValueExact();
+    }
+}
@@ -0,0 +1,502 @@
+package com.catalog.productms.store;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT_UNALIGNED;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.lang.foreign.ValueLayout.JAVA_LONG_UNALIGNED;
+
+/**
+ * CatalogStore that keeps products outside the Java heap, so a large catalog adds
+ * nothing for the garbage collector to trace. Records are appended to a data segment:
+ *
+ * <pre>
+ * record := changeSeq:i64 | priceCents:i64 | idLength:i32 | nameLength:i32 | descriptionLength:i32
+ *           | utf8(id) | utf8(name) | utf8(description)
+ * </pre>
+ *
+ * An open-addressing index (linear probing, also off-heap) maps the id hash to the record
+ * offset. An update appends a new record and leaves the old one as garbage; the data
+ * segment is compacted once garbage outweighs live data. Reads decode a fresh CatalogEntry;
+ * scans test records in place and only decode the ones a filter accepts.
+ */
+public class OffHeapCatalogStore implements CatalogStore, AutoCloseable {
+
+    private static final int RECORD_HEADER_SIZE = 28;
+    // slot := recordOffset + 1 : i64 (0 = empty, -1 = deleted) | idHash : i64
+    private static final int SLOT_SIZE = 16;
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Arena dataArena;
+    private MemorySegment data;
+    private long dataUsed;
+    private long garbageBytes;
+
+    private Arena indexArena;
+    private MemorySegment index;
+    private int slots;
+    private int size;
+    private int deletedSlots;
+
+    private volatile boolean ready;
+
+    public OffHeapCatalogStore() {
+        this(1024 * 1024, 1024);
+    }
+
+    public OffHeapCatalogStore(long initialDataBytes, int initialSlots) {
+        this.dataArena = Arena.ofShared();
+        this.data = dataArena.allocate(Math.max(initialDataBytes, RECORD_HEADER_SIZE));
+        this.slots = Integer.highestOneBit(Math.max(initialSlots, 16) - 1) << 1;
+        this.indexArena = Arena.ofShared();
+        this.index = indexArena.allocate((long) slots * SLOT_SIZE, JAVA_LONG.byteAlignment());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+
+    @Override
+    public CatalogEntry get(String id) {
+        byte[] key = utf8(id);
+        lock.readLock().lock();
+        try {
+            int slot = probe(key, hash(key));
+            return slot >= 0 ? decode(recordOffset(slot)) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<CatalogEntry> entries() {
+        lock.readLock().lock();
+        try {
+            List<CatalogEntry> entries = new ArrayList<>(size);
+            for (int slot = 0; slot < slots; slot++) {
+                if (isLive(slot)) {
+                    entries.add(decode(recordOffset(slot)));
+                }
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public <T> T scan(Function<CatalogScan, T> action) {
+        lock.readLock().lock();
+        try {
+            return action.apply(new SlotScan());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(CatalogEntry entry) {
+        byte[] key = utf8(entry.id());
+        long hash = hash(key);
+        lock.writeLock().lock();
+        try {
+            int slot = probe(key, hash);
+            if (slot >= 0) {
+                long current = recordOffset(slot);
+                if (entry.changeSeq() < data.get(JAVA_LONG_UNALIGNED, current)) {
+                    return;
+                }
+                long offset = append(entry, key);
+                // append() may have compacted the data, so re-read the old record's length
+                garbageBytes += recordLength(recordOffset(slot));
+                index.set(JAVA_LONG, slotAddress(slot), offset + 1);
+                return;
+            }
+
+            if ((size + deletedSlots + 1) > slots * MAX_LOAD_FACTOR) {
+                rehash();
+            }
+            long offset = append(entry, key);
+            int free = -probe(key, hash) - 1;
+            if (index.get(JAVA_LONG, slotAddress(free)) == DELETED) {
+                deletedSlots--;
+            }
+            index.set(JAVA_LONG, slotAddress(free), offset + 1);
+            index.set(JAVA_LONG, slotAddress(free) + 8, hash);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        byte[] key = utf8(id);
+        lock.writeLock().lock();
+        try {
+            int slot = probe(key, hash(key));
+            if (slot >= 0) {
+                delete(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void retainAll(Set<String> ids) {
+        lock.writeLock().lock();
+        try {
+            for (int slot = 0; slot < slots; slot++) {
+                if (isLive(slot) && !ids.contains(decodeId(recordOffset(slot)))) {
+                    delete(slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.fill((byte) 0);
+            dataUsed = 0;
+            garbageBytes = 0;
+            size = 0;
+            deletedSlots = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Native memory reserved by the data segment and the index
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return data.byteSize() + index.byteSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            dataArena.close();
+            indexArena.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the slot holding the id, or -(free slot) - 1 where it would be inserted
+     */
+    private int probe(byte[] key, long hash) {
+        int mask = slots - 1;
+        int firstDeleted = -1;
+        int slot = (int) (hash & mask);
+        for (int probes = 0; probes < slots; probes++, slot = (slot + 1) & mask) {
+            long ref = index.get(JAVA_LONG, slotAddress(slot));
+            if (ref == EMPTY) {
+                return -(firstDeleted >= 0 ? firstDeleted : slot) - 1;
+            }
+            if (ref == DELETED) {
+                if (firstDeleted < 0) {
+                    firstDeleted = slot;
+                }
+            } else if (index.get(JAVA_LONG, slotAddress(slot) + 8) == hash && idEquals(ref - 1, key)) {
+                return slot;
+            }
+        }
+        return -firstDeleted - 1;
+    }
+
+    private void delete(int slot) {
+        garbageBytes += recordLength(recordOffset(slot));
+        index.set(JAVA_LONG, slotAddress(slot), DELETED);
+        size--;
+        deletedSlots++;
+    }
+
+    private long append(CatalogEntry entry, byte[] id) {
+        byte[] name = utf8(entry.name());
+        byte[] description = utf8(entry.description());
+        long length = (long) RECORD_HEADER_SIZE + id.length + name.length + description.length;
+        ensureCapacity(length);
+
+        long offset = dataUsed;
+        data.set(JAVA_LONG_UNALIGNED, offset, entry.changeSeq());
+        data.set(JAVA_LONG_UNALIGNED, offset + 8, entry.priceCents());
+        data.set(JAVA_INT_UNALIGNED, offset + 16, id.length);
+        data.set(JAVA_INT_UNALIGNED, offset + 20, name.length);
+        data.set(JAVA_INT_UNALIGNED, offset + 24, description.length);
+        long position = offset + RECORD_HEADER_SIZE;
+        MemorySegment.copy(id, 0, data, JAVA_BYTE, position, id.length);
+        position += id.length;
+        MemorySegment.copy(name, 0, data, JAVA_BYTE, position, name.length);
+        position += name.length;
+        MemorySegment.copy(description, 0, data, JAVA_BYTE, position, description.length);
+        dataUsed += length;
+        return offset;
+    }
+
+    private void ensureCapacity(long length) {
+        if (dataUsed + length <= data.byteSize()) {
+            return;
+        }
+        long live = dataUsed - garbageBytes;
+        long capacity = Math.max(data.byteSize(), RECORD_HEADER_SIZE);
+        while (capacity < (live + length) * 2) {
+            capacity *= 2;
+        }
+        Arena newArena = Arena.ofShared();
+        MemorySegment newData = newArena.allocate(capacity);
+        long used = 0;
+        if (garbageBytes == 0) {
+            MemorySegment.copy(data, 0, newData, 0, dataUsed);
+            used = dataUsed;
+        } else {
+            // Compact: copy live records only and repoint their slots
+            for (int slot = 0; slot < slots; slot++) {
+                if (isLive(slot)) {
+                    long offset = recordOffset(slot);
+                    long recordLength = recordLength(offset);
+                    MemorySegment.copy(data, offset, newData, used, recordLength);
+                    index.set(JAVA_LONG, slotAddress(slot), used + 1);
+                    used += recordLength;
+                }
+            }
+        }
+        dataArena.close();
+        dataArena = newArena;
+        data = newData;
+        dataUsed = used;
+        garbageBytes = 0;
+    }
+
+    private void rehash() {
+        int newSlots = (size + 1) > slots * MAX_LOAD_FACTOR / 2 ? slots * 2 : slots;
+        Arena newArena = Arena.ofShared();
+        MemorySegment newIndex = newArena.allocate((long) newSlots * SLOT_SIZE, JAVA_LONG.byteAlignment());
+        int mask = newSlots - 1;
+        for (int slot = 0; slot < slots; slot++) {
+            if (isLive(slot)) {
+                long ref = index.get(JAVA_LONG, slotAddress(slot));
+                long hash = index.get(JAVA_LONG, slotAddress(slot) + 8);
+                int target = (int) (hash & mask);
+                while (newIndex.get(JAVA_LONG, (long) target * SLOT_SIZE) != EMPTY) {
+                    target = (target + 1) & mask;
+                }
+                newIndex.set(JAVA_LONG, (long) target * SLOT_SIZE, ref);
+                newIndex.set(JAVA_LONG, (long) target * SLOT_SIZE + 8, hash);
+            }
+        }
+        indexArena.close();
+        indexArena = newArena;
+        index = newIndex;
+        slots = newSlots;
+        deletedSlots = 0;
+    }
+
+    private boolean isLive(int slot) {
+        long ref = index.get(JAVA_LONG, slotAddress(slot));
+        return ref != EMPTY && ref != DELETED;
+    }
+
+    private long recordOffset(int slot) {
+        return index.get(JAVA_LONG, slotAddress(slot)) - 1;
+    }
+
+    private long recordLength(long offset) {
+        return (long) RECORD_HEADER_SIZE
+                + data.get(JAVA_INT_UNALIGNED, offset + 16)
+                + data.get(JAVA_INT_UNALIGNED, offset + 20)
+                + data.get(JAVA_INT_UNALIGNED, offset + 24);
+    }
+
+    private boolean idEquals(long offset, byte[] key) {
+        if (data.get(JAVA_INT_UNALIGNED, offset + 16) != key.length) {
+            return false;
+        }
+        long start = offset + RECORD_HEADER_SIZE;
+        return MemorySegment.mismatch(data, start, start + key.length, MemorySegment.ofArray(key), 0, key.length) == -1;
+    }
+
+    private CatalogEntry decode(long offset) {
+        int idLength = data.get(JAVA_INT_UNALIGNED, offset + 16);
+        int nameLength = data.get(JAVA_INT_UNALIGNED, offset + 20);
+        int descriptionLength = data.get(JAVA_INT_UNALIGNED, offset + 24);
+        long position = offset + RECORD_HEADER_SIZE;
+        String id = string(position, idLength);
+        String name = string(position + idLength, nameLength);
+        String description = string(position + idLength + nameLength, descriptionLength);
+        return new CatalogEntry(id, name, description,
+                data.get(JAVA_LONG_UNALIGNED, offset + 8),
+                data.get(JAVA_LONG_UNALIGNED, offset));
+    }
+
+    private String decodeId(long offset) {
+        return string(offset + RECORD_HEADER_SIZE, data.get(JAVA_INT_UNALIGNED, offset + 16));
+    }
+
+    private String string(long position, int length) {
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(data, JAVA_BYTE, position, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Reads slots in place; the read lock held by scan() keeps writers out while any thread uses it
+    private final class SlotScan implements CatalogScan {
+
+        private final ThreadLocal<Utf8View[]> views = ThreadLocal.withInitial(
+                () -> new Utf8View[] {new Utf8View(), new Utf8View()});
+
+        @Override
+        public int positions() {
+            return slots;
+        }
+
+        @Override
+        public CatalogEntry match(int position, EntryFilter filter) {
+            if (!isLive(position)) {
+                return null;
+            }
+            long offset = recordOffset(position);
+            int idLength = data.get(JAVA_INT_UNALIGNED, offset + 16);
+            int nameLength = data.get(JAVA_INT_UNALIGNED, offset + 20);
+            int descriptionLength = data.get(JAVA_INT_UNALIGNED, offset + 24);
+            long name = offset + RECORD_HEADER_SIZE + idLength;
+            Utf8View[] text = views.get();
+            text[0].reset(name, nameLength);
+            text[1].reset(name + nameLength, descriptionLength);
+            return filter.matches(data.get(JAVA_LONG_UNALIGNED, offset + 8), text[0], text[1]) ? decode(offset) : null;
+        }
+    }
+
+    // A UTF-8 run of the data segment, decoded into a reused buffer when first read
+    private final class Utf8View implements CharSequence {
+
+        private char[] chars = new char[64];
+        private long position;
+        private int byteLength;
+        private int length = -1;
+
+        void reset(long position, int byteLength) {
+            this.position = position;
+            this.byteLength = byteLength;
+            this.length = -1;
+        }
+
+        @Override
+        public int length() {
+            decode();
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            decode();
+            if (index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().substring(start, end);
+        }
+
+        @Override
+        public String toString() {
+            decode();
+            return new String(chars, 0, length);
+        }
+
+        // The store wrote the bytes with String.getBytes, so every sequence is well-formed
+        private void decode() {
+            if (length >= 0) {
+                return;
+            }
+            if (chars.length < byteLength) {
+                chars = new char[Math.max(byteLength, chars.length * 2)];
+            }
+            int count = 0;
+            long p = position;
+            long end = position + byteLength;
+            while (p < end) {
+                int b = next(p++);
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                } else if (b < 0xe0) {
+                    chars[count++] = (char) (((b & 0x1f) << 6) | (next(p++) & 0x3f));
+                } else if (b < 0xf0) {
+                    chars[count++] = (char) (((b & 0x0f) << 12) | ((next(p++) & 0x3f) << 6) | (next(p++) & 0x3f));
+                } else {
+                    int codePoint = ((b & 0x07) << 18) | ((next(p++) & 0x3f) << 12) | ((next(p++) & 0x3f) << 6)
+                            | (next(p++) & 0x3f);
+                    chars[count++] = Character.highSurrogate(codePoint);
+                    chars[count++] = Character.lowSurrogate(codePoint);
+                }
+            }
+            length = count;
+        }
+
+        private int next(long at) {
+            return data.get(JAVA_BYTE, at) & 0xff;
+        }
+    }
+
+    private static long slotAddress(int slot) {
+        return (long) slot * SLOT_SIZE;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // FNV-1a with a final avalanche so linear probing sees well-spread low bits
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,35 @@
+package com.catalog.productms.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "product.tenancy")
+public class TenancyProperties {
+
+    // Off: every request works on the default tenant, as before tenants existed
+    private boolean enabled = false;
+
+    // Header naming the tenant; required on every product request while enabled
+    private String header = "X-Tenant-Id";
+
+    // Tenants the header may name; empty accepts any well-formed id
+    private List<String> tenants = new ArrayList<>();
+
+    // Most of each bounded cache (near cache, missing ids, page totals, hot pages) one tenant may hold
+    private double cacheShare = 0.5;
+
+    /**
+     * The per-tenant share of a cache holding up to capacity entries; unlimited while
+     * tenancy is off.
+     */
+    public TenantQuota quota(int capacity) {
+        if (!enabled || cacheShare >= 1) {
+            return TenantQuota.UNLIMITED;
+        }
+        return new TenantQuota(Math.max(1, (int) (capacity * cacheShare)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.catalog.productms.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * The tenant whose catalog the current thread works on. The tenant filter binds it for a
+ * request; background work and scatter threads take it over with {@link #callAs}. Without
+ * tenancy nothing is bound and every thread works on the default tenant, which owns all
+ * rows that existed before the tenant column.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT;
+    }
+
+    // Whether a tenant was resolved for this thread, as opposed to the default
+    public static boolean isBound() {
+        return CURRENT.get() != null;
+    }
+
+    public static <T> T callAs(String tenant, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static void bind(String tenant) {
+        CURRENT.set(tenant);
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,63 @@
+package com.catalog.productms.tenant;
+
+import com.catalog.productms.dto.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the tenant of a product request from its header and binds it for the request.
+ * Requests without a tenant, or naming one that is malformed or not configured, get 400
+ * before any budget is charged or query runs.
+ */
+public class TenantFilter extends OncePerRequestFilter {
+
+    // Tenant ids end up in cache keys and metrics, so they are kept short and plain
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final String header;
+    private final Set<String> tenants;
+    private final ObjectMapper objectMapper;
+
+    public TenantFilter(TenancyProperties properties, ObjectMapper objectMapper) {
+        this.header = properties.getHeader();
+        this.tenants = Set.copyOf(properties.getTenants());
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String tenant = request.getHeader(header);
+        if (tenant == null || tenant.isBlank()) {
+            reject(response, "Missing " + header + " header");
+            return;
+        }
+        tenant = tenant.trim();
+        if (!TENANT_ID.matcher(tenant).matches() || (!tenants.isEmpty() && !tenants.contains(tenant))) {
+            reject(response, "Unknown tenant in " + header + " header");
+            return;
+        }
+        TenantContext.bind(tenant);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.unbind();
+        }
+    }
+
+    private void reject(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(HttpStatus.BAD_REQUEST.value(), message));
+    }
+}
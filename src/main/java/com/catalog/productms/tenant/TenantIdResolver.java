@@ -0,0 +1,15 @@
+package com.catalog.productms.tenant;
+
+import java.util.function.Supplier;
+
+/**
+ * Supplies the tenantId parameter of the Product tenant filter, which Hibernate enables
+ * in every session: each query and load by id is restricted to the current tenant.
+ */
+public class TenantIdResolver implements Supplier<String> {
+
+    @Override
+    public String get() {
+        return TenantContext.current();
+    }
+}
@@ -0,0 +1,54 @@
+package com.catalog.productms.tenant;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts what each tenant holds of a shared resource (cache entries, requests in flight)
+ * against a per-tenant limit, so one tenant cannot take all of it. Callers acquire before
+ * adding and release exactly once for everything they drop; tenants holding nothing are
+ * not tracked.
+ */
+public class TenantQuota {
+
+    // Acquiring always succeeds and nothing is counted
+    public static final TenantQuota UNLIMITED = new TenantQuota(Integer.MAX_VALUE);
+
+    private final int limit;
+    private final Map<String, Integer> held = new ConcurrentHashMap<>();
+
+    public TenantQuota(int limit) {
+        this.limit = limit;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public boolean tryAcquire(String tenant) {
+        return tryAcquire(tenant, limit);
+    }
+
+    // Against a limit that changes over time, such as a share of the adaptive concurrency limit
+    public boolean tryAcquire(String tenant, int currentLimit) {
+        if (this == UNLIMITED) {
+            return true;
+        }
+        int[] before = new int[1];
+        held.compute(tenant, (key, count) -> {
+            before[0] = count != null ? count : 0;
+            return before[0] < currentLimit ? Integer.valueOf(before[0] + 1) : count;
+        });
+        return before[0] < currentLimit;
+    }
+
+    public void release(String tenant) {
+        if (this != UNLIMITED) {
+            held.computeIfPresent(tenant, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    public int held(String tenant) {
+        return held.getOrDefault(tenant, 0);
+    }
+}
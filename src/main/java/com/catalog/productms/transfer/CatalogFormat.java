@@ -0,0 +1,43 @@
+package com.catalog.productms.transfer;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum CatalogFormat {
+
+    CSV(new MediaType("text", "csv"), "csv"),
+    // Row groups of column arrays, see ColumnarCatalogWriter
+    COLUMNAR(new MediaType("application", "vnd.catalog.columnar"), "pcat");
+
+    private final MediaType mediaType;
+    private final String fileExtension;
+
+    CatalogFormat(MediaType mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static CatalogFormat fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCatalogFileException("Unsupported format '" + value + "'. Supported formats: csv, columnar");
+        }
+    }
+
+    public static CatalogFormat fromContentType(MediaType contentType) {
+        if (contentType != null && COLUMNAR.mediaType.isCompatibleWith(contentType)) {
+            return COLUMNAR;
+        }
+        return CSV;
+    }
+}
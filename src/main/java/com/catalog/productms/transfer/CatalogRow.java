@@ -0,0 +1,10 @@
+package com.catalog.productms.transfer;
+
+import java.math.BigDecimal;
+
+/**
+ * One product as it travels through an import or export stream. The id is optional
+ * on import (a new one is generated when absent).
+ */
+public record CatalogRow(String id, String name, String description, BigDecimal price) {
+}
@@ -0,0 +1,20 @@
+package com.catalog.productms.transfer;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CatalogRowReader {
+
+    /**
+     * @return the next row, or null at the end of the stream
+     * @throws InvalidCatalogFileException when the row cannot be parsed
+     */
+    CatalogRow next() throws IOException;
+
+    // 1-based number of the row last returned by next(), excluding any header
+    long rowNumber();
+
+    static CatalogRowReader create(CatalogFormat format, InputStream in) throws IOException {
+        return format == CatalogFormat.COLUMNAR ? new ColumnarCatalogReader(in) : new CsvCatalogReader(in);
+    }
+}
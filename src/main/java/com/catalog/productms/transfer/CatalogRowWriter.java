@@ -0,0 +1,16 @@
+package com.catalog.productms.transfer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CatalogRowWriter {
+
+    void write(CatalogRow row) throws IOException;
+
+    // Writes any buffered rows and the format trailer; does not close the target stream
+    void finish() throws IOException;
+
+    static CatalogRowWriter create(CatalogFormat format, OutputStream out) {
+        return format == CatalogFormat.COLUMNAR ? new ColumnarCatalogWriter(out) : new CsvCatalogWriter(out);
+    }
+}
@@ -0,0 +1,290 @@
+package com.catalog.productms.transfer;
+
+import com.catalog.productms.cache.HotPageCache;
+import com.catalog.productms.dto.ImportResponse;
+import com.catalog.productms.dto.ProductRequest;
+import com.catalog.productms.entity.ChangeSequence;
+import com.catalog.productms.exception.ProductAlreadyExistsException;
+import com.catalog.productms.search.NameCollation;
+import com.catalog.productms.service.MissingProductCache;
+import com.catalog.productms.service.TotalCountCache;
+import com.catalog.productms.tenant.TenantContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the catalog between HTTP bodies and JDBC. Export reads through a server-side
+ * cursor (fetch size + useCursorFetch on MySQL) and writes row by row; import validates
+ * each row with the ProductRequest rules and inserts in batches. Neither direction holds
+ * more than one batch in memory. Both work on the catalog of the current tenant. The SQL
+ * targets a single database, so the service is not available when the catalog is sharded.
+ */
+@Service
+@ConditionalOnProperty(prefix = "product.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class CatalogTransferService {
+
+    static final int EXPORT_FETCH_SIZE = 1000;
+    static final int IMPORT_BATCH_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    // Column limits of the products table that ProductRequest does not express
+    private static final int MAX_ID_LENGTH = 255;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 1000;
+
+    private static final String EXPORT_SQL = "SELECT id, name, description, price FROM products WHERE tenant_id = ? ORDER BY id";
+    private static final String INSERT_SQL = "INSERT INTO products (id, name, description, price, change_seq, created_at, updated_at, tenant_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Across tenants: ids are the primary key, so one taken by another tenant cannot be inserted either
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM products WHERE id IN (:ids)";
+    // Within the tenant, as ProductService.createProduct checks; the descriptions are compared in Java
+    private static final String EXISTING_PRODUCTS_SQL = "SELECT name, description FROM products "
+            + "WHERE tenant_id = :tenant AND name IN (:names)";
+    // The table collation, which decides whether the database sees two products as the same
+    private static final Comparator<CatalogRow> BY_NAME_AND_DESCRIPTION =
+            Comparator.comparing(CatalogRow::name, NameCollation.ORDER)
+                    .thenComparing(CatalogRow::description, NameCollation.ORDER);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate exportJdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final MissingProductCache missingProducts;
+    private final HotPageCache hotPages;
+    private final TotalCountCache totalCounts;
+
+    public CatalogTransferService(JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  Validator validator,
+                                  MissingProductCache missingProducts,
+                                  HotPageCache hotPages,
+                                  TotalCountCache totalCounts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.missingProducts = missingProducts;
+        this.hotPages = hotPages;
+        this.totalCounts = totalCounts;
+        this.exportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+    }
+
+    // The stream is written on an async thread, so the tenant is passed in rather than read from the context
+    public long exportCatalog(String tenant, CatalogFormat format, OutputStream out) throws IOException {
+        CatalogRowWriter writer = CatalogRowWriter.create(format, out);
+        long[] exported = {0};
+        try {
+            exportJdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) rs -> {
+                try {
+                    writer.write(new CatalogRow(rs.getString(1), rs.getString(2), rs.getString(3), rs.getBigDecimal(4)));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                exported[0]++;
+            }, tenant);
+        } catch (UncheckedIOException ex) {
+            // Client went away mid-stream
+            throw ex.getCause();
+        }
+        writer.finish();
+        return exported[0];
+    }
+
+    public ImportResponse importCatalog(CatalogFormat format, InputStream in) throws IOException {
+        CatalogRowReader reader = CatalogRowReader.create(format, in);
+        String tenant = TenantContext.current();
+        ImportProgress progress = new ImportProgress();
+        List<PendingRow> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+        while (true) {
+            CatalogRow row;
+            try {
+                row = reader.next();
+            } catch (InvalidCatalogRowException ex) {
+                progress.fail(ex.getRowNumber(), ex.getMessage());
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+
+            String error = validate(row);
+            if (error != null) {
+                progress.fail(reader.rowNumber(), error);
+                continue;
+            }
+
+            String id = row.id() != null ? row.id() : UUID.randomUUID().toString();
+            batch.add(new PendingRow(reader.rowNumber(), id, row.id() != null, row));
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                insertBatch(tenant, batch, progress);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(tenant, batch, progress);
+        }
+        return progress.toResponse();
+    }
+
+    private String validate(CatalogRow row) {
+        ProductRequest request = new ProductRequest(row.name(), row.description(), row.price());
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        if (row.id() != null && row.id().length() > MAX_ID_LENGTH) {
+            return "Id must not exceed " + MAX_ID_LENGTH + " characters";
+        }
+        if (row.name().length() > MAX_NAME_LENGTH) {
+            return "Name must not exceed " + MAX_NAME_LENGTH + " characters";
+        }
+        if (row.description().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description must not exceed " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private void insertBatch(String tenant, List<PendingRow> batch, ImportProgress progress) {
+        // Ids or products already stored, or repeated within the batch, are reported instead of inserted
+        Set<String> existing = findExistingIds(batch);
+        Set<CatalogRow> existingProducts = findExistingProducts(tenant, batch);
+        Set<String> seen = new HashSet<>();
+        List<PendingRow> insertable = new ArrayList<>(batch.size());
+        for (PendingRow pending : batch) {
+            CatalogRow row = pending.row();
+            if (existing.contains(pending.id()) || !seen.add(pending.id())) {
+                progress.fail(pending.rowNumber(), "Product with id '" + pending.id() + "' already exists");
+            } else if (!existingProducts.add(row)) {
+                progress.fail(pending.rowNumber(),
+                        ProductAlreadyExistsException.of(row.name(), row.description()).getMessage());
+            } else {
+                insertable.add(pending);
+            }
+        }
+        if (insertable.isEmpty()) {
+            return;
+        }
+
+        long importedBefore = progress.imported;
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, insertable, insertable.size(),
+                            (ps, pending) -> bind(ps, pending, tenant)));
+            progress.imported(insertable.size());
+        } catch (DataIntegrityViolationException ex) {
+            // Retry row by row so the failure is attributed to the offending rows only. Anything
+            // else (lost connection, timeout, deadlock) is not a bad row and fails the import.
+            for (PendingRow pending : insertable) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, pending, tenant));
+                    progress.imported(1);
+                } catch (DataIntegrityViolationException rowEx) {
+                    progress.fail(pending.rowNumber(), "Row could not be stored (data integrity violation)");
+                }
+            }
+        }
+        // Rows are inserted behind ProductService, so ids a client already probed must be forgotten
+        for (PendingRow pending : insertable) {
+            if (pending.explicitId()) {
+                missingProducts.invalidate(tenant, pending.id());
+            }
+        }
+        // Nor does any ProductChangedEvent reach the pages and totals derived from the tenant's catalog
+        if (progress.imported > importedBefore) {
+            hotPages.invalidateTenant(tenant);
+            totalCounts.invalidateTenant(tenant);
+        }
+    }
+
+    private Set<String> findExistingIds(List<PendingRow> batch) {
+        List<String> explicitIds = batch.stream()
+                .filter(PendingRow::explicitId)
+                .map(PendingRow::id)
+                .toList();
+        if (explicitIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(EXISTING_IDS_SQL, Map.of("ids", explicitIds), String.class));
+    }
+
+    private Set<CatalogRow> findExistingProducts(String tenant, List<PendingRow> batch) {
+        Set<String> names = batch.stream().map(pending -> pending.row().name()).collect(Collectors.toSet());
+        Set<CatalogRow> existing = new TreeSet<>(BY_NAME_AND_DESCRIPTION);
+        namedParameterJdbcTemplate.query(EXISTING_PRODUCTS_SQL, Map.of("tenant", tenant, "names", names),
+                (RowCallbackHandler) rs -> existing.add(new CatalogRow(null, rs.getString(1), rs.getString(2), null)));
+        return existing;
+    }
+
+    private static void bind(PreparedStatement ps, PendingRow pending, String tenant) throws SQLException {
+        ps.setString(1, pending.id());
+        ps.setString(2, pending.row().name());
+        ps.setString(3, pending.row().description());
+        ps.setBigDecimal(4, pending.row().price());
+        ps.setLong(5, ChangeSequence.next());
+        // Bound the way Hibernate binds Instant columns, as UTC wall-clock time
+        Timestamp now = Timestamp.from(Instant.now());
+        ps.setTimestamp(6, now, Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC)));
+        ps.setTimestamp(7, now, Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC)));
+        ps.setString(8, tenant);
+    }
+
+    private record PendingRow(long rowNumber, String id, boolean explicitId, CatalogRow row) {
+    }
+
+    private static final class ImportProgress {
+        private long imported;
+        private long failed;
+        private final List<ImportResponse.RowError> errors = new ArrayList<>();
+
+        void imported(int rows) {
+            imported += rows;
+        }
+
+        void fail(long rowNumber, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportResponse.RowError(rowNumber, message));
+            }
+        }
+
+        ImportResponse toResponse() {
+            errors.sort((a, b) -> Long.compare(a.getRow(), b.getRow()));
+            return new ImportResponse(imported, failed, errors, failed > errors.size());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.catalog.productms.transfer;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads the format written by {@link ColumnarCatalogWriter}, one row group at a time.
+ */
+public class ColumnarCatalogReader implements CatalogRowReader {
+
+    // Guards against corrupt or hostile headers forcing huge allocations
+    private static final int MAX_ROWS_PER_GROUP = 64 * 1024;
+    private static final int MAX_COLUMN_BYTES = 64 * 1024 * 1024;
+
+    private final DataInputStream in;
+    private String[] ids = new String[0];
+    private String[] names = new String[0];
+    private String[] descriptions = new String[0];
+    private long[] prices = new long[0];
+    private int groupSize;
+    private int position;
+    private long rowNumber;
+    private boolean finished;
+
+    public ColumnarCatalogReader(InputStream source) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(source, 64 * 1024));
+        byte[] magic = new byte[ColumnarCatalogWriter.MAGIC.length];
+        try {
+            in.readFully(magic);
+            int version = in.readUnsignedByte();
+            if (!Arrays.equals(magic, ColumnarCatalogWriter.MAGIC)) {
+                throw new InvalidCatalogFileException("Not a columnar catalog file (bad magic)");
+            }
+            if (version != ColumnarCatalogWriter.VERSION) {
+                throw new InvalidCatalogFileException("Unsupported columnar catalog version " + version);
+            }
+        } catch (EOFException ex) {
+            throw new InvalidCatalogFileException("Columnar catalog file is truncated", ex);
+        }
+    }
+
+    @Override
+    public CatalogRow next() throws IOException {
+        if (position == groupSize) {
+            if (finished || !readGroup()) {
+                return null;
+            }
+        }
+        int i = position++;
+        rowNumber++;
+        return new CatalogRow(ids[i], names[i], descriptions[i],
+                prices[i] == ColumnarCatalogWriter.NULL_PRICE ? null
+                        : BigDecimal.valueOf(prices[i], ColumnarCatalogWriter.PRICE_SCALE));
+    }
+
+    @Override
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    private boolean readGroup() throws IOException {
+        try {
+            int rows = in.readInt();
+            if (rows == 0) {
+                finished = true;
+                return false;
+            }
+            if (rows < 0 || rows > MAX_ROWS_PER_GROUP) {
+                throw new InvalidCatalogFileException("Invalid row group size " + rows);
+            }
+            ids = readStrings(rows, ids);
+            names = readStrings(rows, names);
+            descriptions = readStrings(rows, descriptions);
+            if (prices.length < rows) {
+                prices = new long[rows];
+            }
+            for (int i = 0; i < rows; i++) {
+                prices[i] = in.readLong();
+            }
+            groupSize = rows;
+            position = 0;
+            return true;
+        } catch (EOFException ex) {
+            throw new InvalidCatalogFileException("Columnar catalog file is truncated", ex);
+        }
+    }
+
+    private String[] readStrings(int rows, String[] reuse) throws IOException {
+        int[] lengths = new int[rows];
+        long total = 0;
+        for (int i = 0; i < rows; i++) {
+            lengths[i] = in.readInt();
+            if (lengths[i] < -1) {
+                throw new InvalidCatalogFileException("Invalid string length " + lengths[i]);
+            }
+            total += Math.max(0, lengths[i]);
+        }
+        if (total > MAX_COLUMN_BYTES) {
+            throw new InvalidCatalogFileException("Row group column exceeds " + MAX_COLUMN_BYTES + " bytes");
+        }
+        byte[] bytes = new byte[(int) total];
+        in.readFully(bytes);
+
+        String[] values = reuse.length >= rows ? reuse : new String[rows];
+        int offset = 0;
+        for (int i = 0; i < rows; i++) {
+            if (lengths[i] < 0) {
+                values[i] = null;
+            } else {
+                values[i] = new String(bytes, offset, lengths[i], StandardCharsets.UTF_8);
+                offset += lengths[i];
+            }
+        }
+        return values;
+    }
+}
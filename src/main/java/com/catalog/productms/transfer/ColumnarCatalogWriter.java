@@ -0,0 +1,112 @@
+package com.catalog.productms.transfer;
+
+import com.catalog.productms.store.Money;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact binary columnar format ("PCAT"). Rows are buffered into row groups; each group
+ * is written column by column so similar values sit together and compress well:
+ *
+ * <pre>
+ * file      := magic "PCAT" | version:u8 | rowGroup* | 0:i32
+ * rowGroup  := rowCount:i32 | strings(id) | strings(name) | strings(description) | prices
+ * strings   := byteLength:i32[rowCount] (-1 = null) | utf8Bytes
+ * prices    := cents:i64[rowCount] (Long.MIN_VALUE = null), fixed scale 2
+ * </pre>
+ *
+ * Only one row group is held in memory at a time.
+ */
+public class ColumnarCatalogWriter implements CatalogRowWriter {
+
+    static final byte[] MAGIC = {'P', 'C', 'A', 'T'};
+    static final int VERSION = 1;
+    static final int ROW_GROUP_SIZE = 1024;
+    static final int PRICE_SCALE = 2;
+    static final long NULL_PRICE = Long.MIN_VALUE;
+
+    private final DataOutputStream out;
+    private final CatalogRow[] group = new CatalogRow[ROW_GROUP_SIZE];
+    private final ByteArrayOutputStream columnBytes = new ByteArrayOutputStream(64 * 1024);
+    private int groupSize;
+
+    public ColumnarCatalogWriter(OutputStream target) {
+        this.out = new DataOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        try {
+            out.write(MAGIC);
+            out.writeByte(VERSION);
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public void write(CatalogRow row) throws IOException {
+        group[groupSize++] = row;
+        if (groupSize == ROW_GROUP_SIZE) {
+            flushGroup();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (groupSize > 0) {
+            flushGroup();
+        }
+        out.writeInt(0);
+        out.flush();
+    }
+
+    private void flushGroup() throws IOException {
+        out.writeInt(groupSize);
+        writeStrings(Column.ID);
+        writeStrings(Column.NAME);
+        writeStrings(Column.DESCRIPTION);
+        for (int i = 0; i < groupSize; i++) {
+            out.writeLong(toCents(group[i].price()));
+        }
+        Arrays.fill(group, 0, groupSize, null);
+        groupSize = 0;
+    }
+
+    private void writeStrings(Column column) throws IOException {
+        columnBytes.reset();
+        for (int i = 0; i < groupSize; i++) {
+            String value = column.of(group[i]);
+            if (value == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                columnBytes.write(bytes);
+            }
+        }
+        columnBytes.writeTo(out);
+    }
+
+    static long toCents(BigDecimal price) {
+        if (price == null) {
+            return NULL_PRICE;
+        }
+        return Money.toCents(price);
+    }
+
+    private enum Column {
+        ID, NAME, DESCRIPTION;
+
+        String of(CatalogRow row) {
+            return switch (this) {
+                case ID -> row.id();
+                case NAME -> row.name();
+                case DESCRIPTION -> row.description();
+            };
+        }
+    }
+}
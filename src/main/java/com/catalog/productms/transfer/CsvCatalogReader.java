@@ -0,0 +1,158 @@
+package com.catalog.productms.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming RFC 4180 reader. The header decides the column order; id is optional,
+ * name, description and price are required.
+ */
+public class CsvCatalogReader implements CatalogRowReader {
+
+    private final Reader reader;
+    private final int idColumn;
+    private final int nameColumn;
+    private final int descriptionColumn;
+    private final int priceColumn;
+    private long rowNumber;
+    private int pushback = -2;
+
+    public CsvCatalogReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new InvalidCatalogFileException("CSV file is empty; expected header: " + CsvCatalogWriter.HEADER);
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String column : header) {
+            columns.add(column.strip().toLowerCase(Locale.ROOT).replace("\uFEFF", ""));
+        }
+        this.idColumn = columns.indexOf("id");
+        this.nameColumn = requiredColumn(columns, "name");
+        this.descriptionColumn = requiredColumn(columns, "description");
+        this.priceColumn = requiredColumn(columns, "price");
+    }
+
+    @Override
+    public CatalogRow next() throws IOException {
+        List<String> fields = readRecord();
+        while (fields != null && fields.size() == 1 && fields.get(0).isEmpty()) {
+            fields = readRecord(); // skip blank lines
+        }
+        if (fields == null) {
+            return null;
+        }
+        rowNumber++;
+        return new CatalogRow(
+                emptyToNull(field(fields, idColumn)),
+                field(fields, nameColumn),
+                field(fields, descriptionColumn),
+                parsePrice(field(fields, priceColumn)));
+    }
+
+    @Override
+    public long rowNumber() {
+        return rowNumber;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean afterQuote = false;
+        while (true) {
+            if (c == -1) {
+                if (quoted) {
+                    throw new InvalidCatalogFileException("Unterminated quoted field at row " + (rowNumber + 1));
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        unread(next);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                afterQuote = false;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '"' && field.isEmpty() && !afterQuote) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+
+    private BigDecimal parsePrice(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.strip());
+        } catch (NumberFormatException ex) {
+            throw new InvalidCatalogRowException(rowNumber, "Invalid price '" + value + "'");
+        }
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    private static int requiredColumn(List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new InvalidCatalogFileException("CSV header is missing column '" + name
+                    + "'; expected header: " + CsvCatalogWriter.HEADER);
+        }
+        return index;
+    }
+}
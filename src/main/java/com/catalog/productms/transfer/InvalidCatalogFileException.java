@@ -0,0 +1,11 @@
+package com.catalog.productms.transfer;
+
+public class InvalidCatalogFileException extends RuntimeException {
+    public InvalidCatalogFileException(String message) {
+        super(message);
+    }
+
+    public InvalidCatalogFileException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
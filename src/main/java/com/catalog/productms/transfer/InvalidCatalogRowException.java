@@ -0,0 +1,18 @@
+package com.catalog.productms.transfer;
+
+/**
+ * A single row could not be decoded; the import records it and continues.
+ */
+public class InvalidCatalogRowException extends RuntimeException {
+
+    private final long rowNumber;
+
+    public InvalidCatalogRowException(long rowNumber, String message) {
+        super(message);
+        this.rowNumber = rowNumber;
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+}
@@ -0,0 +1,8 @@
+-- H2 (MySQL mode) counterpart of db/migration/mysql, used by the tests
+CREATE TABLE IF NOT EXISTS products (
+    id          VARCHAR(255)   NOT NULL,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(1000)  NOT NULL,
+    price       DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,3 @@
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_seq BIGINT NULL;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS created_at TIMESTAMP(6) WITH TIME ZONE NULL;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE NULL;
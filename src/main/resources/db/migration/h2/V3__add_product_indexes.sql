@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS idx_products_change_seq ON products (change_seq);
+CREATE INDEX IF NOT EXISTS idx_products_name_desc ON products (name, description);
+CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);
+CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (name, id);
+CREATE INDEX IF NOT EXISTS idx_products_created_at_id ON products (created_at, id);
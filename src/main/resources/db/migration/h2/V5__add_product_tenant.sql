@@ -0,0 +1,10 @@
+ALTER TABLE products ADD COLUMN IF NOT EXISTS tenant_id VARCHAR(64) NOT NULL DEFAULT 'default';
+CREATE INDEX IF NOT EXISTS idx_products_tenant_id ON products (tenant_id, id);
+CREATE INDEX IF NOT EXISTS idx_products_tenant_name_desc ON products (tenant_id, name, description);
+CREATE INDEX IF NOT EXISTS idx_products_tenant_price_id ON products (tenant_id, price, id);
+CREATE INDEX IF NOT EXISTS idx_products_tenant_name_id ON products (tenant_id, name, id);
+CREATE INDEX IF NOT EXISTS idx_products_tenant_created_at_id ON products (tenant_id, created_at, id);
+DROP INDEX IF EXISTS idx_products_name_desc;
+DROP INDEX IF EXISTS idx_products_price_id;
+DROP INDEX IF EXISTS idx_products_name_id;
+DROP INDEX IF EXISTS idx_products_created_at_id;
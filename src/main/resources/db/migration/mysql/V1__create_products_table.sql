@@ -0,0 +1,8 @@
+-- Original catalog table. IF NOT EXISTS: databases created by Hibernate (ddl-auto=update) already have it.
+CREATE TABLE IF NOT EXISTS products (
+    id          VARCHAR(255)   NOT NULL,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(1000)  NOT NULL,
+    price       DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,27 @@
+-- change_seq drives catalog snapshot catch-up; created_at / updated_at are audit columns.
+-- MySQL has no ADD COLUMN IF NOT EXISTS, so each column is added only when missing. ALGORITHM=INSTANT only
+-- touches the data dictionary and fails instead of silently rebuilding the table.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'change_seq') = 0,
+              'ALTER TABLE products ADD COLUMN change_seq BIGINT NULL, ALGORITHM=INSTANT',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'created_at') = 0,
+              'ALTER TABLE products ADD COLUMN created_at DATETIME(6) NULL, ALGORITHM=INSTANT',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'updated_at') = 0,
+              'ALTER TABLE products ADD COLUMN updated_at DATETIME(6) NULL, ALGORITHM=INSTANT',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,50 @@
+-- Indexes behind ProductRepository and the catalog snapshot:
+--   idx_products_change_seq      snapshot catch-up (change_seq > watermark)
+--   idx_products_name_desc       duplicate check (existsByNameAndDescription)
+--   idx_products_price_id        sort=price, price range filters
+--   idx_products_name_id         sort=name
+--   idx_products_created_at_id   sort=created_at
+-- ALGORITHM=INPLACE, LOCK=NONE builds each index online, with reads and writes allowed during the build.
+-- MySQL fails the statement rather than falling back to a locking copy. Indexes that Hibernate already
+-- created are skipped.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_change_seq') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_change_seq (change_seq), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Prefix on description: the full VARCHAR(1000) in utf8mb4 exceeds InnoDB's 3072-byte key limit
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_name_desc') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_name_desc (name, description(255)), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_price_id') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_price_id (price, id), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_name_id') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_name_id (name, id), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_created_at_id') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_created_at_id (created_at, id), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,10 @@
+-- Optimistic locking: Hibernate increments version on every update and only updates the row when it
+-- still has the version that was read. Existing rows start at 0.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'version') = 0,
+              'ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0, ALGORITHM=INSTANT',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,91 @@
+-- Tenant-scoped catalogs: every row belongs to one tenant, and every query filters on it (tenant_id = ?).
+-- Existing rows belong to the 'default' tenant, which is also the only tenant while tenancy is off.
+-- The indexes of V3 lead with tenant_id instead, so a tenant's sorted pages and filters read its own
+-- slice of the index only:
+--   idx_products_tenant_id             unsorted listing, export and count samples (InnoDB orders by id)
+--   idx_products_tenant_name_desc      duplicate check (existsByNameAndDescription)
+--   idx_products_tenant_price_id       sort=price, price range filters
+--   idx_products_tenant_name_id        sort=name
+--   idx_products_tenant_created_at_id  sort=created_at
+-- The new indexes are built online before the old ones are dropped. idx_products_change_seq stays: the
+-- snapshot catch-up reads every tenant.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND column_name = 'tenant_id') = 0,
+              'ALTER TABLE products ADD COLUMN tenant_id VARCHAR(64) NOT NULL DEFAULT ''default'', ALGORITHM=INSTANT',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_tenant_id') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_tenant_id (tenant_id, id), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_tenant_name_desc') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_tenant_name_desc (tenant_id, name, description(255)), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_tenant_price_id') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_tenant_price_id (tenant_id, price, id), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_tenant_name_id') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_tenant_name_id (tenant_id, name, id), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_tenant_created_at_id') = 0,
+              'ALTER TABLE products ADD INDEX idx_products_tenant_created_at_id (tenant_id, created_at, id), ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_name_desc') > 0,
+              'ALTER TABLE products DROP INDEX idx_products_name_desc, ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_price_id') > 0,
+              'ALTER TABLE products DROP INDEX idx_products_price_id, ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_name_id') > 0,
+              'ALTER TABLE products DROP INDEX idx_products_name_id, ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'products' AND index_name = 'idx_products_created_at_id') > 0,
+              'ALTER TABLE products DROP INDEX idx_products_created_at_id, ALGORITHM=INPLACE, LOCK=NONE',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
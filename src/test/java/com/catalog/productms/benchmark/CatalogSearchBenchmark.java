@@ -0,0 +1,73 @@
+package com.catalog.productms.benchmark;
+
+import com.catalog.productms.search.CatalogSearchEngine;
+import com.catalog.productms.search.ProductFilter;
+import com.catalog.productms.store.CatalogEntry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory search latency by worker count: a full unsorted scan returning every match
+ * and a price-sorted deep page that exercises the per-partition top-K merge.
+ * Run with: mvn -Pbenchmark verify -DskipTests -Dbenchmark.include=CatalogSearchBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class CatalogSearchBenchmark {
+
+    private static final String[] WORDS = {"laptop", "phone", "desk", "lamp", "chair", "monitor", "keyboard", "cable"};
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    @Param({"1000000"})
+    private int products;
+
+    private CatalogSearchEngine engine;
+    private List<CatalogEntry> entries;
+    private ProductFilter textAndPrice;
+    private PageRequest deepPriceSortedPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new CatalogSearchEngine(true, parallelism);
+        Random random = new Random(7);
+        entries = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            entries.add(new CatalogEntry(UUID.randomUUID().toString(), "Product " + word + " " + i,
+                    "A " + word + " with a longer description to scan through, item " + i,
+                    BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2), i));
+        }
+        textAndPrice = new ProductFilter("lap", new BigDecimal("100.00"), new BigDecimal("5000.00"));
+        deepPriceSortedPage = PageRequest.of(50, 20, Sort.by(Sort.Order.asc("price")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public List<CatalogEntry> textAndPriceAllMatches() {
+        return engine.search(entries, textAndPrice);
+    }
+
+    @Benchmark
+    public Page<CatalogEntry> textAndPriceDeepPage() {
+        return engine.search(entries, textAndPrice, deepPriceSortedPage);
+    }
+}
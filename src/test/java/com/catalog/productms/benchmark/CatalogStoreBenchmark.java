@@ -0,0 +1,113 @@
+package com.catalog.productms.benchmark;
+
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.store.CatalogStore;
+import com.catalog.productms.store.HeapCatalogStore;
+import com.catalog.productms.store.OffHeapCatalogStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the on-heap and off-heap catalog stores: lookup and scan cost, the heap
+ * retained by the loaded catalog, and GC time while the application allocates around it.
+ * Footprint and GC figures are printed at the end of each trial.
+ * Run with: mvn -Pbenchmark verify -DskipTests -Dbenchmark.include=CatalogStoreBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class CatalogStoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int products;
+
+    @Param({"heap", "off-heap"})
+    private String store;
+
+    private CatalogStore catalogStore;
+    private String[] ids;
+    private long gcCountBefore;
+    private long gcTimeBefore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new String[products];
+        for (int i = 0; i < products; i++) {
+            ids[i] = UUID.randomUUID().toString();
+        }
+
+        long heapBefore = usedHeapAfterGc();
+        catalogStore = "off-heap".equals(store) ? new OffHeapCatalogStore() : new HeapCatalogStore();
+        for (int i = 0; i < products; i++) {
+            // Copy the key so the heap store is charged for its own id strings
+            catalogStore.upsert(new CatalogEntry(new String(ids[i]), "Product " + i,
+                    "Description for product number " + i + " with a few more words to look realistic",
+                    BigDecimal.valueOf(1000 + i * 37L, 2), i));
+        }
+        long retained = usedHeapAfterGc() - heapBefore;
+        System.out.printf("%n[%s, %d products] retained heap: %d MB, off-heap: %d MB%n", store, products,
+                retained / (1024 * 1024),
+                catalogStore instanceof OffHeapCatalogStore offHeap ? offHeap.offHeapBytes() / (1024 * 1024) : 0);
+
+        gcCountBefore = gcCount();
+        gcTimeBefore = gcTime();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n[%s, %d products] GC during measurement: %d collections, %d ms%n", store, products,
+                gcCount() - gcCountBefore, gcTime() - gcTimeBefore);
+        if (catalogStore instanceof OffHeapCatalogStore offHeap) {
+            offHeap.close();
+        }
+    }
+
+    @Benchmark
+    public CatalogEntry getById() {
+        return catalogStore.get(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    // Request-style garbage next to the resident catalog: GC cost grows with what the collector must trace
+    @Benchmark
+    public void getByIdWithAllocation(Blackhole blackhole) {
+        blackhole.consume(catalogStore.get(ids[ThreadLocalRandom.current().nextInt(ids.length)]));
+        blackhole.consume(new byte[4096]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public int scanAll() {
+        return catalogStore.entries().size();
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+}
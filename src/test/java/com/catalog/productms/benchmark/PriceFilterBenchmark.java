@@ -0,0 +1,95 @@
+package com.catalog.productms.benchmark;
+
+import com.catalog.productms.search.CatalogSearchEngine;
+import com.catalog.productms.search.ProductFilter;
+import com.catalog.productms.store.CatalogEntry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price range filtering and price ordering over catalog entries: BigDecimal prices compared
+ * with compareTo (how entries held prices before) against the cents that CatalogEntry holds
+ * now, compared as longs by ProductFilter and the search comparator.
+ * Run with: mvn -Pbenchmark verify -DskipTests -Dbenchmark.include=PriceFilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class PriceFilterBenchmark {
+
+    private static final BigDecimal MIN = new BigDecimal("100.00");
+    private static final BigDecimal MAX = new BigDecimal("5000.00");
+    private static final int SORTED = 10_000;
+
+    @Param({"1000000"})
+    private int products;
+
+    private List<CatalogEntry> entries;
+    private BigDecimal[] prices;
+    private ProductFilter priceRange;
+    private Comparator<CatalogEntry> byPrice;
+    private List<CatalogEntry> toSort;
+    private List<BigDecimal> pricesToSort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(7);
+        entries = new ArrayList<>(products);
+        prices = new BigDecimal[products];
+        for (int i = 0; i < products; i++) {
+            prices[i] = BigDecimal.valueOf(100 + random.nextInt(1_000_000), 2);
+            entries.add(new CatalogEntry(UUID.randomUUID().toString(), "Product " + i, "Description " + i, prices[i], i));
+        }
+        priceRange = new ProductFilter(null, MIN, MAX);
+        byPrice = CatalogSearchEngine.comparator(Sort.by("price"));
+        toSort = entries.subList(0, SORTED);
+        pricesToSort = List.of(prices).subList(0, SORTED);
+    }
+
+    @Benchmark
+    public int bigDecimalRange() {
+        int matches = 0;
+        for (BigDecimal price : prices) {
+            if (price.compareTo(MIN) >= 0 && price.compareTo(MAX) <= 0) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int centsRange() {
+        int matches = 0;
+        for (CatalogEntry entry : entries) {
+            if (priceRange.matches(entry)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public List<BigDecimal> bigDecimalSort() {
+        List<BigDecimal> copy = new ArrayList<>(pricesToSort);
+        copy.sort(Comparator.naturalOrder());
+        return copy;
+    }
+
+    @Benchmark
+    public List<CatalogEntry> centsSort() {
+        List<CatalogEntry> copy = new ArrayList<>(toSort);
+        copy.sort(byPrice);
+        return copy;
+    }
+}
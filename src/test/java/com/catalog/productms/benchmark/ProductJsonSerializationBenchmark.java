@@ -0,0 +1,80 @@
+package com.catalog.productms.benchmark;
+
+import com.catalog.productms.dto.PageResponse;
+import com.catalog.productms.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default reflective Jackson mapper with the Blackbird-enabled mapper
+ * for the two response shapes the controller writes most.
+ * Run with: mvn -Pbenchmark verify -DskipTests -Dbenchmark.include=ProductJsonSerializationBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ProductJsonSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int products;
+
+    @Param({"default", "blackbird"})
+    private String mapper;
+
+    private ObjectWriter writer;
+    private List<ProductResponse> list;
+    private PageResponse<ProductResponse> page;
+    private ByteArrayOutputStream buffer;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(mapper)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writer();
+
+        list = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            list.add(new ProductResponse(
+                    UUID.randomUUID().toString(),
+                    "Product " + i,
+                    "Description for product number " + i,
+                    BigDecimal.valueOf(1000 + i * 37L, 2)));
+        }
+        page = PageResponse.fromPage(new PageImpl<>(list, PageRequest.of(0, products), products * 10L));
+        // Reused between invocations, like the servlet response buffer
+        buffer = new ByteArrayOutputStream(products * 160);
+    }
+
+    @Benchmark
+    public int writeList() throws IOException {
+        buffer.reset();
+        writer.writeValue(buffer, list);
+        return buffer.size();
+    }
+
+    @Benchmark
+    public int writePage() throws IOException {
+        buffer.reset();
+        writer.writeValue(buffer, page);
+        return buffer.size();
+    }
+}
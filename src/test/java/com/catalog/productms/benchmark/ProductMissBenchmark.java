@@ -0,0 +1,122 @@
+package com.catalog.productms.benchmark;
+
+import com.catalog.productms.exception.GlobalExceptionHandler;
+import com.catalog.productms.exception.ProductNotFoundException;
+import com.catalog.productms.service.MissingProductCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of answering GET /products/{id} for an id that does not exist, excluding the database
+ * round trip: an exception with a stack trace mapped by the handler (the old path), the
+ * stackless ProductNotFoundException, an empty Optional, and a hit in the missing-id cache
+ * that skips the lookup entirely. The miss is raised stackDepth frames below the handler,
+ * which is roughly where the servlet filter chain puts the repository call.
+ * Run with: mvn -Pbenchmark verify -DskipTests -Dbenchmark.include=ProductMissBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ProductMissBenchmark {
+
+    private static final int IDS = 1024;
+
+    @Param({"20", "150"})
+    private int stackDepth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private MissingProductCache missingProducts;
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        missingProducts = new MissingProductCache(new SimpleMeterRegistry(), true, TimeUnit.HOURS.toMillis(1), IDS);
+        ids = new String[IDS];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            missingProducts.recordMiss(ids[i], missingProducts.generation());
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> exceptionWithStackTrace() {
+        try {
+            return found(lookup(nextId(), stackDepth, Path.STACK_TRACE));
+        } catch (StackTraceNotFoundException ex) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> stacklessException() {
+        try {
+            return found(lookup(nextId(), stackDepth, Path.STACKLESS));
+        } catch (ProductNotFoundException ex) {
+            return handler.handleProductNotFound(ex);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> optional() {
+        return lookupOptional(nextId(), stackDepth)
+                .map(ProductMissBenchmark::found)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @Benchmark
+    public ResponseEntity<?> negativeCacheHit() {
+        String id = nextId();
+        if (missingProducts.isMissing(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return lookupOptional(id, stackDepth)
+                .map(ProductMissBenchmark::found)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private String nextId() {
+        return ids[ThreadLocalRandom.current().nextInt(IDS)];
+    }
+
+    private enum Path {
+        STACK_TRACE, STACKLESS
+    }
+
+    private static ResponseEntity<?> found(Object product) {
+        return ResponseEntity.ok(product);
+    }
+
+    private static Object lookup(String id, int depth, Path path) {
+        if (depth > 0) {
+            return lookup(id, depth - 1, path);
+        }
+        if (path == Path.STACK_TRACE) {
+            throw new StackTraceNotFoundException(id);
+        }
+        throw new ProductNotFoundException(id);
+    }
+
+    private static Optional<Object> lookupOptional(String id, int depth) {
+        if (depth > 0) {
+            return lookupOptional(id, depth - 1);
+        }
+        return Optional.empty();
+    }
+
+    // ProductNotFoundException as it was before it became stackless
+    private static class StackTraceNotFoundException extends RuntimeException {
+        StackTraceNotFoundException(String id) {
+            super("Product not found with id: " + id);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.catalog.productms.benchmark;
+
+import com.catalog.productms.cache.ProductCache;
+import com.catalog.productms.cache.ProductCacheProperties;
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.observability.ProductOperationEvent;
+import com.catalog.productms.observability.ProductOperationRecorder;
+import com.catalog.productms.search.CatalogSearchEngine;
+import com.catalog.productms.service.MissingProductCache;
+import com.catalog.productms.service.ProductService;
+import com.catalog.productms.service.SingleFlight;
+import com.catalog.productms.service.TotalCountCache;
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.store.HeapCatalogStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the ProductOperation JFR event on the cheapest service call, a lookup answered by
+ * the local catalog copy: the call through a proxy without the recorder, with the recorder
+ * while no recording enables the event, and with a recording running. The proxy stands in
+ * for the transactional proxy the recorder joins in the application.
+ * Run with: mvn -Pbenchmark verify -DskipTests -Dbenchmark.include=ProductOperationEventBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ProductOperationEventBenchmark {
+
+    private static final int IDS = 1024;
+
+    @Param({"false", "true"})
+    private boolean recording;
+
+    private ProductService withoutRecorder;
+    private ProductService withRecorder;
+    private String[] ids;
+    private Recording jfr;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        HeapCatalogStore store = new HeapCatalogStore();
+        ids = new String[IDS];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            store.upsert(new CatalogEntry(ids[i], "Product " + i, "Description " + i, BigDecimal.valueOf(1000 + i, 2), i));
+        }
+        store.setReady(true);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // The repository is never reached: every id is in the catalog copy
+        ProductService service = new ProductService(null, new SingleFlight(meterRegistry, 5000), store,
+                new CatalogSearchEngine(false, 1), new MissingProductCache(meterRegistry, true, 5000, IDS),
+                new ProductCache(new ProductCacheProperties(), null, meterRegistry),
+                new TotalCountCache(meterRegistry, "exact", 30000, 10000, 1000), null);
+        withoutRecorder = proxy(service, false);
+        withRecorder = proxy(service, true);
+
+        if (recording) {
+            jfr = new Recording();
+            jfr.enable(ProductOperationEvent.NAME);
+            jfr.start();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (jfr != null) {
+            jfr.close();
+        }
+    }
+
+    @Benchmark
+    public Optional<Product> proxied() {
+        return withoutRecorder.findProductById(nextId());
+    }
+
+    @Benchmark
+    public Optional<Product> recorded() {
+        return withRecorder.findProductById(nextId());
+    }
+
+    private String nextId() {
+        return ids[ThreadLocalRandom.current().nextInt(IDS)];
+    }
+
+    private static ProductService proxy(ProductService target, boolean recorder) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice((MethodInterceptor) MethodInvocation::proceed);
+        if (recorder) {
+            factory.addAdvice(0, new ProductOperationRecorder());
+        }
+        return (ProductService) factory.getProxy();
+    }
+}
@@ -0,0 +1,228 @@
+package com.catalog.productms.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for a Redis-protocol server, speaking RESP over a real socket. It
+ * implements the commands RespSharedCache sends (PING, AUTH, GET, MGET, SET with PX and NX,
+ * INCR, DEL, PUBLISH, SUBSCRIBE) with key expiry, which is enough to run several
+ * ProductCache instances against one shared tier.
+ */
+class EmbeddedRespServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final String password;
+    private final Map<String, Value> data = new ConcurrentHashMap<>();
+    private final Map<String, Set<OutputStream>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private EmbeddedRespServer(String password) throws IOException {
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        this.password = password;
+        executor.submit(this::accept);
+    }
+
+    static EmbeddedRespServer start() throws IOException {
+        return new EmbeddedRespServer(null);
+    }
+
+    static EmbeddedRespServer start(String password) throws IOException {
+        return new EmbeddedRespServer(password);
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    // Simulates a network blip: every client has to reconnect
+    void dropConnections() throws IOException {
+        for (Socket client : clients) {
+            client.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        dropConnections();
+        executor.shutdownNow();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                clients.add(client);
+                executor.submit(() -> serve(client));
+            } catch (IOException ex) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        OutputStream out = null;
+        boolean authenticated = password == null;
+        try (client) {
+            InputStream in = new BufferedInputStream(client.getInputStream());
+            out = new BufferedOutputStream(client.getOutputStream());
+            while (true) {
+                List<byte[]> args = new ArrayList<>();
+                for (Object arg : (List<?>) Resp.read(in)) {
+                    args.add((byte[]) arg);
+                }
+                String command = text(args.getFirst()).toUpperCase(Locale.ROOT);
+                synchronized (out) {
+                    if (command.equals("AUTH")) {
+                        authenticated = password == null || password.equals(text(args.get(1)));
+                        simple(out, authenticated ? "+OK" : "-WRONGPASS invalid password");
+                    } else if (!authenticated) {
+                        simple(out, "-NOAUTH Authentication required");
+                    } else {
+                        execute(command, args, out);
+                    }
+                    out.flush();
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            // Client went away
+        } finally {
+            OutputStream closed = out;
+            subscribers.values().forEach(channel -> channel.remove(closed));
+            clients.remove(client);
+        }
+    }
+
+    private void execute(String command, List<byte[]> args, OutputStream out) throws IOException {
+        switch (command) {
+            case "PING" -> simple(out, "+PONG");
+            case "GET" -> Resp.writeBulk(out, get(text(args.get(1))));
+            case "MGET" -> {
+                Resp.writeHeader(out, '*', args.size() - 1);
+                for (byte[] key : args.subList(1, args.size())) {
+                    Resp.writeBulk(out, get(text(key)));
+                }
+            }
+            case "SET" -> set(args, out);
+            case "INCR" -> {
+                String key = text(args.get(1));
+                Value next = data.compute(key, (k, current) -> new Value(Long.toString(
+                        (current == null || current.expired() ? 0 : Long.parseLong(text(current.bytes()))) + 1)
+                        .getBytes(StandardCharsets.US_ASCII), current == null ? 0 : current.expiresAt()));
+                Resp.writeHeader(out, ':', Long.parseLong(text(next.bytes())));
+            }
+            case "DEL" -> {
+                long removed = args.subList(1, args.size()).stream()
+                        .filter(key -> data.remove(text(key)) != null)
+                        .count();
+                Resp.writeHeader(out, ':', removed);
+            }
+            case "PUBLISH" -> Resp.writeHeader(out, ':', publish(text(args.get(1)), args.get(2)));
+            case "SUBSCRIBE" -> {
+                String channel = text(args.get(1));
+                subscribers.computeIfAbsent(channel, k -> ConcurrentHashMap.newKeySet()).add(out);
+                Resp.writeHeader(out, '*', 3);
+                Resp.writeBulk(out, Resp.bytes("subscribe"));
+                Resp.writeBulk(out, args.get(1));
+                Resp.writeHeader(out, ':', 1);
+            }
+            default -> simple(out, "-ERR unknown command '" + command + "'");
+        }
+    }
+
+    private void set(List<byte[]> args, OutputStream out) throws IOException {
+        String key = text(args.get(1));
+        long expiresAt = 0;
+        boolean onlyIfAbsent = false;
+        for (int i = 3; i < args.size(); i++) {
+            String option = text(args.get(i)).toUpperCase(Locale.ROOT);
+            if (option.equals("PX")) {
+                expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Long.parseLong(text(args.get(++i))));
+            } else if (option.equals("NX")) {
+                onlyIfAbsent = true;
+            }
+        }
+        Value value = new Value(args.get(2), expiresAt);
+        boolean stored;
+        if (onlyIfAbsent) {
+            Value[] previous = new Value[1];
+            data.compute(key, (k, current) -> {
+                previous[0] = current;
+                return current == null || current.expired() ? value : current;
+            });
+            stored = previous[0] == null || previous[0].expired();
+        } else {
+            data.put(key, value);
+            stored = true;
+        }
+        if (stored) {
+            simple(out, "+OK");
+        } else {
+            Resp.writeBulk(out, null);
+        }
+    }
+
+    private long publish(String channel, byte[] message) {
+        long delivered = 0;
+        for (OutputStream subscriber : subscribers.getOrDefault(channel, Set.of())) {
+            synchronized (subscriber) {
+                try {
+                    Resp.writeHeader(subscriber, '*', 3);
+                    Resp.writeBulk(subscriber, Resp.bytes("message"));
+                    Resp.writeBulk(subscriber, Resp.bytes(channel));
+                    Resp.writeBulk(subscriber, message);
+                    subscriber.flush();
+                    delivered++;
+                } catch (IOException ex) {
+                    // The subscriber is gone; its connection thread cleans up
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private byte[] get(String key) {
+        Value value = data.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (value.expired()) {
+            data.remove(key, value);
+            return null;
+        }
+        return value.bytes();
+    }
+
+    private static void simple(OutputStream out, String line) throws IOException {
+        out.write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String text(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // expiresAt 0 never expires
+    private record Value(byte[] bytes, long expiresAt) {
+        boolean expired() {
+            return expiresAt != 0 && expiresAt - System.nanoTime() <= 0;
+        }
+    }
+}
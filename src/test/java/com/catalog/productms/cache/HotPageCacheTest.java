@@ -0,0 +1,211 @@
+package com.catalog.productms.cache;
+
+import com.catalog.productms.dto.PageResponse;
+import com.catalog.productms.dto.ProductResponse;
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.service.ProductChangedEvent;
+import com.catalog.productms.service.ProductService;
+import com.catalog.productms.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HotPageCacheTest {
+
+    private static final Pageable BY_PRICE = PageRequest.of(0, 2, Sort.by("price"));
+    private static final PageKey LISTING = PageKey.listing(BY_PRICE);
+    private static final PageKey LAPTOPS = PageKey.search("laptop", null, null, BY_PRICE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nanos = new AtomicLong();
+    private ProductService productService;
+    private HotPageProperties properties;
+    private HotPageCache cache;
+
+    private Product mouse;
+    private Product laptop;
+    private Product desk;
+
+    @BeforeEach
+    void setUp() {
+        mouse = product("1", "Mouse", "10.00");
+        laptop = product("2", "Laptop", "20.00");
+        desk = product("3", "Desk", "50.00");
+        productService = mock(ProductService.class);
+        when(productService.getAllProducts(BY_PRICE)).thenReturn(new PageImpl<>(List.of(mouse, laptop), BY_PRICE, 3));
+        when(productService.searchProducts("laptop", null, null, BY_PRICE))
+                .thenReturn(new PageImpl<>(List.of(laptop), BY_PRICE, 1));
+
+        properties = new HotPageProperties();
+        properties.setEnabled(true);
+        cache = new HotPageCache(properties, productService, objectMapper, new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    void get_ShouldServeTheRenderedPageOnceItIsHot() throws Exception {
+        assertNull(cache.get(LISTING));
+
+        cache.refresh();
+
+        byte[] expected = objectMapper.writeValueAsBytes(PageResponse.fromPage(
+                new PageImpl<>(List.of(mouse, laptop), BY_PRICE, 3).map(ProductResponse::fromEntity)));
+        assertArrayEquals(expected, cache.get(LISTING));
+        assertArrayEquals(expected, cache.get(PageKey.listing(PageRequest.of(0, 2, Sort.by("price")))));
+        verify(productService, times(1)).getAllProducts(BY_PRICE);
+    }
+
+    @Test
+    void get_WhenDisabled_ShouldNeitherTrackNorRender() {
+        properties.setEnabled(false);
+
+        assertNull(cache.get(LISTING));
+        cache.refresh();
+
+        assertNull(cache.get(LISTING));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void searchKeys_ShouldIgnoreCaseAndPriceScale() {
+        assertEquals(PageKey.search("laptop", new BigDecimal("100"), null, BY_PRICE),
+                PageKey.search("LapTop", new BigDecimal("100.00"), null, BY_PRICE));
+        assertNotEquals(LISTING, PageKey.listing(PageRequest.of(1, 2, Sort.by("price"))));
+    }
+
+    @Test
+    void renderedPages_ShouldExpireAndRenewBeforeMaxAge() {
+        cache.get(LISTING);
+        cache.refresh();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(properties.getMaxAgeMs() + 1));
+
+        assertNull(cache.get(LISTING));
+
+        cache.refresh();
+        assertNotNull(cache.get(LISTING));
+        verify(productService, times(2)).getAllProducts(BY_PRICE);
+    }
+
+    @Test
+    void refresh_ShouldOnlyRenderTheMostRequestedPages() {
+        properties.setTopN(1);
+        cache.get(LAPTOPS);
+        cache.get(LISTING);
+        cache.get(LISTING);
+
+        cache.refresh();
+
+        assertNotNull(cache.get(LISTING));
+        assertNull(cache.get(LAPTOPS));
+        assertEquals(1, cache.materialized());
+        verify(productService, never()).searchProducts(any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void onProductChanged_ShouldOnlyDropPagesTheWriteCanChange() {
+        makeHot(LISTING, LAPTOPS);
+
+        // Stays behind the first listing page and never matches the search
+        cache.onProductChanged(ProductChangedEvent.updated(desk, product("3", "Desk", "60.00")));
+        assertNotNull(cache.get(LISTING));
+        assertNotNull(cache.get(LAPTOPS));
+
+        // Moves in front of the listing page
+        cache.onProductChanged(ProductChangedEvent.updated(desk, product("3", "Desk", "5.00")));
+        assertNull(cache.get(LISTING));
+        assertNotNull(cache.get(LAPTOPS));
+
+        // Enters the search results
+        cache.onProductChanged(ProductChangedEvent.updated(desk, product("3", "Laptop desk", "50.00")));
+        assertNull(cache.get(LAPTOPS));
+    }
+
+    @Test
+    void onProductChanged_ShouldDropPagesShowingTheProduct() {
+        makeHot(LISTING, LAPTOPS);
+
+        cache.onProductChanged(ProductChangedEvent.updated(mouse, product("1", "Wireless mouse", "10.00")));
+
+        assertNull(cache.get(LISTING));
+        assertNotNull(cache.get(LAPTOPS));
+    }
+
+    @Test
+    void onProductChanged_ShouldDropPagesWhoseTotalsChange() {
+        makeHot(LISTING, LAPTOPS);
+
+        cache.onProductChanged(ProductChangedEvent.upserted(product("4", "Laptop bag", "99.00")));
+
+        assertNull(cache.get(LISTING));
+        assertNull(cache.get(LAPTOPS));
+    }
+
+    @Test
+    void onProductChanged_WhenCleared_ShouldDropEveryPage() {
+        makeHot(LISTING, LAPTOPS);
+
+        cache.onProductChanged(ProductChangedEvent.cleared());
+
+        assertNull(cache.get(LISTING));
+        assertNull(cache.get(LAPTOPS));
+        assertEquals(0, cache.materialized());
+    }
+
+    @Test
+    void invalidateTenant_ShouldOnlyDropThatTenantsPages() {
+        PageKey acmeListing = TenantContext.callAs("acme", () -> PageKey.listing(BY_PRICE));
+        makeHot(LISTING, acmeListing);
+
+        cache.invalidateTenant("acme");
+
+        assertNotNull(cache.get(LISTING));
+        assertNull(cache.get(acmeListing));
+    }
+
+    @Test
+    void refresh_ShouldDiscardARenderRacingAWrite() {
+        cache.get(LISTING);
+        when(productService.getAllProducts(BY_PRICE)).thenAnswer(invocation -> {
+            // Committed while the page was being read; it cannot be judged against the old bounds
+            cache.onProductChanged(ProductChangedEvent.updated(desk, product("3", "Desk", "60.00")));
+            return new PageImpl<>(List.of(mouse, laptop), BY_PRICE, 3);
+        });
+
+        cache.refresh();
+
+        assertNull(cache.get(LISTING));
+    }
+
+    private void makeHot(PageKey... keys) {
+        for (PageKey key : keys) {
+            cache.get(key);
+        }
+        cache.refresh();
+        for (PageKey key : keys) {
+            assertNotNull(cache.get(key));
+        }
+    }
+
+    private static Product product(String id, String name, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(name + " description");
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
@@ -0,0 +1,155 @@
+package com.catalog.productms.cache;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.service.ProductChangedEvent;
+import com.catalog.productms.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static com.catalog.productms.cache.RespSharedCacheTest.waitUntil;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two cache instances, standing for two application nodes, sharing one embedded server.
+ */
+class ProductCacheTest {
+
+    private EmbeddedRespServer server;
+    private SimpleMeterRegistry nodeAMetrics;
+    private SimpleMeterRegistry nodeBMetrics;
+    private ProductCache nodeA;
+    private ProductCache nodeB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = EmbeddedRespServer.start();
+        nodeAMetrics = new SimpleMeterRegistry();
+        nodeBMetrics = new SimpleMeterRegistry();
+        nodeA = twoTier(server.port(), nodeAMetrics);
+        nodeB = twoTier(server.port(), nodeBMetrics);
+        waitUntil(() -> nodeA.isSubscribed() && nodeB.isSubscribed());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        nodeA.close();
+        nodeB.close();
+        server.close();
+    }
+
+    @Test
+    void get_ShouldServeProductsLoadedByAnotherInstanceFromTheFarTier() {
+        Product product = product("1", "Laptop", 3L);
+        nodeA.put(product, nodeA.generation());
+
+        Product fromFar = nodeB.get("1");
+        Product fromNear = nodeB.get("1");
+
+        assertEquals(product, fromFar);
+        assertEquals(product, fromNear);
+        assertNotSame(fromFar, fromNear);
+        assertEquals(1.0, count(nodeBMetrics, "far", "hit"));
+        assertEquals(1.0, count(nodeBMetrics, "near", "hit"));
+        assertEquals(0.5, nodeBMetrics.get("product.cache.hit.ratio").tag("tier", "near").gauge().value());
+    }
+
+    @Test
+    void onProductChanged_ShouldReplaceFarValueAndInvalidateNearCopiesElsewhere() throws InterruptedException {
+        nodeA.put(product("1", "Laptop", 1L), nodeA.generation());
+        assertEquals("Laptop", nodeB.get("1").getName());
+
+        nodeA.onProductChanged(ProductChangedEvent.upserted(product("1", "Gaming laptop", 2L)));
+
+        waitUntil(() -> "Gaming laptop".equals(nodeB.get("1").getName()));
+        assertEquals(2L, nodeB.get("1").getVersion());
+    }
+
+    @Test
+    void putAll_ShouldNotOverwriteANewerWriteOrADelete() {
+        long staleGeneration = nodeB.generation();
+        nodeA.onProductChanged(ProductChangedEvent.upserted(product("1", "New", 2L)));
+        nodeA.onProductChanged(ProductChangedEvent.deleted("2"));
+
+        // nodeB read both rows from the database before the writes committed
+        nodeB.putAll(List.of(product("1", "Old", 1L), product("2", "Deleted", 1L)), staleGeneration);
+
+        assertEquals("New", nodeA.get("1").getName());
+        assertNull(nodeA.get("2"));
+    }
+
+    @Test
+    void getAll_ShouldCombineBothTiers() {
+        nodeB.put(product("1", "Near", 1L), nodeB.generation());
+        nodeA.put(product("2", "Far", 1L), nodeA.generation());
+
+        Map<String, Product> found = nodeB.getAll(List.of("1", "2", "3"));
+
+        assertEquals("Near", found.get("1").getName());
+        assertEquals("Far", found.get("2").getName());
+        assertEquals(2, found.size());
+        assertEquals(1.0, count(nodeBMetrics, "far", "hit"));
+        assertEquals(1.0, count(nodeBMetrics, "far", "miss"));
+    }
+
+    @Test
+    void clear_ShouldDropEveryProductOnEveryInstance() throws InterruptedException {
+        nodeA.put(product("1", "Laptop", 1L), nodeA.generation());
+        assertNotNull(nodeB.get("1"));
+
+        nodeA.onProductChanged(ProductChangedEvent.cleared());
+
+        waitUntil(() -> nodeB.get("1") == null);
+        assertNull(nodeA.get("1"));
+    }
+
+    @Test
+    void get_WhenFarTierIsDown_ShouldFallBackToNearTier() throws IOException {
+        nodeA.put(product("1", "Laptop", 1L), nodeA.generation());
+        server.close();
+
+        assertNull(nodeB.get("1"));
+        assertNull(nodeB.get("2"));
+        nodeB.put(product("2", "Local", 1L), nodeB.generation());
+
+        assertEquals("Local", nodeB.get("2").getName());
+        // The second lookup skipped the far tier while it was backing off
+        assertEquals(1.0, count(nodeBMetrics, "far", "error"));
+    }
+
+    @Test
+    void disabled_ShouldNeverStore() {
+        ProductCache disabled = new ProductCache(new ProductCacheProperties(), null, new SimpleMeterRegistry());
+
+        disabled.put(product("1", "Laptop", 1L), disabled.generation());
+
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.get("1"));
+        assertTrue(disabled.getAll(List.of("1")).isEmpty());
+    }
+
+    private static ProductCache twoTier(int port, SimpleMeterRegistry meterRegistry) {
+        ProductCacheProperties properties = new ProductCacheProperties();
+        properties.setMode(ProductCacheProperties.Mode.TWO_TIER);
+        properties.setFar(RespSharedCacheTest.properties(port, null));
+        properties.getFar().setRetryAfterMs(60000);
+        return new ProductCache(properties, new RespSharedCache(properties.getFar()), meterRegistry);
+    }
+
+    private static double count(SimpleMeterRegistry meterRegistry, String tier, String result) {
+        return meterRegistry.get("product.cache.requests").tag("tier", tier).tag("result", result).counter().count();
+    }
+
+    private static Product product(String id, String name, Long version) {
+        Instant now = Instant.parse("2026-01-01T10:00:00.123456Z");
+        return new Product(id, name, "Description of " + name, new BigDecimal("19.90"), 7L, now, now, version,
+                TenantContext.DEFAULT);
+    }
+}
@@ -0,0 +1,132 @@
+package com.catalog.productms.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RespSharedCacheTest {
+
+    private EmbeddedRespServer server;
+    private RespSharedCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = EmbeddedRespServer.start("secret");
+        cache = new RespSharedCache(properties(server.port(), "secret"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        cache.close();
+        server.close();
+    }
+
+    @Test
+    void commands_ShouldRoundTripValues() {
+        cache.put("a", bytes("1"), 60000);
+
+        assertArrayEquals(bytes("1"), cache.get("a"));
+        assertNull(cache.get("missing"));
+        assertFalse(cache.putIfAbsent("a", bytes("2"), 60000));
+        assertTrue(cache.putIfAbsent("b", bytes("3"), 60000));
+        assertEquals(List.of("1", "absent", "3"), cache.getAll(List.of("a", "missing", "b")).stream()
+                .map(value -> value == null ? "absent" : new String(value, StandardCharsets.UTF_8))
+                .toList());
+        assertEquals(1, cache.increment("counter"));
+        assertEquals(2, cache.increment("counter"));
+    }
+
+    @Test
+    void putAllIfAbsent_ShouldKeepExistingValues() {
+        cache.put("a", bytes("new"), 60000);
+        Map<String, byte[]> values = new LinkedHashMap<>();
+        values.put("a", bytes("stale"));
+        values.put("b", bytes("loaded"));
+
+        cache.putAllIfAbsent(values, 60000);
+
+        assertArrayEquals(bytes("new"), cache.get("a"));
+        assertArrayEquals(bytes("loaded"), cache.get("b"));
+    }
+
+    @Test
+    void put_ShouldExpireAfterTtl() throws InterruptedException {
+        cache.put("a", bytes("1"), 20);
+
+        Thread.sleep(50);
+
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void subscribe_ShouldDeliverMessagesAndResubscribeAfterConnectionLoss() throws Exception {
+        BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+        AtomicInteger subscriptions = new AtomicInteger();
+        cache.subscribe("invalidations", messages::add, subscriptions::incrementAndGet);
+        waitUntil(() -> subscriptions.get() == 1);
+
+        cache.publish("invalidations", "id:1");
+        assertEquals("id:1", messages.poll(5, TimeUnit.SECONDS));
+
+        server.dropConnections();
+        waitUntil(() -> subscriptions.get() == 2);
+        cache.publish("invalidations", "id:2");
+        assertEquals("id:2", messages.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void commands_WhenPasswordIsWrong_ShouldFail() {
+        try (RespSharedCache unauthenticated = new RespSharedCache(properties(server.port(), "wrong"))) {
+            assertThrows(SharedCacheException.class, () -> unauthenticated.get("a"));
+        }
+    }
+
+    @Test
+    void commands_WhenServerIsDown_ShouldFail() throws IOException {
+        int port = server.port();
+        server.close();
+
+        try (RespSharedCache unreachable = new RespSharedCache(properties(port, null))) {
+            assertThrows(SharedCacheException.class, () -> unreachable.get("a"));
+        }
+    }
+
+    static ProductCacheProperties.Far properties(int port, String password) {
+        ProductCacheProperties.Far far = new ProductCacheProperties.Far();
+        far.setHost("127.0.0.1");
+        far.setPort(port);
+        far.setPassword(password);
+        far.setPoolSize(4);
+        far.setTimeoutMs(2000);
+        far.setConnectTimeoutMs(1000);
+        far.setRetryAfterMs(50);
+        return far;
+    }
+
+    static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package com.catalog.productms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourcePoolConfigTest {
+
+    @Test
+    void resolvePoolSize_WhenAuto_ShouldFollowCoreCount() {
+        assertEquals(17, DataSourcePoolConfig.resolvePoolSize("auto", 8, false, 100, 8));
+        assertEquals(17, DataSourcePoolConfig.resolvePoolSize(null, 8, false, 100, 8));
+        assertEquals(34, DataSourcePoolConfig.resolvePoolSize("auto", 8, true, 100, 8));
+    }
+
+    @Test
+    void resolvePoolSize_WhenAutoOnFewCores_ShouldCoverRequestConcurrency() {
+        assertEquals(25, DataSourcePoolConfig.resolvePoolSize("auto", 2, false, 200, 8));
+        assertEquals(26, DataSourcePoolConfig.resolvePoolSize("auto", 2, true, 201, 8));
+    }
+
+    @Test
+    void resolvePoolSize_WhenConfigured_ShouldUseConfiguredValue() {
+        assertEquals(25, DataSourcePoolConfig.resolvePoolSize(" 25 ", 8, true, 400, 8));
+    }
+
+    @Test
+    void requestConcurrency_ShouldDependOnThreadModel() {
+        MockEnvironment environment = new MockEnvironment();
+
+        assertEquals(200, DataSourcePoolConfig.requestConcurrency(environment, false));
+        assertEquals(200, DataSourcePoolConfig.requestConcurrency(environment, true));
+
+        environment.withProperty("server.tomcat.threads.max", "50")
+                .withProperty("product.datasource.expected-concurrency", "1000");
+        assertEquals(50, DataSourcePoolConfig.requestConcurrency(environment, false));
+        assertEquals(1000, DataSourcePoolConfig.requestConcurrency(environment, true));
+    }
+
+    @Test
+    void defaults_ShouldNotExceedPoolCapacityOnAnyCoreCount() {
+        MockEnvironment environment = new MockEnvironment();
+
+        for (boolean virtualThreads : new boolean[] {false, true}) {
+            int concurrency = DataSourcePoolConfig.requestConcurrency(environment, virtualThreads);
+            for (int cores = 1; cores <= 64; cores++) {
+                int poolSize = DataSourcePoolConfig.resolvePoolSize("auto", cores, virtualThreads, concurrency, 8);
+                assertFalse(DataSourcePoolConfig.exceedsPoolCapacity(concurrency, poolSize, 8),
+                        cores + " cores, virtual threads " + virtualThreads);
+            }
+        }
+    }
+
+    @Test
+    void hikariPoolSizer_WhenAuto_ShouldSizeForDefaultConcurrency() {
+        HikariDataSource dataSource = new HikariDataSource();
+
+        BeanPostProcessor sizer = DataSourcePoolConfig.hikariPoolSizer(new MockEnvironment());
+        sizer.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertFalse(DataSourcePoolConfig.exceedsPoolCapacity(200, dataSource.getMaximumPoolSize(), 8));
+    }
+
+    @Test
+    void exceedsPoolCapacity_ShouldCompareAgainstThreadsPerConnection() {
+        assertTrue(DataSourcePoolConfig.exceedsPoolCapacity(200, 17, 8));
+        assertFalse(DataSourcePoolConfig.exceedsPoolCapacity(100, 17, 8));
+    }
+
+    @Test
+    void hikariPoolSizer_ShouldNotOverrideExplicitHikariSetting() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "5");
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(5);
+
+        BeanPostProcessor sizer = DataSourcePoolConfig.hikariPoolSizer(environment);
+        sizer.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertEquals(5, dataSource.getMaximumPoolSize());
+    }
+
+    @Test
+    void hikariPoolSizer_ShouldApplyConfiguredPoolSize() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("product.datasource.pool-size", "12");
+        HikariDataSource dataSource = new HikariDataSource();
+
+        BeanPostProcessor sizer = DataSourcePoolConfig.hikariPoolSizer(environment);
+        sizer.postProcessBeforeInitialization(dataSource, "dataSource");
+
+        assertEquals(12, dataSource.getMaximumPoolSize());
+    }
+}
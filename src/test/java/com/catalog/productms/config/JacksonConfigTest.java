@@ -0,0 +1,83 @@
+package com.catalog.productms.config;
+
+import com.catalog.productms.dto.ErrorResponse;
+import com.catalog.productms.dto.PageResponse;
+import com.catalog.productms.dto.ProductResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JacksonConfigTest {
+
+    private ObjectMapper defaultMapper;
+    private ObjectMapper tunedMapper;
+
+    @BeforeEach
+    void setUp() {
+        defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+        tunedMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new JacksonConfig().blackbirdModule())
+                .build();
+    }
+
+    @Test
+    void productResponse_ShouldKeepExactFieldOrderAndPriceFormat() throws Exception {
+        ProductResponse response = new ProductResponse("123", "Test Product", "Test Description", new BigDecimal("99.99"));
+
+        String json = new String(tunedMapper.writeValueAsBytes(response), StandardCharsets.UTF_8);
+
+        assertEquals("{\"id\":\"123\",\"name\":\"Test Product\",\"description\":\"Test Description\",\"price\":99.99}", json);
+    }
+
+    @Test
+    void productResponseList_ShouldBeByteIdenticalToDefaultMapper() throws Exception {
+        List<ProductResponse> responses = sampleResponses();
+
+        assertArrayEquals(defaultMapper.writeValueAsBytes(responses), tunedMapper.writeValueAsBytes(responses));
+    }
+
+    @Test
+    void pageResponse_ShouldBeByteIdenticalToDefaultMapper() throws Exception {
+        List<ProductResponse> responses = sampleResponses();
+        PageResponse<ProductResponse> page = PageResponse.fromPage(
+                new PageImpl<>(responses, PageRequest.of(1, responses.size()), 50));
+
+        assertArrayEquals(defaultMapper.writeValueAsBytes(page), tunedMapper.writeValueAsBytes(page));
+    }
+
+    @Test
+    void emptyPageResponse_ShouldBeByteIdenticalToDefaultMapper() throws Exception {
+        PageResponse<ProductResponse> page = PageResponse.fromPage(
+                new PageImpl<ProductResponse>(Collections.emptyList(), PageRequest.of(0, 20), 0));
+
+        assertArrayEquals(defaultMapper.writeValueAsBytes(page), tunedMapper.writeValueAsBytes(page));
+    }
+
+    @Test
+    void errorResponse_ShouldBeByteIdenticalToDefaultMapper() throws Exception {
+        ErrorResponse error = new ErrorResponse(400, "Price must be positive");
+
+        assertArrayEquals(defaultMapper.writeValueAsBytes(error), tunedMapper.writeValueAsBytes(error));
+    }
+
+    private List<ProductResponse> sampleResponses() {
+        return Arrays.asList(
+                new ProductResponse("123", "Test Product", "Test Description", new BigDecimal("99.99")),
+                new ProductResponse("456", "Ünïcødé \"quoted\"", "Line\nbreak\tand \\ slash", new BigDecimal("100")),
+                new ProductResponse("789", "Scale", "Trailing zeros", new BigDecimal("1500.00")),
+                new ProductResponse("000", "Max", "Largest allowed price", new BigDecimal("99999999.99")),
+                new ProductResponse(null, null, null, null)
+        );
+    }
+}
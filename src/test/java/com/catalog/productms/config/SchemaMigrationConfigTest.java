@@ -0,0 +1,25 @@
+package com.catalog.productms.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigrationConfigTest {
+
+    @Test
+    void resolveStartupAction_ShouldDefaultToMigrate() {
+        assertEquals(SchemaMigrationConfig.StartupAction.MIGRATE, SchemaMigrationConfig.resolveStartupAction(null));
+        assertEquals(SchemaMigrationConfig.StartupAction.MIGRATE, SchemaMigrationConfig.resolveStartupAction(" "));
+    }
+
+    @Test
+    void resolveStartupAction_ShouldIgnoreCase() {
+        assertEquals(SchemaMigrationConfig.StartupAction.VALIDATE, SchemaMigrationConfig.resolveStartupAction("Validate"));
+        assertEquals(SchemaMigrationConfig.StartupAction.NONE, SchemaMigrationConfig.resolveStartupAction(" none "));
+    }
+
+    @Test
+    void resolveStartupAction_WhenUnknown_ShouldFail() {
+        assertThrows(IllegalStateException.class, () -> SchemaMigrationConfig.resolveStartupAction("update"));
+    }
+}
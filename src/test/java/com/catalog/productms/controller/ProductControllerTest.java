@@ -1,9 +1,13 @@
 package com.catalog.productms.controller;
 
+import com.catalog.productms.cache.HotPageCache;
+import com.catalog.productms.cache.PageKey;
 import com.catalog.productms.dto.ProductRequest;
 import com.catalog.productms.entity.Product;
 import com.catalog.productms.exception.ProductAlreadyExistsException;
 import com.catalog.productms.exception.ProductNotFoundException;
+import com.catalog.productms.exception.ProductVersionMismatchException;
+import com.catalog.productms.service.OptimisticRetry;
 import com.catalog.productms.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,25 +15,40 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
+@Import(OptimisticRetry.class)
 class ProductControllerTest {
 
     @Autowired
@@ -41,6 +60,9 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockitoBean
+    private HotPageCache hotPageCache;
+
     private Product product;
     private ProductRequest productRequest;
 
@@ -51,6 +73,7 @@ class ProductControllerTest {
         product.setName("Test Product");
         product.setDescription("Test Description");
         product.setPrice(new BigDecimal("99.99"));
+        product.setVersion(3L);
 
         productRequest = new ProductRequest();
         productRequest.setName("Test Product");
@@ -163,6 +186,69 @@ class ProductControllerTest {
         verify(productService, times(1)).updateProduct(eq("999"), any(ProductRequest.class));
     }
 
+    @Test
+    void updateProduct_WithMatchingIfMatch_ShouldUpdateThatVersion() throws Exception {
+        when(productService.updateProduct(eq("123"), any(ProductRequest.class), eq(Set.of(3L)))).thenReturn(product);
+
+        mockMvc.perform(put("/products/123")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(productService, never()).updateProduct(eq("123"), any(ProductRequest.class));
+    }
+
+    @Test
+    void updateProduct_WhenIfMatchIsStale_ShouldReturn412() throws Exception {
+        when(productService.updateProduct(eq("123"), any(ProductRequest.class), eq(Set.of(2L))))
+                .thenThrow(new ProductVersionMismatchException("123", 3));
+
+        mockMvc.perform(put("/products/123")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.status_code").value(412));
+    }
+
+    @Test
+    void updateProduct_WithoutIfMatch_ShouldRetryConcurrentConflicts() throws Exception {
+        when(productService.updateProduct(eq("123"), any(ProductRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("conflict"))
+                .thenReturn(product);
+
+        mockMvc.perform(put("/products/123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isOk());
+
+        verify(productService, times(2)).updateProduct(eq("123"), any(ProductRequest.class));
+    }
+
+    @Test
+    void updateProduct_WhenConflictsPersist_ShouldReturn409() throws Exception {
+        when(productService.updateProduct(eq("123"), any(ProductRequest.class)))
+                .thenThrow(new OptimisticLockingFailureException("conflict"));
+
+        mockMvc.perform(put("/products/123")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(productRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status_code").value(409));
+
+        verify(productService, times(5)).updateProduct(eq("123"), any(ProductRequest.class));
+    }
+
+    @Test
+    void parseIfMatch_ShouldAcceptOnlyStrongVersionTags() {
+        assertNull(ProductController.parseIfMatch("*"));
+        assertEquals(Set.of(3L, 4L), ProductController.parseIfMatch("\"3\", \"4\""));
+        assertEquals(Set.of(), ProductController.parseIfMatch("W/\"3\", \"abc\", 3"));
+    }
+
     @Test
     void updateProduct_WithInvalidRequest_ShouldReturn400() throws Exception {
         ProductRequest invalidRequest = new ProductRequest();
@@ -178,24 +264,25 @@ class ProductControllerTest {
 
     @Test
     void getProductById_WhenProductExists_ShouldReturn200() throws Exception {
-        when(productService.getProductById("123")).thenReturn(product);
+        when(productService.findProductById("123")).thenReturn(Optional.of(product));
 
         mockMvc.perform(get("/products/123"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
                 .andExpect(jsonPath("$.id").value("123"))
                 .andExpect(jsonPath("$.name").value("Test Product"));
 
-        verify(productService, times(1)).getProductById("123");
+        verify(productService, times(1)).findProductById("123");
     }
 
     @Test
     void getProductById_WhenProductNotFound_ShouldReturn404() throws Exception {
-        when(productService.getProductById("999")).thenThrow(new ProductNotFoundException("999"));
+        when(productService.findProductById("999")).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/products/999"))
                 .andExpect(status().isNotFound());
 
-        verify(productService, times(1)).getProductById("999");
+        verify(productService, times(1)).findProductById("999");
     }
 
     @Test
@@ -328,6 +415,47 @@ class ProductControllerTest {
         verify(productService, never()).getAllProducts();
     }
 
+    @Test
+    void pagedRequests_WithCountFalse_ShouldLeaveOutTotals() throws Exception {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("id"));
+        when(productService.getAllProductsSlice(pageable)).thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(productService.searchProductsSlice("test", null, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(product), pageable, false));
+
+        mockMvc.perform(get("/products").param("size", "1").param("count", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+        mockMvc.perform(get("/products/search").param("q", "test").param("size", "1").param("count", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(productService, never()).getAllProducts(any(Pageable.class));
+        verify(hotPageCache, never()).get(any());
+    }
+
+    @Test
+    void pagedRequests_WhenPageIsHot_ShouldWriteTheRenderedBytes() throws Exception {
+        byte[] rendered = "{\"content\":[],\"totalElements\":0}".getBytes(StandardCharsets.UTF_8);
+        when(hotPageCache.get(PageKey.listing(PageRequest.of(0, 10, Sort.by("id"))))).thenReturn(rendered);
+        when(hotPageCache.get(PageKey.search("laptop", new BigDecimal("100"), null, PageRequest.of(0, 20, Sort.by("id")))))
+                .thenReturn(rendered);
+
+        mockMvc.perform(get("/products").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(rendered));
+        mockMvc.perform(get("/products/search").param("q", "LAPTOP").param("min_price", "100.00").param("page", "0"))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(rendered));
+
+        verify(productService, never()).getAllProducts(any(Pageable.class));
+        verify(productService, never()).searchProducts(any(), any(), any(), any(Pageable.class));
+    }
+
     @Test
     void getAllProducts_WithOnlyPageParameter_ShouldReturnPagedResponse() throws Exception {
         List<Product> products = Arrays.asList(product);
@@ -397,5 +525,101 @@ class ProductControllerTest {
                 eq(new BigDecimal("2000")), 
                 any(Pageable.class));
     }
-}
 
+    @Test
+    void getProductsByIds_ShouldReturnFoundProductsAndMissingIds() throws Exception {
+        when(productService.getProductsByIds(anyCollection())).thenReturn(Map.of("123", product));
+
+        mockMvc.perform(get("/products")
+                .param("ids", "123, 999,123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products.length()").value(1))
+                .andExpect(jsonPath("$.products['123'].name").value("Test Product"))
+                .andExpect(jsonPath("$.missing.length()").value(1))
+                .andExpect(jsonPath("$.missing[0]").value("999"));
+
+        verify(productService, times(1)).getProductsByIds(eq(new LinkedHashSet<>(List.of("123", "999"))));
+        verify(productService, never()).getAllProducts();
+    }
+
+    @Test
+    void getProductsByIds_WithTooManyIds_ShouldReturn400() throws Exception {
+        StringJoiner ids = new StringJoiner(",");
+        for (int i = 0; i <= ProductController.MAX_BULK_IDS; i++) {
+            ids.add("id-" + i);
+        }
+
+        mockMvc.perform(get("/products")
+                .param("ids", ids.toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status_code").value(400));
+
+        verify(productService, never()).getProductsByIds(anyCollection());
+    }
+
+    @Test
+    void getAllProducts_WithSortAndPagination_ShouldPassSortWithIdTieBreaker() throws Exception {
+        Page<Product> productPage = new PageImpl<>(List.of(product), PageRequest.of(0, 10), 1);
+        when(productService.getAllProducts(any(Pageable.class))).thenReturn(productPage);
+
+        mockMvc.perform(get("/products")
+                .param("page", "0")
+                .param("size", "10")
+                .param("sort", "price")
+                .param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("123"));
+
+        verify(productService, times(1)).getAllProducts(
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price", "id")));
+    }
+
+    @Test
+    void getAllProducts_WithPaginationAndNoSort_ShouldOrderById() throws Exception {
+        when(productService.getAllProducts(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(product), PageRequest.of(0, 20), 1));
+
+        mockMvc.perform(get("/products").param("page", "0"))
+                .andExpect(status().isOk());
+
+        verify(productService, times(1)).getAllProducts(PageRequest.of(0, 20, Sort.by("id")));
+    }
+
+    @Test
+    void getAllProducts_WithSortOnly_ShouldReturnSortedList() throws Exception {
+        when(productService.getAllProducts(any(Sort.class))).thenReturn(List.of(product));
+
+        mockMvc.perform(get("/products").param("sort", "created_at"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("123"));
+
+        verify(productService, times(1)).getAllProducts(Sort.by(Sort.Direction.ASC, "createdAt", "id"));
+        verify(productService, never()).getAllProducts();
+    }
+
+    @Test
+    void searchProducts_WithSort_ShouldPassSortToService() throws Exception {
+        when(productService.searchProducts(eq("Test"), eq(null), eq(null), any(Sort.class))).thenReturn(List.of(product));
+
+        mockMvc.perform(get("/products/search")
+                .param("q", "Test")
+                .param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        verify(productService, times(1)).searchProducts("Test", null, null, Sort.by(Sort.Direction.ASC, "name", "id"));
+    }
+
+    @Test
+    void getAllProducts_WithUnknownSort_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/products").param("sort", "description"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status_code").value(400));
+
+        mockMvc.perform(get("/products/search").param("sort", "price").param("direction", "up"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status_code").value(400));
+
+        verifyNoInteractions(productService);
+    }
+}
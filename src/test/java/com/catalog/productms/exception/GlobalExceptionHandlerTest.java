@@ -4,6 +4,7 @@ import com.catalog.productms.dto.ErrorResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -53,6 +54,39 @@ class GlobalExceptionHandlerTest {
         assertEquals("Product already exists", response.getBody().getMessage());
     }
 
+    @Test
+    void handleVersionMismatch_ShouldReturn412WithCurrentETag() {
+        ProductVersionMismatchException exception = new ProductVersionMismatchException("123", 7);
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleVersionMismatch(exception);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertNotNull(response.getBody());
+        assertEquals(412, response.getBody().getStatusCode());
+    }
+
+    @Test
+    void handleOptimisticLockingFailure_ShouldReturn409() {
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleOptimisticLockingFailure(
+                new OptimisticLockingFailureException("Row was updated by another transaction"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(409, response.getBody().getStatusCode());
+    }
+
+    @Test
+    void handleSingleFlightTimeout_ShouldReturn503() {
+        SingleFlightTimeoutException exception = new SingleFlightTimeoutException("getProductById", 5000);
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleSingleFlightTimeout(exception);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(503, response.getBody().getStatusCode());
+    }
+
     @Test
     void handleValidationException_ShouldReturn400WithFieldErrors() {
         BindingResult bindingResult = mock(BindingResult.class);
@@ -0,0 +1,147 @@
+package com.catalog.productms.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads the dataset through the CSV import endpoint, with ids chosen here so the workloads
+ * know them without a listing call. Services without the import endpoint (the reactive
+ * variant) are seeded with concurrent POST /products calls instead. Victims for the delete
+ * storm are seeded separately and never handed to the read workloads.
+ */
+final class CatalogSeeder {
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final int CREATE_CONCURRENCY = 64;
+    private static final Pattern IMPORTED = Pattern.compile("\"imported\"\\s*:\\s*(\\d+)");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client;
+
+    CatalogSeeder(HttpClient client) {
+        this.client = client;
+    }
+
+    WorkloadContext seed(URI baseUri, int datasetSize, int victimCount) throws IOException, InterruptedException {
+        boolean bulk = supportsImport(baseUri);
+        List<String> ids = new ArrayList<>(datasetSize);
+        for (int from = 0; from < datasetSize; from += BATCH_SIZE) {
+            ids.addAll(seedBatch(bulk, baseUri, from, Math.min(datasetSize, from + BATCH_SIZE), "Product"));
+        }
+        ConcurrentLinkedQueue<String> victims = new ConcurrentLinkedQueue<>();
+        for (int from = 0; from < victimCount; from += BATCH_SIZE) {
+            victims.addAll(seedBatch(bulk, baseUri, from, Math.min(victimCount, from + BATCH_SIZE), "Victim"));
+        }
+        return new WorkloadContext(baseUri, List.copyOf(ids), victims);
+    }
+
+    // A header-only file imports nothing; 404 or 405 means there is no import endpoint
+    private boolean supportsImport(URI baseUri) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(importRequest(baseUri, "id,name,description,price\n"),
+                HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() != 404 && response.statusCode() != 405;
+    }
+
+    private List<String> seedBatch(boolean bulk, URI baseUri, int from, int to, String kind)
+            throws IOException, InterruptedException {
+        return bulk ? importBatch(baseUri, from, to, kind) : createEach(baseUri, from, to, kind);
+    }
+
+    private List<String> importBatch(URI baseUri, int from, int to, String kind)
+            throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> ids = new ArrayList<>(to - from);
+        StringBuilder csv = new StringBuilder("id,name,description,price\n");
+        for (int i = from; i < to; i++) {
+            String id = UUID.randomUUID().toString();
+            ids.add(id);
+            csv.append(id).append(',').append(name(kind, i)).append(',')
+                    .append(description(kind, i)).append(',')
+                    .append(Workload.price(random)).append('\n');
+        }
+        HttpResponse<String> response = client.send(importRequest(baseUri, csv.toString()),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher imported = IMPORTED.matcher(response.body());
+        if (response.statusCode() != 200 || !imported.find() || Integer.parseInt(imported.group(1)) != ids.size()) {
+            throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return ids;
+    }
+
+    private List<String> createEach(URI baseUri, int from, int to, String kind)
+            throws IOException, InterruptedException {
+        Semaphore inFlight = new Semaphore(CREATE_CONCURRENCY);
+        List<Future<String>> created = new ArrayList<>(to - from);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = from; i < to; i++) {
+                String body = String.format(Locale.ROOT, "{\"name\":\"%s\",\"description\":\"%s\",\"price\":%s}",
+                        name(kind, i), description(kind, i), Workload.price(ThreadLocalRandom.current()));
+                inFlight.acquire();
+                created.add(executor.submit(() -> {
+                    try {
+                        return create(baseUri, body);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        List<String> ids = new ArrayList<>(created.size());
+        for (Future<String> future : created) {
+            try {
+                ids.add(future.get());
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw new IllegalStateException("Seeding failed", ex.getCause());
+            }
+        }
+        return ids;
+    }
+
+    private String create(URI baseUri, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/products"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher id = ID.matcher(response.body());
+        if (response.statusCode() != 201 || !id.find()) {
+            throw new IllegalStateException("Seeding failed with status " + response.statusCode() + ": " + response.body());
+        }
+        return id.group(1);
+    }
+
+    private static HttpRequest importRequest(URI baseUri, String csv) {
+        return HttpRequest.newBuilder(baseUri.resolve("/products/import?format=csv"))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    private static String name(String kind, int index) {
+        return kind.equals("Product") ? WorkloadContext.name(index) : kind + " " + index;
+    }
+
+    private static String description(String kind, int index) {
+        return kind + " description " + index;
+    }
+}
@@ -0,0 +1,86 @@
+package com.catalog.productms.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes one HdrHistogram percentile distribution per workload plus a summary table, and
+ * lists the SLO breaches that should fail the build.
+ */
+final class LatencyReport {
+
+    private static final String ROW = "%-13s %7s %9s %9s %9s %9s %9s %9s %9s %8s %9s%n";
+
+    private LatencyReport() {
+    }
+
+    static List<String> violations(List<WorkloadResult> results, LoadTestConfig config) {
+        List<String> violations = new ArrayList<>();
+        for (WorkloadResult result : results) {
+            String name = result.workload().profileName();
+            double slo = config.p99SloMs(result.workload());
+            if (result.requests() == 0) {
+                violations.add(name + ": no requests completed");
+            } else if (result.percentileMs(99) > slo) {
+                violations.add(String.format(Locale.ROOT, "%s: p99 %.2f ms exceeds the %.2f ms SLO",
+                        name, result.percentileMs(99), slo));
+            }
+            if (result.errorRate() > config.maxErrorRate()) {
+                violations.add(String.format(Locale.ROOT, "%s: error rate %.4f exceeds %.4f",
+                        name, result.errorRate(), config.maxErrorRate()));
+            }
+        }
+        return violations;
+    }
+
+    static void write(List<WorkloadResult> results, List<String> violations, LoadTestConfig config,
+                      PrintStream console) throws IOException {
+        Files.createDirectories(config.reportDir());
+        for (WorkloadResult result : results) {
+            Path file = config.reportDir().resolve(result.workload().profileName() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+                // Recorded in microseconds, written in milliseconds
+                result.histogram().outputPercentileDistribution(out, 1_000.0);
+            }
+        }
+        String summary = summary(results, violations, config);
+        Files.writeString(config.reportDir().resolve("summary.txt"), summary, StandardCharsets.UTF_8);
+        console.print(summary);
+    }
+
+    static String summary(List<WorkloadResult> results, List<String> violations, LoadTestConfig config) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, ROW, "profile", "rate/s", "achieved", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms", "slo ms", "errors", "requests"));
+        for (WorkloadResult result : results) {
+            out.append(String.format(Locale.ROOT, ROW,
+                    result.workload().profileName(),
+                    result.targetRate(),
+                    format(result.throughput()),
+                    format(result.percentileMs(50)),
+                    format(result.percentileMs(90)),
+                    format(result.percentileMs(99)),
+                    format(result.percentileMs(99.9)),
+                    format(result.maxMs()),
+                    format(config.p99SloMs(result.workload())),
+                    result.errors(),
+                    result.requests()));
+        }
+        if (violations.isEmpty()) {
+            out.append("All latency SLOs met\n");
+        } else {
+            violations.forEach(violation -> out.append("SLO BREACH ").append(violation).append('\n'));
+        }
+        return out.toString();
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
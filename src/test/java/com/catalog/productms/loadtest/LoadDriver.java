@@ -0,0 +1,72 @@
+package com.catalog.productms.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop generator: requests leave on a fixed schedule whether or not earlier ones have
+ * answered, each on its own virtual thread. Latency is taken from the scheduled send time, so
+ * a stalled server is charged for the requests queued behind the stall instead of the
+ * generator quietly slowing down with it (coordinated omission).
+ */
+final class LoadDriver {
+
+    // Microsecond values; the histogram resizes itself past the initial range
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpClient client;
+
+    LoadDriver(HttpClient client) {
+        this.client = client;
+    }
+
+    WorkloadResult run(Workload workload, WorkloadContext context, int ratePerSecond, Duration duration) {
+        Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        LongAdder errors = new LongAdder();
+        long interval = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long count = duration.toNanos() / interval;
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < count; i++) {
+                long scheduled = start + i * interval;
+                waitUntil(scheduled);
+                LoadRequest request = workload.next(context);
+                executor.execute(() -> {
+                    try {
+                        HttpResponse<Void> response = client.send(request.request(), HttpResponse.BodyHandlers.discarding());
+                        if (!request.expectedStatus().test(response.statusCode())) {
+                            errors.increment();
+                        }
+                    } catch (IOException ex) {
+                        errors.increment();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    recorder.recordValue(Math.max(0, (System.nanoTime() - scheduled) / 1_000));
+                });
+            }
+        }
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new WorkloadResult(workload, ratePerSecond, histogram, errors.sum(),
+                Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
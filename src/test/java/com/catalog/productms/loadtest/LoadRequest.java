@@ -0,0 +1,21 @@
+package com.catalog.productms.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.IntPredicate;
+
+/**
+ * One generated request and the statuses that count as a correct answer to it.
+ */
+record LoadRequest(HttpRequest request, IntPredicate expectedStatus) {
+
+    static LoadRequest expecting(HttpRequest request, int... statuses) {
+        return new LoadRequest(request, status -> {
+            for (int expected : statuses) {
+                if (status == expected) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+}
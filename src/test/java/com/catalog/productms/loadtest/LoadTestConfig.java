@@ -0,0 +1,75 @@
+package com.catalog.productms.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Settings from loadtest/loadtest.properties; any loadtest.* system property overrides them.
+ */
+record LoadTestConfig(String targetUrl, int datasetSize, Duration warmup, Duration duration,
+                      List<Workload> workloads, double maxErrorRate, Path reportDir, Properties properties) {
+
+    static final String RESOURCE = "loadtest/loadtest.properties";
+
+    static LoadTestConfig load() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = LoadTestConfig.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " not found on the classpath");
+            }
+            properties.load(in);
+        }
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest."))
+                .forEach(name -> properties.setProperty(name, System.getProperty(name)));
+        return of(properties);
+    }
+
+    static LoadTestConfig of(Properties properties) {
+        String targetUrl = properties.getProperty("loadtest.target-url", "").trim();
+        return new LoadTestConfig(
+                targetUrl.isEmpty() ? null : targetUrl,
+                Integer.parseInt(properties.getProperty("loadtest.dataset-size", "10000").trim()),
+                Duration.ofSeconds(Long.parseLong(properties.getProperty("loadtest.warmup-seconds", "10").trim())),
+                Duration.ofSeconds(Long.parseLong(properties.getProperty("loadtest.duration-seconds", "30").trim())),
+                Arrays.stream(properties.getProperty("loadtest.profiles", "").split(","))
+                        .map(String::trim)
+                        .filter(name -> !name.isEmpty())
+                        .map(Workload::fromName)
+                        .toList(),
+                Double.parseDouble(properties.getProperty("loadtest.max-error-rate", "0.001").trim()),
+                Path.of(properties.getProperty("loadtest.report-dir", "target/loadtest").trim()),
+                properties);
+    }
+
+    int rate(Workload workload) {
+        return Integer.parseInt(required(workload, "rate"));
+    }
+
+    double p99SloMs(Workload workload) {
+        return Double.parseDouble(required(workload, "p99-ms"));
+    }
+
+    // Rows the delete storm can remove during warm-up and measurement, with some slack
+    int victims(Workload workload) {
+        if (!workloads.contains(workload)) {
+            return 0;
+        }
+        double seconds = warmup.toSeconds() + duration.toSeconds();
+        return (int) Math.ceil(rate(workload) * Workload.DELETE_SHARE * seconds * 1.1);
+    }
+
+    private String required(Workload workload, String setting) {
+        String key = "loadtest." + workload.profileName() + "." + setting;
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("Missing load test setting " + key);
+        }
+        return value.trim();
+    }
+}
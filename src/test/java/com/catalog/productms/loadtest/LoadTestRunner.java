@@ -0,0 +1,77 @@
+package com.catalog.productms.loadtest;
+
+import com.catalog.productms.ProductMsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds a catalog, drives each configured workload at its target rate and fails with a
+ * non-zero exit when a p99 SLO or the error budget is missed. Without loadtest.target-url the
+ * service is started in this JVM on the loadtest profile (embedded H2, random port); point it
+ * at a deployed instance for numbers that do not share a CPU with the generator.
+ *
+ * <p>Run with {@code mvn -Ploadtest verify -DskipTests}.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load();
+        ConfigurableApplicationContext application = null;
+        int exitCode;
+        try {
+            URI baseUri;
+            if (config.targetUrl() != null) {
+                baseUri = URI.create(config.targetUrl());
+            } else {
+                application = new SpringApplicationBuilder(ProductMsApplication.class)
+                        .profiles("loadtest")
+                        .run(args);
+                int port = ((WebServerApplicationContext) application).getWebServer().getPort();
+                baseUri = URI.create("http://localhost:" + port);
+            }
+            exitCode = run(config, baseUri);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestConfig config, URI baseUri) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        System.out.printf("Seeding %d products at %s%n", config.datasetSize(), baseUri);
+        WorkloadContext context = new CatalogSeeder(client)
+                .seed(baseUri, config.datasetSize(), config.victims(Workload.DELETE_STORM));
+
+        LoadDriver driver = new LoadDriver(client);
+        List<WorkloadResult> results = new ArrayList<>();
+        for (Workload workload : config.workloads()) {
+            int rate = config.rate(workload);
+            System.out.printf("%s: %d req/s, %ds warm-up, %ds measured%n", workload.profileName(), rate,
+                    config.warmup().toSeconds(), config.duration().toSeconds());
+            if (!config.warmup().isZero()) {
+                driver.run(workload, context, rate, config.warmup());
+            }
+            results.add(driver.run(workload, context, rate, config.duration()));
+        }
+
+        List<String> violations = LatencyReport.violations(results, config);
+        LatencyReport.write(results, violations, config, System.out);
+        return violations.isEmpty() ? 0 : 1;
+    }
+}
@@ -0,0 +1,151 @@
+package com.catalog.productms.loadtest;
+
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * The traffic profiles. Each one generates the next request of its mix; the driver decides
+ * when it is sent.
+ */
+enum Workload {
+
+    /** Mostly single-id lookups, with some misses and some bulk ids= fetches. */
+    READ_HEAVY("read-heavy") {
+        @Override
+        LoadRequest next(WorkloadContext context) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int roll = random.nextInt(100);
+            if (roll < 90) {
+                return LoadRequest.expecting(get(context, "/products/" + context.randomId()), 200);
+            }
+            if (roll < 95) {
+                return LoadRequest.expecting(get(context, "/products/" + UUID.randomUUID()), 404);
+            }
+            StringJoiner ids = new StringJoiner(",");
+            for (int i = 0; i < 50; i++) {
+                ids.add(context.randomId());
+            }
+            return LoadRequest.expecting(get(context, "/products?ids=" + ids), 200);
+        }
+    },
+
+    /** Paged keyword searches, half of them with a price band, plus exact-name lookups. */
+    SEARCH_MIX("search-mix") {
+        @Override
+        LoadRequest next(WorkloadContext context) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextInt(10) == 0) {
+                String name = WorkloadContext.name(random.nextInt(context.ids().size()));
+                return LoadRequest.expecting(get(context, "/products/search?q=" + encode(name)), 200);
+            }
+            StringBuilder query = new StringBuilder("/products/search?q=").append(context.randomWord())
+                    .append("&page=").append(random.nextInt(5))
+                    .append("&size=20");
+            if (random.nextBoolean()) {
+                int min = random.nextInt(900);
+                query.append("&min_price=").append(min).append("&max_price=").append(min + 100);
+            }
+            appendSort(query, random);
+            return LoadRequest.expecting(get(context, query.toString()), 200);
+        }
+    },
+
+    /** Paginated listing, skewed towards the first pages the way catalog browsing is. */
+    BROWSE("browse") {
+        @Override
+        LoadRequest next(WorkloadContext context) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int lastPage = Math.max(0, context.ids().size() / PAGE_SIZE - 1);
+            int page = (int) Math.min(lastPage, Math.floor(-Math.log(1 - random.nextDouble()) * 5));
+            StringBuilder query = new StringBuilder("/products?page=").append(page).append("&size=").append(PAGE_SIZE);
+            appendSort(query, random);
+            return LoadRequest.expecting(get(context, query.toString()), 200);
+        }
+    },
+
+    /** CSV imports of fresh products through the streaming import endpoint. */
+    BULK_INGEST("bulk-ingest") {
+        @Override
+        LoadRequest next(WorkloadContext context) {
+            String batch = UUID.randomUUID().toString();
+            StringBuilder csv = new StringBuilder("name,description,price\n");
+            for (int i = 0; i < INGEST_BATCH_SIZE; i++) {
+                csv.append("Ingested ").append(batch).append(' ').append(i).append(',')
+                        .append("Bulk ingest row ").append(i).append(',')
+                        .append(price(ThreadLocalRandom.current())).append('\n');
+            }
+            HttpRequest request = HttpRequest.newBuilder(context.uri("/products/import?format=csv"))
+                    .header("Content-Type", "text/csv")
+                    .POST(HttpRequest.BodyPublishers.ofString(csv.toString(), StandardCharsets.UTF_8))
+                    .build();
+            return LoadRequest.expecting(request, 200);
+        }
+    },
+
+    /** Deletes of pre-seeded rows interleaved with reads of the surviving catalog. */
+    DELETE_STORM("delete-storm") {
+        @Override
+        LoadRequest next(WorkloadContext context) {
+            String victim = ThreadLocalRandom.current().nextDouble() < DELETE_SHARE ? context.victims().poll() : null;
+            if (victim == null) {
+                return LoadRequest.expecting(get(context, "/products/" + context.randomId()), 200);
+            }
+            return LoadRequest.expecting(
+                    HttpRequest.newBuilder(context.uri("/products/" + victim)).DELETE().build(), 200);
+        }
+    };
+
+    static final double DELETE_SHARE = 0.5;
+    static final int PAGE_SIZE = 20;
+    static final int INGEST_BATCH_SIZE = 500;
+
+    private static final String[] SORTS = {"price", "name", "created_at"};
+
+    private final String profileName;
+
+    Workload(String profileName) {
+        this.profileName = profileName;
+    }
+
+    abstract LoadRequest next(WorkloadContext context);
+
+    String profileName() {
+        return profileName;
+    }
+
+    static Workload fromName(String name) {
+        return Arrays.stream(values())
+                .filter(workload -> workload.profileName.equals(name.toLowerCase(Locale.ROOT)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown load test profile '" + name + "'; expected one of "
+                        + Arrays.stream(values()).map(Workload::profileName).collect(Collectors.joining(", "))));
+    }
+
+    static BigDecimal price(ThreadLocalRandom random) {
+        return BigDecimal.valueOf(random.nextInt(100, 100_000), 2);
+    }
+
+    private static HttpRequest get(WorkloadContext context, String pathAndQuery) {
+        return HttpRequest.newBuilder(context.uri(pathAndQuery)).GET().build();
+    }
+
+    // A quarter of the requests keep the default id order
+    private static void appendSort(StringBuilder query, ThreadLocalRandom random) {
+        int pick = random.nextInt(SORTS.length + 1);
+        if (pick < SORTS.length) {
+            query.append("&sort=").append(SORTS[pick]).append(random.nextBoolean() ? "&direction=desc" : "");
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,33 @@
+package com.catalog.productms.loadtest;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * What the workloads draw from: the seeded ids, the words product names are built from and
+ * the rows the delete storm is allowed to remove.
+ */
+record WorkloadContext(URI baseUri, List<String> ids, Queue<String> victims) {
+
+    static final List<String> WORDS = List.of("laptop", "phone", "tablet", "monitor", "keyboard",
+            "mouse", "camera", "speaker", "router", "charger", "headset", "printer");
+
+    URI uri(String pathAndQuery) {
+        return baseUri.resolve(pathAndQuery);
+    }
+
+    String randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    String randomWord() {
+        return WORDS.get(ThreadLocalRandom.current().nextInt(WORDS.size()));
+    }
+
+    // Seeded names cycle through the words, so every word matches about the same share of rows
+    static String name(int index) {
+        return "Product " + WORDS.get(index % WORDS.size()) + " " + index;
+    }
+}
@@ -0,0 +1,31 @@
+package com.catalog.productms.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+
+/**
+ * One measured run. The histogram holds microseconds; the accessors report milliseconds.
+ */
+record WorkloadResult(Workload workload, int targetRate, Histogram histogram, long errors, Duration elapsed) {
+
+    double percentileMs(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1_000.0;
+    }
+
+    double maxMs() {
+        return histogram.getMaxValue() / 1_000.0;
+    }
+
+    long requests() {
+        return histogram.getTotalCount();
+    }
+
+    double throughput() {
+        return requests() / Math.max(elapsed.toNanos() / 1e9, 1e-9);
+    }
+
+    double errorRate() {
+        return requests() == 0 ? 0 : (double) errors / requests();
+    }
+}
@@ -0,0 +1,143 @@
+package com.catalog.productms.observability;
+
+import com.catalog.productms.service.ProductService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JfrEndpointTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private JfrEndpoint endpoint;
+    private final ProductOperationRecorder recorder = new ProductOperationRecorder();
+
+    @BeforeEach
+    void setUp() {
+        JfrProperties properties = new JfrProperties();
+        properties.setDumpDirectory(dumpDirectory.toString());
+        endpoint = new JfrEndpoint(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        endpoint.discard();
+    }
+
+    @Test
+    void recording_ShouldCaptureProductOperations() throws Throwable {
+        assertEquals("NONE", endpoint.status().get("state"));
+        endpoint.control("start", null, null, null);
+
+        recorder.invoke(invocation("findProductById", new Class<?>[]{String.class}, new Object[]{"42"}, () -> {
+            ProductOperationRecorder.cacheHits(1);
+            return Optional.of("product");
+        }));
+        Pageable pageable = PageRequest.of(2, 10, Sort.by("price"));
+        recorder.invoke(invocation("searchProducts",
+                new Class<?>[]{String.class, BigDecimal.class, BigDecimal.class, Pageable.class},
+                new Object[]{"laptop", new BigDecimal("10.50"), null, pageable},
+                () -> {
+                    ProductOperationRecorder.cacheMisses(1);
+                    return new SliceImpl<>(List.of("a", "b", "c"), pageable, true);
+                }));
+        endpoint.control("stop", null, null, null);
+        Map<String, Object> dumped = endpoint.control("dump", null, null, null);
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of((String) dumped.get("file"))).stream()
+                .filter(event -> event.getEventType().getName().equals(ProductOperationEvent.NAME))
+                .toList();
+        assertEquals(2, events.size());
+
+        RecordedEvent lookup = events.get(0);
+        assertEquals("findProductById", lookup.getString("operation"));
+        assertEquals("42", lookup.getString("productId"));
+        assertEquals(1, lookup.getInt("rows"));
+        assertEquals(1, lookup.getInt("cacheHits"));
+        assertEquals(-1, lookup.getInt("page"));
+
+        RecordedEvent search = events.get(1);
+        assertEquals("laptop", search.getString("query"));
+        assertEquals("10.50", search.getString("minPrice"));
+        assertNull(search.getString("maxPrice"));
+        assertEquals(2, search.getInt("page"));
+        assertEquals(10, search.getInt("pageSize"));
+        assertEquals("price: ASC", search.getString("sort"));
+        assertEquals(3, search.getInt("rows"));
+        assertEquals(1, search.getInt("cacheMisses"));
+    }
+
+    @Test
+    void recording_ShouldNameTheErrorOfAFailedOperation() throws Throwable {
+        endpoint.control("start", null, null, null);
+
+        assertThrows(IllegalStateException.class, () -> recorder.invoke(
+                invocation("deleteProduct", new Class<?>[]{String.class}, new Object[]{"42"}, () -> {
+                    throw new IllegalStateException("boom");
+                })));
+        endpoint.control("stop", null, null, null);
+
+        RecordedEvent event = RecordingFile.readAllEvents(Path.of((String) endpoint.control("dump", null, null, null).get("file")))
+                .stream()
+                .filter(recorded -> recorded.getEventType().getName().equals(ProductOperationEvent.NAME))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(IllegalStateException.class.getName(), event.getString("error"));
+    }
+
+    @Test
+    void recorder_WithoutARecording_ShouldOnlyProceed() throws Throwable {
+        Object result = recorder.invoke(invocation("findProductById", new Class<?>[]{String.class}, new Object[]{"42"},
+                () -> {
+                    ProductOperationRecorder.cacheHits(1);
+                    return Optional.empty();
+                }));
+
+        assertEquals(Optional.empty(), result);
+    }
+
+    @Test
+    void control_ShouldRejectInvalidRequests() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.control("dump", null, null, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.control("stop", null, null, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.control("pause", null, null, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.control("start", "no-such-settings", null, null));
+
+        endpoint.control("start", null, null, null);
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.control("start", null, null, null));
+        assertEquals("RUNNING", endpoint.status().get("state").toString());
+    }
+
+    private static MethodInvocation invocation(String method, Class<?>[] parameterTypes, Object[] args,
+                                               ThrowingSupplier body) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(ProductService.class.getMethod(method, parameterTypes));
+        when(invocation.getArguments()).thenReturn(args);
+        when(invocation.proceed()).thenAnswer(call -> body.get());
+        return invocation;
+    }
+
+    private interface ThrowingSupplier {
+        Object get() throws Throwable;
+    }
+}
@@ -0,0 +1,182 @@
+package com.catalog.productms.observability;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestTimingFilterTest {
+
+    private static final long NOW_MICROS = 1_700_000_000_000_000L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong nanos = new AtomicLong();
+    private RequestTimingProperties properties;
+    private RequestTimingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RequestTimingProperties();
+        properties.setSampleRate(1.0);
+        filter = new RequestTimingFilter(properties, objectMapper, nanos::get, () -> NOW_MICROS);
+    }
+
+    @Test
+    void doFilter_WhenSampled_ShouldReportEachPhaseInServerTiming() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/1");
+        request.addHeader("X-Request-Start", "t=" + (NOW_MICROS - 2500));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestTiming timing = RequestTiming.current();
+            timing.add(RequestTiming.Phase.ACQUIRE, millis(1));
+            timing.add(RequestTiming.Phase.DB, millis(3));
+            timing.add(RequestTiming.Phase.SERVICE, millis(2));
+            nanos.addAndGet(millis(10));
+        });
+
+        assertEquals("queue;dur=2.5, acquire;dur=1.0, db;dur=3.0;desc=\"0 queries\", orm;dur=0.0, "
+                + "service;dur=2.0, app;dur=4.0, total;dur=10.0", response.getHeader("Server-Timing"));
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    void doFilter_WhenNotSampled_ShouldLeaveTheRequestUntimed() throws Exception {
+        properties.setSampleRate(0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> assertNull(RequestTiming.current());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/products"), response, chain);
+
+        assertNull(response.getHeader("Server-Timing"));
+    }
+
+    @Test
+    void doFilter_WhenHeaderDisabled_ShouldOnlyTime() throws Exception {
+        properties.setServerTimingHeader(false);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> assertNotNull(RequestTiming.current());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/products"), response, chain);
+
+        assertNull(response.getHeader("Server-Timing"));
+    }
+
+    @Test
+    void accessLogLine_ShouldBeOneJsonDocument() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/search");
+        request.setQueryString("q=laptop&page=0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestTiming timing = new RequestTiming(0, -1, true);
+        timing.add(RequestTiming.Phase.DB, millis(3));
+        timing.writeStarted(millis(4));
+        timing.add(RequestTiming.Phase.WRITE, millis(1));
+
+        JsonNode line = objectMapper.readTree(filter.accessLogLine(request, response, timing, millis(5)));
+
+        assertEquals("/products/search", line.get("path").asText());
+        assertEquals("q=laptop&page=0", line.get("query").asText());
+        assertEquals(200, line.get("status").asInt());
+        assertEquals(5.0, line.get("durMs").asDouble());
+        assertEquals(3.0, line.get("dbMs").asDouble());
+        assertEquals(1.0, line.get("writeMs").asDouble());
+        assertEquals(1.0, line.get("appMs").asDouble());
+        assertFalse(line.has("queueMs"));
+    }
+
+    @Test
+    void queueMicros_ShouldAcceptCommonProxyFormats() {
+        long now = 1_700_000_000_500_000L;
+
+        assertEquals(500_000, RequestTimingFilter.queueMicros("t=1700000000.000", now));
+        assertEquals(500_000, RequestTimingFilter.queueMicros("1700000000", now));
+        assertEquals(250_000, RequestTimingFilter.queueMicros("1700000000250", now));
+        assertEquals(100, RequestTimingFilter.queueMicros("t=1700000000499900", now));
+        assertEquals(0, RequestTimingFilter.queueMicros("1700000001000", now));
+        assertEquals(-1, RequestTimingFilter.queueMicros("yesterday", now));
+        assertEquals(-1, RequestTimingFilter.queueMicros(null, now));
+    }
+
+    @Test
+    void layerTiming_ShouldNotCountInnerLayersTwice() throws Throwable {
+        RequestTiming timing = new RequestTiming(0, -1, true);
+        MethodInvocation statement = invocation(() -> {
+            // Longer than the calls around it could possibly take
+            timing.add(RequestTiming.Phase.DB, TimeUnit.SECONDS.toNanos(10));
+            return "row";
+        });
+        LayerTimingInterceptor repository = new LayerTimingInterceptor(RequestTiming.Phase.ORM);
+        MethodInvocation repositoryCall = invocation(() -> repository.invoke(statement));
+        LayerTimingInterceptor service = new LayerTimingInterceptor(RequestTiming.Phase.SERVICE);
+
+        RequestTiming.bind(timing);
+        try {
+            assertEquals("row", service.invoke(repositoryCall));
+        } finally {
+            RequestTiming.unbind();
+        }
+
+        assertEquals(TimeUnit.SECONDS.toNanos(10), timing.recorded());
+        assertEquals(0, timing.nanos(RequestTiming.Phase.ORM));
+        assertEquals(0, timing.nanos(RequestTiming.Phase.SERVICE));
+    }
+
+    @Test
+    void join_ShouldAddTheSlowestForkAndCountEveryStatement() {
+        RequestTiming timing = new RequestTiming(0, -1, true);
+        RequestTiming fast = timing.fork();
+        RequestTiming slow = timing.fork();
+        RequestTiming.callWith(fast, () -> {
+            RequestTiming.current().jdbcStarted(0);
+            RequestTiming.current().jdbcFinished(RequestTiming.Phase.DB, 1, millis(1));
+            return null;
+        });
+        RequestTiming.callWith(slow, () -> {
+            RequestTiming.current().add(RequestTiming.Phase.ACQUIRE, millis(2));
+            RequestTiming.current().jdbcStarted(0);
+            RequestTiming.current().jdbcFinished(RequestTiming.Phase.DB, 2, millis(4));
+            return null;
+        });
+
+        timing.join(List.of(fast, slow));
+
+        assertEquals(millis(2), timing.nanos(RequestTiming.Phase.ACQUIRE));
+        assertEquals(millis(4), timing.nanos(RequestTiming.Phase.DB));
+        assertEquals(millis(6), timing.recorded());
+        assertEquals(3, timing.queries());
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    void layerTiming_WithoutATimedRequest_ShouldOnlyProceed() throws Throwable {
+        LayerTimingInterceptor service = new LayerTimingInterceptor(RequestTiming.Phase.SERVICE);
+
+        assertEquals("row", service.invoke(invocation(() -> "row")));
+    }
+
+    private static MethodInvocation invocation(ThrowingSupplier body) throws Throwable {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.proceed()).thenAnswer(call -> body.get());
+        return invocation;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private interface ThrowingSupplier {
+        Object get() throws Throwable;
+    }
+}
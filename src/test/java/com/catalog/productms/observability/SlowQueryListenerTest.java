@@ -0,0 +1,83 @@
+package com.catalog.productms.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryListenerTest {
+
+    private SlowQueryRegistry registry;
+    private SlowQueryListener listener;
+
+    @BeforeEach
+    void setUp() {
+        SlowQueryProperties properties = new SlowQueryProperties();
+        properties.setThresholdMs(100);
+        registry = new SlowQueryRegistry(2);
+        listener = new SlowQueryListener(registry, properties);
+    }
+
+    @Test
+    void afterQuery_WhenFasterThanThreshold_ShouldNotRecord() {
+        listener.afterQuery(execution(99), List.of(new QueryInfo("select * from products where id = ?")));
+
+        assertTrue(registry.top(10).isEmpty());
+    }
+
+    @Test
+    void afterQuery_WhenSlow_ShouldAggregateByShapeWithParameters() throws Exception {
+        QueryInfo first = new QueryInfo("select * from products   where id = ?");
+        first.getParametersList().add(List.of(parameter(1, "abc")));
+        QueryInfo second = new QueryInfo("select * from products where id = ?");
+        second.getParametersList().add(List.of(parameter(1, "def")));
+
+        listener.afterQuery(execution(150), List.of(first));
+        listener.afterQuery(execution(250), List.of(second));
+
+        List<SlowQueryRegistry.SlowQueryShape> top = registry.top(10);
+        assertEquals(1, top.size());
+        assertEquals("select * from products where id = ?", top.get(0).sql());
+        assertEquals(2, top.get(0).count());
+        assertEquals(400, top.get(0).totalMs());
+        assertEquals(250, top.get(0).maxMs());
+        assertEquals("[(def)]", top.get(0).lastParameters());
+    }
+
+    @Test
+    void registry_ShouldNormalizeLiteralsAndRankByTotalTime() {
+        registry.record("select * from products where name = 'a' and price > 10.50", 120, "[]");
+        registry.record("select * from products where name = 'b' and price > 99", 130, "[]");
+        registry.record("delete from products", 500, "[]");
+        registry.record("update products set price = ?", 900, "[]");
+
+        List<SlowQueryRegistry.SlowQueryShape> top = registry.top(1);
+        assertEquals("delete from products", top.get(0).sql());
+        assertEquals(2, registry.top(10).size());
+        assertEquals(250, registry.top(10).get(1).totalMs());
+        assertEquals(1, registry.untrackedCount());
+
+        registry.reset();
+        assertTrue(registry.top(10).isEmpty());
+        assertEquals(0, registry.untrackedCount());
+    }
+
+    private ExecutionInfo execution(long elapsedMs) {
+        ExecutionInfo info = new ExecutionInfo();
+        info.setElapsedTime(elapsedMs);
+        info.setSuccess(true);
+        return info;
+    }
+
+    private ParameterSetOperation parameter(int index, Object value) throws Exception {
+        Method setString = PreparedStatement.class.getMethod("setString", int.class, String.class);
+        return new ParameterSetOperation(setString, new Object[]{index, value});
+    }
+}
@@ -0,0 +1,86 @@
+package com.catalog.productms.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private RateLimitProperties.Concurrency properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties.Concurrency();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(10);
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    void release_WithStableLatencyUnderLoad_ShouldGrowLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+        }
+        limiter.release(1_000_000, false);
+        limiter.release(1_000_000, false);
+
+        assertEquals(6, limiter.getLimit());
+    }
+
+    @Test
+    void release_WithDegradedLatency_ShouldShrinkLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        limiter.tryAcquire();
+        limiter.release(1_000_000, false);
+        limiter.tryAcquire();
+        limiter.release(10_000_000, false);
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void release_ShouldJudgeLatencyAgainstItsOwnClass() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        // Lookups take 1ms, searches 10ms: neither is congestion
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire();
+            limiter.release(1, 1_000_000, false);
+            limiter.tryAcquire();
+            limiter.release(3, 10_000_000, false);
+        }
+        limiter.tryAcquire();
+        limiter.releaseUnsampled();
+
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_WithFailures_ShouldNotGoBelowMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+            limiter.release(1_000_000, true);
+        }
+
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
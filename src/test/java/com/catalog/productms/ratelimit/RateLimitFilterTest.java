@@ -0,0 +1,263 @@
+package com.catalog.productms.ratelimit;
+
+import com.catalog.productms.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setCapacity(10);
+        properties.setRefillPerSecond(1);
+        properties.getCosts().setListAll(10);
+        meterRegistry = new SimpleMeterRegistry();
+        now = 0;
+    }
+
+    @Test
+    void costOf_ShouldWeighEndpoints() {
+        RateLimitFilter filter = filter(null);
+
+        assertEquals(1, filter.costOf(request("GET", "/products/123")));
+        assertEquals(10, filter.costOf(request("GET", "/products")));
+        assertEquals(2, filter.costOf(withParam(request("GET", "/products"), "page", "0")));
+        assertEquals(5, filter.costOf(withParam(request("GET", "/products"), "ids", "1,2")));
+        assertEquals(50, filter.costOf(request("GET", "/products/search")));
+        assertEquals(3, filter.costOf(withParam(request("GET", "/products/search"), "size", "5")));
+        assertEquals(2, filter.costOf(request("POST", "/products")));
+        assertEquals(2, filter.costOf(request("DELETE", "/products/123")));
+        assertEquals(50, filter.costOf(request("DELETE", "/products")));
+        assertEquals(100, filter.costOf(request("GET", "/products/export")));
+        assertEquals(100, filter.costOf(request("POST", "/products/import")));
+    }
+
+    @Test
+    void clientKey_ShouldPreferClientHeaderFromTrustedProxies() {
+        properties.setTrustedProxies(List.of("10.0.0.1"));
+        RateLimitFilter filter = filter(null);
+        MockHttpServletRequest request = request("GET", "/products/1");
+        request.setRemoteAddr("10.0.0.1");
+
+        assertEquals("10.0.0.1", filter.clientKey(request));
+        request.addHeader("X-Client-Id", "cart-service");
+        assertEquals("cart-service", filter.clientKey(request));
+    }
+
+    @Test
+    void clientKey_WhenNotFromTrustedProxy_ShouldIgnoreClientHeader() {
+        properties.setTrustedProxies(List.of("10.0.0.1"));
+        RateLimitFilter filter = filter(null);
+        MockHttpServletRequest request = request("GET", "/products/1");
+        request.setRemoteAddr("192.168.1.7");
+        request.addHeader("X-Client-Id", "rotated-" + System.nanoTime());
+
+        assertEquals("192.168.1.7", filter.clientKey(request));
+    }
+
+    @Test
+    void doFilter_WhenEveryTrackedClientIsActive_ShouldRejectNewClients() throws Exception {
+        properties.setMaxClients(1);
+        RateLimitFilter filter = filter(null);
+        MockHttpServletRequest first = request("GET", "/products/1");
+        first.setRemoteAddr("10.0.0.1");
+        MockHttpServletRequest second = request("GET", "/products/1");
+        second.setRemoteAddr("10.0.0.2");
+
+        MockHttpServletResponse firstResponse = new MockHttpServletResponse();
+        filter.doFilter(first, firstResponse, new MockFilterChain());
+        MockHttpServletResponse secondResponse = new MockHttpServletResponse();
+        filter.doFilter(second, secondResponse, new MockFilterChain());
+        // Once the first bucket has refilled it is idle and makes room
+        now += TimeUnit.SECONDS.toNanos(10);
+        MockHttpServletResponse retried = new MockHttpServletResponse();
+        filter.doFilter(second, retried, new MockFilterChain());
+
+        assertEquals(200, firstResponse.getStatus());
+        assertEquals(429, secondResponse.getStatus());
+        assertEquals(200, retried.getStatus());
+    }
+
+    @Test
+    void doFilter_WhenBucketIsEmpty_ShouldReturn429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(null);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/products"), first, new MockFilterChain());
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request("GET", "/products/1"), second, chain);
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+        assertTrue(second.getContentAsString().contains("\"status_code\":429"));
+        assertEquals(1.0, meterRegistry.get("product.ratelimit.rejections").tag("reason", "rate_limit").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldTrackClientsSeparately() throws Exception {
+        properties.setTrustedProxies(List.of("127.0.0.1"));
+        RateLimitFilter filter = filter(null);
+        MockHttpServletRequest cart = request("GET", "/products");
+        cart.addHeader("X-Client-Id", "cart");
+        MockHttpServletRequest orders = request("GET", "/products");
+        orders.addHeader("X-Client-Id", "orders");
+
+        MockHttpServletResponse cartResponse = new MockHttpServletResponse();
+        filter.doFilter(cart, cartResponse, new MockFilterChain());
+        MockHttpServletResponse ordersResponse = new MockHttpServletResponse();
+        filter.doFilter(orders, ordersResponse, new MockFilterChain());
+
+        assertEquals(200, cartResponse.getStatus());
+        assertEquals(200, ordersResponse.getStatus());
+    }
+
+    @Test
+    void doFilter_WhenConcurrencyLimitReached_ShouldShedWith503() throws Exception {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        concurrency.setInitialLimit(1);
+        concurrency.setMinLimit(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(concurrency);
+        RateLimitFilter filter = filter(limiter);
+        limiter.tryAcquire();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/products/1"), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("product.ratelimit.rejections").tag("reason", "overload").counter().count());
+    }
+
+    @Test
+    void doFilter_WhenAdmitted_ShouldReleaseConcurrencyPermit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties.getConcurrency());
+        RateLimitFilter filter = filter(limiter);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/products/1"), response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void doFilter_WhenPageWasPreRendered_ShouldNotSampleItsLatency() throws Exception {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        concurrency.setInitialLimit(4);
+        concurrency.setMinLimit(1);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(concurrency);
+        RateLimitFilter filter = filter(limiter);
+        FilterChain hit = (req, res) -> {
+            now += 1_000;
+            req.setAttribute(RateLimitFilter.UNMEASURED_ATTRIBUTE, Boolean.TRUE);
+        };
+        FilterChain rendered = (req, res) -> now += 5_000_000;
+
+        filter.doFilter(withParam(request("GET", "/products"), "page", "0"), new MockHttpServletResponse(), hit);
+        filter.doFilter(withParam(request("GET", "/products"), "page", "1"), new MockHttpServletResponse(), rendered);
+        filter.doFilter(withParam(request("GET", "/products"), "page", "2"), new MockHttpServletResponse(), rendered);
+
+        assertEquals(4, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void doFilter_WhenTenantBucketIsEmpty_ShouldReturn429ForAllItsClients() throws Exception {
+        properties.setCapacity(100);
+        properties.getTenant().setCapacity(10);
+        properties.getTenant().setRefillPerSecond(1);
+        RateLimitFilter filter = filter(null);
+        MockHttpServletRequest cart = request("GET", "/products");
+        cart.addHeader("X-Client-Id", "cart");
+        MockHttpServletRequest orders = request("GET", "/products/1");
+        orders.addHeader("X-Client-Id", "orders");
+
+        MockHttpServletResponse cartResponse = filterAs("acme", filter, cart);
+        MockHttpServletResponse ordersResponse = filterAs("acme", filter, orders);
+        MockHttpServletResponse otherTenantResponse = filterAs("globex", filter, request("GET", "/products/1"));
+
+        assertEquals(200, cartResponse.getStatus());
+        assertEquals(429, ordersResponse.getStatus());
+        assertEquals(200, otherTenantResponse.getStatus());
+        assertEquals(1.0, meterRegistry.get("product.ratelimit.rejections").tag("reason", "tenant_rate_limit")
+                .counter().count());
+    }
+
+    @Test
+    void doFilter_WhenTenantHoldsItsConcurrencyShare_ShouldShedOnlyThatTenant() throws Exception {
+        RateLimitProperties.Concurrency concurrency = properties.getConcurrency();
+        concurrency.setInitialLimit(4);
+        concurrency.setMinLimit(4);
+        properties.getTenant().setConcurrencyShare(0.5);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(concurrency);
+        RateLimitFilter filter = filter(limiter);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[2];
+        // Each request issues the next one while still in flight
+        FilterChain third = (req, res) -> nested[1] = filterAs("acme", filter, request("GET", "/products/3"));
+        FilterChain second = (req, res) -> nested[0] = filterAs("acme", filter, request("GET", "/products/2"), third);
+
+        MockHttpServletResponse first = filterAs("acme", filter, request("GET", "/products/1"), second);
+        MockHttpServletResponse otherTenant = filterAs("globex", filter, request("GET", "/products/1"));
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, nested[0].getStatus());
+        assertEquals(503, nested[1].getStatus());
+        assertEquals(200, otherTenant.getStatus());
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(1.0, meterRegistry.get("product.ratelimit.rejections").tag("reason", "tenant_overload")
+                .counter().count());
+    }
+
+    private RateLimitFilter filter(AdaptiveConcurrencyLimiter limiter) {
+        return new RateLimitFilter(properties, limiter, new ObjectMapper(), meterRegistry, () -> now);
+    }
+
+    private MockHttpServletResponse filterAs(String tenant, RateLimitFilter filter, MockHttpServletRequest request) {
+        return filterAs(tenant, filter, request, new MockFilterChain());
+    }
+
+    // What the tenant filter does ahead of this one
+    private MockHttpServletResponse filterAs(String tenant, RateLimitFilter filter, MockHttpServletRequest request,
+                                             FilterChain chain) {
+        return TenantContext.callAs(tenant, () -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(request, response, chain);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+    }
+
+    private MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private MockHttpServletRequest withParam(MockHttpServletRequest request, String name, String value) {
+        request.setParameter(name, value);
+        return request;
+    }
+}
@@ -0,0 +1,56 @@
+package com.catalog.productms.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void tryConsume_ShouldAdmitUntilCapacityIsSpent() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertEquals(0, bucket.tryConsume(6, 0));
+        assertEquals(0, bucket.tryConsume(4, 0));
+        assertTrue(bucket.tryConsume(1, 0) > 0);
+    }
+
+    @Test
+    void tryConsume_ShouldReportWaitUntilEnoughTokens() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        bucket.tryConsume(10, 0);
+
+        long wait = bucket.tryConsume(5, 0);
+
+        assertEquals(SECOND, wait);
+        assertEquals(0, bucket.tryConsume(5, SECOND));
+    }
+
+    @Test
+    void tryConsume_ShouldNeverRefillAboveCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertEquals(10.0, bucket.availableTokens(100 * SECOND), 0.0001);
+    }
+
+    @Test
+    void tryConsume_WhenCostExceedsCapacity_ShouldChargeWholeBucket() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+
+        assertEquals(0, bucket.tryConsume(50, 0));
+        assertEquals(0.0, bucket.availableTokens(0), 0.0001);
+    }
+
+    @Test
+    void isIdle_ShouldBeTrueOnceBucketWouldBeFull() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        bucket.tryConsume(10, 0);
+
+        assertFalse(bucket.isIdle(SECOND));
+        assertTrue(bucket.isIdle(2 * SECOND));
+    }
+}
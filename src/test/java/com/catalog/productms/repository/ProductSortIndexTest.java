@@ -0,0 +1,101 @@
+package com.catalog.productms.repository;
+
+import com.catalog.productms.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every sort option is served by its (tenant_id, column, id) index. H2 reports
+ * "index sorted" when ORDER BY is read off an index instead of sorting the rows; it only
+ * walks indexes forwards, so descending order is left to MySQL's backward index scan.
+ */
+@DataJpaTest
+class ProductSortIndexTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM products");
+        insert("b", "Mouse", "10.00", "2024-01-03T00:00:00Z");
+        insert("a", "Keyboard", "10.00", "2024-01-02T00:00:00Z");
+        insert("c", "Laptop", "999.00", "2024-01-01T00:00:00Z");
+        insert("d", "Cable", "5.00", "2024-01-04T00:00:00Z");
+    }
+
+    @Test
+    void deepSortedPages_ShouldBeReadOffTheCompositeIndex() {
+        String[][] sorts = {{"price", "idx_products_tenant_price_id"}, {"name", "idx_products_tenant_name_id"},
+                {"created_at", "idx_products_tenant_created_at_id"}};
+
+        for (String[] sort : sorts) {
+            String plan = explain("SELECT p.id FROM products p WHERE p.tenant_id = 'default' ORDER BY p.tenant_id, p."
+                    + sort[0] + ", p.id LIMIT 20 OFFSET 100000");
+
+            assertTrue(plan.contains(sort[1]), sort[0] + " should use " + sort[1] + ": " + plan);
+            assertTrue(plan.contains("index sorted"), sort[0] + " should not sort rows: " + plan);
+        }
+    }
+
+    @Test
+    void findPageIds_ShouldBreakTiesById() {
+        Page<String> ascending = productRepository.findPageIds(PageRequest.of(0, 3, Sort.by("price", "id")));
+        Page<String> descending = productRepository.findPageIds(
+                PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "price", "id")));
+
+        assertEquals(List.of("d", "a", "b"), ascending.getContent());
+        assertEquals(List.of("c", "b", "a"), descending.getContent());
+        assertEquals(4, ascending.getTotalElements());
+    }
+
+    @Test
+    void searchProductIds_ShouldSortByCreatedAt() {
+        Page<String> page = productRepository.searchProductIds(null, new BigDecimal("6.00"), null,
+                PageRequest.of(0, 10, Sort.by("createdAt", "id")));
+
+        assertEquals(List.of("c", "a", "b"), page.getContent());
+    }
+
+    @Test
+    void save_ShouldStampAuditColumns() {
+        Product product = new Product();
+        product.setName("Monitor");
+        product.setDescription("27 inch");
+        product.setPrice(new BigDecimal("199.00"));
+
+        Product saved = productRepository.saveAndFlush(product);
+
+        assertTrue(saved.getCreatedAt() != null && saved.getUpdatedAt() != null);
+        assertEquals(saved.getCreatedAt(), saved.getUpdatedAt());
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)).toLowerCase(Locale.ROOT);
+    }
+
+    private void insert(String id, String name, String price, String createdAt) {
+        Timestamp timestamp = Timestamp.from(Instant.parse(createdAt));
+        jdbcTemplate.update("INSERT INTO products (id, name, description, price, change_seq, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", id, name, name + " description", new BigDecimal(price), 1L,
+                timestamp, timestamp);
+    }
+}
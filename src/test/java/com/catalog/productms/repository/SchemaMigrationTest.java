@@ -0,0 +1,75 @@
+package com.catalog.productms.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the H2 (MySQL mode) migrations; the context only starts if Hibernate validates
+ * the mapped entities against the migrated schema.
+ */
+@DataJpaTest
+class SchemaMigrationTest {
+
+    private static final List<String> INDEXES = List.of("idx_products_change_seq", "idx_products_tenant_id",
+            "idx_products_tenant_name_desc", "idx_products_tenant_price_id", "idx_products_tenant_name_id",
+            "idx_products_tenant_created_at_id");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migrations_ShouldBeFullyApplied() {
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals("5", flyway.info().current().getVersion().getVersion());
+        assertTrue(indexes(jdbcTemplate).containsAll(INDEXES), indexes(jdbcTemplate).toString());
+    }
+
+    @Test
+    void migrate_WhenSchemaWasCreatedByHibernate_ShouldBringItUpToDate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:legacy-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacy = new JdbcTemplate(dataSource);
+        // What ddl-auto=update produced before change tracking and the sort indexes
+        legacy.execute("CREATE TABLE products (id VARCHAR(255) NOT NULL PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                + "description VARCHAR(1000) NOT NULL, price DECIMAL(10, 2) NOT NULL, change_seq BIGINT)");
+        legacy.execute("CREATE INDEX idx_products_change_seq ON products (change_seq)");
+        legacy.update("INSERT INTO products (id, name, description, price) VALUES ('1', 'Laptop', 'Thin', 999.99)");
+
+        MigrateResult result = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/h2")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        assertTrue(result.success);
+        assertEquals(5, result.migrationsExecuted);
+        assertTrue(indexes(legacy).containsAll(INDEXES), indexes(legacy).toString());
+        assertEquals(1, legacy.queryForObject("SELECT COUNT(*) FROM products WHERE created_at IS NULL", Integer.class));
+        assertEquals(0L, legacy.queryForObject("SELECT version FROM products WHERE id = '1'", Long.class));
+        assertEquals("default", legacy.queryForObject("SELECT tenant_id FROM products WHERE id = '1'", String.class));
+        legacy.execute("SHUTDOWN");
+    }
+
+    private static List<String> indexes(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForList("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES "
+                        + "WHERE UPPER(TABLE_NAME) = 'PRODUCTS'", String.class).stream()
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+}
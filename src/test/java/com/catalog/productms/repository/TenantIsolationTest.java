@@ -0,0 +1,90 @@
+package com.catalog.productms.repository;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.tenant.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every repository query runs through the tenant filter, so a tenant never sees, counts
+ * or loads another tenant's rows, even by id.
+ */
+@DataJpaTest
+class TenantIsolationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM products");
+        insert("a1", "acme", "Laptop", "999.00");
+        insert("a2", "acme", "Mouse", "10.00");
+        insert("g1", "globex", "Laptop", "899.00");
+        insert("d1", TenantContext.DEFAULT, "Cable", "5.00");
+    }
+
+    @Test
+    void queries_ShouldOnlySeeTheCurrentTenantsRows() {
+        TenantContext.callAs("acme", () -> {
+            assertEquals(List.of("a1", "a2"), productRepository.findPageIds(PageRequest.of(0, 10, Sort.by("id")))
+                    .getContent());
+            assertEquals(2, productRepository.count());
+            assertEquals(List.of("a1"), ids(productRepository.searchProducts("laptop", null, null)));
+            assertEquals(1, productRepository.countMatching("laptop", null, null));
+            return null;
+        });
+        TenantContext.callAs("globex", () -> {
+            assertEquals(List.of("g1"), ids(productRepository.findAll()));
+            return null;
+        });
+        assertEquals(List.of("d1"), ids(productRepository.findAll()));
+    }
+
+    @Test
+    void findById_ShouldNotLoadAnotherTenantsProduct() {
+        TenantContext.callAs("globex", () -> {
+            assertTrue(productRepository.findById("a1").isEmpty());
+            assertFalse(productRepository.existsById("a1"));
+            assertTrue(productRepository.findById("g1").isPresent());
+            return null;
+        });
+    }
+
+    @Test
+    void save_ShouldStampTheCurrentTenant() {
+        Product saved = TenantContext.callAs("acme", () -> {
+            Product product = new Product();
+            product.setName("Monitor");
+            product.setDescription("27 inch");
+            product.setPrice(new BigDecimal("199.00"));
+            return productRepository.saveAndFlush(product);
+        });
+
+        assertEquals("acme", saved.getTenantId());
+        assertEquals("acme", jdbcTemplate.queryForObject("SELECT tenant_id FROM products WHERE id = ?", String.class,
+                saved.getId()));
+    }
+
+    private static List<String> ids(List<Product> products) {
+        return products.stream().map(Product::getId).sorted().toList();
+    }
+
+    private void insert(String id, String tenant, String name, String price) {
+        jdbcTemplate.update("INSERT INTO products (id, name, description, price, change_seq, tenant_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", id, name, name + " description", new BigDecimal(price), 1L, tenant);
+    }
+}
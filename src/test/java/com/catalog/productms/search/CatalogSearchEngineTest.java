@@ -0,0 +1,88 @@
+package com.catalog.productms.search;
+
+import com.catalog.productms.store.CatalogEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSearchEngineTest {
+
+    private final CatalogSearchEngine engine = new CatalogSearchEngine(true, 4);
+
+    @AfterEach
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void search_ShouldMatchSequentialEvaluationAcrossPartitions() {
+        List<CatalogEntry> entries = catalog(CatalogSearchEngine.MIN_PARTITION_SIZE * 10);
+        ProductFilter filter = new ProductFilter("book", new BigDecimal("10.00"), new BigDecimal("500.00"));
+
+        List<CatalogEntry> expected = entries.stream()
+                .filter(filter::matches)
+                .sorted(CatalogSearchEngine.BY_ID)
+                .toList();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, engine.search(entries, filter));
+    }
+
+    @Test
+    void search_WithPageable_ShouldMergeTopKInRequestedOrder() {
+        List<CatalogEntry> entries = catalog(CatalogSearchEngine.MIN_PARTITION_SIZE * 10);
+        ProductFilter filter = new ProductFilter(null, null, new BigDecimal("300.00"));
+        Sort sort = Sort.by(Sort.Order.desc("price"));
+        List<CatalogEntry> expected = entries.stream()
+                .filter(filter::matches)
+                .sorted(CatalogSearchEngine.comparator(sort))
+                .toList();
+
+        Page<CatalogEntry> page = engine.search(entries, filter, PageRequest.of(37, 50, sort));
+
+        assertEquals(expected.size(), page.getTotalElements());
+        assertEquals(expected.subList(37 * 50, 38 * 50), page.getContent());
+    }
+
+    @Test
+    void search_WhenPageIsBeyondResults_ShouldReturnEmptyContentWithTotal() {
+        List<CatalogEntry> entries = catalog(100);
+
+        Page<CatalogEntry> page = engine.search(entries, new ProductFilter(null, null, null), PageRequest.of(5, 50));
+
+        assertTrue(page.getContent().isEmpty());
+        assertEquals(100, page.getTotalElements());
+    }
+
+    @Test
+    void comparator_ShouldBreakTiesByIdAndRejectUnknownProperties() {
+        CatalogEntry a = new CatalogEntry("a", "Same", "d", BigDecimal.ONE, 1);
+        CatalogEntry b = new CatalogEntry("b", "same", "d", BigDecimal.ONE, 1);
+
+        assertTrue(CatalogSearchEngine.comparator(Sort.by("name")).compare(a, b) < 0);
+        assertThrows(IllegalArgumentException.class, () -> CatalogSearchEngine.comparator(Sort.by("color")));
+    }
+
+    private static List<CatalogEntry> catalog(int size) {
+        String[] words = {"Book", "Laptop", "Phone", "Desk", "Lamp", "Notebook"};
+        Random random = new Random(42);
+        List<CatalogEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String word = words[random.nextInt(words.length)];
+            entries.add(new CatalogEntry(String.format("id-%07d", i), word + " " + i, "A " + word.toLowerCase() + " for sale",
+                    BigDecimal.valueOf(100 + random.nextInt(100_000), 2), i));
+        }
+        Collections.shuffle(entries, random);
+        return entries;
+    }
+}
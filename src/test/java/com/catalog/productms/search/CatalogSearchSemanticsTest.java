@@ -0,0 +1,100 @@
+package com.catalog.productms.search;
+
+import com.catalog.productms.dto.ProductResponse;
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.store.CatalogEntry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the same filters through the repository JPQL and the in-memory engine.
+ */
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CatalogSearchSemanticsTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final CatalogSearchEngine engine = new CatalogSearchEngine(true, 2);
+
+    @BeforeEach
+    void setUp() {
+        save("Gaming Laptop", "High-end laptop", "1500.00");
+        save("Office LAPTOP", "Thin and light", "899.99");
+        save("Mouse", "Wireless, 50% off", "25.50");
+        save("Cable_USB", "USB-C cable", "9.99");
+        save("Cable USB", "Braided cable", "12.00");
+        save("Desk", "Back\\slash desk", "300.00");
+    }
+
+    @AfterAll
+    void tearDown() {
+        engine.close();
+    }
+
+    @Test
+    void inMemorySearch_ShouldReturnTheSameRowsAsJpql() {
+        String[] queries = {null, "", "laptop", "LAP", "l_p", "50%", "50\\%", "cable_", "cable\\_", "%", "_", "\\\\", "zzz"};
+        BigDecimal[][] ranges = {{null, null}, {new BigDecimal("10.00"), null}, {null, new BigDecimal("899.99")},
+                {new BigDecimal("25.50"), new BigDecimal("1500.00")}, {new BigDecimal("9.985"), new BigDecimal("25.505")}};
+        List<CatalogEntry> entries = productRepository.findAll().stream().map(CatalogEntry::of).toList();
+
+        for (String q : queries) {
+            for (BigDecimal[] range : ranges) {
+                List<String> expected = productRepository.searchProducts(q, range[0], range[1]).stream()
+                        .map(Product::getId)
+                        .sorted()
+                        .toList();
+                List<String> actual = engine.search(entries, new ProductFilter(q, range[0], range[1])).stream()
+                        .map(CatalogEntry::id)
+                        .toList();
+
+                assertEquals(expected, actual, "q=" + q + ", min=" + range[0] + ", max=" + range[1]);
+            }
+        }
+    }
+
+    @Test
+    void inMemoryResults_ShouldSerializeLikeDatabaseRows() throws Exception {
+        save("Whole", "Whole number price", "7");
+        entityManager.flush();
+        entityManager.clear();
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        List<ProductResponse> fromDatabase = productRepository.findAll(Sort.by("id")).stream()
+                .map(ProductResponse::fromEntity)
+                .toList();
+        List<ProductResponse> fromMemory = engine.search(productRepository.findAll().stream().map(CatalogEntry::of).toList(),
+                        new ProductFilter(null, null, null)).stream()
+                .map(entry -> ProductResponse.fromEntity(entry.toProduct()))
+                .toList();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(fromDatabase), objectMapper.writeValueAsBytes(fromMemory));
+    }
+
+    private void save(String name, String description, String price) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(new BigDecimal(price));
+        productRepository.save(product);
+    }
+}
@@ -0,0 +1,33 @@
+package com.catalog.productms.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LikePatternTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "%lap%       | Gaming Laptop     | true",
+        "%LAP%       | gaming laptop     | true",
+        "%lap%       | Desktop           | false",
+        "%%          | anything          | true",
+        "%%          | ''                | true",
+        "%l_p%       | Laptop            | true",
+        "%l_p%       | Lp                | false",
+        "%a%b%c%     | xaxxbxxcx         | true",
+        "%a%b%c%     | xaxxcxxbx         | false",
+        "%50\\%%     | 50% off           | true",
+        "%50\\%%     | 500 off           | false",
+        "%a\\_b%     | a_b               | true",
+        "%a\\_b%     | axb               | false",
+        "abc         | abc               | true",
+        "abc         | abcd              | false",
+        "a%          | aaa               | true",
+        "%aab        | aaab              | true",
+    })
+    void matches_ShouldFollowSqlLikeSemantics(String pattern, String text, boolean expected) {
+        assertEquals(expected, LikePattern.compile(pattern).matches(text));
+    }
+}
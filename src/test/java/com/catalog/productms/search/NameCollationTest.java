@@ -0,0 +1,30 @@
+package com.catalog.productms.search;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NameCollationTest {
+
+    // Expected signs are what utf8mb4_0900_ai_ci returns for the same pair
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "café        | CAFE        | 0",
+        "Straße      | STRASSE     | 0",
+        "Éclair      | espresso    | -1",
+        "apple       | Banana      | -1",
+        "a b         | ab          | -1",
+        "T-shirt     | Tshirt      | -1",
+        "Cable USB   | Cable_USB   | -1",
+        "Cable_USB   | Cable-USB   | -1",
+        "3.5mm jack  | 3/4 inch    | -1",
+        "Item 10     | Item 9      | -1",
+        "$5 gift     | 5 gift      | -1",
+        "Zebra       | zèbre       | -1",
+    })
+    void order_ShouldFollowTheTableCollation(String left, String right, int expected) {
+        assertEquals(expected, Integer.signum(NameCollation.ORDER.compare(left, right)));
+        assertEquals(-expected, Integer.signum(NameCollation.ORDER.compare(right, left)));
+    }
+}
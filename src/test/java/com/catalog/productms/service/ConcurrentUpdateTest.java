@@ -0,0 +1,105 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.dto.ProductRequest;
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many writers increment the price of one product at the same time. Every increment is a
+ * read-modify-write, so without a version check concurrent writers would overwrite each
+ * other. Both strategies must count every increment; their throughput is logged.
+ */
+@Slf4j
+@SpringBootTest
+class ConcurrentUpdateTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 25;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private String id;
+
+    @BeforeEach
+    void setUp() {
+        productService.deleteAllProducts();
+        id = productService.createProduct(new ProductRequest("Counter", "Contended row", new BigDecimal("1.00"))).getId();
+    }
+
+    @Test
+    void optimisticUpdates_ShouldNotLoseUpdates() throws Exception {
+        // Generous attempts: eight writers on one row collide far more than real traffic
+        OptimisticRetry retry = new OptimisticRetry(100, 1, 20);
+
+        run("optimistic (@Version + retry)", id -> retry.execute(() -> transactionTemplate.execute(status -> {
+            Product product = productRepository.findById(id).orElseThrow();
+            product.setPrice(product.getPrice().add(BigDecimal.ONE));
+            return product;
+        })));
+
+        Product product = productRepository.findById(id).orElseThrow();
+        assertEquals(new BigDecimal("201.00"), product.getPrice());
+        assertEquals((long) THREADS * INCREMENTS_PER_THREAD, product.getVersion());
+    }
+
+    @Test
+    void pessimisticUpdates_ShouldNotLoseUpdates() throws Exception {
+        run("pessimistic (SELECT ... FOR UPDATE)", id -> transactionTemplate.executeWithoutResult(status -> {
+            Product product = entityManager.find(Product.class, id, LockModeType.PESSIMISTIC_WRITE);
+            product.setPrice(product.getPrice().add(BigDecimal.ONE));
+        }));
+
+        assertEquals(new BigDecimal("201.00"), productRepository.findById(id).orElseThrow().getPrice());
+    }
+
+    private void run(String strategy, Consumer<String> increment) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                        increment.accept(id);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("{}: {} updates in {} ms ({} updates/s)", strategy, THREADS * INCREMENTS_PER_THREAD,
+                    Math.round(seconds * 1000), Math.round(THREADS * INCREMENTS_PER_THREAD / seconds));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.tenant.TenantContext;
+import com.catalog.productms.tenant.TenantQuota;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MissingProductCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = 0;
+    }
+
+    @Test
+    void isMissing_ShouldExpireAfterTtl() {
+        MissingProductCache cache = cache(true, 3);
+
+        cache.recordMiss("999", cache.generation());
+        now += TimeUnit.MILLISECONDS.toNanos(999);
+        assertTrue(cache.isMissing("999"));
+        now += TimeUnit.MILLISECONDS.toNanos(1);
+
+        assertFalse(cache.isMissing("999"));
+        assertEquals(0, cache.size());
+        assertEquals(1.0, meterRegistry.get("product.notfound.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void recordMiss_WhenInvalidatedDuringLookup_ShouldNotStore() {
+        MissingProductCache cache = cache(true, 3);
+        long generation = cache.generation();
+
+        // The product is created while the lookup that missed it is still running
+        cache.onProductChanged(ProductChangedEvent.upserted(product("999")));
+        cache.recordMiss("999", generation);
+
+        assertFalse(cache.isMissing("999"));
+    }
+
+    @Test
+    void onProductChanged_ShouldOnlyForgetUpsertedIds() {
+        MissingProductCache cache = cache(true, 3);
+        cache.recordMiss("1", cache.generation());
+        cache.recordMiss("2", cache.generation());
+
+        cache.onProductChanged(ProductChangedEvent.deleted("1"));
+        cache.onProductChanged(ProductChangedEvent.upserted(product("2")));
+
+        assertTrue(cache.isMissing("1"));
+        assertFalse(cache.isMissing("2"));
+    }
+
+    @Test
+    void recordMiss_WhenFull_ShouldSweepExpiredEntriesOrSkip() {
+        MissingProductCache cache = cache(true, 2);
+        cache.recordMiss("1", cache.generation());
+        cache.recordMiss("2", cache.generation());
+
+        cache.recordMiss("3", cache.generation());
+        assertFalse(cache.isMissing("3"));
+
+        now += TimeUnit.SECONDS.toNanos(1);
+        cache.recordMiss("3", cache.generation());
+        assertTrue(cache.isMissing("3"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void recordMiss_ShouldKeepEachTenantWithinItsQuota() {
+        MissingProductCache cache = new MissingProductCache(meterRegistry, true, 1000, 4, new TenantQuota(2), () -> now);
+
+        TenantContext.callAs("acme", () -> {
+            for (String id : new String[] {"1", "2", "3"}) {
+                cache.recordMiss(id, cache.generation());
+            }
+            assertTrue(cache.isMissing("2"));
+            assertFalse(cache.isMissing("3"));
+            return null;
+        });
+        TenantContext.callAs("globex", () -> {
+            cache.recordMiss("3", cache.generation());
+            assertTrue(cache.isMissing("3"));
+            assertFalse(cache.isMissing("1"));
+            return null;
+        });
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void whenDisabled_ShouldNeverReportMissing() {
+        MissingProductCache cache = cache(false, 3);
+
+        cache.recordMiss("999", cache.generation());
+
+        assertFalse(cache.isMissing("999"));
+        assertEquals(0, cache.size());
+    }
+
+    private MissingProductCache cache(boolean enabled, int maxEntries) {
+        return new MissingProductCache(meterRegistry, enabled, 1000, maxEntries, () -> now);
+    }
+
+    private static Product product(String id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,75 @@
+package com.catalog.productms.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticRetryTest {
+
+    @Test
+    void execute_ShouldRetryUntilTheActionSucceeds() {
+        OptimisticRetry retry = new OptimisticRetry(5, 1, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute(() -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_ShouldGiveUpAfterMaxAttempts() {
+        OptimisticRetry retry = new OptimisticRetry(3, 1, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.execute(() -> {
+            calls.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        }));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_ShouldNotRetryOtherFailures() {
+        OptimisticRetry retry = new OptimisticRetry(3, 1, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> retry.execute(() -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void execute_InsideTransaction_ShouldBeRejected() {
+        OptimisticRetry retry = new OptimisticRetry(3, 1, 2);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(IllegalStateException.class, () -> retry.execute(() -> "value"));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void backoffMs_ShouldGrowExponentiallyUpToTheCap() {
+        OptimisticRetry retry = new OptimisticRetry(10, 4, 50);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(retry.backoffMs(1) <= 4);
+            assertTrue(retry.backoffMs(3) <= 16);
+            assertTrue(retry.backoffMs(9) <= 50);
+            assertTrue(retry.backoffMs(40) <= 50);
+        }
+    }
+}
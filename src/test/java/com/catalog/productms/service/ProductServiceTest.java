@@ -1,24 +1,47 @@
 package com.catalog.productms.service;
 
+import com.catalog.productms.cache.ProductCache;
+import com.catalog.productms.cache.ProductCacheProperties;
 import com.catalog.productms.dto.ProductRequest;
 import com.catalog.productms.entity.Product;
 import com.catalog.productms.exception.ProductAlreadyExistsException;
 import com.catalog.productms.exception.ProductNotFoundException;
+import com.catalog.productms.exception.ProductVersionMismatchException;
 import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.search.CatalogSearchEngine;
+import com.catalog.productms.store.CatalogEntry;
+import com.catalog.productms.store.HeapCatalogStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +50,27 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry(), 5000);
+
+    @Spy
+    private HeapCatalogStore catalogStore = new HeapCatalogStore();
+
+    @Spy
+    private CatalogSearchEngine catalogSearchEngine = new CatalogSearchEngine(false, 1);
+
+    @Spy
+    private MissingProductCache missingProducts = new MissingProductCache(new SimpleMeterRegistry(), true, 60000, 100);
+
+    @Spy
+    private ProductCache productCache = new ProductCache(new ProductCacheProperties(), null, new SimpleMeterRegistry());
+
+    @Spy
+    private TotalCountCache totalCounts = counts(TotalCountCache.Strategy.EXACT, 1000);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -86,6 +130,20 @@ class ProductServiceTest {
         verify(productRepository, times(1)).save(any(Product.class));
     }
 
+    @Test
+    void updateProduct_ShouldPublishThePreviousState() {
+        when(productRepository.findById("123")).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        BigDecimal oldPrice = product.getPrice();
+
+        productService.updateProduct("123", new ProductRequest("Updated Product", "Updated Description", new BigDecimal("149.99")));
+
+        ArgumentCaptor<ProductChangedEvent> event = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(oldPrice, event.getValue().previous().getPrice());
+        assertEquals(new BigDecimal("149.99"), event.getValue().product().getPrice());
+    }
+
     @Test
     void updateProduct_WhenProductNotFound_ShouldThrowException() {
         when(productRepository.findById("999")).thenReturn(Optional.empty());
@@ -98,6 +156,30 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any(Product.class));
     }
 
+    @Test
+    void updateProduct_WhenVersionMatches_ShouldSave() {
+        product.setVersion(3L);
+        when(productRepository.findById("123")).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updateProduct("123", productRequest, Set.of(2L, 3L));
+
+        verify(productRepository, times(1)).save(product);
+    }
+
+    @Test
+    void updateProduct_WhenVersionDiffers_ShouldThrowWithoutSaving() {
+        product.setVersion(4L);
+        when(productRepository.findById("123")).thenReturn(Optional.of(product));
+
+        ProductVersionMismatchException ex = assertThrows(ProductVersionMismatchException.class,
+                () -> productService.updateProduct("123", productRequest, Set.of(3L)));
+
+        assertEquals(4L, ex.getCurrentVersion());
+        verify(productRepository, never()).save(any(Product.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     @Test
     void getProductById_WhenProductExists_ShouldReturnProduct() {
         when(productRepository.findById("123")).thenReturn(Optional.of(product));
@@ -121,6 +203,47 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById("999");
     }
 
+    @Test
+    void findProductById_WhenMissRepeats_ShouldQueryDatabaseOnce() {
+        when(productRepository.findById("999")).thenReturn(Optional.empty());
+
+        assertTrue(productService.findProductById("999").isEmpty());
+        assertTrue(productService.findProductById("999").isEmpty());
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductById("999"));
+
+        verify(productRepository, times(1)).findById("999");
+    }
+
+    @Test
+    void findProductById_WhenProductIsCreatedAfterMiss_ShouldQueryDatabaseAgain() {
+        when(productRepository.findById("123")).thenReturn(Optional.empty(), Optional.of(product));
+
+        assertTrue(productService.findProductById("123").isEmpty());
+        missingProducts.onProductChanged(ProductChangedEvent.upserted(product));
+
+        assertEquals("123", productService.findProductById("123").orElseThrow().getId());
+        verify(productRepository, times(2)).findById("123");
+    }
+
+    @Test
+    void findProductById_WhenNearCacheIsEnabled_ShouldServeRepeatedReadsFromMemory() {
+        ProductCacheProperties properties = new ProductCacheProperties();
+        properties.setMode(ProductCacheProperties.Mode.NEAR);
+        ProductCache nearCache = new ProductCache(properties, null, new SimpleMeterRegistry());
+        ProductService service = new ProductService(productRepository, singleFlight, catalogStore, catalogSearchEngine,
+                missingProducts, nearCache, totalCounts, eventPublisher);
+        when(productRepository.findById("123")).thenReturn(Optional.of(product));
+
+        service.findProductById("123");
+        Product result = service.findProductById("123").orElseThrow();
+        nearCache.onProductChanged(ProductChangedEvent.upserted(product));
+        service.findProductById("123");
+
+        assertEquals("Test Product", result.getName());
+        assertNotSame(product, result);
+        verify(productRepository, times(2)).findById("123");
+    }
+
     @Test
     void getAllProducts_ShouldReturnListOfProducts() {
         Product product2 = new Product();
@@ -186,5 +309,206 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findById("999");
         verify(productRepository, never()).delete(any(Product.class));
     }
-}
 
+    @Test
+    void getProductsByIds_ShouldReturnFoundProductsKeyedById() {
+        when(productRepository.findAllById(Arrays.asList("123", "999"))).thenReturn(List.of(product));
+
+        Map<String, Product> result = productService.getProductsByIds(Arrays.asList("123", "999"));
+
+        assertEquals(1, result.size());
+        assertSame(product, result.get("123"));
+        assertFalse(result.containsKey("999"));
+        verify(productRepository, times(1)).findAllById(anyIterable());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductsByIds_WithManyIds_ShouldQueryInChunks() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < ProductService.BULK_LOOKUP_CHUNK_SIZE * 2 + 1; i++) {
+            ids.add("id-" + i);
+        }
+        when(productRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+
+        Map<String, Product> result = productService.getProductsByIds(ids);
+
+        assertTrue(result.isEmpty());
+        verify(productRepository, times(3)).findAllById(anyIterable());
+    }
+
+    @Test
+    void getProductById_WhenCatalogStoreIsReady_ShouldNotQueryDatabase() {
+        catalogStore.upsert(CatalogEntry.of(product));
+        catalogStore.setReady(true);
+
+        Product result = productService.getProductById("123");
+
+        assertEquals(product.getName(), result.getName());
+        assertNotSame(product, result);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductsByIds_WhenCatalogStoreIsReady_ShouldOnlyQueryMisses() {
+        catalogStore.upsert(CatalogEntry.of(product));
+        catalogStore.setReady(true);
+        when(productRepository.findAllById(List.of("999"))).thenReturn(Collections.emptyList());
+
+        Map<String, Product> result = productService.getProductsByIds(Arrays.asList("123", "999"));
+
+        assertEquals(1, result.size());
+        assertEquals("Test Product", result.get("123").getName());
+        verify(productRepository, times(1)).findAllById(List.of("999"));
+    }
+
+    @Test
+    void getProductsByIds_ShouldSkipIdsRecentlyFoundMissing() {
+        when(productRepository.findAllById(Arrays.asList("123", "999"))).thenReturn(List.of(product));
+        when(productRepository.findAllById(List.of("123"))).thenReturn(List.of(product));
+
+        productService.getProductsByIds(Arrays.asList("123", "999"));
+        Map<String, Product> result = productService.getProductsByIds(Arrays.asList("123", "999"));
+
+        assertEquals(Set.of("123"), result.keySet());
+        verify(productRepository, times(1)).findAllById(List.of("123"));
+    }
+
+    @Test
+    void writes_ShouldPublishProductChangedEvents() {
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.findById("123")).thenReturn(Optional.of(product));
+
+        productService.createProduct(productRequest);
+        productService.deleteProduct("123");
+        productService.deleteAllProducts();
+
+        verify(eventPublisher).publishEvent(ProductChangedEvent.upserted(product));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(product));
+        verify(eventPublisher).publishEvent(ProductChangedEvent.cleared());
+    }
+
+    @Test
+    void searchProducts_WhenInMemorySearchIsEnabled_ShouldNotQueryDatabase() {
+        CatalogSearchEngine inMemory = new CatalogSearchEngine(true, 1);
+        ProductService service = new ProductService(productRepository, singleFlight, catalogStore, inMemory, missingProducts,
+                productCache, totalCounts, eventPublisher);
+        catalogStore.upsert(CatalogEntry.of(product));
+        catalogStore.setReady(true);
+
+        List<Product> result = service.searchProducts("test", new BigDecimal("50.00"), null);
+
+        assertEquals(1, result.size());
+        assertEquals("123", result.get(0).getId());
+        verify(productRepository, never()).searchProducts(any(), any(), any());
+        inMemory.close();
+    }
+
+    @Test
+    void getAllProducts_WithSortedPage_ShouldLoadIdPageThenRowsInOrder() {
+        Product cheaper = new Product();
+        cheaper.setId("456");
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("price", "id"));
+        when(productRepository.findPageIds(pageable)).thenReturn(new PageImpl<>(List.of("456", "123"), pageable, 5));
+        when(productRepository.findAllById(List.of("456", "123"))).thenReturn(List.of(product, cheaper));
+
+        Page<Product> result = productService.getAllProducts(pageable);
+
+        assertEquals(List.of("456", "123"), result.map(Product::getId).getContent());
+        assertEquals(5, result.getTotalElements());
+        verify(productRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void searchProducts_WhenSortIsNotHeldInMemory_ShouldQueryDatabase() {
+        CatalogSearchEngine inMemory = new CatalogSearchEngine(true, 1);
+        ProductService service = new ProductService(productRepository, singleFlight, catalogStore, inMemory, missingProducts,
+                productCache, totalCounts, eventPublisher);
+        catalogStore.upsert(CatalogEntry.of(product));
+        catalogStore.setReady(true);
+        Sort byCreatedAt = Sort.by("createdAt", "id");
+        when(productRepository.searchProducts("test", null, null, byCreatedAt)).thenReturn(List.of(product));
+
+        List<Product> result = service.searchProducts("test", null, null, byCreatedAt);
+
+        assertEquals(1, result.size());
+        verify(productRepository).searchProducts("test", null, null, byCreatedAt);
+        inMemory.close();
+    }
+
+    @Test
+    void searchProducts_WithCachedCounts_ShouldCountOncePerFilter() {
+        ProductService service = withCounts(counts(TotalCountCache.Strategy.CACHED, 1000));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("id"));
+        when(productRepository.searchSlice("test", null, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(productRepository.countMatching("test", null, null)).thenReturn(7L);
+
+        service.searchProducts("test", null, null, pageable);
+        Page<Product> result = service.searchProducts("test", null, null, pageable);
+
+        assertEquals(7, result.getTotalElements());
+        verify(productRepository, times(1)).countMatching("test", null, null);
+        verify(productRepository, never()).searchProducts(any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void getAllProducts_WithCachedCountsOnTheLastPage_ShouldNotCount() {
+        ProductService service = withCounts(counts(TotalCountCache.Strategy.CACHED, 1000));
+        Pageable pageable = PageRequest.of(2, 5, Sort.by("id"));
+        when(productRepository.findSlice(pageable)).thenReturn(new SliceImpl<>(List.of(product), pageable, false));
+
+        Page<Product> result = service.getAllProducts(pageable);
+
+        assertEquals(11, result.getTotalElements());
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    void searchProducts_WithEstimatedCounts_ShouldScaleTheMatchingShareOfASample() {
+        ProductService service = withCounts(counts(TotalCountCache.Strategy.ESTIMATED, 4));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("id"));
+        when(productRepository.searchSlice("test", null, null, pageable))
+                .thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(productRepository.count()).thenReturn(100L);
+        when(productRepository.findSample(anyString(), eq(PageRequest.of(0, 4))))
+                .thenReturn(List.of(product, other("1"), other("2"), other("3")));
+
+        Page<Product> result = service.searchProducts("test", null, null, pageable);
+
+        assertEquals(25, result.getTotalElements());
+        verify(productRepository, never()).countMatching(any(), any(), any());
+    }
+
+    @Test
+    void getAllProductsSlice_ShouldReadOneRowPastThePageWithoutCounting() {
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("price", "id"));
+        when(productRepository.findSliceIds(pageable)).thenReturn(new SliceImpl<>(List.of("123"), pageable, true));
+        when(productRepository.findAllById(List.of("123"))).thenReturn(List.of(product));
+
+        Slice<Product> result = productService.getAllProductsSlice(pageable);
+
+        assertEquals(List.of(product), result.getContent());
+        assertTrue(result.hasNext());
+        verify(productRepository, never()).count();
+        verify(productRepository, never()).findPageIds(any());
+    }
+
+    private ProductService withCounts(TotalCountCache counts) {
+        return new ProductService(productRepository, singleFlight, catalogStore, catalogSearchEngine, missingProducts,
+                productCache, counts, eventPublisher);
+    }
+
+    private static TotalCountCache counts(TotalCountCache.Strategy strategy, int sampleSize) {
+        return new TotalCountCache(new SimpleMeterRegistry(), strategy, 60000, 100, sampleSize, System::nanoTime);
+    }
+
+    private static Product other(String id) {
+        Product other = new Product();
+        other.setId(id);
+        other.setName("Other");
+        other.setDescription("Unrelated");
+        other.setPrice(BigDecimal.ONE);
+        return other;
+    }
+}
@@ -0,0 +1,176 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.exception.ProductNotFoundException;
+import com.catalog.productms.exception.SingleFlightTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry, 2000);
+    }
+
+    @Test
+    void execute_WithConcurrentIdenticalCalls_ShouldRunLoaderOnce() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute(SingleFlight.key("getProductById", "123"), () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "product";
+                })));
+            }
+            waitUntilCollapsed(callers - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("product", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("product.singleflight.calls").tag("result", "executed").counter().count());
+        assertEquals(callers - 1.0, meterRegistry.get("product.singleflight.calls").tag("result", "collapsed").counter().count());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_WithIdsDifferingOnlyInCase_ShouldNotShareAFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> upper = executor.submit(() -> singleFlight.execute(SingleFlight.key("getProductById", "ABC"), () -> {
+                await(release);
+                return "ABC";
+            }));
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // Runs its own load on this thread instead of waiting for the one in flight
+            assertEquals("abc", singleFlight.execute(SingleFlight.key("getProductById", "abc"), () -> "abc"));
+            release.countDown();
+            assertEquals("ABC", upper.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0.0, meterRegistry.get("product.singleflight.calls").tag("result", "collapsed").counter().count());
+    }
+
+    @Test
+    void execute_WhenLoaderFails_ShouldPropagateSameExceptionToWaiters() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ProductNotFoundException failure = new ProductNotFoundException("999");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> leader = executor.submit(() -> singleFlight.execute(SingleFlight.key("getProductById", "999"), () -> {
+                await(release);
+                throw failure;
+            }));
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+            Future<Object> follower = executor.submit(() -> singleFlight.execute(SingleFlight.key("getProductById", "999"), () -> "unused"));
+            waitUntilCollapsed(1);
+            release.countDown();
+
+            ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertSame(failure, leaderError.getCause());
+            assertSame(failure, followerError.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void execute_WhenLeaderIsTooSlow_ShouldTimeOutWaiter() throws Exception {
+        singleFlight = new SingleFlight(meterRegistry, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> singleFlight.execute(SingleFlight.key("getAllProducts"), () -> {
+                await(release);
+                return "slow";
+            }));
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(SingleFlightTimeoutException.class,
+                    () -> singleFlight.execute(SingleFlight.key("getAllProducts"), () -> "unused"));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(1.0, meterRegistry.get("product.singleflight.calls").tag("result", "timeout").counter().count());
+    }
+
+    @Test
+    void execute_WithSequentialCalls_ShouldNotCacheResults() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute(SingleFlight.key("getProductById", "1"), loads::incrementAndGet);
+        singleFlight.execute(SingleFlight.key("getProductById", "1"), loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void key_ShouldNormalizeEquivalentParameters() {
+        assertEquals(
+                SingleFlight.key("search", "iphone", new BigDecimal("100.00"), null, PageRequest.of(0, 20)),
+                SingleFlight.key("search", "iphone", new BigDecimal("100"), null, PageRequest.of(0, 20)));
+        assertNotEquals(
+                SingleFlight.key("search", "iphone", null, null, PageRequest.of(0, 20)),
+                SingleFlight.key("search", "iphone", null, null, PageRequest.of(1, 20)));
+        assertNotEquals(SingleFlight.key("a", "1"), SingleFlight.key("b", "1"));
+    }
+
+    private void waitUntilCollapsed(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("product.singleflight.calls").tag("result", "collapsed").counter().count() < expected) {
+            if (System.nanoTime() > deadline) {
+                fail("Callers were not collapsed in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
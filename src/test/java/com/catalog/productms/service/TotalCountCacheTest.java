@@ -0,0 +1,120 @@
+package com.catalog.productms.service;
+
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TotalCountCacheTest {
+
+    private static final CountKey LAPTOPS = CountKey.of("laptop", null, null);
+    private static final CountKey CHEAP = CountKey.of(null, null, new BigDecimal("20"));
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger counts = new AtomicInteger();
+    private final TotalCountCache cache = new TotalCountCache(new SimpleMeterRegistry(), TotalCountCache.Strategy.CACHED,
+            1000, 100, 1000, nanos::get);
+
+    @Test
+    void total_ShouldReuseTheCountForTheTtl() {
+        assertEquals(5, cache.total(LAPTOPS, this::count));
+        assertEquals(5, cache.total(CountKey.of("LAPTOP", null, null), this::count));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1001));
+
+        assertEquals(5, cache.total(LAPTOPS, this::count));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    void keys_ShouldIgnoreCaseAndPriceScale() {
+        assertEquals(CountKey.of("Laptop", new BigDecimal("10.00"), null), CountKey.of("laptop", BigDecimal.TEN, null));
+        assertFalse(CountKey.ALL.isFiltered());
+        assertTrue(CHEAP.isFiltered());
+    }
+
+    @Test
+    void onProductChanged_ShouldOnlyDropTotalsWhoseMembershipChanges() {
+        cache.total(LAPTOPS, this::count);
+        cache.total(CHEAP, this::count);
+        cache.total(CountKey.ALL, this::count);
+        Product mouse = product("1", "Mouse", "10.00");
+
+        // Stays a cheap non-laptop, and the row count is unchanged
+        cache.onProductChanged(ProductChangedEvent.updated(mouse, product("1", "Wireless mouse", "15.00")));
+        assertEquals(3, cache.size());
+
+        // Leaves the cheap filter
+        cache.onProductChanged(ProductChangedEvent.updated(mouse, product("1", "Mouse", "25.00")));
+        assertEquals(2, cache.size());
+
+        // A new laptop changes the laptop total and the row count
+        cache.onProductChanged(ProductChangedEvent.upserted(product("2", "Laptop", "999.00")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void onProductChanged_WhenCleared_ShouldDropEveryTotal() {
+        cache.total(LAPTOPS, this::count);
+        cache.total(CHEAP, this::count);
+
+        cache.onProductChanged(ProductChangedEvent.cleared());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateTenant_ShouldOnlyDropThatTenantsTotals() {
+        cache.total(LAPTOPS, this::count);
+        TenantContext.callAs("acme", () -> cache.total(LAPTOPS, this::count));
+
+        cache.invalidateTenant("acme");
+
+        assertEquals(1, cache.size());
+        assertEquals(5, cache.total(LAPTOPS, this::count));
+        assertEquals(2, counts.get());
+    }
+
+    @Test
+    void total_WhenAWriteCommitsWhileCounting_ShouldNotKeepTheCount() {
+        long total = cache.total(LAPTOPS, () -> {
+            cache.onProductChanged(ProductChangedEvent.upserted(product("2", "Laptop", "999.00")));
+            return count();
+        });
+
+        assertEquals(5, total);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void total_WhenFull_ShouldNotStoreMoreKeys() {
+        TotalCountCache small = new TotalCountCache(new SimpleMeterRegistry(), TotalCountCache.Strategy.CACHED,
+                1000, 1, 1000, nanos::get);
+
+        small.total(LAPTOPS, this::count);
+        small.total(CHEAP, this::count);
+
+        assertEquals(1, small.size());
+    }
+
+    private long count() {
+        counts.incrementAndGet();
+        return 5;
+    }
+
+    private static Product product(String id, String name, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(name);
+        product.setPrice(new BigDecimal(price));
+        return product;
+    }
+}
@@ -0,0 +1,68 @@
+package com.catalog.productms.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 30_000;
+
+    @Test
+    void shardFor_ShouldSpreadIdsEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.shardFor(id(i)), 1, Integer::sum);
+        }
+
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > KEYS / 3 * 0.8 && count < KEYS / 3 * 1.2, counts.toString()));
+    }
+
+    @Test
+    void shardFor_WhenShardIsAdded_ShouldOnlyMoveIdsToTheNewShard() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "b", "c", "d"), 128);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String from = before.shardFor(id(i));
+            String to = after.shardFor(id(i));
+            if (!from.equals(to)) {
+                assertEquals("d", to);
+                moved++;
+            }
+        }
+
+        // About a quarter of the ids now belong to the fourth shard
+        assertTrue(moved > KEYS * 0.18 && moved < KEYS * 0.32, "moved " + moved);
+    }
+
+    @Test
+    void shardFor_ShouldNotDependOnShardOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("c", "a", "b"), 64);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.shardFor(id(i)), reordered.shardFor(id(i)));
+        }
+    }
+
+    @Test
+    void constructor_ShouldRejectDuplicateOrMissingShards() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a", "a"), 16));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of("a"), 0));
+    }
+
+    private static String id(int i) {
+        return UUID.nameUUIDFromBytes(Integer.toString(i).getBytes()).toString();
+    }
+}
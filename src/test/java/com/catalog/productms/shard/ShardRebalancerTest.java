@@ -0,0 +1,109 @@
+package com.catalog.productms.shard;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRebalancerTest {
+
+    private static final int ROWS = 300;
+
+    private final Map<String, DataSource> shards = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("a", "b", "c")) {
+            DataSource dataSource = new DriverManagerDataSource(
+                    "jdbc:h2:mem:rebalance-" + name + "-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+            Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/h2").load().migrate();
+            shards.put(name, dataSource);
+        }
+        // Rows placed while the catalog had two shards
+        ConsistentHashRing twoShards = new ConsistentHashRing(List.of("a", "b"), 128);
+        for (int i = 0; i < ROWS; i++) {
+            String id = UUID.nameUUIDFromBytes(Integer.toString(i).getBytes()).toString();
+            jdbc(twoShards.shardFor(id)).update(
+                    "INSERT INTO products (id, name, description, price, change_seq) VALUES (?, ?, ?, ?, ?)",
+                    id, "product-" + i, "description " + i, 10 + i, i);
+        }
+    }
+
+    @Test
+    void plan_ShouldCountMisplacedRowsWithoutMovingThem() {
+        ShardRebalancer rebalancer = new ShardRebalancer(shards, threeShards(), 50);
+
+        RebalanceReport report = rebalancer.plan();
+
+        assertEquals(ROWS, report.rows().values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(0L, report.rows().get("c"));
+        assertEquals(Map.of("a -> c", misplaced("a"), "b -> c", misplaced("b")), report.misplaced());
+        assertEquals(0, report.moved());
+        assertEquals(0, count("c"));
+    }
+
+    @Test
+    void rebalance_ShouldMoveEveryRowToItsShard() {
+        ConsistentHashRing ring = threeShards();
+        ShardRebalancer rebalancer = new ShardRebalancer(shards, ring, 50);
+        long expectedMoves = misplaced("a") + misplaced("b");
+
+        RebalanceReport report = rebalancer.rebalance();
+
+        assertTrue(expectedMoves > 0);
+        assertEquals(expectedMoves, report.moved());
+        assertEquals(ROWS, count("a") + count("b") + count("c"));
+        for (String shard : shards.keySet()) {
+            jdbc(shard).queryForList("SELECT id FROM products", String.class)
+                    .forEach(id -> assertEquals(shard, ring.shardFor(id)));
+        }
+        assertEquals(Map.of(), rebalancer.plan().misplaced());
+        assertEquals(1, jdbc(ring.shardFor(UUID.nameUUIDFromBytes("7".getBytes()).toString())).queryForObject(
+                "SELECT COUNT(*) FROM products WHERE name = 'product-7' AND change_seq = 7", Integer.class));
+    }
+
+    @Test
+    void rebalance_WhenRowWasAlreadyCopied_ShouldStillRemoveItFromTheSource() {
+        ConsistentHashRing ring = threeShards();
+        String misplacedId = jdbc("a").queryForList("SELECT id FROM products", String.class).stream()
+                .filter(id -> ring.shardFor(id).equals("c"))
+                .findFirst()
+                .orElseThrow();
+        // A previous run copied the row and stopped before deleting it
+        jdbc("c").update("INSERT INTO products (id, name, description, price) VALUES (?, 'copied', 'copied', 1)", misplacedId);
+
+        new ShardRebalancer(shards, ring, 50).rebalance();
+
+        assertEquals(0, jdbc("a").queryForObject("SELECT COUNT(*) FROM products WHERE id = ?", Integer.class, misplacedId));
+        assertEquals(1, jdbc("c").queryForObject("SELECT COUNT(*) FROM products WHERE id = ?", Integer.class, misplacedId));
+        assertEquals(ROWS, count("a") + count("b") + count("c"));
+    }
+
+    private ConsistentHashRing threeShards() {
+        return new ConsistentHashRing(List.of("a", "b", "c"), 128);
+    }
+
+    private long misplaced(String shard) {
+        ConsistentHashRing ring = threeShards();
+        return jdbc(shard).queryForList("SELECT id FROM products", String.class).stream()
+                .filter(id -> !ring.shardFor(id).equals(shard))
+                .count();
+    }
+
+    private long count(String shard) {
+        return jdbc(shard).queryForObject("SELECT COUNT(*) FROM products", Long.class);
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(shards.get(shard));
+    }
+}
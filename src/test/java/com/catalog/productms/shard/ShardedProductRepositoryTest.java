@@ -0,0 +1,173 @@
+package com.catalog.productms.shard;
+
+import com.catalog.productms.dto.ProductRequest;
+import com.catalog.productms.entity.Product;
+import com.catalog.productms.exception.ProductAlreadyExistsException;
+import com.catalog.productms.exception.ProductNotFoundException;
+import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three H2 databases behind the sharded repository, driven through ProductService.
+ */
+@SpringBootTest(properties = {
+        "product.sharding.enabled=true",
+        "product.sharding.virtual-nodes=64",
+        "product.sharding.shards[0].name=shard-a",
+        "product.sharding.shards[0].url=jdbc:h2:mem:shard-a-${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "product.sharding.shards[1].name=shard-b",
+        "product.sharding.shards[1].url=jdbc:h2:mem:shard-b-${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "product.sharding.shards[2].name=shard-c",
+        "product.sharding.shards[2].url=jdbc:h2:mem:shard-c-${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+class ShardedProductRepositoryTest {
+
+    private static final Comparator<Product> BY_PRICE =
+            Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShardTopology topology;
+
+    @BeforeEach
+    void setUp() {
+        productService.deleteAllProducts();
+    }
+
+    @Test
+    void createProduct_ShouldStoreEachProductOnlyOnItsShard() {
+        List<Product> created = createProducts(30);
+
+        Map<String, Set<String>> idsByShard = topology.ring().shards().stream()
+                .collect(Collectors.toMap(shard -> shard, shard -> Set.copyOf(
+                        jdbc(shard).queryForList("SELECT id FROM products", String.class))));
+
+        for (Product product : created) {
+            String owner = topology.ring().shardFor(product.getId());
+            idsByShard.forEach((shard, ids) -> assertEquals(shard.equals(owner), ids.contains(product.getId())));
+        }
+        assertTrue(idsByShard.values().stream().filter(ids -> !ids.isEmpty()).count() >= 2, idsByShard.toString());
+        assertEquals(30, productRepository.count());
+    }
+
+    @Test
+    void createProduct_WhenDuplicateIsOnAnotherShard_ShouldThrow() {
+        createProducts(5);
+
+        assertThrows(ProductAlreadyExistsException.class,
+                () -> productService.createProduct(request(3, BigDecimal.ONE)));
+    }
+
+    @Test
+    void getAllProducts_ShouldCutPagesFromTheMergedOrder() {
+        List<Product> created = createProducts(30);
+
+        Page<Product> byPrice = productService.getAllProducts(PageRequest.of(2, 7, Sort.by(Sort.Direction.ASC, "price", "id")));
+        Page<Product> byNameDesc = productService.getAllProducts(PageRequest.of(1, 10, Sort.by(Sort.Direction.DESC, "name", "id")));
+        Page<Product> byId = productService.getAllProducts(PageRequest.of(3, 8, Sort.by("id")));
+
+        assertEquals(ids(created.stream().sorted(BY_PRICE).toList().subList(14, 21)), ids(byPrice.getContent()));
+        assertEquals(30, byPrice.getTotalElements());
+        assertEquals(5, byPrice.getTotalPages());
+        assertEquals(ids(created.stream().sorted(Comparator.comparing(Product::getName).reversed()).toList().subList(10, 20)),
+                ids(byNameDesc.getContent()));
+        assertEquals(created.stream().map(Product::getId).sorted().toList().subList(24, 30), ids(byId.getContent()));
+        assertEquals(ids(created.stream().sorted(BY_PRICE).toList()),
+                ids(productService.getAllProducts(Sort.by("price", "id"))));
+    }
+
+    @Test
+    void searchProducts_ShouldFilterAndPageAcrossShards() {
+        List<Product> created = createProducts(30);
+        // product-01, product-10 .. product-19, product-21
+        List<Product> matches = created.stream()
+                .filter(product -> product.getName().contains("1"))
+                .filter(product -> product.getPrice().compareTo(new BigDecimal("11.00")) >= 0)
+                .sorted(BY_PRICE.reversed())
+                .toList();
+
+        Page<Product> page = productService.searchProducts("1", new BigDecimal("11.00"), null,
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "price", "id")));
+
+        assertEquals(matches.size(), page.getTotalElements());
+        assertEquals(ids(matches.subList(3, 6)), ids(page.getContent()));
+    }
+
+    @Test
+    void slicesAndCounts_ShouldMergeAcrossShards() {
+        List<Product> created = createProducts(30);
+        List<String> byPrice = ids(created.stream().sorted(BY_PRICE).toList());
+
+        Slice<Product> middle = productRepository.findSlice(PageRequest.of(1, 7, Sort.by("price", "id")));
+        Slice<Product> last = productRepository.findSlice(PageRequest.of(4, 7, Sort.by("price", "id")));
+
+        assertEquals(byPrice.subList(7, 14), ids(middle.getContent()));
+        assertTrue(middle.hasNext());
+        assertEquals(byPrice.subList(28, 30), ids(last.getContent()));
+        assertFalse(last.hasNext());
+        assertEquals(12, productRepository.countMatching("1", null, null));
+        assertEquals(30, productRepository.findSample("", PageRequest.of(0, 30)).size());
+    }
+
+    @Test
+    void idOperations_ShouldRunOnTheOwningShard() {
+        List<Product> created = createProducts(10);
+        String id = created.get(3).getId();
+
+        assertEquals(Set.copyOf(ids(created)), productService.getProductsByIds(ids(created)).keySet());
+
+        productService.updateProduct(id, new ProductRequest("renamed", "renamed description", new BigDecimal("42.00")));
+        assertEquals("renamed", productService.getProductById(id).getName());
+        assertEquals(1, jdbc(topology.ring().shardFor(id)).queryForObject(
+                "SELECT COUNT(*) FROM products WHERE name = 'renamed'", Integer.class));
+
+        productService.deleteProduct(id);
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductById(id));
+        assertEquals(9, productRepository.count());
+    }
+
+    private List<Product> createProducts(int count) {
+        List<Product> created = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Prices repeat so that ties are broken by id
+            created.add(productService.createProduct(request(i, BigDecimal.valueOf(10 + i % 7).setScale(2))));
+        }
+        return created;
+    }
+
+    private static ProductRequest request(int i, BigDecimal price) {
+        return new ProductRequest("product-%02d".formatted(i), "description " + i, price);
+    }
+
+    private static List<String> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(topology.dataSources().get(shard));
+    }
+}
@@ -0,0 +1,100 @@
+package com.catalog.productms.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotFileTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long MAX_AGE = 60_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writeThenRead_ShouldRestoreEntriesAndHeader() throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        List<CatalogEntry> entries = new ArrayList<>();
+        entries.add(new CatalogEntry("1", "Café ☕", "Unicode – text", new BigDecimal("10.50"), 11));
+        entries.add(new CatalogEntry("2", "Long", "x".repeat(10_000), new BigDecimal("99999999.99"), 12));
+        for (int i = 0; i < 5000; i++) {
+            entries.add(new CatalogEntry("id-" + i, "Product " + i, "Description " + i, BigDecimal.valueOf(i + 1, 2), i));
+        }
+
+        CatalogSnapshotFile.write(path, entries, 42, NOW);
+        CatalogSnapshotFile.Snapshot snapshot = CatalogSnapshotFile.read(path, MAX_AGE, NOW + 1000);
+
+        assertEquals(entries, snapshot.entries());
+        assertEquals(42, snapshot.watermark());
+        assertEquals(NOW, snapshot.createdAtMillis());
+        assertFalse(Files.exists(dir.resolve("catalog.snapshot.tmp")));
+    }
+
+    @Test
+    void read_WhenPayloadIsCorrupted_ShouldFailChecksum() throws IOException {
+        Path path = writeSample();
+        flipByte(path, Files.size(path) - 3);
+
+        InvalidSnapshotException ex = assertThrows(InvalidSnapshotException.class,
+                () -> CatalogSnapshotFile.read(path, MAX_AGE, NOW));
+        assertEquals("checksum mismatch", ex.getMessage());
+    }
+
+    @Test
+    void read_WhenFormatVersionDiffers_ShouldReject() throws IOException {
+        Path path = writeSample();
+        flipByte(path, 7);
+
+        InvalidSnapshotException ex = assertThrows(InvalidSnapshotException.class,
+                () -> CatalogSnapshotFile.read(path, MAX_AGE, NOW));
+        assertTrue(ex.getMessage().startsWith("format version"));
+    }
+
+    @Test
+    void read_WhenTooOld_ShouldReject() throws IOException {
+        Path path = writeSample();
+
+        assertThrows(InvalidSnapshotException.class, () -> CatalogSnapshotFile.read(path, MAX_AGE, NOW + MAX_AGE + 1));
+    }
+
+    @Test
+    void read_WhenTruncatedOrForeign_ShouldReject() throws IOException {
+        Path path = writeSample();
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+        assertEquals("file is truncated",
+                assertThrows(InvalidSnapshotException.class, () -> CatalogSnapshotFile.read(path, MAX_AGE, NOW)).getMessage());
+
+        Files.writeString(path, "id,name,description,price\n".repeat(3));
+        assertEquals("not a catalog snapshot",
+                assertThrows(InvalidSnapshotException.class, () -> CatalogSnapshotFile.read(path, MAX_AGE, NOW)).getMessage());
+    }
+
+    private Path writeSample() throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(path, List.of(
+                new CatalogEntry("1", "First", "Description", new BigDecimal("1.00"), 1),
+                new CatalogEntry("2", "Second", "Description", new BigDecimal("2.00"), 2)), 2, NOW);
+        return path;
+    }
+
+    private static void flipByte(Path path, long position) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(position);
+            int value = file.read();
+            file.seek(position);
+            file.write(value ^ 0xFF);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.catalog.productms.store;
+
+import com.catalog.productms.service.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogSnapshotServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path dir;
+
+    private CatalogSnapshotProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM products");
+        properties = new CatalogSnapshotProperties();
+        properties.setPath(dir.resolve("catalog.snapshot").toString());
+        properties.setReconcileIntervalMs(0);
+        properties.setCatchUpOverlapMs(0);
+    }
+
+    @Test
+    void refresh_WithoutSnapshot_ShouldLoadTheWholeTable() {
+        insert("a", "First", 100);
+        insert("b", "Second", 200);
+        HeapCatalogStore store = new HeapCatalogStore();
+        CatalogSnapshotService service = service(store);
+
+        service.loadSnapshot();
+        assertFalse(store.isReady());
+        service.refresh();
+
+        assertTrue(store.isReady());
+        assertEquals(2, store.size());
+        assertEquals(200, service.getWatermark());
+    }
+
+    @Test
+    void restart_ShouldServeSnapshotImmediatelyThenCatchUpOnTheDelta() throws IOException {
+        insert("a", "First", 100);
+        insert("b", "Second", 200);
+        CatalogSnapshotService first = service(new HeapCatalogStore());
+        first.refresh();
+        first.writeSnapshot();
+
+        // Changes made while this instance was down
+        jdbcTemplate.update("UPDATE products SET name = 'First v2', change_seq = 300 WHERE id = 'a'");
+        jdbcTemplate.update("DELETE FROM products WHERE id = 'b'");
+        insert("c", "Third", 400);
+
+        HeapCatalogStore store = new HeapCatalogStore();
+        CatalogSnapshotService restarted = service(store);
+        restarted.loadSnapshot();
+
+        assertTrue(store.isReady());
+        assertEquals("First", store.get("a").name());
+        assertNotNull(store.get("b"));
+
+        restarted.refresh();
+
+        assertEquals("First v2", store.get("a").name());
+        assertNull(store.get("b"));
+        assertEquals("Third", store.get("c").name());
+        assertEquals(400, restarted.getWatermark());
+    }
+
+    @Test
+    void refresh_WhenSnapshotIsAheadOfDatabase_ShouldReloadFromDatabase() throws IOException {
+        insert("a", "First", 100);
+        insert("b", "Second", 500);
+        CatalogSnapshotService first = service(new HeapCatalogStore());
+        first.refresh();
+        first.writeSnapshot();
+
+        // Database restored from an older backup
+        jdbcTemplate.update("DELETE FROM products");
+        insert("a", "First (restored)", 100);
+
+        HeapCatalogStore store = new HeapCatalogStore();
+        CatalogSnapshotService restarted = service(store);
+        restarted.loadSnapshot();
+        restarted.refresh();
+
+        assertEquals(1, store.size());
+        assertEquals("First (restored)", store.get("a").name());
+        assertEquals(100, restarted.getWatermark());
+    }
+
+    @Test
+    void onProductChanged_ShouldApplyLocalWrites() {
+        HeapCatalogStore store = new HeapCatalogStore();
+        CatalogSnapshotService service = service(store);
+        CatalogEntry entry = new CatalogEntry("a", "First", "Description", new BigDecimal("1.00"), 10);
+
+        service.onProductChanged(ProductChangedEvent.upserted(entry.toProduct()));
+        assertEquals(entry, store.get("a"));
+
+        service.onProductChanged(ProductChangedEvent.deleted("a"));
+        assertNull(store.get("a"));
+    }
+
+    private CatalogSnapshotService service(CatalogStore store) {
+        return new CatalogSnapshotService(store, jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+                properties, new SimpleMeterRegistry(), Clock.systemUTC());
+    }
+
+    private void insert(String id, String name, long changeSeq) {
+        jdbcTemplate.update("INSERT INTO products (id, name, description, price, change_seq) VALUES (?, ?, ?, ?, ?)",
+                id, name, "Description", new BigDecimal("10.00"), changeSeq);
+    }
+}
@@ -0,0 +1,124 @@
+package com.catalog.productms.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogStoreTest {
+
+    static Stream<Supplier<CatalogStore>> stores() {
+        return Stream.of(HeapCatalogStore::new, () -> new OffHeapCatalogStore(64, 16));
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void upsert_ShouldKeepTheNewerEntry(Supplier<CatalogStore> factory) {
+        CatalogStore store = factory.get();
+
+        store.upsert(entry("a", "First", 10));
+        store.upsert(entry("a", "Second", 20));
+        store.upsert(entry("a", "Stale", 15));
+
+        assertEquals(entry("a", "Second", 20), store.get("a"));
+        assertEquals(1, store.size());
+        assertNull(store.get("missing"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void store_ShouldSurviveGrowthUpdatesAndDeletes(Supplier<CatalogStore> factory) {
+        CatalogStore store = factory.get();
+        int count = 5000;
+        for (int i = 0; i < count; i++) {
+            store.upsert(entry("id-" + i, "Product " + i, i));
+        }
+        for (int i = 0; i < count; i += 2) {
+            store.upsert(entry("id-" + i, "Product " + i + " v2 ☕", count + i));
+        }
+        for (int i = 0; i < count; i += 5) {
+            store.remove("id-" + i);
+        }
+        // Re-insert a deleted id to reuse a deleted slot
+        store.upsert(entry("id-0", "Back", 99_999));
+
+        assertEquals(count - count / 5 + 1, store.size());
+        assertEquals("Back", store.get("id-0").name());
+        assertNull(store.get("id-5"));
+        assertEquals("Product 2 v2 ☕", store.get("id-2").name());
+        assertEquals("Product 3", store.get("id-3").name());
+        assertEquals(store.size(), store.entries().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void retainAllAndClear_ShouldDropEntries(Supplier<CatalogStore> factory) {
+        CatalogStore store = factory.get();
+        for (int i = 0; i < 100; i++) {
+            store.upsert(entry("id-" + i, "Product " + i, i));
+        }
+        Set<String> keep = new HashSet<>(List.of("id-1", "id-50", "unknown"));
+
+        store.retainAll(keep);
+
+        assertEquals(List.of("id-1", "id-50"),
+                store.entries().stream().map(CatalogEntry::id).sorted(Comparator.naturalOrder()).toList());
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertTrue(store.entries().isEmpty());
+        store.upsert(entry("x", "After clear", 1));
+        assertEquals("After clear", store.get("x").name());
+    }
+
+    @ParameterizedTest
+    @MethodSource("stores")
+    void scan_ShouldOnlyReturnEntriesTheFilterAccepts(Supplier<CatalogStore> factory) {
+        CatalogStore store = factory.get();
+        for (int i = 0; i < 100; i++) {
+            store.upsert(entry("id-" + i, i % 10 == 0 ? "Café ☕ " + i : "Product " + i, i));
+        }
+        store.remove("id-10");
+        EntryFilter coffee = (priceCents, name, description) ->
+                priceCents == 1999 && name.toString().startsWith("Café ☕") && description.toString().startsWith("Description");
+
+        List<String> matches = store.scan(scan -> {
+            List<String> ids = new ArrayList<>();
+            for (int position = 0; position < scan.positions(); position++) {
+                CatalogEntry match = scan.match(position, coffee);
+                if (match != null) {
+                    ids.add(match.id());
+                }
+            }
+            return ids;
+        });
+
+        assertEquals(List.of("id-0", "id-20", "id-30", "id-40", "id-50", "id-60", "id-70", "id-80", "id-90"),
+                matches.stream().sorted(Comparator.comparingInt(id -> Integer.parseInt(id.substring(3)))).toList());
+    }
+
+    @Test
+    void offHeapStore_ShouldEncodePricesAsCents() {
+        try (OffHeapCatalogStore store = new OffHeapCatalogStore()) {
+            store.upsert(new CatalogEntry("a", "Name", "Description", new BigDecimal("10.5"), 1));
+
+            assertEquals(new BigDecimal("10.50"), store.get("a").price());
+            assertEquals(1050, store.get("a").priceCents());
+            assertTrue(store.offHeapBytes() > 0);
+        }
+    }
+
+    private static CatalogEntry entry(String id, String name, long changeSeq) {
+        return new CatalogEntry(id, name, "Description of " + id, new BigDecimal("19.99"), changeSeq);
+    }
+}
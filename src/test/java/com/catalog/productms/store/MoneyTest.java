@@ -0,0 +1,35 @@
+package com.catalog.productms.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void toCents_ShouldBeExact() {
+        assertEquals(1050, Money.toCents(new BigDecimal("10.5")));
+        assertEquals(9_999_999_999L, Money.toCents(new BigDecimal("99999999.99")));
+        assertEquals(1050, Money.toCents(1050, 2));
+        assertEquals(1050, Money.toCents(105, 1));
+        assertThrows(ArithmeticException.class, () -> Money.toCents(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void toPrice_ShouldAlwaysHaveScaleTwo() {
+        assertEquals(new BigDecimal("10.50"), Money.toPrice(1050));
+        assertEquals("100.00", Money.toPrice(Money.toCents(new BigDecimal("100"))).toString());
+    }
+
+    @Test
+    void bounds_ShouldRoundInwards() {
+        assertEquals(1001, Money.ceilCents(new BigDecimal("10.001")));
+        assertEquals(1000, Money.floorCents(new BigDecimal("10.009")));
+        assertEquals(-1000, Money.ceilCents(new BigDecimal("-10.009")));
+        assertEquals(1000, Money.ceilCents(BigDecimal.TEN));
+        assertEquals(Long.MAX_VALUE, Money.floorCents(new BigDecimal("1e30")));
+        assertEquals(Long.MIN_VALUE, Money.ceilCents(new BigDecimal("-1e30")));
+    }
+}
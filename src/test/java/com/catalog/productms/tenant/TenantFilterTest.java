@@ -0,0 +1,73 @@
+package com.catalog.productms.tenant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantFilterTest {
+
+    private TenancyProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TenancyProperties();
+        properties.setEnabled(true);
+    }
+
+    @Test
+    void doFilter_ShouldBindTheTenantForTheRequestOnly() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.addHeader("X-Tenant-Id", "acme");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter().doFilter(request, response, (req, res) -> seen.set(TenantContext.current()));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("acme", seen.get());
+        assertFalse(TenantContext.isBound());
+        assertEquals(TenantContext.DEFAULT, TenantContext.current());
+    }
+
+    @Test
+    void doFilter_WhenHeaderIsMissing_ShouldReturn400() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter().doFilter(new MockHttpServletRequest("GET", "/products"), response, failingChain());
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString().contains("Missing X-Tenant-Id header"));
+    }
+
+    @Test
+    void doFilter_WhenTenantIsMalformedOrNotConfigured_ShouldReturn400() throws Exception {
+        properties.setTenants(List.of("acme", "globex"));
+
+        for (String tenant : List.of("initech", "acme;drop", "x".repeat(65))) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products/1");
+            request.addHeader("X-Tenant-Id", tenant);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+
+            filter().doFilter(request, response, failingChain());
+
+            assertEquals(400, response.getStatus(), tenant);
+            assertTrue(response.getContentAsString().contains("\"status_code\":400"), tenant);
+        }
+    }
+
+    private TenantFilter filter() {
+        return new TenantFilter(properties, new ObjectMapper());
+    }
+
+    private static FilterChain failingChain() {
+        return (req, res) -> fail("request should not reach the chain");
+    }
+}
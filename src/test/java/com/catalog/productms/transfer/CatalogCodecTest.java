@@ -0,0 +1,113 @@
+package com.catalog.productms.transfer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogCodecTest {
+
+    @ParameterizedTest
+    @EnumSource(CatalogFormat.class)
+    void roundTrip_ShouldPreserveEveryRow(CatalogFormat format) throws IOException {
+        List<CatalogRow> rows = new ArrayList<>();
+        rows.add(new CatalogRow("1", "Plain", "Simple description", new BigDecimal("10.00")));
+        rows.add(new CatalogRow("2", "Comma, \"quoted\"", "Line one\r\nline two", new BigDecimal("0.01")));
+        rows.add(new CatalogRow("3", "Café ☕", "Unicode – text", new BigDecimal("99999999.99")));
+        // Enough rows to span several columnar row groups
+        for (int i = 0; i < ColumnarCatalogWriter.ROW_GROUP_SIZE * 2 + 7; i++) {
+            rows.add(new CatalogRow("id-" + i, "Product " + i, "Description " + i, BigDecimal.valueOf(i + 1, 2)));
+        }
+
+        List<CatalogRow> read = readAll(format, write(format, rows));
+
+        assertEquals(rows, read);
+    }
+
+    @Test
+    void csvReader_ShouldMapColumnsByHeaderAndTreatIdAsOptional() throws IOException {
+        String csv = "\uFEFFprice,name,description\n12.50,Keyboard,Mechanical\n\n";
+
+        List<CatalogRow> rows = readAll(CatalogFormat.CSV, csv.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(List.of(new CatalogRow(null, "Keyboard", "Mechanical", new BigDecimal("12.50"))), rows);
+    }
+
+    @Test
+    void csvReader_WhenPriceIsInvalid_ShouldReportRowAndContinue() throws IOException {
+        String csv = "id,name,description,price\n1,A,a,abc\n2,B,b,2.00\n";
+        CatalogRowReader reader = CatalogRowReader.create(CatalogFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        InvalidCatalogRowException ex = assertThrows(InvalidCatalogRowException.class, reader::next);
+        assertEquals(1, ex.getRowNumber());
+        assertEquals("2", reader.next().id());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csvReader_WhenHeaderIsMissingColumn_ShouldRejectFile() {
+        byte[] csv = "id,name,price\n".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(InvalidCatalogFileException.class,
+                () -> CatalogRowReader.create(CatalogFormat.CSV, new ByteArrayInputStream(csv)));
+    }
+
+    @Test
+    void columnarReader_WhenMagicIsWrong_ShouldRejectFile() {
+        byte[] data = "id,name,description,price\n".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(InvalidCatalogFileException.class,
+                () -> CatalogRowReader.create(CatalogFormat.COLUMNAR, new ByteArrayInputStream(data)));
+    }
+
+    @Test
+    void columnarReader_WhenTruncated_ShouldRejectFile() throws IOException {
+        byte[] full = write(CatalogFormat.COLUMNAR, List.of(new CatalogRow("1", "A", "a", BigDecimal.ONE)));
+        byte[] truncated = Arrays.copyOf(full, full.length - 6);
+        CatalogRowReader reader = CatalogRowReader.create(CatalogFormat.COLUMNAR, new ByteArrayInputStream(truncated));
+
+        assertThrows(InvalidCatalogFileException.class, reader::next);
+    }
+
+    @Test
+    void toCents_WhenPriceHasMoreThanTwoDecimals_ShouldFail() {
+        assertEquals(1050, ColumnarCatalogWriter.toCents(new BigDecimal("10.5")));
+        assertThrows(ArithmeticException.class, () -> ColumnarCatalogWriter.toCents(new BigDecimal("10.555")));
+    }
+
+    @Test
+    void fromParameter_WhenUnknown_ShouldRejectFormat() {
+        assertEquals(CatalogFormat.COLUMNAR, CatalogFormat.fromParameter(" Columnar "));
+        assertThrows(InvalidCatalogFileException.class, () -> CatalogFormat.fromParameter("xml"));
+    }
+
+    private static byte[] write(CatalogFormat format, List<CatalogRow> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogRowWriter writer = CatalogRowWriter.create(format, out);
+        for (CatalogRow row : rows) {
+            writer.write(row);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static List<CatalogRow> readAll(CatalogFormat format, byte[] data) throws IOException {
+        CatalogRowReader reader = CatalogRowReader.create(format, new ByteArrayInputStream(data));
+        List<CatalogRow> rows = new ArrayList<>();
+        for (CatalogRow row = reader.next(); row != null; row = reader.next()) {
+            rows.add(row);
+        }
+        return rows;
+    }
+}
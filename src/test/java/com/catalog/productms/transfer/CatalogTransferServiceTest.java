@@ -0,0 +1,296 @@
+package com.catalog.productms.transfer;
+
+import com.catalog.productms.cache.HotPageCache;
+import com.catalog.productms.dto.ImportResponse;
+import com.catalog.productms.repository.ProductRepository;
+import com.catalog.productms.service.MissingProductCache;
+import com.catalog.productms.service.TotalCountCache;
+import com.catalog.productms.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+// The service manages its own transactions; a surrounding test transaction would hide batch failures
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogTransferServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private MissingProductCache missingProducts;
+    private HotPageCache hotPages;
+    private TotalCountCache totalCounts;
+    private CatalogTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        // Every tenant's rows; the repository only sees the default tenant
+        jdbcTemplate.update("DELETE FROM products");
+        missingProducts = new MissingProductCache(new SimpleMeterRegistry(), true, 60000, 100);
+        hotPages = mock(HotPageCache.class);
+        totalCounts = mock(TotalCountCache.class);
+        service = service(jdbcTemplate);
+    }
+
+    @Test
+    void importCatalog_ShouldInsertValidRowsAndReportTheRest() throws IOException {
+        insert("existing", "Existing", "Already stored", "1.00");
+        String csv = """
+                id,name,description,price
+                a,Laptop,Gaming laptop,1500.00
+                ,Mouse,Wireless mouse,25.50
+                b,,No name,10.00
+                a,Laptop again,Duplicate id,1.00
+                existing,Clash,Existing id,2.00
+                c,Cable,USB-C,abc
+                d,Desk,Standing desk,0
+                """;
+
+        ImportResponse response = service.importCatalog(CatalogFormat.CSV, stream(csv));
+
+        assertEquals(2, response.getImported());
+        assertEquals(5, response.getFailed());
+        assertFalse(response.isErrorsTruncated());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), response.getErrors().stream().map(ImportResponse.RowError::getRow).toList());
+        assertEquals("Name is required", response.getErrors().get(0).getMessage());
+        assertEquals("Product with id 'a' already exists", response.getErrors().get(1).getMessage());
+        assertEquals("Price must be positive", response.getErrors().get(4).getMessage());
+
+        assertEquals(3, productRepository.count());
+        assertEquals("Laptop", productRepository.findById("a").orElseThrow().getName());
+        assertTrue(productRepository.findAll().stream().anyMatch(p -> p.getName().equals("Mouse") && p.getId() != null));
+    }
+
+    @Test
+    void importCatalog_ShouldSpanSeveralBatches() throws IOException {
+        List<CatalogRow> rows = new ArrayList<>();
+        for (int i = 0; i < CatalogTransferService.IMPORT_BATCH_SIZE * 2 + 3; i++) {
+            rows.add(new CatalogRow("id-" + i, "Product " + i, "Description " + i, BigDecimal.valueOf(i + 1, 2)));
+        }
+
+        ImportResponse response = service.importCatalog(CatalogFormat.COLUMNAR,
+                new ByteArrayInputStream(write(CatalogFormat.COLUMNAR, rows)));
+
+        assertEquals(rows.size(), response.getImported());
+        assertEquals(0, response.getFailed());
+        assertEquals(rows.size(), productRepository.count());
+    }
+
+    @Test
+    void importCatalog_WhenReimportingRowsWithoutIds_ShouldRejectTheDuplicates() throws IOException {
+        String csv = """
+                name,description,price
+                Laptop,Gaming laptop,1500.00
+                Mouse,Wireless mouse,25.50
+                Mouse,Wireless mouse,19.99
+                """;
+
+        ImportResponse first = service.importCatalog(CatalogFormat.CSV, stream(csv));
+        ImportResponse second = service.importCatalog(CatalogFormat.CSV, stream(csv));
+
+        assertEquals(2, first.getImported());
+        assertEquals(List.of(3L), first.getErrors().stream().map(ImportResponse.RowError::getRow).toList());
+        assertEquals(0, second.getImported());
+        assertEquals(3, second.getFailed());
+        assertEquals("Product with name 'Laptop' and description 'Gaming laptop' already exists",
+                second.getErrors().get(0).getMessage());
+        assertEquals(2, productRepository.count());
+        // Another tenant's catalog may hold the same products
+        assertEquals(2, TenantContext.callAs("acme", () -> {
+            try {
+                return service.importCatalog(CatalogFormat.CSV, stream(csv)).getImported();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }));
+    }
+
+    @Test
+    void importCatalog_ShouldForgetImportedIdsThatWereRecordedMissing() throws IOException {
+        missingProducts.recordMiss("a", missingProducts.generation());
+        missingProducts.recordMiss("other", missingProducts.generation());
+
+        service.importCatalog(CatalogFormat.CSV, stream("""
+                id,name,description,price
+                a,Laptop,Gaming laptop,1500.00
+                """));
+
+        assertFalse(missingProducts.isMissing("a"));
+        assertTrue(missingProducts.isMissing("other"));
+    }
+
+    @Test
+    void importCatalog_ShouldDropTheTenantsPagesAndTotalsOnlyWhenRowsWereStored() throws IOException {
+        service.importCatalog(CatalogFormat.CSV, stream("""
+                id,name,description,price
+                a,,No name,10.00
+                """));
+        verify(hotPages, never()).invalidateTenant(anyString());
+        verify(totalCounts, never()).invalidateTenant(anyString());
+
+        TenantContext.callAs("acme", () -> {
+            try {
+                return service.importCatalog(CatalogFormat.CSV, stream("""
+                        id,name,description,price
+                        a,Laptop,Gaming laptop,1500.00
+                        """));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+
+        verify(hotPages).invalidateTenant("acme");
+        verify(totalCounts).invalidateTenant("acme");
+        verifyNoMoreInteractions(hotPages, totalCounts);
+    }
+
+    @Test
+    void importCatalog_WhenABatchViolatesAConstraint_ShouldRetryItRowByRow() throws IOException {
+        JdbcTemplate failingBatches = spy(jdbcTemplate);
+        doThrow(new DataIntegrityViolationException("constraint violated"))
+                .when(failingBatches).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        ImportResponse response = service(failingBatches).importCatalog(CatalogFormat.CSV, stream("""
+                id,name,description,price
+                a,Laptop,Gaming laptop,1500.00
+                b,Mouse,Wireless mouse,25.50
+                """));
+
+        assertEquals(2, response.getImported());
+        assertEquals(0, response.getFailed());
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    void importCatalog_WhenTheDatabaseFails_ShouldFailInsteadOfReportingRows() {
+        JdbcTemplate failingBatches = spy(jdbcTemplate);
+        doThrow(new DataAccessResourceFailureException("connection lost"))
+                .when(failingBatches).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+        CatalogTransferService failing = service(failingBatches);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> failing.importCatalog(CatalogFormat.CSV, stream("""
+                id,name,description,price
+                a,Laptop,Gaming laptop,1500.00
+                """)));
+        verify(failingBatches, never()).update(anyString(), any(PreparedStatementSetter.class));
+        assertEquals(0, productRepository.count());
+    }
+
+    @Test
+    void exportCatalog_ShouldStreamRowsOrderedById() throws IOException {
+        insert("b", "Second", "Description, with comma", "20.00");
+        insert("a", "First", "Description", "10.50");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = service.exportCatalog(TenantContext.DEFAULT, CatalogFormat.CSV, out);
+
+        assertEquals(2, exported);
+        assertEquals("""
+                id,name,description,price\r
+                a,First,Description,10.50\r
+                b,Second,"Description, with comma",20.00\r
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportThenImport_ShouldRestoreTheCatalog() throws IOException {
+        insert("a", "First", "Description", "10.50");
+        insert("b", "Second", "Other", "99.99");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.exportCatalog(TenantContext.DEFAULT, CatalogFormat.COLUMNAR, out);
+        productRepository.deleteAll();
+
+        ImportResponse response = service.importCatalog(CatalogFormat.COLUMNAR, new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(2, response.getImported());
+        assertEquals(new BigDecimal("99.99"), productRepository.findById("b").orElseThrow().getPrice());
+    }
+
+    @Test
+    void exportCatalog_ShouldOnlyStreamTheGivenTenantsRows() throws IOException {
+        insert("a", "First", "Description", "10.50");
+        ImportResponse imported = TenantContext.callAs("acme", () -> {
+            try {
+                return service.importCatalog(CatalogFormat.CSV, stream("""
+                        id,name,description,price
+                        x,Acme laptop,Only for acme,1500.00
+                        """));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Nothing is bound here, as on the async thread that writes a streamed export
+        long exported = service.exportCatalog("acme", CatalogFormat.CSV, out);
+
+        assertEquals(1, imported.getImported());
+        assertEquals(1, exported);
+        assertEquals("""
+                id,name,description,price\r
+                x,Acme laptop,Only for acme,1500.00\r
+                """, out.toString(StandardCharsets.UTF_8));
+        assertEquals("acme", jdbcTemplate.queryForObject("SELECT tenant_id FROM products WHERE id = 'x'", String.class));
+    }
+
+    private CatalogTransferService service(JdbcTemplate jdbc) {
+        return new CatalogTransferService(
+                jdbc,
+                new NamedParameterJdbcTemplate(jdbc),
+                new TransactionTemplate(transactionManager),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                missingProducts,
+                hotPages,
+                totalCounts);
+    }
+
+    private void insert(String id, String name, String description, String price) {
+        jdbcTemplate.update("INSERT INTO products (id, name, description, price) VALUES (?, ?, ?, ?)",
+                id, name, description, new BigDecimal(price));
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static byte[] write(CatalogFormat format, List<CatalogRow> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogRowWriter writer = CatalogRowWriter.create(format, out);
+        for (CatalogRow row : rows) {
+            writer.write(row);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+}